@@ -0,0 +1,27 @@
+package com.band.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class L2CacheConfig {
+
+  @Bean
+  public LocalRegionFactory localRegionFactory(MeterRegistry meterRegistry,
+                                               @Value("${app.cache.max-entries-per-region:10000}") int maxEntries,
+                                               @Value("${app.cache.ttl:1h}") Duration ttl) {
+    return new LocalRegionFactory(meterRegistry, maxEntries, ttl);
+  }
+
+  // Regions are switched on by spring.jpa.properties.hibernate.cache.*; this only supplies the provider
+  @Bean
+  public HibernatePropertiesCustomizer regionFactoryCustomizer(LocalRegionFactory regionFactory) {
+    return properties -> properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+  }
+}
@@ -0,0 +1,40 @@
+package com.band.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/l2cache}: size, hits, misses and hit ratio per
+ * second-level cache region since startup. The same figures are published as
+ * {@code band.cache.*} metrics. Only exposed over HTTP where
+ * {@code management.endpoints.web.exposure.include} lists it.
+ */
+@Component
+@Endpoint(id = "l2cache")
+public class L2CacheEndpoint {
+
+  private final LocalRegionFactory regionFactory;
+
+  public L2CacheEndpoint(LocalRegionFactory regionFactory) {
+    this.regionFactory = regionFactory;
+  }
+
+  public record RegionStats(int size, double hits, double misses, double hitRatio) {
+  }
+
+  @ReadOperation
+  public Map<String, RegionStats> regions() {
+    Map<String, RegionStats> regions = new TreeMap<>();
+    for (RegionStorage region : regionFactory.getRegions()) {
+      double hits = region.hitCount();
+      double misses = region.missCount();
+      regions.put(region.getName(), new RegionStats(region.size(), hits, misses,
+          hits + misses > 0 ? hits / (hits + misses) : 0));
+    }
+    return regions;
+  }
+}
@@ -0,0 +1,81 @@
+package com.band.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process second-level cache provider: every region is a bounded
+ * {@link RegionStorage} on the heap of this node.
+ *
+ * <p>Entity and query-result regions hold at most {@code maxEntries} entries
+ * for at most {@code ttl}, the ttl bounding how stale a node can get if it
+ * misses an invalidation from another node. The update-timestamps region is
+ * never evicted, since a missing timestamp would make stale query results look
+ * current. Hibernate instantiates nothing here; the Spring-built instance is
+ * handed over through the JPA properties.
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+  // SimpleTimestamper.timeOut(), which getTimeout() returns in timestamper units
+  private static final Duration SOFT_LOCK_TIMEOUT = Duration.ofMinutes(1);
+
+  private final MeterRegistry meterRegistry;
+  private final int maxEntries;
+  private final Duration ttl;
+  private final Map<String, RegionStorage> regions = new ConcurrentHashMap<>();
+
+  public LocalRegionFactory(MeterRegistry meterRegistry, int maxEntries, Duration ttl) {
+    // Soft locks expire at the ttl too, which must not come before Hibernate gives up on them
+    if (ttl != null && !ttl.isZero() && ttl.compareTo(SOFT_LOCK_TIMEOUT) < 0) {
+      throw new IllegalStateException("app.cache.ttl must be at least the soft-lock timeout of " + SOFT_LOCK_TIMEOUT);
+    }
+    this.meterRegistry = meterRegistry;
+    this.maxEntries = maxEntries;
+    this.ttl = ttl;
+  }
+
+  public Collection<RegionStorage> getRegions() {
+    return regions.values();
+  }
+
+  @Override
+  protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                  DomainDataRegionBuildingContext buildingContext) {
+    return region(regionConfig.getRegionName(), maxEntries, ttl);
+  }
+
+  @Override
+  protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+    return region(regionName, maxEntries, ttl);
+  }
+
+  @Override
+  protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+    return region(regionName, Integer.MAX_VALUE, null);
+  }
+
+  @Override
+  protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+  }
+
+  @Override
+  protected void releaseFromUse() {
+    regions.values().forEach(RegionStorage::release);
+    regions.clear();
+  }
+
+  private RegionStorage region(String name, int max, Duration regionTtl) {
+    return regions.computeIfAbsent(name, key -> new RegionStorage(key, max, regionTtl, meterRegistry));
+  }
+}
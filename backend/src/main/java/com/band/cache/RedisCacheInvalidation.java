@@ -0,0 +1,127 @@
+package com.band.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the second-level caches of several nodes coherent. After a
+ * transaction commits a change to a cached entity, the entity name and id are
+ * published on a Redis channel; every other node evicts that entry and its
+ * cached query results, and reads the row again on next use. Inserts only
+ * evict query results, since no node can hold the new row yet.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation", havingValue = "redis")
+@Slf4j
+public class RedisCacheInvalidation implements MessageListener,
+    PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+  private static final String CHANNEL = "band:cache:invalidate";
+
+  private final StringRedisTemplate redis;
+  private final SessionFactoryImplementor sessionFactory;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Counter published;
+  private final Counter received;
+  private final Counter failures;
+
+  public RedisCacheInvalidation(StringRedisTemplate redis,
+                                RedisMessageListenerContainer listenerContainer,
+                                EntityManagerFactory entityManagerFactory,
+                                MeterRegistry meterRegistry) {
+    this.redis = redis;
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    this.published = Counter.builder("band.cache.invalidations").tag("direction", "published").register(meterRegistry);
+    this.received = Counter.builder("band.cache.invalidations").tag("direction", "received").register(meterRegistry);
+    this.failures = Counter.builder("band.cache.invalidations.failures").register(meterRegistry);
+
+    EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+    listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return persister.canWriteToCache();
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    publish(event.getPersister().getEntityName(), null);
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    publish(event.getPersister().getEntityName(), event.getId());
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    publish(event.getPersister().getEntityName(), event.getId());
+  }
+
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {
+  }
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+  }
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+    if (parts.length != 3 || nodeId.equals(parts[0])) {
+      return;
+    }
+    received.increment();
+    try {
+      if (!parts[2].isEmpty()) {
+        sessionFactory.getCache().evictEntityData(parts[1], UUID.fromString(parts[2]));
+      }
+    } catch (IllegalArgumentException e) {
+      sessionFactory.getCache().evictEntityData(parts[1]);
+    }
+    sessionFactory.getCache().evictDefaultQueryRegion();
+  }
+
+  // Message is origin|entity|id, id empty for inserts
+  private void publish(String entityName, Object id) {
+    try {
+      redis.convertAndSend(CHANNEL, nodeId + "|" + entityName + "|" + (id != null ? id : ""));
+      published.increment();
+    } catch (Exception e) {
+      // Other nodes catch up when their copy reaches app.cache.ttl
+      failures.increment();
+      log.warn("Failed to publish cache invalidation for {} {}: {}", entityName, id, e.getMessage());
+    }
+  }
+}
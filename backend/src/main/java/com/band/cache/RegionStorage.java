@@ -0,0 +1,134 @@
+package com.band.cache;
+
+import com.band.db.ReplicaReads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One cache region. Concurrency control (soft locks, versions) is done by
+ * Hibernate's access strategies on top; this only stores what they put.
+ *
+ * <p>When full, expired entries are purged and then a tenth of the rest is
+ * shed, which only costs those rows one more database read. Soft locks held by
+ * READ_WRITE transactions are never shed: dropping one would let a load that
+ * raced the update cache the old row. Hibernate replaces them on commit; like
+ * any entry they only go at the ttl, long after Hibernate's own lock timeout
+ * (60s). If only locks are left, new keys are not cached until room frees up.
+ *
+ * <p>Nothing read in a transaction routed to a read replica is stored: only
+ * loads from the primary are cached.
+ */
+public class RegionStorage implements DomainDataStorageAccess {
+
+  private final String name;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter puts;
+
+  RegionStorage(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+    this.name = name;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl != null ? ttl.toNanos() : 0;
+    this.hits = Counter.builder("band.cache.gets").tag("region", name).tag("result", "hit")
+        .description("Second-level cache lookups").register(meterRegistry);
+    this.misses = Counter.builder("band.cache.gets").tag("region", name).tag("result", "miss")
+        .description("Second-level cache lookups").register(meterRegistry);
+    this.puts = Counter.builder("band.cache.puts").tag("region", name).register(meterRegistry);
+    Gauge.builder("band.cache.size", entries, Map::size).tag("region", name).register(meterRegistry);
+  }
+
+  public String getName() { return name; }
+  public int size() { return entries.size(); }
+  public double hitCount() { return hits.count(); }
+  public double missCount() { return misses.count(); }
+
+  @Override
+  public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (entry.expired(System.nanoTime())) {
+      entries.remove(key, entry);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.value();
+  }
+
+  @Override
+  public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+    boolean lock = isLock(value);
+    // Rows from a replica may be behind the primary; cached, they would outlive the lag limit by the ttl
+    if (!lock && ReplicaReads.active()) {
+      return;
+    }
+    if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+      makeRoom();
+      if (entries.size() >= maxEntries && !lock) {
+        return;
+      }
+    }
+    entries.put(key, new Entry(value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0));
+    puts.increment();
+  }
+
+  @Override
+  public boolean contains(Object key) {
+    Entry entry = entries.get(key);
+    return entry != null && !entry.expired(System.nanoTime());
+  }
+
+  @Override
+  public void evictData() {
+    entries.clear();
+  }
+
+  @Override
+  public void evictData(Object key) {
+    entries.remove(key);
+  }
+
+  @Override
+  public void release() {
+    entries.clear();
+  }
+
+  private void makeRoom() {
+    long now = System.nanoTime();
+    entries.values().removeIf(entry -> entry.expired(now));
+    Iterator<Entry> values = entries.values().iterator();
+    int excess = entries.size() - maxEntries * 9 / 10;
+    while (excess > 0 && values.hasNext()) {
+      if (!isLock(values.next().value())) {
+        values.remove();
+        excess--;
+      }
+    }
+  }
+
+  private static boolean isLock(Object value) {
+    return value instanceof AbstractReadWriteAccess.SoftLockImpl;
+  }
+
+  // expiresAtNanos 0 means never
+  private record Entry(Object value, long expiresAtNanos) {
+    boolean expired(long now) {
+      return expiresAtNanos != 0 && now - expiresAtNanos >= 0;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.band.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+// Shared by the broadcast relay, token revocation and cache invalidation, whichever of them runs on Redis
+@Configuration
+@ConditionalOnExpression("'${app.websocket.relay:local}' == 'redis' or '${app.jwt.revocation.store:local}' == 'redis'"
+    + " or '${app.cache.invalidation:local}' == 'redis'")
+public class RedisListenerConfig {
+
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    return container;
+  }
+}
@@ -0,0 +1,20 @@
+package com.band.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Streamed exports (StreamingResponseBody) run on MVC's async executor. Boot only builds the pooled
+// applicationTaskExecutor when no other Executor bean exists, and the STOMP channel executors are such beans, so
+// MVC fell back to a new unbounded thread per export: nothing capped how many held a cursor and a connection at
+// once. This is the executor Boot would have built, with spring.task.execution.* and the TaskDecorator applied
+@Configuration
+public class TaskExecutionConfig {
+
+  @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+    return builder.build();
+  }
+}
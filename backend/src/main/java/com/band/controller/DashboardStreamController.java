@@ -0,0 +1,70 @@
+package com.band.controller;
+
+import com.band.websocket.DashboardStreams;
+import com.band.websocket.DashboardStreams.DashboardRole;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Dashboard Streams", description = "Read-only Server-Sent Events feeds for display-only dashboards")
+public class DashboardStreamController {
+
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    private final DashboardStreams dashboardStreams;
+
+    @GetMapping(value = "/dashboard/{role}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard events", description = "Server-Sent Events feed of a role's dashboard updates, resumable with Last-Event-ID")
+    public ResponseEntity<SseEmitter> streamDashboard(
+            @PathVariable String role,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            Authentication authentication) {
+
+        // A client reopening the stream with a new token cannot set Last-Event-ID itself
+        if (lastEventId == null) {
+            lastEventId = lastEventIdParam;
+        }
+
+        DashboardRole dashboardRole;
+        Long resumeFrom;
+        try {
+            dashboardRole = DashboardRole.fromPath(role);
+            resumeFrom = lastEventId != null && !lastEventId.isBlank() ? Long.valueOf(lastEventId.trim()) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean allowed = authentication != null && authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .anyMatch(authority -> authority.startsWith("ROLE_") && dashboardRole.isAllowed(authority.substring(5)));
+        if (!allowed) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        SseEmitter emitter = dashboardStreams.open(dashboardRole, resumeFrom);
+        if (emitter == null) {
+            log.warn("Refusing {} dashboard stream: stream limit reached", dashboardRole);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+        }
+        return ResponseEntity.ok()
+            // Keep reverse proxies from buffering the stream
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+}
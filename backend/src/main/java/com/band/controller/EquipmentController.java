@@ -4,7 +4,10 @@ import com.band.domain.Equipment;
 import com.band.domain.Equipment.EquipmentCategory;
 import com.band.domain.Equipment.EquipmentStatus;
 import com.band.domain.Equipment.EquipmentCondition;
+import com.band.index.EquipmentBitmapIndex;
+import com.band.repo.EquipmentFilter;
 import com.band.service.EquipmentService;
+import com.band.web.dto.EquipmentQueryDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -30,6 +35,7 @@ import java.util.UUID;
 public class EquipmentController {
   
   private final EquipmentService equipmentService;
+  private final EquipmentBitmapIndex equipmentIndex;
   
   @GetMapping
   @Operation(summary = "Get all equipment with pagination", description = "Retrieve all equipment with pagination support")
@@ -67,8 +73,12 @@ public class EquipmentController {
   @Operation(summary = "Create new equipment", description = "Add a new equipment item to the inventory")
   @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER')")
   public ResponseEntity<Equipment> createEquipment(@Valid @RequestBody Equipment equipment) {
-    Equipment savedEquipment = equipmentService.saveEquipment(equipment);
-    return ResponseEntity.ok(savedEquipment);
+    try {
+      Equipment savedEquipment = equipmentService.saveEquipment(equipment);
+      return ResponseEntity.ok(savedEquipment);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
   }
   
   @PutMapping("/{id}")
@@ -82,8 +92,12 @@ public class EquipmentController {
     }
     
     equipment.setId(id);
-    Equipment updatedEquipment = equipmentService.saveEquipment(equipment);
-    return ResponseEntity.ok(updatedEquipment);
+    try {
+      Equipment updatedEquipment = equipmentService.saveEquipment(equipment);
+      return ResponseEntity.ok(updatedEquipment);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
   }
   
   @DeleteMapping("/{id}")
@@ -183,6 +197,47 @@ public class EquipmentController {
     return ResponseEntity.ok(equipment);
   }
   
+  @PostMapping("/query")
+  @Operation(summary = "Query equipment with facets", description = "Filter by category, status, condition, location and search term, returning a page plus facet counts")
+  @PreAuthorize("hasAnyRole('STUDENT', 'BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<EquipmentQueryDto.Response> queryEquipment(
+      @RequestBody EquipmentQueryDto.Request request) {
+    
+    return ResponseEntity.ok(equipmentService.queryEquipment(request));
+  }
+
+  @GetMapping("/index/count")
+  @Operation(summary = "Count equipment from the in-memory index", description = "Count active equipment matching any combination of status, category, condition, location and assignment without querying the database")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<Map<String, Long>> countIndexedEquipment(
+      @RequestParam(required = false) Set<EquipmentStatus> status,
+      @RequestParam(required = false) Set<EquipmentCategory> category,
+      @RequestParam(required = false) Set<EquipmentCondition> condition,
+      @RequestParam(required = false) Set<String> location,
+      @RequestParam(required = false) Boolean assigned) {
+
+    if (!equipmentIndex.isReady()) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    EquipmentFilter filter = new EquipmentFilter(category, status, condition, location, null);
+    return ResponseEntity.ok(Map.of("count", equipmentIndex.count(filter, assigned)));
+  }
+
+  @GetMapping("/index/verify")
+  @Operation(summary = "Verify the in-memory index", description = "Compare the equipment bitmap index with the database and report any differences")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER')")
+  public ResponseEntity<EquipmentBitmapIndex.VerificationReport> verifyEquipmentIndex() {
+    return ResponseEntity.ok(equipmentIndex.verify());
+  }
+
+  @PostMapping("/index/rebuild")
+  @Operation(summary = "Rebuild the in-memory index", description = "Reload the equipment bitmap index from the database, then verify it")
+  @PreAuthorize("hasRole('BAND_DIRECTOR')")
+  public ResponseEntity<EquipmentBitmapIndex.VerificationReport> rebuildEquipmentIndex() {
+    equipmentIndex.rebuild();
+    return ResponseEntity.ok(equipmentIndex.verify());
+  }
+
   @GetMapping("/category/{category}")
   @Operation(summary = "Get equipment by category", description = "Retrieve equipment filtered by category")
   @PreAuthorize("hasAnyRole('STUDENT', 'BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
@@ -0,0 +1,67 @@
+package com.band.controller;
+
+import com.band.service.ExportService;
+import com.band.service.ExportService.ExportDataset;
+import com.band.service.ExportService.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Data Export", description = "APIs for streaming full audit exports")
+public class ExportController {
+
+  private static final int GZIP_BUFFER_SIZE = 8192;
+
+  private final ExportService exportService;
+
+  @GetMapping("/{dataset}")
+  @Operation(summary = "Stream a full export", description = "Stream equipment, assignments or maintenance as CSV or NDJSON, optionally gzipped")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<StreamingResponseBody> export(
+      @PathVariable String dataset,
+      @RequestParam(defaultValue = "csv") String format,
+      @RequestParam(defaultValue = "false") boolean gzip) {
+
+    ExportDataset exportDataset;
+    ExportFormat exportFormat;
+    try {
+      exportDataset = ExportDataset.valueOf(dataset.toUpperCase());
+      exportFormat = ExportFormat.valueOf(format.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    String filename = String.format("%s-%s.%s%s",
+        dataset.toLowerCase(), LocalDate.now(), exportFormat.getExtension(), gzip ? ".gz" : "");
+
+    StreamingResponseBody body = out -> {
+      if (gzip) {
+        GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true);
+        exportService.export(exportDataset, exportFormat, gzipOut);
+        gzipOut.finish();
+      } else {
+        exportService.export(exportDataset, exportFormat, out);
+      }
+    };
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+        .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+        .body(body);
+  }
+}
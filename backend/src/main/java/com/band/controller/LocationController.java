@@ -0,0 +1,105 @@
+package com.band.controller;
+
+import com.band.domain.Equipment;
+import com.band.domain.Equipment.EquipmentStatus;
+import com.band.service.LocationService;
+import com.band.web.dto.LocationDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Locations", description = "APIs for the building > room > cabinet > shelf location tree")
+public class LocationController {
+
+  private final LocationService locationService;
+
+  @GetMapping
+  @Operation(summary = "Get top-level locations", description = "Retrieve locations without a parent")
+  @PreAuthorize("hasAnyRole('STUDENT', 'BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<List<LocationDto.Node>> getRootLocations() {
+    return ResponseEntity.ok(locationService.findRoots());
+  }
+
+  @GetMapping("/{id}/children")
+  @Operation(summary = "Get child locations", description = "Retrieve the direct children of a location")
+  @PreAuthorize("hasAnyRole('STUDENT', 'BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<List<LocationDto.Node>> getChildLocations(@PathVariable UUID id) {
+    return ResponseEntity.ok(locationService.findChildren(id));
+  }
+
+  @PostMapping
+  @Operation(summary = "Create location", description = "Add a building, room, cabinet or shelf")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER')")
+  public ResponseEntity<LocationDto.Node> createLocation(@RequestBody LocationDto.CreateRequest request) {
+    try {
+      return ResponseEntity.ok(locationService.createLocation(
+          request.getParentId(), request.getName(), request.getLocationType()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  @PutMapping("/{id}/parent")
+  @Operation(summary = "Move location", description = "Move a location and its whole subtree under a new parent")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER')")
+  public ResponseEntity<LocationDto.Node> moveLocation(
+      @PathVariable UUID id, @RequestBody LocationDto.MoveRequest request) {
+    try {
+      return ResponseEntity.ok(locationService.moveLocation(id, request.getParentId()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  @GetMapping("/{id}/summary")
+  @Operation(summary = "Get subtree summary", description = "Per-status equipment counts and descendants for a location, including all nested locations")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<LocationDto.SubtreeSummary> getSubtreeSummary(@PathVariable UUID id) {
+    try {
+      return ResponseEntity.ok(locationService.getSubtreeSummary(id));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  @GetMapping("/{id}/counts")
+  @Operation(summary = "Get subtree status counts", description = "Active equipment per status in a location and everything beneath it")
+  @PreAuthorize("hasAnyRole('STUDENT', 'BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<Map<EquipmentStatus, Long>> getSubtreeStatusCounts(@PathVariable UUID id) {
+    return ResponseEntity.ok(locationService.getSubtreeStatusCounts(id));
+  }
+
+  @GetMapping("/{id}/equipment")
+  @Operation(summary = "Get equipment in subtree", description = "Retrieve active equipment stored in a location or any location beneath it")
+  @PreAuthorize("hasAnyRole('STUDENT', 'BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<List<Equipment>> getEquipmentInSubtree(@PathVariable UUID id) {
+    try {
+      return ResponseEntity.ok(locationService.findEquipmentInSubtree(id));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  @PutMapping("/{id}/equipment/{equipmentId}")
+  @Operation(summary = "Place equipment", description = "Store an equipment item in a location")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER')")
+  public ResponseEntity<Equipment> placeEquipment(@PathVariable UUID id, @PathVariable UUID equipmentId) {
+    try {
+      return ResponseEntity.ok(locationService.placeEquipment(equipmentId, id));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
+}
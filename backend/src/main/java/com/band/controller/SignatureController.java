@@ -0,0 +1,110 @@
+package com.band.controller;
+
+import com.band.service.SignatureService;
+import com.band.storage.SignatureImage;
+import com.band.storage.SignatureStore.StoredImage;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/signatures")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Signatures", description = "APIs for reading stored signature images")
+public class SignatureController {
+
+  // Content-addressed: the bytes behind a key never change
+  private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+  // Submitted content: an SVG opened directly runs no script and reaches no origin
+  private static final String CONTENT_SECURITY_POLICY = "sandbox";
+
+  private final SignatureService signatureService;
+
+  @GetMapping("/{id}/image")
+  @Operation(summary = "Get a signature image", description = "Stream the image of a digital signature from object storage")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<StreamingResponseBody> getSignatureImage(
+      @PathVariable UUID id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+
+    return image(signatureService.signatureKey(id), ifNoneMatch);
+  }
+
+  @GetMapping("/assignments/{assignmentId}/{kind}")
+  @Operation(summary = "Get an assignment signature image", description = "Stream the checkout or return signature of an assignment")
+  @PreAuthorize("hasAnyRole('BAND_DIRECTOR', 'EQUIPMENT_MANAGER', 'SUPERVISOR')")
+  public ResponseEntity<StreamingResponseBody> getAssignmentSignatureImage(
+      @PathVariable UUID assignmentId,
+      @PathVariable String kind,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+
+    if (!kind.equals("checkout") && !kind.equals("return")) {
+      return ResponseEntity.badRequest().build();
+    }
+    return image(signatureService.assignmentSignatureKey(assignmentId, kind.equals("checkout")), ifNoneMatch);
+  }
+
+  private ResponseEntity<StreamingResponseBody> image(Optional<String> key, String ifNoneMatch) throws IOException {
+    if (key.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    String etag = "\"" + key.get() + "\"";
+    if (etag.equals(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+          .build();
+    }
+    StoredImage image;
+    try {
+      image = signatureService.open(key.get());
+    } catch (FileNotFoundException e) {
+      log.warn("Signature image {} is referenced but not stored", key.get());
+      return ResponseEntity.notFound().build();
+    }
+
+    // Copied straight from the store to the response, never held in memory whole
+    StreamingResponseBody body = out -> {
+      try (InputStream in = image.content()) {
+        in.transferTo(out);
+      }
+    };
+    // Re-checked here for objects stored before types were restricted
+    String contentType = SignatureImage.servable(image.contentType());
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(contentType))
+        .eTag(etag)
+        .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+        .header("Content-Security-Policy", CONTENT_SECURITY_POLICY)
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.inline().filename(key.get() + extensionOf(contentType)).build().toString());
+    if (image.length() >= 0) {
+      response.contentLength(image.length());
+    }
+    return response.body(body);
+  }
+
+  private static String extensionOf(String contentType) {
+    return switch (contentType) {
+      case SignatureImage.PNG -> ".png";
+      case SignatureImage.SVG -> ".svg";
+      default -> ".bin";
+    };
+  }
+}
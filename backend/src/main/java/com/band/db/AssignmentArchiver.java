@@ -0,0 +1,167 @@
+package com.band.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the yearly partitions of {@code equipment_assignments} (see
+ * migration V7): creates next year's partition ahead of time and moves years
+ * older than {@code after-years} whose assignments are all closed into
+ * compressed cold partitions.
+ *
+ * <p>{@link #hotFrom()} is the start of the oldest hot partition, less a day.
+ * No open assignment is older, so queries for open assignments bound their
+ * checkout date by it and PostgreSQL skips all but the last day of the cold
+ * partitions.
+ *
+ * <p>Every node schedules the maintenance, but a run only does it while holding
+ * a PostgreSQL advisory lock, so two nodes never create or archive the same
+ * partition at once; a node that does not get the lock only refreshes
+ * {@link #hotFrom()}.
+ */
+@Component
+@Slf4j
+public class AssignmentArchiver {
+
+  // checkout_date has no time zone, but the bound is an Instant and the two are
+  // compared in the session's zone; the partition start read as UTC is at most
+  // 14h (UTC+14) after the same start in any zone
+  private static final Duration ZONE_SLACK = Duration.ofDays(1);
+
+  private static final String HOT_PARTITION_YEARS =
+      "SELECT substring(c.relname FROM '^equipment_assignments_(\\d{4})$')::INT FROM pg_inherits i "
+          + "JOIN pg_class c ON c.oid = i.inhrelid "
+          + "WHERE i.inhparent = 'equipment_assignments'::regclass AND c.relname ~ '^equipment_assignments_\\d{4}$' "
+          + "ORDER BY 1";
+
+  // Years of the assignments waiting in the catch-all partition (migration V11)
+  private static final String DEFAULT_PARTITION_YEARS =
+      "SELECT DISTINCT extract(YEAR FROM checkout_date)::INT FROM equipment_assignments_default ORDER BY 1";
+
+  // Session lock keyed by the table's oid, held by one node's run at a time
+  private static final String TRY_LOCK = "SELECT pg_try_advisory_lock('equipment_assignments'::regclass::oid::BIGINT)";
+  private static final String UNLOCK = "SELECT pg_advisory_unlock('equipment_assignments'::regclass::oid::BIGINT)";
+
+  private final JdbcTemplate jdbc;
+  private final boolean enabled;
+  private final int afterYears;
+  private final String tablespace;
+  private final Counter archived;
+  private final Counter skipped;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("assignment-archiver").daemon().factory());
+  // Until the first run has read the partitions nothing is known to be cold
+  private volatile Instant hotFrom = Instant.EPOCH;
+
+  public AssignmentArchiver(JdbcTemplate jdbc,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.assignments.archive.enabled:true}") boolean enabled,
+                            @Value("${app.assignments.archive.after-years:3}") int afterYears,
+                            @Value("${app.assignments.archive.tablespace:}") String tablespace,
+                            @Value("${app.assignments.archive.interval:6h}") Duration interval) {
+    if (afterYears < 1) {
+      throw new IllegalArgumentException("app.assignments.archive.after-years must be at least 1");
+    }
+    this.jdbc = jdbc;
+    this.enabled = enabled;
+    this.afterYears = afterYears;
+    this.tablespace = tablespace.trim();
+    this.archived = Counter.builder("band.assignments.archive").tag("result", "archived")
+        .description("Yearly assignment partitions moved to cold storage").register(meterRegistry);
+    this.skipped = Counter.builder("band.assignments.archive").tag("result", "open-assignments")
+        .description("Yearly assignment partitions moved to cold storage").register(meterRegistry);
+    Gauge.builder("band.assignments.hot.from", () -> hotFrom.getEpochSecond())
+        .description("Start of the oldest hot assignment partition")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    scheduler.scheduleWithFixedDelay(this::runSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** Lower bound on the checkout date of every open assignment. */
+  public Instant hotFrom() {
+    return hotFrom;
+  }
+
+  private void runSafely() {
+    try {
+      run();
+    } catch (Exception e) {
+      log.warn("Assignment partition maintenance failed: {}", e.getMessage());
+    }
+  }
+
+  void run() {
+    // The lock belongs to the connection, so the maintenance runs on the one that took it
+    Boolean maintained = jdbc.execute((ConnectionCallback<Boolean>) connection -> {
+      JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+      if (!Boolean.TRUE.equals(session.queryForObject(TRY_LOCK, Boolean.class))) {
+        return false;
+      }
+      try {
+        maintain(session);
+      } finally {
+        session.queryForObject(UNLOCK, Boolean.class);
+      }
+      return true;
+    });
+    if (!Boolean.TRUE.equals(maintained)) {
+      log.debug("Assignment partition maintenance is running on another node");
+    }
+
+    LocalDateTime from = jdbc.queryForObject("SELECT assignment_hot_from()", LocalDateTime.class);
+    if (from != null) {
+      hotFrom = from.minus(ZONE_SLACK).toInstant(ZoneOffset.UTC);
+    }
+  }
+
+  private void maintain(JdbcTemplate session) {
+    int thisYear = Year.now().getValue();
+    session.execute("SELECT ensure_assignment_partition(" + thisYear + ")");
+    session.execute("SELECT ensure_assignment_partition(" + (thisYear + 1) + ")");
+    for (int year : session.queryForList(DEFAULT_PARTITION_YEARS, Integer.class)) {
+      session.execute("SELECT ensure_assignment_partition(" + year + ")");
+      log.info("Moved assignments from {} out of the default partition", year);
+    }
+
+    if (enabled) {
+      List<Integer> hotYears = session.queryForList(HOT_PARTITION_YEARS, Integer.class);
+      for (int year : hotYears) {
+        if (year >= thisYear - afterYears) {
+          break;
+        }
+        Boolean moved = session.queryForObject("SELECT archive_assignment_partition(?, ?)", Boolean.class,
+            year, tablespace);
+        if (Boolean.TRUE.equals(moved)) {
+          archived.increment();
+          log.info("Moved {} assignments to a cold partition", year);
+        } else {
+          skipped.increment();
+          log.info("Assignments from {} stay hot: some are still open", year);
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    scheduler.shutdownNow();
+  }
+}
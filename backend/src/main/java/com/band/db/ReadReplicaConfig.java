@@ -0,0 +1,90 @@
+package com.band.db;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing them in {@code app.datasource.replicas.urls}.
+ * The primary keeps its {@code spring.datasource} settings; replicas share its
+ * credentials and get their own, read-only pools. Without replicas Spring
+ * Boot's single data source is left as it is.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("primary");
+    return primary;
+  }
+
+  /** The replica pools, kept together so they are not mistaken for more primaries. */
+  static final class ReplicaPools implements AutoCloseable {
+    private final List<DataSource> pools = new ArrayList<>();
+
+    List<DataSource> get() { return pools; }
+
+    @Override
+    public void close() {
+      pools.forEach(pool -> ((HikariDataSource) pool).close());
+    }
+  }
+
+  @Bean
+  ReplicaPools replicaPools(DataSourceProperties properties,
+                            @Value("${app.datasource.replicas.urls}") String urls,
+                            @Value("${app.datasource.replicas.pool-size:10}") int poolSize) {
+    ReplicaPools replicas = new ReplicaPools();
+    for (String url : Arrays.stream(urls.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList()) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setJdbcUrl(url);
+      replica.setUsername(properties.determineUsername());
+      replica.setPassword(properties.determinePassword());
+      replica.setReadOnly(true);
+      replica.setMaximumPoolSize(poolSize);
+      replica.setPoolName("replica-" + replicas.get().size());
+      // Start even if a replica is down; the lag monitor keeps reads off it until it answers
+      replica.setInitializationFailTimeout(-1);
+      replicas.get().add(replica);
+    }
+    return replicas;
+  }
+
+  @Bean(destroyMethod = "close")
+  ReplicaLagMonitor replicaLagMonitor(ReplicaPools replicaPools,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.datasource.replicas.max-lag:5s}") Duration maxLag,
+                                      @Value("${app.datasource.replicas.lag-check-interval:2s}") Duration interval) {
+    return new ReplicaLagMonitor(replicaPools.get(), maxLag, interval, meterRegistry);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource,
+                               ReplicaPools replicaPools,
+                               ReplicaLagMonitor replicaLagMonitor,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.datasource.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource,
+        replicaPools.get(), replicaLagMonitor, readYourWritesWindow, meterRegistry);
+    routing.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
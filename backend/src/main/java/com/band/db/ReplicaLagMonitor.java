@@ -0,0 +1,100 @@
+package com.band.db;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures each replica's replay lag in the background, so routing a read
+ * never waits on a probe. A replica is usable while its last probe succeeded
+ * and showed no more than {@code maxLag} of lag. A replica whose WAL stream
+ * is down counts as unreachable, since how far behind it is cannot be told.
+ */
+@Slf4j
+class ReplicaLagMonitor implements AutoCloseable {
+
+  // An idle primary writes nothing, so a replica that has replayed all it received is current; but only
+  // while its WAL receiver is streaming, else it has received nothing new and the lag is unknown (NULL).
+  // Roles without pg_read_all_stats see a NULL status, so for them a running receiver has to do
+  private static final String LAG_QUERY =
+      "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+          + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming') THEN NULL "
+          + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+          + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+  private static final long UNREACHABLE = Long.MAX_VALUE;
+
+  private final List<DataSource> replicas;
+  private final long maxLagMillis;
+  private final AtomicLongArray lagMillis;
+  private final ScheduledExecutorService probes = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("replica-lag").daemon().factory());
+
+  ReplicaLagMonitor(List<DataSource> replicas, Duration maxLag, Duration interval, MeterRegistry meterRegistry) {
+    this.replicas = replicas;
+    this.maxLagMillis = maxLag.toMillis();
+    this.lagMillis = new AtomicLongArray(replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      lagMillis.set(i, UNREACHABLE);
+      int index = i;
+      Gauge.builder("band.db.replica.lag", () -> {
+            long lag = lagMillis.get(index);
+            return lag == UNREACHABLE ? Double.NaN : lag / 1000.0;
+          })
+          .tag("replica", Integer.toString(i))
+          .baseUnit("seconds")
+          .description("Replay lag of a read replica at its last probe")
+          .register(meterRegistry);
+    }
+    probes.scheduleWithFixedDelay(this::probeAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  boolean isUsable(int replica) {
+    return lagMillis.get(replica) <= maxLagMillis;
+  }
+
+  private void probeAll() {
+    for (int i = 0; i < replicas.size(); i++) {
+      long previous = lagMillis.get(i);
+      long lag = probe(replicas.get(i));
+      lagMillis.set(i, lag);
+      if ((previous <= maxLagMillis) != (lag <= maxLagMillis)) {
+        log.warn("Read replica {} is now {} (lag {})", i, lag <= maxLagMillis ? "in use" : "bypassed",
+            lag == UNREACHABLE ? "unknown" : lag + "ms");
+      }
+    }
+  }
+
+  private long probe(DataSource replica) {
+    try (Connection connection = replica.getConnection();
+         Statement statement = connection.createStatement()) {
+      statement.setQueryTimeout(2);
+      try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+        if (!rs.next()) {
+          return UNREACHABLE;
+        }
+        double lag = rs.getDouble(1);
+        return rs.wasNull() ? UNREACHABLE : Math.max(0, (long) lag);
+      }
+    } catch (Exception e) {
+      log.debug("Replica lag probe failed: {}", e.getMessage());
+      return UNREACHABLE;
+    }
+  }
+
+  @Override
+  public void close() {
+    probes.shutdownNow();
+  }
+}
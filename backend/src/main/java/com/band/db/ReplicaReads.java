@@ -0,0 +1,35 @@
+package com.band.db;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks the transactions {@link ReplicaRoutingDataSource} sent to a replica.
+ * What they read may be up to {@code max-lag} behind the primary, so the
+ * second-level cache does not keep it (see {@code RegionStorage}).
+ */
+public final class ReplicaReads {
+
+  private static final Object KEY = ReplicaReads.class;
+
+  private ReplicaReads() {
+  }
+
+  /** Whether the current transaction reads from a replica. */
+  public static boolean active() {
+    return TransactionSynchronizationManager.hasResource(KEY);
+  }
+
+  static void mark() {
+    if (active() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.bindResource(KEY, Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(KEY);
+      }
+    });
+  }
+}
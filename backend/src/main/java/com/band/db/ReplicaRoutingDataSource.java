@@ -0,0 +1,142 @@
+package com.band.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the
+ * primary. Must sit behind a lazy connection proxy, so the key is chosen at
+ * the first statement, once the transaction's read-only flag is known.
+ *
+ * <p>Reads still go to the primary when every replica lags beyond the
+ * configured limit, and for {@code readYourWritesWindow} after the current
+ * user committed a write, so they see their own change. Those pins are kept in
+ * this node's memory: a user whose next request lands on another node can read
+ * from a replica straight after their write, so deployments with several nodes
+ * need sticky sessions for the guarantee to hold.
+ *
+ * <p>Transactions sent to a replica are marked with {@link ReplicaReads}, so
+ * their loads stay out of the second-level cache.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  static final String PRIMARY = "primary";
+  private static final String REPLICA = "replica-";
+
+  private final int replicaCount;
+  private final ReplicaLagMonitor lagMonitor;
+  private final long readYourWritesNanos;
+  private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+  private final AtomicInteger next = new AtomicInteger();
+
+  private final Counter toReplica;
+  private final Counter lagFallback;
+  private final Counter pinned;
+  private final Counter writes;
+  private final Counter unmanaged;
+
+  ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaLagMonitor lagMonitor,
+                           Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(REPLICA + i, replicas.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    this.replicaCount = replicas.size();
+    this.lagMonitor = lagMonitor;
+    this.readYourWritesNanos = readYourWritesWindow.toNanos();
+
+    this.toReplica = routed(meterRegistry, "replica", "read-only");
+    this.lagFallback = routed(meterRegistry, "primary", "replica-lag");
+    this.pinned = routed(meterRegistry, "primary", "read-your-writes");
+    this.writes = routed(meterRegistry, "primary", "write");
+    this.unmanaged = routed(meterRegistry, "primary", "no-transaction");
+  }
+
+  private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+    return Counter.builder("band.db.routing")
+        .description("Connections routed to the primary or a read replica")
+        .tag("target", target)
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    // Outside a transaction (migrations, lazy loading in the view) nothing says it is safe to read stale data
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      unmanaged.increment();
+      return PRIMARY;
+    }
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      pinAfterCommit();
+      writes.increment();
+      return PRIMARY;
+    }
+    String user = currentUser();
+    if (user != null) {
+      Long until = pinnedUntil.get(user);
+      if (until != null) {
+        if (System.nanoTime() - until < 0) {
+          pinned.increment();
+          return PRIMARY;
+        }
+        pinnedUntil.remove(user, until);
+      }
+    }
+    // Round-robin over the replicas that are currently within the lag limit
+    int start = Math.floorMod(next.getAndIncrement(), replicaCount);
+    for (int i = 0; i < replicaCount; i++) {
+      int replica = (start + i) % replicaCount;
+      if (lagMonitor.isUsable(replica)) {
+        ReplicaReads.mark();
+        toReplica.increment();
+        return REPLICA + replica;
+      }
+    }
+    lagFallback.increment();
+    return PRIMARY;
+  }
+
+  // Only a committed write pins the user
+  private void pinAfterCommit() {
+    String user = currentUser();
+    if (user == null || readYourWritesNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        pin(user);
+      }
+    });
+  }
+
+  private void pin(String user) {
+    pinnedUntil.put(user, System.nanoTime() + readYourWritesNanos);
+    if (pinnedUntil.size() > 10_000) {
+      long now = System.nanoTime();
+      pinnedUntil.values().removeIf(until -> now - until >= 0);
+    }
+  }
+
+  private static String currentUser() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+  }
+}
@@ -0,0 +1,229 @@
+package com.band.db;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Attributes every JDBC statement to the unit of work it runs in (an API
+ * request or a STOMP message) and to the repository method that issued it.
+ *
+ * <ul>
+ *   <li>{@code band.db.statement{repository}}: execution time per statement, plus rows read in
+ *       {@code band.db.statement.rows}</li>
+ *   <li>{@code band.db.request{kind,route}}: total database time per unit, plus statement count
+ *       and rows read in {@code band.db.request.statements} and {@code band.db.request.rows}</li>
+ * </ul>
+ *
+ * Statements slower than {@code slow-query} are logged with their SQL and the
+ * types of their bind parameters; bound values are never logged. Statements
+ * outside any repository call (JdbcTemplate, Flyway) are tagged {@code other}.
+ *
+ * <p>As the application's {@link TaskDecorator} it carries the unit into work
+ * handed to Spring's task executors (streamed responses, {@code @Async}) and
+ * the password hashing pool. Off by default: every connection, statement and
+ * result set is then a proxy.
+ */
+@Component
+@Slf4j
+public class StatementAccounting implements TaskDecorator {
+
+  private static final ThreadLocal<Unit> CURRENT = new ThreadLocal<>();
+  private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+  private static final String OTHER = "other";
+
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final boolean header;
+  private final long slowQueryNanos;
+  private final Map<String, Timer> statementTimers = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> statementRows = new ConcurrentHashMap<>();
+
+  public StatementAccounting(MeterRegistry meterRegistry,
+                             @Value("${app.db.accounting.enabled:false}") boolean enabled,
+                             @Value("${app.db.accounting.header:false}") boolean header,
+                             @Value("${app.db.accounting.slow-query:500ms}") Duration slowQuery) {
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.header = header;
+    this.slowQueryNanos = slowQuery.toNanos();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Whether responses carry an {@code X-DB-Statements} header. */
+  public boolean isHeaderEnabled() {
+    return header;
+  }
+
+  /**
+   * Starts a unit of work on this thread. A unit opened inside another one, or
+   * while accounting is off, is a no-op.
+   */
+  public Unit open(String kind, String name) {
+    if (!enabled || CURRENT.get() != null) {
+      return Unit.NONE;
+    }
+    Unit unit = new Unit(this, kind, name);
+    CURRENT.set(unit);
+    return unit;
+  }
+
+  @Override
+  public Runnable decorate(Runnable task) {
+    Unit unit = CURRENT.get();
+    if (unit == null) {
+      return task;
+    }
+    return () -> {
+      try (Unit.Binding binding = unit.bind()) {
+        task.run();
+      }
+    };
+  }
+
+  /** Marks the repository method running on this thread; returns the one to restore afterwards. */
+  static String enterRepositoryMethod(String method) {
+    String previous = REPOSITORY_METHOD.get();
+    REPOSITORY_METHOD.set(method);
+    return previous;
+  }
+
+  static void exitRepositoryMethod(String previous) {
+    if (previous == null) {
+      REPOSITORY_METHOD.remove();
+    } else {
+      REPOSITORY_METHOD.set(previous);
+    }
+  }
+
+  /** The repository method running on this thread, captured when a statement executes. */
+  static String currentRepositoryMethod() {
+    String method = REPOSITORY_METHOD.get();
+    return method != null ? method : OTHER;
+  }
+
+  void executed(String sql, String repositoryMethod, List<String> bindTypes, long nanos) {
+    statementTimers.computeIfAbsent(repositoryMethod, method -> Timer.builder("band.db.statement")
+            .tag("repository", method)
+            .description("Execution time of SQL statements, by calling repository method")
+            .register(meterRegistry))
+        .record(nanos, TimeUnit.NANOSECONDS);
+    Unit unit = CURRENT.get();
+    if (unit != null) {
+      unit.statements.incrementAndGet();
+      unit.nanos.addAndGet(nanos);
+    }
+    if (nanos >= slowQueryNanos) {
+      log.warn("Slow query: {} ms in {} during {}: {} binds {}",
+          TimeUnit.NANOSECONDS.toMillis(nanos), repositoryMethod,
+          unit != null ? unit.name : "background work", sql, bindTypes);
+    }
+  }
+
+  void rowsRead(String repositoryMethod, long rows) {
+    statementRows.computeIfAbsent(repositoryMethod, method -> DistributionSummary.builder("band.db.statement.rows")
+            .tag("repository", method)
+            .description("Rows read per SQL statement, by calling repository method")
+            .register(meterRegistry))
+        .record(rows);
+    Unit unit = CURRENT.get();
+    if (unit != null) {
+      unit.rows.addAndGet(rows);
+    }
+  }
+
+  public static final class Unit {
+    static final Unit NONE = new Unit(null, null, null);
+
+    private final StatementAccounting accounting;
+    private final String kind;
+    private final String name;
+    // Updated from every thread the unit is bound to
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Unit(StatementAccounting accounting, String kind, String name) {
+      this.accounting = accounting;
+      this.kind = kind;
+      this.name = name;
+    }
+
+    /** Value of the {@code X-DB-Statements} header, e.g. {@code 4; time=12.5ms; rows=31}. */
+    public String summary() {
+      return String.format("%d; time=%.1fms; rows=%d", statements.get(), nanos.get() / 1e6, rows.get());
+    }
+
+    /** Binds the unit to this thread until the binding is closed, e.g. for an async dispatch. */
+    public Binding bind() {
+      if (accounting == null) {
+        return () -> { };
+      }
+      Unit previous = CURRENT.get();
+      CURRENT.set(this);
+      return () -> {
+        if (previous == null) {
+          CURRENT.remove();
+        } else {
+          CURRENT.set(previous);
+        }
+      };
+    }
+
+    /** Unbinds the unit from this thread without ending it; work on other threads still counts. */
+    public void detach() {
+      if (CURRENT.get() == this) {
+        CURRENT.remove();
+      }
+    }
+
+    /** Ends the unit and records it under {@code route}, a path pattern or destination without ids. */
+    public void close(String route) {
+      if (accounting == null || !closed.compareAndSet(false, true)) {
+        return;
+      }
+      detach();
+      if (statements.get() == 0) {
+        return;
+      }
+      MeterRegistry registry = accounting.meterRegistry;
+      Timer.builder("band.db.request")
+          .tags("kind", kind, "route", route)
+          .description("Database time per request or message")
+          .register(registry)
+          .record(nanos.get(), TimeUnit.NANOSECONDS);
+      DistributionSummary.builder("band.db.request.statements")
+          .tags("kind", kind, "route", route)
+          .description("SQL statements per request or message")
+          .register(registry)
+          .record(statements.get());
+      DistributionSummary.builder("band.db.request.rows")
+          .tags("kind", kind, "route", route)
+          .description("Rows read per request or message")
+          .register(registry)
+          .record(rows.get());
+    }
+
+    public interface Binding extends AutoCloseable {
+      @Override
+      void close();
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.band.db;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds {@link StatementAccounting}: wraps the {@code dataSource} bean so
+ * statement executions are timed and result-set rows counted, and marks the
+ * repository method running on the thread for every Spring Data repository.
+ * Does neither unless {@code app.db.accounting.enabled}.
+ */
+@Component
+public class StatementAccountingPostProcessor implements BeanPostProcessor {
+
+  // Looked up lazily: post-processors are created before the beans they depend on
+  private final ObjectProvider<StatementAccounting> accounting;
+  private final boolean enabled;
+
+  public StatementAccountingPostProcessor(ObjectProvider<StatementAccounting> accounting,
+                                          @Value("${app.db.accounting.enabled:false}") boolean enabled) {
+    this.accounting = accounting;
+    this.enabled = enabled;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) {
+    if (enabled && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+      factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+          (proxyFactory, info) -> {
+            String repository = info.getRepositoryInterface().getSimpleName() + ".";
+            proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+              String previous = StatementAccounting.enterRepositoryMethod(repository + invocation.getMethod().getName());
+              try {
+                return invocation.proceed();
+              } finally {
+                StatementAccounting.exitRepositoryMethod(previous);
+              }
+            });
+          }));
+    }
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (enabled && "dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+      StatementAccounting target = accounting.getObject();
+      return proxy(DataSource.class, dataSource, (delegate, method, args) -> {
+        Object result = invoke(delegate, method, args);
+        return result instanceof Connection connection ? wrap(connection, target) : result;
+      });
+    }
+    return bean;
+  }
+
+  private static Connection wrap(Connection connection, StatementAccounting accounting) {
+    return proxy(Connection.class, connection, (delegate, method, args) -> {
+      Object result = invoke(delegate, method, args);
+      if (result instanceof Statement statement) {
+        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+        return wrap(statement, sql, accounting);
+      }
+      return result;
+    });
+  }
+
+  private static Statement wrap(Statement statement, String preparedSql, StatementAccounting accounting) {
+    List<String> bindTypes = new ArrayList<>();
+    Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+        : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    String[] repositoryMethod = new String[1];
+    InvocationHandler handler = (proxy, method, args) -> {
+      String name = method.getName();
+      if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+        // Only the type of each bound value is kept, so nothing sensitive reaches the log
+        while (bindTypes.size() < index) {
+          bindTypes.add("?");
+        }
+        bindTypes.set(index - 1, args[1] == null ? "null" : args[1].getClass().getSimpleName());
+      } else if (name.equals("clearParameters")) {
+        bindTypes.clear();
+      }
+      if (!name.startsWith("execute")) {
+        Object result = invoke(statement, method, args);
+        return result instanceof ResultSet resultSet && name.equals("getResultSet") && repositoryMethod[0] != null
+            ? wrap(resultSet, repositoryMethod[0], accounting) : result;
+      }
+      String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+      repositoryMethod[0] = StatementAccounting.currentRepositoryMethod();
+      long start = System.nanoTime();
+      try {
+        Object result = invoke(statement, method, args);
+        return result instanceof ResultSet resultSet ? wrap(resultSet, repositoryMethod[0], accounting) : result;
+      } finally {
+        accounting.executed(sql, repositoryMethod[0], List.copyOf(bindTypes), System.nanoTime() - start);
+      }
+    };
+    return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  private static ResultSet wrap(ResultSet resultSet, String repositoryMethod, StatementAccounting accounting) {
+    long[] rows = new long[1];
+    boolean[] closed = new boolean[1];
+    return proxy(ResultSet.class, resultSet, (delegate, method, args) -> {
+      Object result = invoke(delegate, method, args);
+      if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+        rows[0]++;
+      } else if (method.getName().equals("close") && !closed[0]) {
+        closed[0] = true;
+        accounting.rowsRead(repositoryMethod, rows[0]);
+      }
+      return result;
+    });
+  }
+
+  private interface Handler<T> {
+    Object handle(T target, Method method, Object[] args) throws Throwable;
+  }
+
+  private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+    InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, invocationHandler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
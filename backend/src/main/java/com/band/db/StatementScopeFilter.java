@@ -0,0 +1,125 @@
+package com.band.db;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Makes each API request a unit of work for {@link StatementAccounting}.
+ * With {@code app.db.accounting.header} the response carries
+ * {@code X-DB-Statements} with the statements run before it was committed.
+ *
+ * <p>Runs ahead of Spring Security, so statements of the security filters
+ * count too. An async request (streamed body, {@code CompletableFuture},
+ * event stream) stays one unit until it completes; its async dispatch is
+ * bound to the unit again.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class StatementScopeFilter extends OncePerRequestFilter {
+  static final String HEADER = "X-DB-Statements";
+  private static final String UNIT_ATTRIBUTE = StatementScopeFilter.class.getName() + ".unit";
+
+  private final StatementAccounting statementAccounting;
+
+  public StatementScopeFilter(StatementAccounting statementAccounting) {
+    this.statementAccounting = statementAccounting;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !statementAccounting.isEnabled() || !request.getRequestURI().startsWith("/api/");
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    if (request.getAttribute(UNIT_ATTRIBUTE) instanceof StatementAccounting.Unit unit) {
+      try (StatementAccounting.Unit.Binding binding = unit.bind()) {
+        filterChain.doFilter(request, withHeader(response, unit));
+        if (!request.isAsyncStarted()) {
+          setHeader(response, unit);
+          // The last dispatch; the listener only closes units whose async work failed or timed out
+          unit.close(route(request));
+        }
+      }
+      return;
+    }
+
+    StatementAccounting.Unit unit = statementAccounting.open("http", request.getMethod() + " " + request.getRequestURI());
+    boolean async = false;
+    try {
+      filterChain.doFilter(request, withHeader(response, unit));
+      async = request.isAsyncStarted();
+      if (!async) {
+        setHeader(response, unit);
+      }
+    } finally {
+      if (async) {
+        request.setAttribute(UNIT_ATTRIBUTE, unit);
+        unit.detach();
+        String route = route(request);
+        request.getAsyncContext().addListener(new AsyncListener() {
+          @Override
+          public void onComplete(AsyncEvent event) {
+            unit.close(route);
+          }
+
+          @Override
+          public void onTimeout(AsyncEvent event) {
+          }
+
+          @Override
+          public void onError(AsyncEvent event) {
+          }
+
+          @Override
+          public void onStartAsync(AsyncEvent event) {
+          }
+        });
+      } else {
+        unit.close(route(request));
+      }
+    }
+  }
+
+  // Headers must be set before the body commits the response
+  private HttpServletResponse withHeader(HttpServletResponse response, StatementAccounting.Unit unit) {
+    if (!statementAccounting.isHeaderEnabled()) {
+      return response;
+    }
+    return new OnCommittedResponseWrapper(response) {
+      @Override
+      protected void onResponseCommitted() {
+        setHeader(HEADER, unit.summary());
+      }
+    };
+  }
+
+  private void setHeader(HttpServletResponse response, StatementAccounting.Unit unit) {
+    if (statementAccounting.isHeaderEnabled() && !response.isCommitted()) {
+      response.setHeader(HEADER, unit.summary());
+    }
+  }
+
+  private static String route(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + " " + (pattern != null ? pattern : "unmatched");
+  }
+}
@@ -1,6 +1,9 @@
 package com.band.domain;
 
+import com.band.domain.id.UuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
@@ -11,9 +14,12 @@ import java.util.HashSet;
 
 @Entity
 @Table(name = "band_events")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class BandEvent {
   @Id
   @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7.class)
   private UUID id;
 
   @NotBlank
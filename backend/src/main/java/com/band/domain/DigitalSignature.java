@@ -1,6 +1,8 @@
 package com.band.domain;
 
+import com.band.domain.id.UuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.time.Instant;
@@ -11,6 +13,7 @@ import java.util.UUID;
 public class DigitalSignature {
   @Id
   @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7.class)
   private UUID id;
 
   @NotNull
@@ -18,10 +21,6 @@ public class DigitalSignature {
   @JoinColumn(name = "user_id", nullable = false)
   private User user;
 
-  @NotNull
-  @Column(name = "signature_data", nullable = false, columnDefinition = "TEXT")
-  private String signatureData; // Base64 encoded SVG or PNG
-
   @NotNull
   @Enumerated(EnumType.STRING)
   @Column(name = "signature_type", nullable = false)
@@ -55,8 +54,9 @@ public class DigitalSignature {
   private Instant lastUsedAt;
 
   // Security and validation
+  // The image itself is in the signature store (com.band.storage), keyed by this hash
   @Column(name = "signature_hash")
-  private String signatureHash; // SHA-256 hash for integrity verification
+  private String signatureHash; // Hex SHA-256 of the image bytes
 
   @Column(name = "is_verified")
   private Boolean isVerified = false;
@@ -93,9 +93,9 @@ public class DigitalSignature {
   // Constructors
   public DigitalSignature() {}
 
-  public DigitalSignature(User user, String signatureData, SignatureType type) {
+  public DigitalSignature(User user, String signatureHash, SignatureType type) {
     this.user = user;
-    this.signatureData = signatureData;
+    this.signatureHash = signatureHash;
     this.signatureType = type;
     this.legalName = user.getName();
   }
@@ -151,9 +151,6 @@ public class DigitalSignature {
   public User getUser() { return user; }
   public void setUser(User user) { this.user = user; }
 
-  public String getSignatureData() { return signatureData; }
-  public void setSignatureData(String signatureData) { this.signatureData = signatureData; }
-
   public SignatureType getSignatureType() { return signatureType; }
   public void setSignatureType(SignatureType signatureType) { this.signatureType = signatureType; }
 
@@ -1,6 +1,8 @@
 package com.band.domain;
 
+import com.band.domain.id.UuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
@@ -11,9 +13,13 @@ import java.util.HashSet;
 
 @Entity
 @Table(name = "equipment")
+@EntityListeners(EquipmentChangeListener.class)
+@NamedEntityGraph(name = "Equipment.assignedTo",
+    attributeNodes = @NamedAttributeNode("assignedTo"))
 public class Equipment {
   @Id
   @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7.class)
   private UUID id;
 
   @NotBlank
@@ -41,9 +47,13 @@ public class Equipment {
   @Column(nullable = false)
   private EquipmentCondition condition;
 
-  @Column
+  @Column(columnDefinition = "TEXT")
   private String location;
 
+  // Node in the location tree; location above holds its path for display and filtering
+  @Column(name = "location_id")
+  private UUID locationId;
+
   @Column
   private String description;
 
@@ -226,6 +236,9 @@ public class Equipment {
   public String getLocation() { return location; }
   public void setLocation(String location) { this.location = location; }
 
+  public UUID getLocationId() { return locationId; }
+  public void setLocationId(UUID locationId) { this.locationId = locationId; }
+
   public String getDescription() { return description; }
   public void setDescription(String description) { this.description = description; }
 
@@ -1,15 +1,23 @@
 package com.band.domain;
 
+import com.band.domain.id.UuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "equipment_assignments")
+// Fetch plans for callers that walk these associations for every row (see EquipmentAssignmentRepository)
+@NamedEntityGraph(name = "EquipmentAssignment.equipment",
+    attributeNodes = @NamedAttributeNode("equipment"))
+@NamedEntityGraph(name = "EquipmentAssignment.studentAndEquipment",
+    attributeNodes = {@NamedAttributeNode("student"), @NamedAttributeNode("equipment")})
 public class EquipmentAssignment {
   @Id
   @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7.class)
   private UUID id;
 
   @NotNull
@@ -59,12 +67,12 @@ public class EquipmentAssignment {
   @Column(name = "return_condition")
   private Equipment.EquipmentCondition returnCondition;
 
-  // Digital signatures
-  @Column(name = "checkout_signature", columnDefinition = "TEXT")
-  private String checkoutSignature; // Base64 encoded signature
+  // Digital signatures: hex SHA-256 keys of the images in the signature store
+  @Column(name = "checkout_signature_hash", length = 64)
+  private String checkoutSignatureHash;
 
-  @Column(name = "return_signature", columnDefinition = "TEXT")
-  private String returnSignature;
+  @Column(name = "return_signature_hash", length = 64)
+  private String returnSignatureHash;
 
   // Purpose and event association
   @Column(name = "assignment_purpose")
@@ -153,6 +161,11 @@ public class EquipmentAssignment {
     public String getDisplayName() {
       return displayName;
     }
+
+    // The statuses a cold (archived) assignment partition accepts
+    public boolean isClosed() {
+      return this == RETURNED || this == LOST || this == DAMAGED;
+    }
   }
 
   // Getters and Setters
@@ -195,11 +208,11 @@ public class EquipmentAssignment {
   public Equipment.EquipmentCondition getReturnCondition() { return returnCondition; }
   public void setReturnCondition(Equipment.EquipmentCondition returnCondition) { this.returnCondition = returnCondition; }
 
-  public String getCheckoutSignature() { return checkoutSignature; }
-  public void setCheckoutSignature(String checkoutSignature) { this.checkoutSignature = checkoutSignature; }
+  public String getCheckoutSignatureHash() { return checkoutSignatureHash; }
+  public void setCheckoutSignatureHash(String checkoutSignatureHash) { this.checkoutSignatureHash = checkoutSignatureHash; }
 
-  public String getReturnSignature() { return returnSignature; }
-  public void setReturnSignature(String returnSignature) { this.returnSignature = returnSignature; }
+  public String getReturnSignatureHash() { return returnSignatureHash; }
+  public void setReturnSignatureHash(String returnSignatureHash) { this.returnSignatureHash = returnSignatureHash; }
 
   public String getAssignmentPurpose() { return assignmentPurpose; }
   public void setAssignmentPurpose(String assignmentPurpose) { this.assignmentPurpose = assignmentPurpose; }
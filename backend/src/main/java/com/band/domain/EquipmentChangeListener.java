@@ -0,0 +1,32 @@
+package com.band.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that republishes equipment writes as Spring application
+ * events. Hibernate obtains this listener from the Spring context, so consumers
+ * can use {@code @TransactionalEventListener} to react only after commit.
+ */
+@Component
+public class EquipmentChangeListener {
+  private final ApplicationEventPublisher publisher;
+
+  public EquipmentChangeListener(ApplicationEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @PostPersist
+  @PostUpdate
+  public void onSave(Equipment equipment) {
+    publisher.publishEvent(EquipmentChangedEvent.of(equipment));
+  }
+
+  @PostRemove
+  public void onRemove(Equipment equipment) {
+    publisher.publishEvent(EquipmentChangedEvent.removed(equipment));
+  }
+}
@@ -0,0 +1,38 @@
+package com.band.domain;
+
+import com.band.domain.Equipment.EquipmentCategory;
+import com.band.domain.Equipment.EquipmentCondition;
+import com.band.domain.Equipment.EquipmentStatus;
+
+import java.util.UUID;
+
+/**
+ * Snapshot of the indexed attributes of an equipment row, published whenever
+ * the row is inserted, updated or deleted. {@code removed} is set for deletes.
+ */
+public record EquipmentChangedEvent(
+    UUID id,
+    boolean removed,
+    boolean active,
+    EquipmentStatus status,
+    EquipmentCategory category,
+    EquipmentCondition condition,
+    String location,
+    boolean assigned) {
+
+  public static EquipmentChangedEvent of(Equipment equipment) {
+    return new EquipmentChangedEvent(
+        equipment.getId(),
+        false,
+        Boolean.TRUE.equals(equipment.getActive()),
+        equipment.getStatus(),
+        equipment.getCategory(),
+        equipment.getCondition(),
+        equipment.getLocation(),
+        equipment.getAssignedTo() != null);
+  }
+
+  public static EquipmentChangedEvent removed(Equipment equipment) {
+    return new EquipmentChangedEvent(equipment.getId(), true, false, null, null, null, null, false);
+  }
+}
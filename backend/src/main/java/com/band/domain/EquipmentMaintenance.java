@@ -1,6 +1,8 @@
 package com.band.domain;
 
+import com.band.domain.id.UuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -11,6 +13,7 @@ import java.util.UUID;
 public class EquipmentMaintenance {
   @Id
   @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7.class)
   private UUID id;
 
   @NotNull
@@ -0,0 +1,84 @@
+package com.band.domain;
+
+import com.band.domain.id.UuidV7;
+import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A node in the storage location tree. Ancestor/descendant pairs live in the
+ * {@code location_closure} table and per-status counts of the equipment
+ * placed in each node in {@code location_status_counts}; both are maintained
+ * by database triggers.
+ */
+@Entity
+@Table(name = "locations")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class Location {
+  @Id
+  @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7.class)
+  private UUID id;
+
+  @Column(name = "parent_id")
+  private UUID parentId;
+
+  @NotBlank
+  @Column(nullable = false)
+  private String name;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(name = "location_type", nullable = false)
+  private LocationType locationType;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt = Instant.now();
+
+  public Location() {}
+
+  public Location(UUID parentId, String name, LocationType locationType) {
+    this.parentId = parentId;
+    this.name = name;
+    this.locationType = locationType;
+  }
+
+  // Levels are ordered from outermost to innermost
+  public enum LocationType {
+    BUILDING("Building"),
+    ROOM("Room"),
+    CABINET("Cabinet"),
+    SHELF("Shelf");
+
+    private final String displayName;
+
+    LocationType(String displayName) {
+      this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+      return displayName;
+    }
+  }
+
+  // Getters and Setters
+  public UUID getId() { return id; }
+  public void setId(UUID id) { this.id = id; }
+
+  public UUID getParentId() { return parentId; }
+  public void setParentId(UUID parentId) { this.parentId = parentId; }
+
+  public String getName() { return name; }
+  public void setName(String name) { this.name = name; }
+
+  public LocationType getLocationType() { return locationType; }
+  public void setLocationType(LocationType locationType) { this.locationType = locationType; }
+
+  public Instant getCreatedAt() { return createdAt; }
+  public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
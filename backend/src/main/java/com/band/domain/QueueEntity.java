@@ -1,6 +1,8 @@
 package com.band.domain;
 
+import com.band.domain.id.UuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import java.util.UUID;
 
 @Entity
@@ -8,6 +10,7 @@ import java.util.UUID;
 public class QueueEntity {
   @Id
   @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7.class)
   private UUID id;
 
   @Column(nullable = false)
@@ -0,0 +1,57 @@
+package com.band.domain.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond
+ * timestamp, then a 12-bit counter, then 62 random bits.
+ *
+ * <p>New keys sort after existing ones, so inserts append to the right edge of
+ * the primary-key index instead of splitting random pages. The counter starts
+ * at a random value each millisecond and keeps ids from one JVM strictly
+ * increasing; it starts in the lower half of its range, and if it still runs
+ * out the timestamp is advanced by a millisecond.
+ * Used by entities as {@code @UuidGenerator(algorithm = UuidV7.class)}.
+ */
+public class UuidV7 implements UuidValueGenerator {
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  // Last issued (millis << 12 | counter), shared by every generator instance
+  private static final AtomicLong LAST = new AtomicLong();
+
+  @Override
+  public UUID generateUuid(SharedSessionContractImplementor session) {
+    return next();
+  }
+
+  public static UUID next() {
+    long now = System.currentTimeMillis();
+    long state;
+    long previous;
+    do {
+      previous = LAST.get();
+      long candidate = (now << 12) | RANDOM.nextInt(1 << 11);
+      state = candidate > previous ? candidate : previous + 1;
+    } while (!LAST.compareAndSet(previous, state));
+
+    long millis = state >>> 12;
+    long counter = state & 0xFFF;
+    long msb = (millis << 16) | (0x7L << 12) | counter;
+    long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+
+  /** Milliseconds since the epoch encoded in a version 7 UUID. */
+  public static long timestamp(UUID uuid) {
+    if (uuid.version() != 7) {
+      throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+    }
+    return uuid.getMostSignificantBits() >>> 16;
+  }
+}
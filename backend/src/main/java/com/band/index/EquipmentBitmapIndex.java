@@ -0,0 +1,347 @@
+package com.band.index;
+
+import com.band.domain.Equipment.EquipmentCategory;
+import com.band.domain.Equipment.EquipmentCondition;
+import com.band.domain.Equipment.EquipmentStatus;
+import com.band.domain.EquipmentChangedEvent;
+import com.band.repo.EquipmentFilter;
+import com.band.repo.EquipmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory bitmap index over active equipment. Every active row is mapped to
+ * a dense ordinal and recorded in one compressed bitmap per status, category,
+ * condition and location plus an "assigned" bitmap, so counts and
+ * intersections are answered without touching the database.
+ *
+ * <p>The index is built on startup and then maintained from
+ * {@link EquipmentChangedEvent}s after their transaction commits. Use
+ * {@link #verify()} to compare it with the database.
+ */
+@Component
+@Slf4j
+public class EquipmentBitmapIndex {
+
+  private static final int MAX_REPORTED_MISMATCHES = 50;
+
+  private final EquipmentRepository equipmentRepository;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Guarded by lock
+  private Bitmaps bitmaps = new Bitmaps();
+  private boolean rebuilding;
+  private final List<EquipmentChangedEvent> pendingDuringRebuild = new ArrayList<>();
+
+  private volatile boolean ready;
+
+  public EquipmentBitmapIndex(EquipmentRepository equipmentRepository) {
+    this.equipmentRepository = equipmentRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      log.error("Failed to build equipment bitmap index; counts will fall back to the database", e);
+    }
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      rebuilding = true;
+      pendingDuringRebuild.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    Bitmaps fresh;
+    try {
+      fresh = Bitmaps.load(equipmentRepository.findActiveIndexRows());
+    } catch (RuntimeException e) {
+      lock.writeLock().lock();
+      try {
+        rebuilding = false;
+        pendingDuringRebuild.clear();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      throw e;
+    }
+
+    lock.writeLock().lock();
+    try {
+      // Changes committed while we were reading are replayed; applying a snapshot is idempotent
+      pendingDuringRebuild.forEach(fresh::apply);
+      pendingDuringRebuild.clear();
+      bitmaps = fresh;
+      rebuilding = false;
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Equipment bitmap index built with {} active rows", fresh.active.getCardinality());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEquipmentChanged(EquipmentChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      bitmaps.apply(event);
+      if (rebuilding) {
+        pendingDuringRebuild.add(event);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Queries
+
+  public long countActive() {
+    return read(b -> (long) b.active.getCardinality());
+  }
+
+  public long countByStatus(EquipmentStatus status) {
+    return read(b -> (long) b.byStatus.get(status).getCardinality());
+  }
+
+  public Map<EquipmentStatus, Long> countsByStatus() {
+    return read(b -> cardinalities(b.byStatus, new EnumMap<>(EquipmentStatus.class)));
+  }
+
+  public Map<EquipmentCategory, Long> countsByCategory() {
+    return read(b -> cardinalities(b.byCategory, new EnumMap<>(EquipmentCategory.class)));
+  }
+
+  public Map<EquipmentCondition, Long> countsByCondition() {
+    return read(b -> cardinalities(b.byCondition, new EnumMap<>(EquipmentCondition.class)));
+  }
+
+  public Map<String, Long> countsByLocation() {
+    return read(b -> cardinalities(b.byLocation, new HashMap<>()));
+  }
+
+  /**
+   * Number of active rows matching the filter. {@code assigned} restricts to
+   * assigned (true) or unassigned (false) equipment when not null.
+   */
+  public long count(EquipmentFilter filter, Boolean assigned) {
+    return read(b -> (long) b.evaluate(filter, assigned).getCardinality());
+  }
+
+  public List<UUID> findIds(EquipmentFilter filter, Boolean assigned) {
+    return read(b -> {
+      RoaringBitmap result = b.evaluate(filter, assigned);
+      List<UUID> ids = new ArrayList<>(result.getCardinality());
+      result.forEach((int ordinal) -> ids.add(b.idsByOrdinal.get(ordinal)));
+      return ids;
+    });
+  }
+
+  /**
+   * Compares every indexed attribute with the current database state without
+   * modifying the index.
+   */
+  public VerificationReport verify() {
+    List<Object[]> rows = equipmentRepository.findActiveIndexRows();
+    return read(b -> {
+      List<String> mismatches = new ArrayList<>();
+      for (Object[] row : rows) {
+        UUID id = (UUID) row[0];
+        Integer ordinal = b.ordinals.get(id);
+        if (ordinal == null) {
+          addMismatch(mismatches, id + " is active in the database but missing from the index");
+          continue;
+        }
+        checkMember(mismatches, id, "status", row[1], b.byStatus.get((EquipmentStatus) row[1]), ordinal);
+        checkMember(mismatches, id, "category", row[2], b.byCategory.get((EquipmentCategory) row[2]), ordinal);
+        checkMember(mismatches, id, "condition", row[3], b.byCondition.get((EquipmentCondition) row[3]), ordinal);
+        if (row[4] != null) {
+          checkMember(mismatches, id, "location", row[4], b.byLocation.get((String) row[4]), ordinal);
+        }
+        if ((row[5] != null) != b.assigned.contains(ordinal)) {
+          addMismatch(mismatches, id + " assigned flag differs (database: " + (row[5] != null) + ")");
+        }
+      }
+      long indexed = b.active.getCardinality();
+      if (indexed != rows.size()) {
+        addMismatch(mismatches, "index holds " + indexed + " active rows, database has " + rows.size());
+      }
+      return new VerificationReport(mismatches.isEmpty(), indexed, rows.size(), mismatches);
+    });
+  }
+
+  public record VerificationReport(boolean consistent, long indexedRows, long databaseRows, List<String> mismatches) {}
+
+  private <T> T read(Function<Bitmaps, T> reader) {
+    lock.readLock().lock();
+    try {
+      return reader.apply(bitmaps);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static <K> Map<K, Long> cardinalities(Map<K, RoaringBitmap> source, Map<K, Long> target) {
+    source.forEach((key, bitmap) -> {
+      if (!bitmap.isEmpty()) target.put(key, (long) bitmap.getCardinality());
+    });
+    return target;
+  }
+
+  private static void checkMember(List<String> mismatches, UUID id, String facet, Object value,
+                                  RoaringBitmap bitmap, int ordinal) {
+    if (bitmap == null || !bitmap.contains(ordinal)) {
+      addMismatch(mismatches, id + " " + facet + " differs (database: " + value + ")");
+    }
+  }
+
+  private static void addMismatch(List<String> mismatches, String mismatch) {
+    if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+      mismatches.add(mismatch);
+    }
+  }
+
+  /** Ordinal assignment plus the per-attribute bitmaps. Not thread-safe on its own. */
+  private static final class Bitmaps {
+    final Map<UUID, Integer> ordinals = new HashMap<>();
+    final List<UUID> idsByOrdinal = new ArrayList<>();
+    final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    final RoaringBitmap active = new RoaringBitmap();
+    final RoaringBitmap assigned = new RoaringBitmap();
+    final Map<EquipmentStatus, RoaringBitmap> byStatus = emptyBitmaps(EquipmentStatus.class);
+    final Map<EquipmentCategory, RoaringBitmap> byCategory = emptyBitmaps(EquipmentCategory.class);
+    final Map<EquipmentCondition, RoaringBitmap> byCondition = emptyBitmaps(EquipmentCondition.class);
+    final Map<String, RoaringBitmap> byLocation = new HashMap<>();
+
+    static Bitmaps load(List<Object[]> rows) {
+      Bitmaps bitmaps = new Bitmaps();
+      for (Object[] row : rows) {
+        int ordinal = bitmaps.ordinalFor((UUID) row[0]);
+        bitmaps.set(ordinal, (EquipmentStatus) row[1], (EquipmentCategory) row[2],
+            (EquipmentCondition) row[3], (String) row[4], row[5] != null);
+      }
+      bitmaps.runOptimize();
+      return bitmaps;
+    }
+
+    void apply(EquipmentChangedEvent event) {
+      Integer existing = ordinals.get(event.id());
+      if (event.removed() || !event.active()) {
+        if (existing != null) {
+          clear(existing);
+          ordinals.remove(event.id());
+          idsByOrdinal.set(existing, null);
+          freeOrdinals.push(existing);
+        }
+        return;
+      }
+      int ordinal = existing != null ? existing : ordinalFor(event.id());
+      clear(ordinal);
+      set(ordinal, event.status(), event.category(), event.condition(), event.location(), event.assigned());
+    }
+
+    RoaringBitmap evaluate(EquipmentFilter filter, Boolean assignedFilter) {
+      if (filter.searchTerm() != null) {
+        throw new IllegalArgumentException("Free-text search is not supported by the bitmap index");
+      }
+      RoaringBitmap result = active.clone();
+      andAny(result, byStatus, filter.statuses());
+      andAny(result, byCategory, filter.categories());
+      andAny(result, byCondition, filter.conditions());
+      andAny(result, byLocation, filter.locations());
+      if (Boolean.TRUE.equals(assignedFilter)) {
+        result.and(assigned);
+      } else if (Boolean.FALSE.equals(assignedFilter)) {
+        result.andNot(assigned);
+      }
+      return result;
+    }
+
+    private static <K> void andAny(RoaringBitmap result, Map<K, RoaringBitmap> bitmaps, Collection<K> values) {
+      if (values.isEmpty()) return;
+      List<RoaringBitmap> selected = new ArrayList<>(values.size());
+      for (K value : values) {
+        RoaringBitmap bitmap = bitmaps.get(value);
+        if (bitmap != null) selected.add(bitmap);
+      }
+      result.and(selected.isEmpty() ? new RoaringBitmap() : FastAggregation.or(selected.iterator()));
+    }
+
+    private int ordinalFor(UUID id) {
+      Integer ordinal = freeOrdinals.poll();
+      if (ordinal == null) {
+        ordinal = idsByOrdinal.size();
+        idsByOrdinal.add(id);
+      } else {
+        idsByOrdinal.set(ordinal, id);
+      }
+      ordinals.put(id, ordinal);
+      return ordinal;
+    }
+
+    private void set(int ordinal, EquipmentStatus status, EquipmentCategory category,
+                     EquipmentCondition condition, String location, boolean isAssigned) {
+      active.add(ordinal);
+      if (status != null) byStatus.get(status).add(ordinal);
+      if (category != null) byCategory.get(category).add(ordinal);
+      if (condition != null) byCondition.get(condition).add(ordinal);
+      if (location != null) byLocation.computeIfAbsent(location, l -> new RoaringBitmap()).add(ordinal);
+      if (isAssigned) assigned.add(ordinal);
+    }
+
+    private void clear(int ordinal) {
+      active.remove(ordinal);
+      assigned.remove(ordinal);
+      byStatus.values().forEach(bitmap -> bitmap.remove(ordinal));
+      byCategory.values().forEach(bitmap -> bitmap.remove(ordinal));
+      byCondition.values().forEach(bitmap -> bitmap.remove(ordinal));
+      byLocation.values().removeIf(bitmap -> {
+        bitmap.remove(ordinal);
+        return bitmap.isEmpty();
+      });
+    }
+
+    private void runOptimize() {
+      active.runOptimize();
+      assigned.runOptimize();
+      byStatus.values().forEach(RoaringBitmap::runOptimize);
+      byCategory.values().forEach(RoaringBitmap::runOptimize);
+      byCondition.values().forEach(RoaringBitmap::runOptimize);
+      byLocation.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    private static <E extends Enum<E>> Map<E, RoaringBitmap> emptyBitmaps(Class<E> type) {
+      Map<E, RoaringBitmap> bitmaps = new EnumMap<>(type);
+      for (E value : type.getEnumConstants()) {
+        bitmaps.put(value, new RoaringBitmap());
+      }
+      return bitmaps;
+    }
+  }
+}
@@ -3,12 +3,14 @@ package com.band.repo;
 import com.band.domain.BandEvent;
 import com.band.domain.BandEvent.EventType;
 import com.band.domain.BandEvent.EventStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,7 +20,10 @@ import java.util.UUID;
 public interface BandEventRepository extends JpaRepository<BandEvent, UUID> {
   
   // Event type and status queries
+  // Only queries without CURRENT_TIMESTAMP are cached; their results would not move with the clock
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<BandEvent> findByEventType(EventType eventType);
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<BandEvent> findByStatus(EventStatus status);
   List<BandEvent> findByEventTypeAndStatus(EventType eventType, EventStatus status);
   
@@ -105,6 +110,6 @@ public interface BandEventRepository extends JpaRepository<BandEvent, UUID> {
   List<BandEvent> findEventsWithSpecialRequirements();
   
   // Additional methods for dashboard service
-  List<BandEvent> findByEventDateAfterAndActiveTrueOrderByEventDate(Instant date);
-  long countByEventDateAfterAndActiveTrue(Instant date);
+  List<BandEvent> findByEventDateAfterAndActiveTrueOrderByEventDate(LocalDateTime date);
+  long countByEventDateAfterAndActiveTrue(LocalDateTime date);
 }
\ No newline at end of file
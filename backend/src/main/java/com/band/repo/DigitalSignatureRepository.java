@@ -71,14 +71,16 @@ public interface DigitalSignatureRepository extends JpaRepository<DigitalSignatu
   // TODO: Implement proper relationship between DigitalSignature and EquipmentAssignment if needed
   
   // IP address and device tracking for audit
-  List<DigitalSignature> findByIpAddress(String ipAddress);
+  // ip_address is INET, which does not compare with a VARCHAR parameter
+  @Query(value = "SELECT * FROM digital_signatures WHERE ip_address = CAST(:ipAddress AS INET)", nativeQuery = true)
+  List<DigitalSignature> findByIpAddress(@Param("ipAddress") String ipAddress);
   List<DigitalSignature> findByUserAgent(String userAgent);
   
   // Signature validation queries
-  @Query("SELECT ds FROM DigitalSignature ds WHERE ds.signatureData IS NOT NULL AND LENGTH(ds.signatureData) > 0")
+  @Query("SELECT ds FROM DigitalSignature ds WHERE ds.signatureHash IS NOT NULL")
   List<DigitalSignature> findValidSignatures();
   
-  @Query("SELECT ds FROM DigitalSignature ds WHERE ds.signatureData IS NULL OR LENGTH(ds.signatureData) = 0")
+  @Query("SELECT ds FROM DigitalSignature ds WHERE ds.signatureHash IS NULL")
   List<DigitalSignature> findInvalidSignatures();
   
   // Additional method for dashboard service
@@ -2,6 +2,7 @@ package com.band.repo;
 
 import com.band.domain.EquipmentAssignment;
 import com.band.domain.EquipmentAssignment.AssignmentStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,6 +16,13 @@ import java.util.UUID;
 @Repository
 public interface EquipmentAssignmentRepository extends JpaRepository<EquipmentAssignment, UUID> {
   
+  // Fetch plans (named entity graphs on EquipmentAssignment) are applied where every
+  // caller reads the association for each row; otherwise each row costs a lazy load
+  
+  // Return and approval, whose result is broadcast with its student and equipment
+  @EntityGraph("EquipmentAssignment.studentAndEquipment")
+  Optional<EquipmentAssignment> findWithStudentAndEquipmentById(UUID id);
+  
   // Student-related queries
   List<EquipmentAssignment> findByStudent_Id(UUID studentId);
   List<EquipmentAssignment> findByStudent_Email(String email);
@@ -23,17 +31,24 @@ public interface EquipmentAssignmentRepository extends JpaRepository<EquipmentAs
   // Equipment-related queries
   List<EquipmentAssignment> findByEquipment_Id(UUID equipmentId);
   List<EquipmentAssignment> findByEquipment_QrCode(String qrCode);
-  Optional<EquipmentAssignment> findByEquipment_IdAndStatus(UUID equipmentId, AssignmentStatus status);
   
-  // Current active assignments
-  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.student.id = :studentId AND ea.status = 'CHECKED_OUT'")
-  List<EquipmentAssignment> findActiveAssignmentsByStudent(@Param("studentId") UUID studentId);
+  // Current active assignments. hotFrom (AssignmentArchiver.hotFrom()) lets the
+  // database skip the cold partitions, which hold no open assignments
+  @EntityGraph("EquipmentAssignment.equipment")
+  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.student.id = :studentId AND ea.status = 'CHECKED_OUT' " +
+         "AND ea.checkoutDate >= :hotFrom")
+  List<EquipmentAssignment> findActiveAssignmentsByStudent(@Param("studentId") UUID studentId, @Param("hotFrom") Instant hotFrom);
   
-  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.equipment.id = :equipmentId AND ea.status = 'CHECKED_OUT'")
-  Optional<EquipmentAssignment> findActiveAssignmentByEquipment(@Param("equipmentId") UUID equipmentId);
+  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.equipment.id = :equipmentId AND ea.status = 'CHECKED_OUT' " +
+         "AND ea.checkoutDate >= :hotFrom")
+  Optional<EquipmentAssignment> findActiveAssignmentByEquipment(@Param("equipmentId") UUID equipmentId, @Param("hotFrom") Instant hotFrom);
   
-  // Status-based queries
+  // Status-based queries. Closed statuses are in every partition; open ones are
+  // only in the hot partitions, so those queries take hotFrom
   List<EquipmentAssignment> findByStatus(AssignmentStatus status);
+  
+  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.status = :status AND ea.checkoutDate >= :hotFrom")
+  List<EquipmentAssignment> findOpenByStatus(@Param("status") AssignmentStatus status, @Param("hotFrom") Instant hotFrom);
   List<EquipmentAssignment> findByStatusIn(List<AssignmentStatus> statuses);
   
   // Date-based queries
@@ -42,11 +57,14 @@ public interface EquipmentAssignmentRepository extends JpaRepository<EquipmentAs
   List<EquipmentAssignment> findByExpectedReturnDateBetween(Instant startDate, Instant endDate);
   
   // Overdue assignments
-  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.status = 'CHECKED_OUT' AND ea.expectedReturnDate < CURRENT_TIMESTAMP")
-  List<EquipmentAssignment> findOverdueAssignments();
+  @EntityGraph("EquipmentAssignment.studentAndEquipment")
+  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.status = 'CHECKED_OUT' AND ea.expectedReturnDate < CURRENT_TIMESTAMP " +
+         "AND ea.checkoutDate >= :hotFrom")
+  List<EquipmentAssignment> findOverdueAssignments(@Param("hotFrom") Instant hotFrom);
   
-  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.status = 'CHECKED_OUT' AND ea.expectedReturnDate BETWEEN CURRENT_TIMESTAMP AND :date")
-  List<EquipmentAssignment> findAssignmentsDueSoon(@Param("date") Instant date);
+  @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.status = 'CHECKED_OUT' AND ea.expectedReturnDate BETWEEN CURRENT_TIMESTAMP AND :date " +
+         "AND ea.checkoutDate >= :hotFrom")
+  List<EquipmentAssignment> findAssignmentsDueSoon(@Param("date") Instant date, @Param("hotFrom") Instant hotFrom);
   
   // Assignment history
   @Query("SELECT ea FROM EquipmentAssignment ea WHERE ea.student.id = :studentId ORDER BY ea.checkoutDate DESC")
@@ -63,6 +81,12 @@ public interface EquipmentAssignmentRepository extends JpaRepository<EquipmentAs
   @Query("SELECT COUNT(ea) FROM EquipmentAssignment ea WHERE ea.status = :status")
   long countByStatus(@Param("status") AssignmentStatus status);
   
+  @Query("SELECT COUNT(ea) FROM EquipmentAssignment ea WHERE ea.status = :status AND ea.checkoutDate >= :hotFrom")
+  long countOpenByStatus(@Param("status") AssignmentStatus status, @Param("hotFrom") Instant hotFrom);
+  
+  @Query("SELECT COUNT(ea) FROM EquipmentAssignment ea WHERE ea.status = 'CHECKED_OUT' AND ea.checkoutDate >= :hotFrom")
+  long countCheckedOut(@Param("hotFrom") Instant hotFrom);
+  
   @Query("SELECT ea.assignmentPurpose, COUNT(ea) FROM EquipmentAssignment ea GROUP BY ea.assignmentPurpose")
   List<Object[]> countAssignmentsByPurpose();
   
@@ -107,11 +131,14 @@ public interface EquipmentAssignmentRepository extends JpaRepository<EquipmentAs
   List<EquipmentAssignment> findRecentReturns(@Param("since") Instant since);
   
   // Additional methods for dashboard service
+  @EntityGraph("EquipmentAssignment.equipment")
   List<EquipmentAssignment> findByStudentId(UUID studentId);
   List<EquipmentAssignment> findByStudentIdAndStatus(UUID studentId, AssignmentStatus status);
-  List<EquipmentAssignment> findByStudentIdOrderByCreatedAtDesc(UUID studentId);
+  @EntityGraph("EquipmentAssignment.equipment")
+  List<EquipmentAssignment> findTop10ByStudentIdOrderByCreatedAtDesc(UUID studentId);
   List<EquipmentAssignment> findByStatusOrderByCreatedAtDesc(AssignmentStatus status);
   
-  @Query("SELECT COUNT(ea) FROM EquipmentAssignment ea WHERE ea.status = 'CHECKED_OUT' AND ea.expectedReturnDate < CURRENT_TIMESTAMP")
-  long countOverdueAssignments();
+  @Query("SELECT COUNT(ea) FROM EquipmentAssignment ea WHERE ea.status = 'CHECKED_OUT' AND ea.expectedReturnDate < CURRENT_TIMESTAMP " +
+         "AND ea.checkoutDate >= :hotFrom")
+  long countOverdueAssignments(@Param("hotFrom") Instant hotFrom);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.band.repo;
+
+import com.band.domain.Equipment.EquipmentCategory;
+import com.band.domain.Equipment.EquipmentCondition;
+import com.band.domain.Equipment.EquipmentStatus;
+
+import java.util.Set;
+
+/**
+ * Combined equipment filter. Empty sets mean "no restriction" for that facet;
+ * values within one facet are OR-ed and facets are AND-ed together.
+ */
+public record EquipmentFilter(
+    Set<EquipmentCategory> categories,
+    Set<EquipmentStatus> statuses,
+    Set<EquipmentCondition> conditions,
+    Set<String> locations,
+    String searchTerm) {
+
+  public EquipmentFilter {
+    categories = categories != null ? Set.copyOf(categories) : Set.of();
+    statuses = statuses != null ? Set.copyOf(statuses) : Set.of();
+    conditions = conditions != null ? Set.copyOf(conditions) : Set.of();
+    locations = locations != null ? Set.copyOf(locations) : Set.of();
+    searchTerm = searchTerm != null && !searchTerm.isBlank() ? searchTerm.trim() : null;
+  }
+}
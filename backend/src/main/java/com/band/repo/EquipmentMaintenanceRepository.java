@@ -55,7 +55,8 @@ public interface EquipmentMaintenanceRepository extends JpaRepository<EquipmentM
   @Query("SELECT SUM(em.actualCost) FROM EquipmentMaintenance em WHERE em.actualCost IS NOT NULL AND em.completedDate >= :since")
   Double getTotalMaintenanceCostSince(@Param("since") LocalDate since);
   
-  @Query(value = "SELECT AVG(EXTRACT(EPOCH FROM (em.completed_date - em.scheduled_date))/3600) FROM equipment_maintenances em " +
+  // Both columns are DATEs, so their difference is a whole number of days
+  @Query(value = "SELECT AVG((em.completed_date - em.scheduled_date) * 24.0) FROM equipment_maintenance em " +
          "WHERE em.completed_date IS NOT NULL AND em.status = 'COMPLETED'", nativeQuery = true)
   Double getAverageMaintenanceDurationInHours();
   
@@ -4,6 +4,7 @@ import com.band.domain.Equipment;
 import com.band.domain.Equipment.EquipmentCategory;
 import com.band.domain.Equipment.EquipmentStatus;
 import com.band.domain.Equipment.EquipmentCondition;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,10 +16,13 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface EquipmentRepository extends JpaRepository<Equipment, UUID> {
+public interface EquipmentRepository extends JpaRepository<Equipment, UUID>, EquipmentRepositoryCustom {
   
   // Basic queries
   Optional<Equipment> findByQrCode(String qrCode);
+  // Status updates, whose result is broadcast to the assigned student
+  @EntityGraph("Equipment.assignedTo")
+  Optional<Equipment> findWithAssignedToById(UUID id);
   List<Equipment> findBySerialNumber(String serialNumber);
   
   // Category and status queries
@@ -38,6 +42,16 @@ public interface EquipmentRepository extends JpaRepository<Equipment, UUID> {
   List<Equipment> findByLocation(String location);
   List<Equipment> findByLocationContainingIgnoreCase(String locationKeyword);
   
+  // Active equipment anywhere beneath a location node, via the closure table
+  @Query(value = "SELECT e.* FROM equipment e JOIN location_closure c ON c.descendant_id = e.location_id " +
+                 "WHERE c.ancestor_id = :locationId AND e.active = true ORDER BY e.qr_code", nativeQuery = true)
+  List<Equipment> findActiveInLocationSubtree(@Param("locationId") UUID locationId);
+
+  // All equipment beneath a location node, active or not
+  @Query(value = "SELECT e.* FROM equipment e JOIN location_closure c ON c.descendant_id = e.location_id " +
+                 "WHERE c.ancestor_id = :locationId", nativeQuery = true)
+  List<Equipment> findInLocationSubtree(@Param("locationId") UUID locationId);
+  
   // Maintenance queries
   List<Equipment> findByNextMaintenanceDateBefore(LocalDate date);
   List<Equipment> findByNextMaintenanceDateBetween(LocalDate startDate, LocalDate endDate);
@@ -94,6 +108,10 @@ public interface EquipmentRepository extends JpaRepository<Equipment, UUID> {
   @Query("SELECT e FROM Equipment e WHERE e.warrantyExpiration IS NOT NULL AND e.warrantyExpiration <= :date")
   List<Equipment> findEquipmentWithExpiringWarranty(@Param("date") LocalDate date);
   
+  // Indexed attributes of every active row, used to (re)build the in-memory bitmap index
+  @Query("SELECT e.id, e.status, e.category, e.condition, e.location, a.id FROM Equipment e LEFT JOIN e.assignedTo a WHERE e.active = true")
+  List<Object[]> findActiveIndexRows();
+  
   // Additional count methods for dashboard
   long countByActiveTrue();
   long countByStatusAndActiveTrue(EquipmentStatus status);
@@ -0,0 +1,15 @@
+package com.band.repo;
+
+import com.band.domain.Equipment;
+
+import java.util.List;
+import java.util.Map;
+
+public interface EquipmentRepositoryCustom {
+
+  // Page of active equipment matching every facet of the filter, ordered by QR code
+  List<Equipment> findByFilter(EquipmentFilter filter, int offset, int limit);
+
+  // Per-facet value counts plus the matching total ("total" -> {"all": n}) from a single grouped query
+  Map<String, Map<String, Long>> countFacets(EquipmentFilter filter);
+}
@@ -0,0 +1,129 @@
+package com.band.repo;
+
+import com.band.domain.Equipment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Spring Data fragment for {@link EquipmentRepository}: combined filtering and
+ * facet counts that cannot be expressed as derived queries.
+ */
+public class EquipmentRepositoryImpl implements EquipmentRepositoryCustom {
+
+  private static final String FACET_CATEGORY = "category";
+  private static final String FACET_STATUS = "status";
+  private static final String FACET_CONDITION = "condition";
+  private static final String FACET_LOCATION = "location";
+  private static final String FACET_TOTAL = "total";
+
+  private static final List<String> FACETS = List.of(FACET_CATEGORY, FACET_STATUS, FACET_CONDITION, FACET_LOCATION);
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<Equipment> findByFilter(EquipmentFilter filter, int offset, int limit) {
+    StringBuilder jpql = new StringBuilder("SELECT e FROM Equipment e WHERE e.active = true");
+    if (!filter.categories().isEmpty()) jpql.append(" AND e.category IN :categories");
+    if (!filter.statuses().isEmpty()) jpql.append(" AND e.status IN :statuses");
+    if (!filter.conditions().isEmpty()) jpql.append(" AND e.condition IN :conditions");
+    if (!filter.locations().isEmpty()) jpql.append(" AND e.location IN :locations");
+    if (filter.searchTerm() != null) {
+      jpql.append(" AND (LOWER(e.make) LIKE :search OR LOWER(e.model) LIKE :search" +
+          " OR LOWER(e.serialNumber) LIKE :search OR LOWER(e.qrCode) LIKE :search)");
+    }
+    jpql.append(" ORDER BY e.qrCode");
+
+    TypedQuery<Equipment> query = entityManager.createQuery(jpql.toString(), Equipment.class);
+    if (!filter.categories().isEmpty()) query.setParameter("categories", filter.categories());
+    if (!filter.statuses().isEmpty()) query.setParameter("statuses", filter.statuses());
+    if (!filter.conditions().isEmpty()) query.setParameter("conditions", filter.conditions());
+    if (!filter.locations().isEmpty()) query.setParameter("locations", filter.locations());
+    if (filter.searchTerm() != null) query.setParameter("search", likePattern(filter.searchTerm()));
+
+    return query.setFirstResult(offset).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public Map<String, Map<String, Long>> countFacets(EquipmentFilter filter) {
+    // Each facet is counted with every filter applied except its own, so the
+    // client can show how many items each alternative value would yield.
+    Map<String, String> predicates = new HashMap<>();
+    if (!filter.categories().isEmpty()) predicates.put(FACET_CATEGORY, "e.category IN (:categories)");
+    if (!filter.statuses().isEmpty()) predicates.put(FACET_STATUS, "e.status IN (:statuses)");
+    if (!filter.conditions().isEmpty()) predicates.put(FACET_CONDITION, "e.condition IN (:conditions)");
+    if (!filter.locations().isEmpty()) predicates.put(FACET_LOCATION, "e.location IN (:locations)");
+
+    StringBuilder sql = new StringBuilder("SELECT e.category, e.status, e.condition, e.location, ")
+        .append("GROUPING(e.category), GROUPING(e.status), GROUPING(e.condition), GROUPING(e.location)");
+    for (String facet : FACETS) {
+      sql.append(", ").append(countExcluding(predicates, facet));
+    }
+    sql.append(", ").append(countExcluding(predicates, null))
+        .append(" FROM equipment e WHERE e.active = true");
+    if (filter.searchTerm() != null) {
+      sql.append(" AND (LOWER(e.make) LIKE :search OR LOWER(e.model) LIKE :search")
+          .append(" OR LOWER(e.serial_number) LIKE :search OR LOWER(e.qr_code) LIKE :search)");
+    }
+    sql.append(" GROUP BY GROUPING SETS ((e.category), (e.status), (e.condition), (e.location), ())");
+
+    Query query = entityManager.createNativeQuery(sql.toString());
+    if (!filter.categories().isEmpty()) query.setParameter("categories", names(filter.categories()));
+    if (!filter.statuses().isEmpty()) query.setParameter("statuses", names(filter.statuses()));
+    if (!filter.conditions().isEmpty()) query.setParameter("conditions", names(filter.conditions()));
+    if (!filter.locations().isEmpty()) query.setParameter("locations", new ArrayList<>(filter.locations()));
+    if (filter.searchTerm() != null) query.setParameter("search", likePattern(filter.searchTerm()));
+
+    Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+    for (String facet : FACETS) {
+      facets.put(facet, new LinkedHashMap<>());
+    }
+    facets.put(FACET_TOTAL, new LinkedHashMap<>(Map.of("all", 0L)));
+
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows = query.getResultList();
+    for (Object[] row : rows) {
+      boolean grandTotal = true;
+      for (int i = 0; i < FACETS.size(); i++) {
+        boolean groupedOnThisFacet = ((Number) row[4 + i]).intValue() == 0;
+        if (groupedOnThisFacet) {
+          grandTotal = false;
+          if (row[i] != null) {
+            facets.get(FACETS.get(i)).put(row[i].toString(), ((Number) row[8 + i]).longValue());
+          }
+        }
+      }
+      if (grandTotal) {
+        facets.get(FACET_TOTAL).put("all", ((Number) row[12]).longValue());
+      }
+    }
+    return facets;
+  }
+
+  private static String countExcluding(Map<String, String> predicates, String excludedFacet) {
+    String condition = predicates.entrySet().stream()
+        .filter(entry -> !entry.getKey().equals(excludedFacet))
+        .map(Map.Entry::getValue)
+        .collect(Collectors.joining(" AND "));
+    return condition.isEmpty() ? "COUNT(*)" : "COUNT(*) FILTER (WHERE " + condition + ")";
+  }
+
+  private static List<String> names(Iterable<? extends Enum<?>> values) {
+    List<String> names = new ArrayList<>();
+    values.forEach(value -> names.add(value.name()));
+    return names;
+  }
+
+  private static String likePattern(String term) {
+    return "%" + term.toLowerCase() + "%";
+  }
+}
@@ -0,0 +1,38 @@
+package com.band.repo;
+
+import com.band.domain.Location;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LocationRepository extends JpaRepository<Location, UUID> {
+  
+  List<Location> findByParentIdIsNullOrderByName();
+  List<Location> findByParentIdOrderByName(UUID parentId);
+  Optional<Location> findByParentIdAndName(UUID parentId, String name);
+  
+  // Closure table lookups
+  @Query(value = "SELECT l.* FROM location_closure c JOIN locations l ON l.id = c.descendant_id " +
+                 "WHERE c.ancestor_id = :id ORDER BY c.depth, l.name", nativeQuery = true)
+  List<Location> findSubtree(@Param("id") UUID id);
+  
+  @Query(value = "SELECT l.* FROM location_closure c JOIN locations l ON l.id = c.ancestor_id " +
+                 "WHERE c.descendant_id = :id ORDER BY c.depth DESC", nativeQuery = true)
+  List<Location> findPath(@Param("id") UUID id);
+  
+  @Query(value = "SELECT EXISTS (SELECT 1 FROM location_closure WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId)",
+         nativeQuery = true)
+  boolean isAncestorOf(@Param("ancestorId") UUID ancestorId, @Param("descendantId") UUID descendantId);
+  
+  // Trigger-maintained per-location counts, summed over the subtree
+  @Query(value = "SELECT sc.status, SUM(sc.equipment_count) FROM location_closure c " +
+                 "JOIN location_status_counts sc ON sc.location_id = c.descendant_id " +
+                 "WHERE c.ancestor_id = :id GROUP BY sc.status HAVING SUM(sc.equipment_count) > 0", nativeQuery = true)
+  List<Object[]> countSubtreeByStatus(@Param("id") UUID id);
+}
@@ -1,8 +1,11 @@
 package com.band.repo;
 
 import com.band.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,10 +15,13 @@ import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+  // Cached queries are invalidated whenever the users table changes
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   Optional<User> findByEmail(String email);
   long countByRoleAndActiveTrue(String role);
   
   // Additional queries for band system
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<User> findByRoleAndActiveTrue(String role);
   List<User> findByBandSectionAndActiveTrue(String bandSection);
   List<User> findByGradeLevelAndActiveTrue(Integer gradeLevel);
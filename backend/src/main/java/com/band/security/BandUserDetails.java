@@ -0,0 +1,25 @@
+package com.band.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * The authenticated user together with the profile fields login answers with,
+ * so a successful login needs no second lookup.
+ */
+public class BandUserDetails extends User {
+  private final String displayName;
+  private final String role;
+
+  public BandUserDetails(String email, String password, Collection<? extends GrantedAuthority> authorities,
+                         String displayName, String role) {
+    super(email, password, authorities);
+    this.displayName = displayName;
+    this.role = role;
+  }
+
+  public String getDisplayName() { return displayName; }
+  public String getRole() { return role; }
+}
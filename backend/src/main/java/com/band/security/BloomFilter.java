@@ -0,0 +1,67 @@
+package com.band.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings. {@link #mightContain} never gives a
+ * false negative, so a miss is a definite answer without touching any set.
+ *
+ * <p>Sized for an expected number of insertions at a target false-positive
+ * rate; past that the rate degrades gradually rather than failing.
+ */
+final class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bits;
+  private final int hashes;
+
+  BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    int n = Math.max(1, expectedInsertions);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.bits = Math.max(64, (m + 63) / 64 * 64);
+    this.words = new AtomicLongArray((int) (bits / 64));
+    this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+  }
+
+  void add(String value) {
+    long h1 = hash(value, 0x9E3779B97F4A7C15L);
+    long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+    for (int i = 0; i < hashes; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bits);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = words.get(word);
+      while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+        current = words.get(word);
+      }
+    }
+  }
+
+  boolean mightContain(String value) {
+    long h1 = hash(value, 0x9E3779B97F4A7C15L);
+    long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+    for (int i = 0; i < hashes; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bits);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // 64-bit FNV-1a with a seed, finished with the murmur3 mixer
+  private static long hash(String value, long seed) {
+    long h = 0xCBF29CE484222325L ^ seed;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001B3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB93FE1A85D3BL;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -1,21 +1,35 @@
 package com.band.security;
 
 import com.band.repo.UserRepository;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class DbUserDetailsService implements UserDetailsService {
+public class DbUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
   private final UserRepository repo;
   public DbUserDetailsService(UserRepository repo) { this.repo = repo; }
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
     return repo.findByEmail(username)
-        .map(u -> User.withUsername(u.getEmail()).password(u.getPassword()).roles(u.getRole()).build())
+        .map(u -> new BandUserDetails(u.getEmail(), u.getPassword(),
+            AuthorityUtils.createAuthorityList("ROLE_" + u.getRole()),
+            u.getName(), u.getRole()))
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
   }
+
+  // Called after a successful login whose stored hash used a different BCrypt cost
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    repo.findByEmail(user.getUsername()).ifPresent(u -> u.setPassword(newPassword));
+    BandUserDetails details = (BandUserDetails) user;
+    return new BandUserDetails(details.getUsername(), newPassword, details.getAuthorities(),
+        details.getDisplayName(), details.getRole());
+  }
 }
@@ -0,0 +1,33 @@
+package com.band.security;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Classes of requests that get separate rate-limit budgets, so a client looping
+ * on one of them cannot spend the budget of the others.
+ */
+public enum EndpointGroup {
+  CHECKOUT,
+  SEARCH,
+  WRITE,
+  READ,
+  STOMP;
+
+  private static final Pattern RETURN = Pattern.compile("/api/assignments/[^/]+/return");
+
+  public static EndpointGroup classify(String method, String path) {
+    if (path.startsWith("/api/assignments/checkout") || RETURN.matcher(path).matches()) {
+      return CHECKOUT;
+    }
+    if (path.startsWith("/api/equipment/search") || path.startsWith("/api/equipment/query")) {
+      return SEARCH;
+    }
+    return "GET".equals(method) || "HEAD".equals(method) ? READ : WRITE;
+  }
+
+  /** Name used in configuration and metric tags. */
+  public String key() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -9,7 +9,6 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -19,10 +18,18 @@ import java.util.Optional;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
+  // EventSource cannot set headers, so event streams take a stream token in the query string instead
+  static final String STREAM_PATH = "/api/stream/";
+  static final String STREAM_TOKEN_PARAM = "access_token";
+
   private final JwtService jwtService;
+  private final VerifiedTokenCache tokenCache;
+  private final TokenRevocationList revocations;
 
-  public JwtAuthFilter(JwtService jwtService) {
+  public JwtAuthFilter(JwtService jwtService, VerifiedTokenCache tokenCache, TokenRevocationList revocations) {
     this.jwtService = jwtService;
+    this.tokenCache = tokenCache;
+    this.revocations = revocations;
   }
 
   @Override
@@ -31,17 +38,39 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     String header = request.getHeader(HttpHeaders.AUTHORIZATION);
     if (header != null && header.startsWith("Bearer ")) {
       String token = header.substring(7);
-      Optional<JWTClaimsSet> claims = jwtService.validate(token);
-      if (claims.isPresent()) {
-        String subject = claims.get().getSubject();
-        String role = String.valueOf(claims.get().getClaim("role"));
-        User principal = new User(subject, "", List.of(() -> "ROLE_" + role.toUpperCase().replace(' ', '_')));
-        UsernamePasswordAuthenticationToken auth =
-            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
-        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        SecurityContextHolder.getContext().setAuthentication(auth);
+      VerifiedTokenCache.Entry entry = tokenCache.get(token);
+      if (entry == null) {
+        entry = verify(token);
+      }
+      if (entry != null && !revocations.isRevoked(entry.jti(), entry.family())) {
+        SecurityContextHolder.getContext().setAuthentication(authentication(entry.subject(), entry.role()));
       }
+    } else if (request.getRequestURI().startsWith(STREAM_PATH) && request.getParameter(STREAM_TOKEN_PARAM) != null) {
+      // Not cached: the cache is keyed by token and would let it through the Authorization header
+      jwtService.validateStream(request.getParameter(STREAM_TOKEN_PARAM))
+          .filter(claims -> !revocations.isRevoked(claims.getJWTID(), JwtService.stringClaim(claims, JwtService.FAMILY_CLAIM)))
+          .ifPresent(claims -> SecurityContextHolder.getContext()
+              .setAuthentication(authentication(claims.getSubject(), String.valueOf(claims.getClaim("role")))));
     }
     filterChain.doFilter(request, response);
   }
+
+  // Full JOSE parse and HMAC check; later requests with the same token reuse the verified claims
+  private VerifiedTokenCache.Entry verify(String token) {
+    Optional<JWTClaimsSet> claims = jwtService.validate(token);
+    if (claims.isEmpty()) {
+      return null;
+    }
+    VerifiedTokenCache.Entry entry = new VerifiedTokenCache.Entry(claims.get().getSubject(),
+        String.valueOf(claims.get().getClaim("role")), claims.get().getJWTID(),
+        JwtService.stringClaim(claims.get(), JwtService.FAMILY_CLAIM), claims.get().getExpirationTime().toInstant());
+    tokenCache.put(token, entry);
+    return entry;
+  }
+
+  // A new token per request: Spring Security mutates it (setAuthenticated, eraseCredentials, setDetails)
+  private static UsernamePasswordAuthenticationToken authentication(String subject, String role) {
+    User principal = new User(subject, "", List.of(() -> "ROLE_" + role.toUpperCase().replace(' ', '_')));
+    return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+  }
 }
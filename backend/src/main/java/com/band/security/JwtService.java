@@ -5,16 +5,39 @@ import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Issues and verifies HS256 tokens. Logins get a short-lived access token and
+ * a refresh token; both carry a {@code jti} and the {@code fam} id shared by
+ * every token descended from the same login. Refresh tokens are single use:
+ * each refresh revokes the presented one and issues a new pair in the same
+ * family, and presenting a refresh token a second time revokes the family.
+ * Stream tokens are minted from an access token for opening event streams,
+ * which browsers can only authenticate through the URL; they live for
+ * {@code stream-token-seconds} and are accepted nowhere else.
+ */
 @Service
+@Slf4j
 public class JwtService {
+  public static final String TYPE_CLAIM = "typ";
+  public static final String FAMILY_CLAIM = "fam";
+  private static final String ACCESS = "access";
+  private static final String REFRESH = "refresh";
+  private static final String STREAM = "stream";
+
+  private final TokenRevocationList revocations;
+
   @Value("${app.jwt.secret}")
   private String secret;
 
@@ -24,16 +47,110 @@ public class JwtService {
   @Value("${app.jwt.expirationMinutes}")
   private long expirationMinutes;
 
-  public String generate(String subject, String role) {
+  @Value("${app.jwt.refresh-days:14}")
+  private long refreshDays;
+
+  @Value("${app.jwt.stream-token-seconds:60}")
+  private long streamTokenSeconds;
+
+  // Both are thread-safe and derive the HMAC key once; null if the secret is unusable
+  private JWSSigner signer;
+  private JWSVerifier verifier;
+
+  public JwtService(TokenRevocationList revocations) {
+    this.revocations = revocations;
+  }
+
+  public record TokenPair(String accessToken, String refreshToken, Instant accessExpiresAt, Instant refreshExpiresAt) {
+  }
+
+  public record StreamToken(String token, Instant expiresAt) {
+  }
+
+  @PostConstruct
+  void init() {
+    byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+    try {
+      signer = new MACSigner(key);
+      verifier = new MACVerifier(key);
+    } catch (JOSEException e) {
+      log.error("app.jwt.secret cannot be used for HS256 ({}); tokens can be neither issued nor accepted", e.getMessage());
+    }
+  }
+
+  /** Starts a new token family for a successful login. */
+  public TokenPair issue(String subject, String role) {
+    return issue(subject, role, UUID.randomUUID().toString());
+  }
+
+  /**
+   * Exchanges a refresh token for a new pair without touching the users table.
+   * Empty if the token is invalid, expired, revoked or already used.
+   */
+  public Optional<TokenPair> refresh(String refreshToken) {
+    Optional<JWTClaimsSet> verified = verify(refreshToken, REFRESH);
+    if (verified.isEmpty()) return Optional.empty();
+    JWTClaimsSet claims = verified.get();
+    String family = stringClaim(claims, FAMILY_CLAIM);
+    if (claims.getJWTID() == null || family == null || revocations.isRevoked(null, family)) return Optional.empty();
+
+    Instant expiresAt = claims.getExpirationTime().toInstant();
+    if (!revocations.revoke(claims.getJWTID(), expiresAt)) {
+      // Already rotated, so one of the two holders is not the user: end the whole login
+      log.warn("Refresh token reuse for {}; revoking token family {}", claims.getSubject(), family);
+      revokeFamily(family);
+      return Optional.empty();
+    }
+    return Optional.of(issue(claims.getSubject(), stringClaim(claims, "role"), family));
+  }
+
+  /** Logs out every token issued from the same login, access and refresh alike. */
+  public void revokeFamily(String family) {
+    revocations.revoke(family, Instant.now().plusSeconds(refreshDays * 86400));
+  }
+
+  /** Verifies an access token; refresh tokens are not accepted here. */
+  public Optional<JWTClaimsSet> validate(String token) {
+    return verify(token, ACCESS);
+  }
+
+  /** Issues a stream token for the holder of a verified access token, in the same family so logout ends it too. */
+  public StreamToken issueStream(JWTClaimsSet access) {
+    Instant now = Instant.now();
+    Instant expiresAt = now.plusSeconds(streamTokenSeconds);
+    return new StreamToken(sign(access.getSubject(), stringClaim(access, "role"), stringClaim(access, FAMILY_CLAIM),
+        STREAM, now, expiresAt), expiresAt);
+  }
+
+  /** Verifies a stream token; access and refresh tokens are not accepted here. */
+  public Optional<JWTClaimsSet> validateStream(String token) {
+    return verify(token, STREAM);
+  }
+
+  private TokenPair issue(String subject, String role, String family) {
+    Instant now = Instant.now();
+    Instant accessExpiresAt = now.plusSeconds(expirationMinutes * 60);
+    Instant refreshExpiresAt = now.plusSeconds(refreshDays * 86400);
+    return new TokenPair(
+        sign(subject, role, family, ACCESS, now, accessExpiresAt),
+        sign(subject, role, family, REFRESH, now, refreshExpiresAt),
+        accessExpiresAt, refreshExpiresAt);
+  }
+
+  private String sign(String subject, String role, String family, String type, Instant now, Instant expiresAt) {
+    if (signer == null) {
+      throw new IllegalStateException("JWT signing is not configured");
+    }
     try {
-      JWSSigner signer = new MACSigner(secret.getBytes());
-      Instant now = Instant.now();
       JWTClaimsSet claims = new JWTClaimsSet.Builder()
           .subject(subject)
           .issuer(issuer)
+          .jwtID(UUID.randomUUID().toString())
           .issueTime(Date.from(now))
-          .expirationTime(Date.from(now.plusSeconds(expirationMinutes * 60)))
+          .expirationTime(Date.from(expiresAt))
           .claim("role", role)
+          .claim(FAMILY_CLAIM, family)
+          .claim(TYPE_CLAIM, type)
           .build();
       SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
       jwt.sign(signer);
@@ -43,15 +160,24 @@ public class JwtService {
     }
   }
 
-  public Optional<JWTClaimsSet> validate(String token) {
+  // Tokens issued before typ existed are access tokens
+  private Optional<JWTClaimsSet> verify(String token, String type) {
+    if (verifier == null) return Optional.empty();
     try {
       SignedJWT jwt = SignedJWT.parse(token);
-      JWSVerifier verifier = new MACVerifier(secret.getBytes());
       if (!jwt.verify(verifier)) return Optional.empty();
-      if (jwt.getJWTClaimsSet().getExpirationTime().before(new Date())) return Optional.empty();
-      return Optional.of(jwt.getJWTClaimsSet());
+      JWTClaimsSet claims = jwt.getJWTClaimsSet();
+      if (claims.getExpirationTime() == null || claims.getExpirationTime().before(new Date())) return Optional.empty();
+      String actual = stringClaim(claims, TYPE_CLAIM);
+      if (!type.equals(actual == null ? ACCESS : actual)) return Optional.empty();
+      return Optional.of(claims);
     } catch (ParseException | JOSEException e) {
       return Optional.empty();
     }
   }
+
+  public static String stringClaim(JWTClaimsSet claims, String name) {
+    Object value = claims.getClaim(name);
+    return value != null ? value.toString() : null;
+  }
 }
@@ -0,0 +1,25 @@
+package com.band.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/** Per-node limits: each backend node enforces the full budget on its own. */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+
+  private final StripedTokenBuckets buckets;
+
+  public LocalRateLimiter(@Value("${app.rate-limit.stripes:64}") int stripes,
+                          @Value("${app.rate-limit.max-buckets-per-stripe:4096}") int maxPerStripe) {
+    this.buckets = new StripedTokenBuckets(stripes, maxPerStripe);
+  }
+
+  @Override
+  public Duration tryAcquire(String key, Budget budget) {
+    return buckets.tryAcquire(key, budget);
+  }
+}
@@ -0,0 +1,31 @@
+package com.band.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Single-node store: the revocation list's own memory is the only copy, so
+ * revocations do not survive a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jwt.revocation.store", havingValue = "local", matchIfMissing = true)
+public class LocalRevocationStore implements RevocationStore {
+
+  @Override
+  public boolean revoke(String id, Instant until) {
+    return true;
+  }
+
+  @Override
+  public Map<String, Instant> loadAll() {
+    return Map.of();
+  }
+
+  @Override
+  public void setListener(BiConsumer<String, Instant> listener) {
+  }
+}
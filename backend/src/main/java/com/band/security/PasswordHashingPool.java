@@ -0,0 +1,107 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password verification on a fixed pool sized to the cores, off the
+ * request threads, so a burst of logins competes only with other logins.
+ *
+ * <p>The queue is bounded: once it is full {@link #submit} fails with
+ * {@link Rejected}, which carries how long the queued work should take to
+ * clear, for the caller to send back as {@code Retry-After}. Tasks go
+ * through the application's {@link TaskDecorator}, if there is one.
+ */
+@Component
+public class PasswordHashingPool {
+
+  private final ThreadPoolExecutor executor;
+  private final TaskDecorator decorator;
+  private final Timer hashing;
+  private final Timer waiting;
+  private final Counter rejected;
+
+  public PasswordHashingPool(MeterRegistry meterRegistry,
+                             ObjectProvider<TaskDecorator> decorator,
+                             @Value("${app.auth.hashing.threads:0}") int threads,
+                             @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity) {
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger counter = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> Thread.ofPlatform().name("password-hash-" + counter.incrementAndGet()).daemon().unstarted(runnable),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.decorator = decorator.getIfUnique(() -> runnable -> runnable);
+
+    this.hashing = Timer.builder("band.auth.hashing.duration")
+        .description("Time spent verifying a password")
+        .register(meterRegistry);
+    this.waiting = Timer.builder("band.auth.hashing.wait")
+        .description("Time a login waited for a hashing thread")
+        .register(meterRegistry);
+    this.rejected = Counter.builder("band.auth.hashing.rejected")
+        .description("Logins turned away because the hashing queue was full")
+        .register(meterRegistry);
+    Gauge.builder("band.auth.hashing.queued", executor, e -> e.getQueue().size()).register(meterRegistry);
+  }
+
+  /** Runs {@code task} on the pool; fails with {@link Rejected} if the queue is full. */
+  public <T> CompletableFuture<T> submit(Supplier<T> task) {
+    long enqueued = System.nanoTime();
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        long started = System.nanoTime();
+        waiting.record(started - enqueued, TimeUnit.NANOSECONDS);
+        try {
+          return task.get();
+        } finally {
+          hashing.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+      }, runnable -> executor.execute(decorator.decorate(runnable)));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      return CompletableFuture.failedFuture(new Rejected(retryAfter()));
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  // Queued work divided across the threads at the observed hashing time, at least a second
+  private Duration retryAfter() {
+    double meanMillis = hashing.count() > 0 ? hashing.mean(TimeUnit.MILLISECONDS) : 100;
+    double backlog = executor.getQueue().size() + executor.getActiveCount();
+    long millis = (long) (backlog * meanMillis / executor.getMaximumPoolSize());
+    return Duration.ofSeconds(Math.max(1, (millis + 999) / 1000));
+  }
+
+  /** The hashing queue is full; retry after {@link #getRetryAfter()}. */
+  public static class Rejected extends RuntimeException {
+    private final Duration retryAfter;
+
+    Rejected(Duration retryAfter) {
+      super("Too many logins in progress");
+      this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() { return retryAfter; }
+  }
+}
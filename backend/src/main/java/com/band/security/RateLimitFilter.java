@@ -0,0 +1,52 @@
+package com.band.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Applies {@link RateLimitPolicy} to API requests. Runs right after
+ * {@link JwtAuthFilter}, so callers are keyed by token subject; requests
+ * without one are keyed by client address.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+  private final RateLimitPolicy policy;
+
+  public RateLimitFilter(RateLimitPolicy policy) {
+    this.policy = policy;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    boolean authenticated = auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken);
+    String subject = authenticated ? auth.getName() : "ip:" + request.getRemoteAddr();
+    EndpointGroup group = EndpointGroup.classify(request.getMethod(), request.getRequestURI());
+
+    Duration wait = policy.check(subject, authenticated ? auth.getAuthorities() : null, group);
+    if (!wait.isZero()) {
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (wait.toMillis() + 999) / 1000)));
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,125 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rate-limit budgets per role and endpoint group, and the check both the HTTP
+ * filter and the STOMP inbound channel go through.
+ *
+ * <p>Budgets are configured under {@code app.rate-limit.budgets} as one line per
+ * role, e.g. {@code student: "checkout=10/1m,search=30/1m"}, meaning ten
+ * tokens refilled evenly over a minute. Roles use their lower-case dashed form
+ * ({@code band-director}); {@code default} covers roles and groups not listed,
+ * and a group with no budget anywhere is not limited. Unauthenticated requests
+ * are keyed by client address and only limited by an {@code anonymous} line,
+ * since behind a proxy they all share one address.
+ */
+@Component
+@Slf4j
+public class RateLimitPolicy {
+
+  private static final String DEFAULT_ROLE = "default";
+  public static final String ANONYMOUS_ROLE = "anonymous";
+
+  private final RateLimiter limiter;
+  private final boolean enabled;
+  private final Map<String, Map<EndpointGroup, RateLimiter.Budget>> budgets = new HashMap<>();
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+  public RateLimitPolicy(RateLimiter limiter,
+                         Environment environment,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.rate-limit.enabled:true}") boolean enabled) {
+    this.limiter = limiter;
+    this.enabled = enabled;
+    this.meterRegistry = meterRegistry;
+    Binder.get(environment)
+        .bind("app.rate-limit.budgets", Bindable.mapOf(String.class, String.class))
+        .orElse(Map.of())
+        .forEach((role, spec) -> budgets.put(role.toLowerCase(Locale.ROOT), parse(role, spec)));
+    log.info("Rate limiting {} with budgets for {}", enabled ? "enabled" : "disabled", budgets.keySet());
+  }
+
+  /**
+   * Takes a token for {@code subject} in {@code group}. Returns
+   * {@link Duration#ZERO} if the call may proceed, otherwise how long the
+   * caller should wait before retrying.
+   */
+  public Duration check(String subject, Collection<? extends GrantedAuthority> authorities, EndpointGroup group) {
+    if (!enabled) {
+      return Duration.ZERO;
+    }
+    String role = roleOf(authorities);
+    RateLimiter.Budget budget = budgetFor(role, group);
+    if (budget == null) {
+      return Duration.ZERO;
+    }
+    Duration wait = limiter.tryAcquire(subject + "|" + group.key(), budget);
+    if (!wait.isZero()) {
+      rejections.computeIfAbsent(group.key() + "|" + role, key -> Counter.builder("band.ratelimit.rejected")
+          .description("Requests and STOMP messages refused by the rate limiter")
+          .tag("group", group.key())
+          .tag("role", role)
+          .register(meterRegistry)).increment();
+    }
+    return wait;
+  }
+
+  private RateLimiter.Budget budgetFor(String role, EndpointGroup group) {
+    Map<EndpointGroup, RateLimiter.Budget> forRole = budgets.get(role);
+    if (forRole != null && forRole.containsKey(group)) {
+      return forRole.get(group);
+    }
+    Map<EndpointGroup, RateLimiter.Budget> defaults = budgets.get(DEFAULT_ROLE);
+    return defaults != null && !ANONYMOUS_ROLE.equals(role) ? defaults.get(group) : null;
+  }
+
+  // ROLE_BAND_DIRECTOR -> band-director
+  private static String roleOf(Collection<? extends GrantedAuthority> authorities) {
+    if (authorities != null) {
+      for (GrantedAuthority authority : authorities) {
+        String name = authority.getAuthority();
+        if (name != null && name.startsWith("ROLE_")) {
+          return name.substring(5).toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+      }
+    }
+    return ANONYMOUS_ROLE;
+  }
+
+  private static Map<EndpointGroup, RateLimiter.Budget> parse(String role, String spec) {
+    Map<EndpointGroup, RateLimiter.Budget> parsed = new EnumMap<>(EndpointGroup.class);
+    for (String entry : spec.split(",")) {
+      String[] parts = entry.trim().split("[=/]");
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Bad rate-limit budget for " + role + ": " + entry);
+      }
+      EndpointGroup group = EndpointGroup.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+      int capacity = Integer.parseInt(parts[1].trim());
+      Duration period = DurationStyle.detectAndParse(parts[2].trim());
+      if (capacity < 1 || period.isZero() || period.isNegative()) {
+        throw new IllegalArgumentException("Rate-limit budget for " + role + " must be positive: " + entry);
+      }
+      parsed.put(group, new RateLimiter.Budget(capacity, period));
+    }
+    return parsed;
+  }
+}
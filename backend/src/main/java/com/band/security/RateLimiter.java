@@ -0,0 +1,20 @@
+package com.band.security;
+
+import java.time.Duration;
+
+/** Token buckets keyed by caller and endpoint group. */
+public interface RateLimiter {
+
+  /** Capacity tokens, refilled evenly over {@code period}. */
+  record Budget(int capacity, Duration period) {
+    double tokensPerNano() {
+      return capacity / (double) period.toNanos();
+    }
+  }
+
+  /**
+   * Takes one token from {@code key}'s bucket. Returns {@link Duration#ZERO}
+   * if one was available, otherwise how long until the next one is.
+   */
+  Duration tryAcquire(String key, Budget budget);
+}
@@ -0,0 +1,76 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cluster-wide limits: buckets live in Redis and are updated by one script
+ * call, timed on the Redis clock, so every node draws from the same budget.
+ * While Redis is unreachable each node falls back to its own striped buckets.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "redis")
+@Slf4j
+public class RedisRateLimiter implements RateLimiter {
+
+  private static final String KEY_PREFIX = "band:rl:";
+
+  // Returns 0 if a token was taken, otherwise milliseconds until one is available
+  private static final DefaultRedisScript<Long> TAKE_TOKEN = new DefaultRedisScript<>("""
+      local capacity = tonumber(ARGV[1])
+      local perMs = tonumber(ARGV[2])
+      local time = redis.call('TIME')
+      local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+      local state = redis.call('HMGET', KEYS[1], 't', 'u')
+      local tokens = tonumber(state[1]) or capacity
+      local updated = tonumber(state[2]) or now
+      tokens = math.min(capacity, tokens + math.max(0, now - updated) * perMs)
+      local wait = 0
+      if tokens >= 1 then
+        tokens = tokens - 1
+      else
+        wait = math.ceil((1 - tokens) / perMs)
+      end
+      redis.call('HSET', KEYS[1], 't', tostring(tokens), 'u', tostring(now))
+      redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / perMs) + 1000)
+      return wait
+      """, Long.class);
+
+  private final StringRedisTemplate redis;
+  private final StripedTokenBuckets fallback;
+  private final Counter failures;
+
+  public RedisRateLimiter(StringRedisTemplate redis,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.rate-limit.stripes:64}") int stripes,
+                          @Value("${app.rate-limit.max-buckets-per-stripe:4096}") int maxPerStripe) {
+    this.redis = redis;
+    this.fallback = new StripedTokenBuckets(stripes, maxPerStripe);
+    this.failures = Counter.builder("band.ratelimit.store.failures")
+        .description("Rate-limit checks that fell back to local buckets because Redis failed")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public Duration tryAcquire(String key, Budget budget) {
+    double perMs = budget.capacity() / (double) budget.period().toMillis();
+    try {
+      Long waitMs = redis.execute(TAKE_TOKEN, List.of(KEY_PREFIX + key),
+          Integer.toString(budget.capacity()), Double.toString(perMs));
+      return waitMs == null || waitMs <= 0 ? Duration.ZERO : Duration.ofMillis(waitMs);
+    } catch (Exception e) {
+      failures.increment();
+      log.debug("Rate limit check for {} fell back to local buckets: {}", key, e.getMessage());
+      return fallback.tryAcquire(key, budget);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps revocations in Redis with a TTL matching the revoked token's expiry,
+ * and announces each one on a pub/sub channel so every node adds it to its
+ * in-memory list. Lookups never go to Redis; it is only written on logout and
+ * refresh, and read once at startup.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jwt.revocation.store", havingValue = "redis")
+@Slf4j
+public class RedisRevocationStore implements RevocationStore, MessageListener {
+
+  private static final String KEY_PREFIX = "band:jwt:revoked:";
+  private static final String CHANNEL = "band:jwt:revocations";
+
+  private final StringRedisTemplate redis;
+  private final Counter failures;
+  private volatile BiConsumer<String, Instant> listener;
+
+  public RedisRevocationStore(StringRedisTemplate redis,
+                              RedisMessageListenerContainer listenerContainer,
+                              MeterRegistry meterRegistry) {
+    this.redis = redis;
+    this.failures = Counter.builder("band.jwt.revocation.failures")
+        .description("Revocations that could not be written to or read from Redis")
+        .register(meterRegistry);
+    listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+  }
+
+  @Override
+  public boolean revoke(String id, Instant until) {
+    Duration ttl = Duration.between(Instant.now(), until);
+    if (ttl.isNegative() || ttl.isZero()) {
+      return true;
+    }
+    try {
+      Boolean created = redis.opsForValue().setIfAbsent(KEY_PREFIX + id, Long.toString(until.toEpochMilli()), ttl);
+      if (Boolean.TRUE.equals(created)) {
+        redis.convertAndSend(CHANNEL, id + " " + until.toEpochMilli());
+        return true;
+      }
+      return false;
+    } catch (Exception e) {
+      // Still enforced on this node; other nodes catch up only if it is retried
+      failures.increment();
+      log.warn("Failed to store revocation {} in Redis: {}", id, e.getMessage());
+      return true;
+    }
+  }
+
+  @Override
+  public Map<String, Instant> loadAll() {
+    Map<String, Instant> revoked = new HashMap<>();
+    ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+    try (Cursor<String> keys = redis.scan(options)) {
+      while (keys.hasNext()) {
+        String key = keys.next();
+        Long ttl = redis.getExpire(key, TimeUnit.MILLISECONDS);
+        if (ttl != null && ttl > 0) {
+          revoked.put(key.substring(KEY_PREFIX.length()), Instant.now().plusMillis(ttl));
+        }
+      }
+    } catch (Exception e) {
+      failures.increment();
+      log.warn("Failed to load revocations from Redis: {}", e.getMessage());
+    }
+    return revoked;
+  }
+
+  @Override
+  public void setListener(BiConsumer<String, Instant> listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    int space = body.indexOf(' ');
+    BiConsumer<String, Instant> target = listener;
+    if (space < 0 || target == null) {
+      return;
+    }
+    try {
+      target.accept(body.substring(0, space), Instant.ofEpochMilli(Long.parseLong(body.substring(space + 1))));
+    } catch (NumberFormatException e) {
+      log.warn("Dropping unreadable revocation message: {}", body);
+    }
+  }
+}
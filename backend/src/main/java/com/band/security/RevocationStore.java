@@ -0,0 +1,25 @@
+package com.band.security;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Where revoked token and family ids are kept beyond this node's memory, and
+ * how revocations made on other nodes reach this one.
+ */
+public interface RevocationStore {
+
+  /**
+   * Records {@code id} as revoked until {@code until} and tells the other
+   * nodes. Returns false if it was already revoked, which makes consuming a
+   * refresh token a single atomic step across nodes.
+   */
+  boolean revoke(String id, Instant until);
+
+  /** Revocations still in force, to seed a node that has just started. */
+  Map<String, Instant> loadAll();
+
+  /** Called for revocations made on other nodes. */
+  void setListener(BiConsumer<String, Instant> listener);
+}
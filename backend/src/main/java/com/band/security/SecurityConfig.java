@@ -1,27 +1,42 @@
 package com.band.security;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 @Configuration
 public class SecurityConfig {
+  private static final Pattern BCRYPT_COST = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$");
+
   private final JwtAuthFilter jwtAuthFilter;
+  private final RateLimitFilter rateLimitFilter;
   private final UserDetailsService userDetailsService;
+  private final UserDetailsPasswordService userDetailsPasswordService;
 
-  public SecurityConfig(JwtAuthFilter jwtAuthFilter, UserDetailsService uds) {
+  public SecurityConfig(JwtAuthFilter jwtAuthFilter, RateLimitFilter rateLimitFilter, DbUserDetailsService uds) {
     this.jwtAuthFilter = jwtAuthFilter;
+    this.rateLimitFilter = rateLimitFilter;
     this.userDetailsService = uds;
+    this.userDetailsPasswordService = uds;
   }
 
   @Bean
@@ -29,21 +44,38 @@ public class SecurityConfig {
     http.csrf(csrf -> csrf.disable())
         .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(reg -> reg
-            .requestMatchers("/actuator/**", "/api/v1/auth/login").permitAll()
+            // Streamed responses complete on an async dispatch after the original request was authorized
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+            .requestMatchers("/actuator/**", "/api/v1/auth/login", "/api/v1/auth/refresh").permitAll()
+            // Method security is not enabled, so @PreAuthorize alone would not restrict this
+            .requestMatchers(HttpMethod.POST, "/api/equipment/index/rebuild").hasRole("BAND_DIRECTOR")
             .anyRequest().authenticated()
         )
-        .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        // 401 rather than the default 403, so clients know to refresh their token and retry
+        .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+        .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+        .addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
     return http.build();
   }
 
+  // Hashes stored at any other cost are rehashed on the next successful login
   @Bean
-  public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+  public PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt-strength:10}") int strength) {
+    return new BCryptPasswordEncoder(strength) {
+      @Override
+      public boolean upgradeEncoding(String encodedPassword) {
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword == null ? "" : encodedPassword);
+        return cost.lookingAt() && Integer.parseInt(cost.group(1)) != strength;
+      }
+    };
+  }
 
   @Bean
-  public AuthenticationProvider authenticationProvider() {
+  public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
     provider.setUserDetailsService(userDetailsService);
-    provider.setPasswordEncoder(passwordEncoder());
+    provider.setUserDetailsPasswordService(userDetailsPasswordService);
+    provider.setPasswordEncoder(passwordEncoder);
     return provider;
   }
 
@@ -0,0 +1,89 @@
+package com.band.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * In-memory token buckets split across independently locked stripes, so
+ * callers only contend when their keys hash to the same stripe.
+ *
+ * <p>Each stripe holds at most {@code maxPerStripe} buckets. When it fills up,
+ * buckets that have refilled completely are dropped first, since a new bucket
+ * starts full anyway; if that is not enough the stripe starts over.
+ */
+final class StripedTokenBuckets {
+
+  private final Stripe[] stripes;
+  private final int mask;
+  private final int maxPerStripe;
+
+  StripedTokenBuckets(int stripes, int maxPerStripe) {
+    int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    this.stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new Stripe();
+    }
+    this.mask = size - 1;
+    this.maxPerStripe = maxPerStripe;
+  }
+
+  Duration tryAcquire(String key, RateLimiter.Budget budget) {
+    int hash = key.hashCode();
+    Stripe stripe = stripes[(hash ^ (hash >>> 16)) & mask];
+    long now = System.nanoTime();
+    double rate = budget.tokensPerNano();
+    synchronized (stripe) {
+      Bucket bucket = stripe.buckets.get(key);
+      if (bucket == null) {
+        if (stripe.buckets.size() >= maxPerStripe) {
+          stripe.evict(now, rate, maxPerStripe);
+        }
+        bucket = new Bucket(budget.capacity(), now);
+        stripe.buckets.put(key, bucket);
+      }
+      bucket.refill(now, budget.capacity(), rate);
+      if (bucket.tokens >= 1) {
+        bucket.tokens -= 1;
+        return Duration.ZERO;
+      }
+      return Duration.ofNanos((long) Math.ceil((1 - bucket.tokens) / rate));
+    }
+  }
+
+  private static final class Stripe {
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    // Assumes the budget being acquired is typical of the stripe; a bucket dropped early only starts full again
+    void evict(long now, double rate, int max) {
+      Iterator<Bucket> it = buckets.values().iterator();
+      while (it.hasNext()) {
+        Bucket bucket = it.next();
+        if (bucket.tokens + (now - bucket.updatedNanos) * rate >= bucket.capacity) {
+          it.remove();
+        }
+      }
+      if (buckets.size() >= max) {
+        buckets.clear();
+      }
+    }
+  }
+
+  private static final class Bucket {
+    private final int capacity;
+    private double tokens;
+    private long updatedNanos;
+
+    Bucket(int capacity, long now) {
+      this.capacity = capacity;
+      this.tokens = capacity;
+      this.updatedNanos = now;
+    }
+
+    void refill(long now, int capacity, double rate) {
+      tokens = Math.min(capacity, tokens + (now - updatedNanos) * rate);
+      updatedNanos = now;
+    }
+  }
+}
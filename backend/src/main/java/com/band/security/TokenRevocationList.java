@@ -0,0 +1,124 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked token ids ({@code jti}) and token families ({@code fam}), checked on
+ * every authenticated request.
+ *
+ * <p>A Bloom filter answers the common case, a token that was never revoked,
+ * without touching the set; only a possible hit is confirmed against the
+ * in-memory map. Entries are kept until the revoked token would have expired
+ * anyway, and the filter is rebuilt from the map when expired entries are
+ * purged. The {@link RevocationStore} shares revocations between nodes.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+
+  private final RevocationStore store;
+  private final int expectedRevocations;
+  private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("jwt-revocation-purge").daemon().factory());
+  private volatile BloomFilter filter;
+
+  private final Counter filterPasses;
+  private final Counter falsePositives;
+
+  public TokenRevocationList(RevocationStore store,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.jwt.revocation.expected:100000}") int expectedRevocations,
+                             @Value("${app.jwt.revocation.purge-interval:10m}") Duration purgeInterval) {
+    this.store = store;
+    this.expectedRevocations = expectedRevocations;
+    this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+
+    this.filterPasses = Counter.builder("band.jwt.revocation.checks").tag("result", "filtered")
+        .description("Revocation checks answered by the Bloom filter alone")
+        .register(meterRegistry);
+    this.falsePositives = Counter.builder("band.jwt.revocation.checks").tag("result", "false-positive")
+        .description("Bloom filter hits that the revocation set did not confirm")
+        .register(meterRegistry);
+    Gauge.builder("band.jwt.revocation.size", revoked, Map::size).register(meterRegistry);
+
+    store.setListener(this::add);
+    store.loadAll().forEach(this::add);
+    purger.scheduleAtFixedRate(this::purge, purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** Whether the token itself or its whole family has been revoked. */
+  public boolean isRevoked(String jti, String family) {
+    return contains(jti) || contains(family);
+  }
+
+  /**
+   * Revokes {@code id} until {@code until}. Returns false if it was already
+   * revoked here or, with a shared store, on any node.
+   */
+  public boolean revoke(String id, Instant until) {
+    boolean fresh = add(id, until);
+    return store.revoke(id, until) && fresh;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    purger.shutdownNow();
+  }
+
+  private boolean contains(String id) {
+    if (id == null) {
+      return false;
+    }
+    if (!filter.mightContain(id)) {
+      filterPasses.increment();
+      return false;
+    }
+    Instant until = revoked.get(id);
+    if (until == null) {
+      falsePositives.increment();
+      return false;
+    }
+    return until.isAfter(Instant.now());
+  }
+
+  private boolean add(String id, Instant until) {
+    if (!until.isAfter(Instant.now())) {
+      return true;
+    }
+    boolean fresh = revoked.putIfAbsent(id, until) == null;
+    filter.add(id);
+    return fresh;
+  }
+
+  // Bloom filters cannot forget, so the filter is replaced by one built from what is left
+  private void purge() {
+    try {
+      Instant now = Instant.now();
+      revoked.values().removeIf(until -> !until.isAfter(now));
+      BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), FALSE_POSITIVE_RATE);
+      revoked.keySet().forEach(rebuilt::add);
+      filter = rebuilt;
+      // Added while rebuilding
+      revoked.keySet().forEach(rebuilt::add);
+    } catch (RuntimeException e) {
+      log.warn("Revocation purge failed: {}", e.getMessage());
+    }
+  }
+}
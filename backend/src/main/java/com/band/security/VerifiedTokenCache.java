@@ -0,0 +1,104 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The claims of bearer tokens that have already been verified, so a repeat
+ * request skips JOSE parsing and the HMAC check. Entries are immutable; each
+ * request builds its own authentication from them.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the token rather than the token
+ * itself and are dropped once the token expires. The cache is bounded: when
+ * full, expired entries are purged first and then arbitrary entries, which only
+ * costs those tokens one more verification. Entries keep the token's
+ * {@code jti} and family so revocation is still checked on every hit.
+ */
+@Component
+public class VerifiedTokenCache {
+
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private final int maxEntries;
+  private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+  private final Counter hits;
+  private final Counter misses;
+
+  public VerifiedTokenCache(MeterRegistry meterRegistry,
+                            @Value("${app.jwt.cache.max-entries:10000}") int maxEntries) {
+    this.maxEntries = maxEntries;
+    this.hits = Counter.builder("band.jwt.cache").tag("result", "hit")
+        .description("Bearer tokens resolved from the verified-token cache")
+        .register(meterRegistry);
+    this.misses = Counter.builder("band.jwt.cache").tag("result", "miss")
+        .description("Bearer tokens that had to be parsed and verified")
+        .register(meterRegistry);
+    Gauge.builder("band.jwt.cache.size", entries, Map::size).register(meterRegistry);
+  }
+
+  /** The cached entry for {@code token}, or null if it must be verified. */
+  public Entry get(String token) {
+    ByteBuffer key = digest(token);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (!entry.expiresAt().isAfter(Instant.now())) {
+      entries.remove(key, entry);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry;
+  }
+
+  public void put(String token, Entry entry) {
+    if (maxEntries <= 0) {
+      return;
+    }
+    if (entries.size() >= maxEntries) {
+      makeRoom();
+    }
+    entries.put(digest(token), entry);
+  }
+
+  private void makeRoom() {
+    Instant now = Instant.now();
+    entries.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+    // Still full of live tokens: shed a tenth rather than evicting on every put
+    Iterator<ByteBuffer> keys = entries.keySet().iterator();
+    int excess = entries.size() - maxEntries * 9 / 10;
+    while (excess-- > 0 && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  private static ByteBuffer digest(String token) {
+    MessageDigest digest = SHA256.get();
+    digest.reset();
+    return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  public record Entry(String subject, String role, String jti, String family, Instant expiresAt) {
+  }
+}
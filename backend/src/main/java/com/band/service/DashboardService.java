@@ -1,6 +1,8 @@
 package com.band.service;
 
 import com.band.domain.*;
+import com.band.db.AssignmentArchiver;
+import com.band.index.EquipmentBitmapIndex;
 import com.band.repo.*;
 import com.band.web.dto.DashboardDto;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +29,8 @@ public class DashboardService {
     private final BandEventRepository bandEventRepository;
     private final DigitalSignatureRepository digitalSignatureRepository;
     private final UserRepository userRepository;
+    private final EquipmentBitmapIndex equipmentIndex;
+    private final AssignmentArchiver assignmentArchiver;
     
     public DashboardDto.StudentDashboard getStudentDashboard(UUID userId) {
         log.info("Getting student dashboard for user: {}", userId);
@@ -154,8 +158,8 @@ public class DashboardService {
     public DashboardDto.EquipmentUtilizationMetrics getEquipmentUtilizationMetrics() {
         DashboardDto.EquipmentUtilizationMetrics metrics = new DashboardDto.EquipmentUtilizationMetrics();
         
-        long totalEquipment = equipmentRepository.countByActiveTrue();
-        long checkedOutEquipment = equipmentRepository.countByStatusAndActiveTrue(Equipment.EquipmentStatus.CHECKED_OUT);
+        long totalEquipment = countActiveEquipment();
+        long checkedOutEquipment = countActiveEquipment(Equipment.EquipmentStatus.CHECKED_OUT);
         
         metrics.setOverallUtilization(totalEquipment > 0 ? (double) checkedOutEquipment / totalEquipment : 0.0);
         metrics.setCategoryUtilization(buildCategoryUtilization());
@@ -239,7 +243,7 @@ public class DashboardService {
         LocalDateTime twoMonths = now.plus(60, ChronoUnit.DAYS);
         
         List<BandEvent> allUpcoming = bandEventRepository
-                .findByEventDateAfterAndActiveTrueOrderByEventDate(now.atZone(java.time.ZoneId.systemDefault()).toInstant());
+                .findByEventDateAfterAndActiveTrueOrderByEventDate(now);
         
         events.setThisWeek(allUpcoming.stream()
                 .filter(e -> e.getEventDate().isBefore(oneWeek))
@@ -321,7 +325,7 @@ public class DashboardService {
     
     private List<DashboardDto.MyEquipment> buildMyEquipment(UUID userId) {
         List<EquipmentAssignment> activeAssignments = equipmentAssignmentRepository
-                .findByStudentIdAndStatus(userId, EquipmentAssignment.AssignmentStatus.CHECKED_OUT);
+                .findActiveAssignmentsByStudent(userId, assignmentArchiver.hotFrom());
         
         return activeAssignments.stream()
                 .map(assignment -> {
@@ -352,7 +356,7 @@ public class DashboardService {
     
     private List<DashboardDto.UpcomingReturn> buildUpcomingReturns(UUID userId) {
         List<EquipmentAssignment> assignments = equipmentAssignmentRepository
-                .findByStudentIdAndStatus(userId, EquipmentAssignment.AssignmentStatus.CHECKED_OUT);
+                .findActiveAssignmentsByStudent(userId, assignmentArchiver.hotFrom());
         
         Instant twoWeeksFromNow = Instant.now().plus(14, ChronoUnit.DAYS);
         
@@ -398,9 +402,7 @@ public class DashboardService {
         
         // Get recent equipment assignments
         List<EquipmentAssignment> recentAssignments = equipmentAssignmentRepository
-                .findByStudentIdOrderByCreatedAtDesc(userId).stream()
-                .limit(10)
-                .collect(Collectors.toList());
+                .findTop10ByStudentIdOrderByCreatedAtDesc(userId);
         
         for (EquipmentAssignment assignment : recentAssignments) {
             DashboardDto.RecentActivityItem item = new DashboardDto.RecentActivityItem();
@@ -425,7 +427,7 @@ public class DashboardService {
     
     // Placeholder methods for complex calculations - would be fully implemented
     private List<DashboardDto.BandEventSummary> buildUpcomingEvents(UUID userId) {
-        return bandEventRepository.findByEventDateAfterAndActiveTrueOrderByEventDate(Instant.now())
+        return bandEventRepository.findByEventDateAfterAndActiveTrueOrderByEventDate(LocalDateTime.now())
                 .stream()
                 .limit(5)
                 .map(this::buildBandEventSummary)
@@ -519,12 +521,12 @@ public class DashboardService {
         
         overview.setTotalStudents((int) userRepository.countByRoleAndActiveTrue("Student"));
         overview.setActiveStudents((int) userRepository.countByRoleAndActiveTrue("Student")); // Simplified
-        overview.setTotalEquipment((int) equipmentRepository.countByActiveTrue());
-        overview.setAvailableEquipment((int) equipmentRepository.countByStatusAndActiveTrue(Equipment.EquipmentStatus.AVAILABLE));
-        overview.setCheckedOutEquipment((int) equipmentRepository.countByStatusAndActiveTrue(Equipment.EquipmentStatus.CHECKED_OUT));
-        overview.setMaintenanceEquipment((int) equipmentRepository.countByStatusAndActiveTrue(Equipment.EquipmentStatus.IN_MAINTENANCE));
-        overview.setUpcomingEvents((int) bandEventRepository.countByEventDateAfterAndActiveTrue(Instant.now()));
-        overview.setPendingReturns((int) equipmentAssignmentRepository.countByStatus(EquipmentAssignment.AssignmentStatus.CHECKED_OUT));
+        overview.setTotalEquipment((int) countActiveEquipment());
+        overview.setAvailableEquipment((int) countActiveEquipment(Equipment.EquipmentStatus.AVAILABLE));
+        overview.setCheckedOutEquipment((int) countActiveEquipment(Equipment.EquipmentStatus.CHECKED_OUT));
+        overview.setMaintenanceEquipment((int) countActiveEquipment(Equipment.EquipmentStatus.IN_MAINTENANCE));
+        overview.setUpcomingEvents((int) bandEventRepository.countByEventDateAfterAndActiveTrue(LocalDateTime.now()));
+        overview.setPendingReturns((int) equipmentAssignmentRepository.countCheckedOut(assignmentArchiver.hotFrom()));
         
         // Calculate system health score (simplified)
         double healthScore = calculateSystemHealthScore();
@@ -533,11 +535,20 @@ public class DashboardService {
         return overview;
     }
     
+    // Served from the in-memory bitmap index once it is built
+    private long countActiveEquipment() {
+        return equipmentIndex.isReady() ? equipmentIndex.countActive() : equipmentRepository.countByActiveTrue();
+    }
+    
+    private long countActiveEquipment(Equipment.EquipmentStatus status) {
+        return equipmentIndex.isReady() ? equipmentIndex.countByStatus(status) : equipmentRepository.countByStatusAndActiveTrue(status);
+    }
+    
     private double calculateSystemHealthScore() {
         // Simplified calculation - would be more comprehensive in real implementation
-        long totalEquipment = equipmentRepository.countByActiveTrue();
-        long availableEquipment = equipmentRepository.countByStatusAndActiveTrue(Equipment.EquipmentStatus.AVAILABLE);
-        long overdueAssignments = equipmentAssignmentRepository.countOverdueAssignments();
+        long totalEquipment = countActiveEquipment();
+        long availableEquipment = countActiveEquipment(Equipment.EquipmentStatus.AVAILABLE);
+        long overdueAssignments = equipmentAssignmentRepository.countOverdueAssignments(assignmentArchiver.hotFrom());
         
         double equipmentRatio = totalEquipment > 0 ? (double) availableEquipment / totalEquipment : 1.0;
         double overdueRatio = overdueAssignments > 0 ? 1.0 - (overdueAssignments / 100.0) : 1.0; // Simplified
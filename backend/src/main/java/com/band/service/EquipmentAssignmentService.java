@@ -5,6 +5,7 @@ import com.band.domain.EquipmentAssignment;
 import com.band.domain.EquipmentAssignment.AssignmentStatus;
 import com.band.domain.User;
 import com.band.domain.BandEvent;
+import com.band.db.AssignmentArchiver;
 import com.band.repo.EquipmentAssignmentRepository;
 import com.band.repo.EquipmentRepository;
 import com.band.repo.UserRepository;
@@ -32,6 +33,7 @@ public class EquipmentAssignmentService {
   private final EquipmentRepository equipmentRepository;
   private final UserRepository userRepository;
   private final BandEventRepository eventRepository;
+  private final AssignmentArchiver assignmentArchiver;
   
   // Basic CRUD operations
   public Page<EquipmentAssignment> findAllAssignments(Pageable pageable) {
@@ -64,7 +66,7 @@ public class EquipmentAssignmentService {
     
     // Check if equipment is already checked out
     Optional<EquipmentAssignment> existingAssignment = 
-        assignmentRepository.findActiveAssignmentByEquipment(equipment.getId());
+        assignmentRepository.findActiveAssignmentByEquipment(equipment.getId(), assignmentArchiver.hotFrom());
     if (existingAssignment.isPresent()) {
       throw new IllegalStateException("Equipment is already checked out: " + qrCode);
     }
@@ -106,7 +108,7 @@ public class EquipmentAssignmentService {
   public EquipmentAssignment returnEquipment(UUID assignmentId, Equipment.EquipmentCondition returnCondition, 
                                            String damageNotes, UUID returnedById) {
     
-    EquipmentAssignment assignment = assignmentRepository.findById(assignmentId)
+    EquipmentAssignment assignment = assignmentRepository.findWithStudentAndEquipmentById(assignmentId)
         .orElseThrow(() -> new IllegalArgumentException("Assignment not found: " + assignmentId));
     
     if (assignment.getStatus() != AssignmentStatus.CHECKED_OUT) {
@@ -143,7 +145,7 @@ public class EquipmentAssignmentService {
   
   @Transactional
   public EquipmentAssignment approveReturn(UUID assignmentId, UUID approverId, String approvalNotes) {
-    EquipmentAssignment assignment = assignmentRepository.findById(assignmentId)
+    EquipmentAssignment assignment = assignmentRepository.findWithStudentAndEquipmentById(assignmentId)
         .orElseThrow(() -> new IllegalArgumentException("Assignment not found: " + assignmentId));
     
     if (assignment.getStatus() != AssignmentStatus.PENDING_RETURN) {
@@ -173,7 +175,7 @@ public class EquipmentAssignmentService {
   }
   
   public List<EquipmentAssignment> findActiveAssignmentsByStudent(UUID studentId) {
-    return assignmentRepository.findActiveAssignmentsByStudent(studentId);
+    return assignmentRepository.findActiveAssignmentsByStudent(studentId, assignmentArchiver.hotFrom());
   }
   
   public List<EquipmentAssignment> findAssignmentsByEquipment(UUID equipmentId) {
@@ -181,11 +183,12 @@ public class EquipmentAssignmentService {
   }
   
   public Optional<EquipmentAssignment> findActiveAssignmentByEquipment(UUID equipmentId) {
-    return assignmentRepository.findActiveAssignmentByEquipment(equipmentId);
+    return assignmentRepository.findActiveAssignmentByEquipment(equipmentId, assignmentArchiver.hotFrom());
   }
   
   public List<EquipmentAssignment> findAssignmentsByStatus(AssignmentStatus status) {
-    return assignmentRepository.findByStatus(status);
+    return status.isClosed() ? assignmentRepository.findByStatus(status)
+        : assignmentRepository.findOpenByStatus(status, assignmentArchiver.hotFrom());
   }
   
   public List<EquipmentAssignment> findAssignmentsByEvent(UUID eventId) {
@@ -194,12 +197,12 @@ public class EquipmentAssignmentService {
   
   // Overdue and due soon queries
   public List<EquipmentAssignment> findOverdueAssignments() {
-    return assignmentRepository.findOverdueAssignments();
+    return assignmentRepository.findOverdueAssignments(assignmentArchiver.hotFrom());
   }
   
   public List<EquipmentAssignment> findAssignmentsDueSoon(int daysAhead) {
     Instant dueDate = Instant.now().plus(daysAhead, ChronoUnit.DAYS);
-    return assignmentRepository.findAssignmentsDueSoon(dueDate);
+    return assignmentRepository.findAssignmentsDueSoon(dueDate, assignmentArchiver.hotFrom());
   }
   
   public List<EquipmentAssignment> findAssignmentsDueTomorrow() {
@@ -244,7 +247,8 @@ public class EquipmentAssignmentService {
   
   // Statistical queries
   public long countAssignmentsByStatus(AssignmentStatus status) {
-    return assignmentRepository.countByStatus(status);
+    return status.isClosed() ? assignmentRepository.countByStatus(status)
+        : assignmentRepository.countOpenByStatus(status, assignmentArchiver.hotFrom());
   }
   
   public List<Object[]> getAssignmentStatsByPurpose() {
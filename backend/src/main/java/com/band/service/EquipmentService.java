@@ -4,7 +4,10 @@ import com.band.domain.Equipment;
 import com.band.domain.Equipment.EquipmentCategory;
 import com.band.domain.Equipment.EquipmentStatus;
 import com.band.domain.Equipment.EquipmentCondition;
+import com.band.domain.Location;
+import com.band.repo.EquipmentFilter;
 import com.band.repo.EquipmentRepository;
+import com.band.web.dto.EquipmentQueryDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -14,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +28,7 @@ import java.util.UUID;
 public class EquipmentService {
   
   private final EquipmentRepository equipmentRepository;
+  private final LocationService locationService;
   
   // Basic CRUD operations
   public Page<Equipment> findAllEquipment(Pageable pageable) {
@@ -42,8 +47,42 @@ public class EquipmentService {
   @Transactional
   public Equipment saveEquipment(Equipment equipment) {
     log.info("Saving equipment: {} - {}", equipment.getMake(), equipment.getModel());
+    reconcileLocation(equipment);
     return equipmentRepository.save(equipment);
   }
+
+  // For placed equipment the location text is the path of location_id ("Music Building > Band Room > Shelf 1"),
+  // so same-named shelves stay apart in facets and the bitmap index. Clients unaware of the tree send only the
+  // text: text naming another location's path moves the equipment there, any other edit is ignored
+  private void reconcileLocation(Equipment equipment) {
+    UUID locationId = equipment.getLocationId();
+    if (locationId == null && equipment.getId() != null) {
+      locationId = equipmentRepository.findById(equipment.getId())
+          .map(Equipment::getLocationId)
+          .orElse(null);
+    }
+    String text = equipment.getLocation();
+    String path = locationId != null ? locationService.pathOf(locationId) : null;
+    if (text != null && !text.isBlank() && !text.equals(path)) {
+      Optional<Location> named = locationService.findByPath(text);
+      if (named.isPresent()) {
+        locationId = named.get().getId();
+        path = locationService.pathOf(locationId);
+      } else if (locationId != null) {
+        log.warn("Ignoring location text '{}' for equipment {} placed in {}; "
+            + "move it with PUT /api/locations/{id}/equipment/{equipmentId}", text, equipment.getId(), path);
+      }
+    }
+    if (locationId == null) {
+      // Not in the tree: the text is all there is
+      return;
+    }
+    if (path == null || path.isEmpty()) {
+      throw new IllegalArgumentException("Location not found: " + locationId);
+    }
+    equipment.setLocationId(locationId);
+    equipment.setLocation(path);
+  }
   
   @Transactional
   public void deleteEquipment(UUID id) {
@@ -66,7 +105,7 @@ public class EquipmentService {
   
   @Transactional
   public Equipment updateEquipmentStatus(UUID equipmentId, EquipmentStatus newStatus) {
-    Equipment equipment = equipmentRepository.findById(equipmentId)
+    Equipment equipment = equipmentRepository.findWithAssignedToById(equipmentId)
         .orElseThrow(() -> new IllegalArgumentException("Equipment not found: " + equipmentId));
     
     log.info("Updating equipment {} status from {} to {}", 
@@ -111,6 +150,32 @@ public class EquipmentService {
     return equipmentRepository.findByLocation(location);
   }
   
+  // Combined filtering with facet counts: one page query plus one grouped count query
+  public EquipmentQueryDto.Response queryEquipment(EquipmentQueryDto.Request request) {
+    EquipmentFilter filter = new EquipmentFilter(
+        request.getCategories(),
+        request.getStatuses(),
+        request.getConditions(),
+        request.getLocations(),
+        request.getSearch());
+    int size = Math.max(1, Math.min(request.getSize(), 200));
+    int page = Math.max(0, request.getPage());
+
+    Map<String, Map<String, Long>> facets = equipmentRepository.countFacets(filter);
+    long total = facets.get("total").get("all");
+
+    EquipmentQueryDto.Response response = new EquipmentQueryDto.Response();
+    response.setContent((long) page * size < total
+        ? equipmentRepository.findByFilter(filter, page * size, size)
+        : List.of());
+    response.setPage(page);
+    response.setSize(size);
+    response.setTotalElements(total);
+    response.setTotalPages((int) ((total + size - 1) / size));
+    response.setFacets(facets);
+    return response;
+  }
+  
   // Maintenance-related queries
   public List<Equipment> findEquipmentDueForMaintenance() {
     return equipmentRepository.findEquipmentDueForMaintenance(LocalDate.now());
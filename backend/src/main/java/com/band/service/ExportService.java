@@ -0,0 +1,224 @@
+package com.band.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams whole tables to an output stream without materializing them.
+ * Rows are read through a forward-only JDBC cursor in a read-only stateless
+ * session, so nothing is retained in a persistence context and heap use does
+ * not grow with the size of the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+  private static final int FETCH_SIZE = 500;
+  private static final int FLUSH_EVERY_ROWS = 500;
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final ObjectMapper objectMapper;
+
+  public long export(ExportDataset dataset, ExportFormat format, OutputStream out) throws IOException {
+    SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    long rows = 0;
+
+    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+      // PostgreSQL only honours the fetch size inside a transaction
+      Transaction tx = session.beginTransaction();
+      session.doWork(connection -> connection.setReadOnly(true));
+      try (RowWriter writer = format == ExportFormat.NDJSON
+              ? new NdjsonRowWriter(objectMapper, out, dataset.getColumns())
+              : new CsvRowWriter(out, dataset.getColumns());
+           ScrollableResults<Object[]> results = session.createQuery(dataset.getQuery(), Object[].class)
+              .setFetchSize(FETCH_SIZE)
+              .setReadOnly(true)
+              .scroll(ScrollMode.FORWARD_ONLY)) {
+
+        writer.writeHeader();
+        while (results.next()) {
+          writer.writeRow(results.get());
+          if (++rows % FLUSH_EVERY_ROWS == 0) {
+            writer.flush();
+          }
+        }
+      } finally {
+        tx.rollback();
+      }
+    }
+
+    log.info("Exported {} {} rows as {}", rows, dataset.name().toLowerCase(), format);
+    return rows;
+  }
+
+  public enum ExportDataset {
+    EQUIPMENT(
+        "SELECT e.id, e.qrCode, e.serialNumber, e.make, e.model, e.category, e.condition, e.status, " +
+        "e.location, e.assignedTo.id, e.assignmentDate, e.expectedReturnDate, e.purchaseDate, e.purchasePrice, " +
+        "e.lastMaintenanceDate, e.nextMaintenanceDate, e.active, e.createdAt, e.updatedAt " +
+        "FROM Equipment e ORDER BY e.qrCode",
+        List.of("id", "qr_code", "serial_number", "make", "model", "category", "condition", "status",
+            "location", "assigned_to_id", "assignment_date", "expected_return_date", "purchase_date", "purchase_price",
+            "last_maintenance_date", "next_maintenance_date", "active", "created_at", "updated_at")),
+
+    ASSIGNMENTS(
+        "SELECT ea.id, ea.equipment.id, eq.qrCode, ea.student.id, s.email, ea.event.id, ea.status, " +
+        "ea.checkoutDate, ea.expectedReturnDate, ea.actualReturnDate, ea.checkoutCondition, ea.returnCondition, " +
+        "ea.assignmentPurpose, ea.checkedOutBy, ea.returnedTo, ea.supervisorApprovedBy, ea.damageNotes, ea.createdAt " +
+        "FROM EquipmentAssignment ea JOIN ea.equipment eq JOIN ea.student s ORDER BY ea.checkoutDate",
+        List.of("id", "equipment_id", "qr_code", "student_id", "student_email", "event_id", "status",
+            "checkout_date", "expected_return_date", "actual_return_date", "checkout_condition", "return_condition",
+            "assignment_purpose", "checked_out_by", "returned_to", "supervisor_approved_by", "damage_notes", "created_at")),
+
+    MAINTENANCE(
+        "SELECT em.id, em.equipment.id, em.maintenanceType, em.status, em.priority, em.scheduledDate, " +
+        "em.completedDate, em.serviceProvider, em.technicianName, em.estimatedCost, em.actualCost, " +
+        "em.conditionBefore, em.conditionAfter, em.workPerformed, em.createdAt " +
+        "FROM EquipmentMaintenance em ORDER BY em.scheduledDate",
+        List.of("id", "equipment_id", "maintenance_type", "status", "priority", "scheduled_date",
+            "completed_date", "service_provider", "technician_name", "estimated_cost", "actual_cost",
+            "condition_before", "condition_after", "work_performed", "created_at"));
+
+    private final String query;
+    private final List<String> columns;
+
+    ExportDataset(String query, List<String> columns) {
+      this.query = query;
+      this.columns = columns;
+    }
+
+    public String getQuery() { return query; }
+    public List<String> getColumns() { return columns; }
+  }
+
+  public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+      this.contentType = contentType;
+      this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+  }
+
+  private interface RowWriter extends AutoCloseable {
+    void writeHeader() throws IOException;
+    void writeRow(Object[] row) throws IOException;
+    void flush() throws IOException;
+    @Override
+    void close() throws IOException;
+  }
+
+  private static final class CsvRowWriter implements RowWriter {
+    private final Writer writer;
+    private final List<String> columns;
+
+    CsvRowWriter(OutputStream out, List<String> columns) {
+      this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      this.columns = columns;
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+      writer.write(String.join(",", columns));
+      writer.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(Object[] row) throws IOException {
+      for (int i = 0; i < row.length; i++) {
+        if (i > 0) writer.write(',');
+        writeValue(row[i]);
+      }
+      writer.write("\r\n");
+    }
+
+    private void writeValue(Object value) throws IOException {
+      if (value == null) return;
+      String text = value instanceof Enum<?> e ? e.name() : value.toString();
+      if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+        writer.write(text);
+        return;
+      }
+      writer.write('"');
+      writer.write(text.replace("\"", "\"\""));
+      writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException { writer.flush(); }
+
+    @Override
+    public void close() throws IOException { writer.flush(); }
+  }
+
+  private static final class NdjsonRowWriter implements RowWriter {
+    private final JsonGenerator generator;
+    private final List<String> columns;
+
+    NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out, List<String> columns) throws IOException {
+      this.generator = objectMapper.getFactory().createGenerator(out)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // Rows are newline-delimited, not space-separated
+      this.generator.setRootValueSeparator(null);
+      this.columns = columns;
+    }
+
+    @Override
+    public void writeHeader() {
+      // NDJSON rows are self-describing
+    }
+
+    @Override
+    public void writeRow(Object[] row) throws IOException {
+      generator.writeStartObject();
+      for (int i = 0; i < row.length; i++) {
+        Object value = row[i];
+        generator.writeFieldName(columns.get(i));
+        if (value == null) {
+          generator.writeNull();
+        } else if (value instanceof Number n) {
+          generator.writeNumber(n.toString());
+        } else if (value instanceof Boolean b) {
+          generator.writeBoolean(b);
+        } else if (value instanceof Enum<?> e) {
+          generator.writeString(e.name());
+        } else {
+          generator.writeString(value.toString());
+        }
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException { generator.flush(); }
+
+    @Override
+    public void close() throws IOException { generator.close(); }
+  }
+}
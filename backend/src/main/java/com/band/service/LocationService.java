@@ -0,0 +1,196 @@
+package com.band.service;
+
+import com.band.domain.Equipment;
+import com.band.domain.Equipment.EquipmentStatus;
+import com.band.domain.Location;
+import com.band.domain.Location.LocationType;
+import com.band.repo.EquipmentRepository;
+import com.band.repo.LocationRepository;
+import com.band.web.dto.LocationDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class LocationService {
+
+  private static final String PATH_SEPARATOR = " > ";
+
+  private final LocationRepository locationRepository;
+  private final EquipmentRepository equipmentRepository;
+
+  public List<LocationDto.Node> findRoots() {
+    return locationRepository.findByParentIdIsNullOrderByName().stream()
+        .map(location -> toNode(location, location.getName()))
+        .toList();
+  }
+
+  public List<LocationDto.Node> findChildren(UUID parentId) {
+    String parentPath = pathOf(parentId);
+    return locationRepository.findByParentIdOrderByName(parentId).stream()
+        .map(location -> toNode(location, parentPath + PATH_SEPARATOR + location.getName()))
+        .toList();
+  }
+
+  @Transactional
+  public LocationDto.Node createLocation(UUID parentId, String name, LocationType type) {
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("Location name is required");
+    }
+    if (type == null) {
+      throw new IllegalArgumentException("Location type is required");
+    }
+    if (parentId != null) {
+      Location parent = getLocation(parentId);
+      requireNested(parent.getLocationType(), type);
+    }
+    if (locationRepository.findByParentIdAndName(parentId, name.trim()).isPresent()) {
+      throw new IllegalArgumentException("Location already exists: " + name);
+    }
+
+    // The closure rows for the new node are written by the insert trigger
+    Location saved = locationRepository.saveAndFlush(new Location(parentId, name.trim(), type));
+    log.info("Created {} location {} under {}", type, saved.getName(), parentId);
+    return toNode(saved, pathOf(saved.getId()));
+  }
+
+  @Transactional
+  public LocationDto.Node moveLocation(UUID id, UUID newParentId) {
+    Location location = getLocation(id);
+    if (Objects.equals(location.getParentId(), newParentId)) {
+      return toNode(location, pathOf(id));
+    }
+    if (newParentId != null) {
+      Location parent = getLocation(newParentId);
+      if (locationRepository.isAncestorOf(id, newParentId)) {
+        throw new IllegalArgumentException("Cannot move a location beneath its own subtree");
+      }
+      requireNested(parent.getLocationType(), location.getLocationType());
+    }
+
+    // Re-parenting rewrites the closure rows in a trigger
+    location.setParentId(newParentId);
+    locationRepository.saveAndFlush(location);
+    log.info("Moved location {} under {}", id, newParentId);
+
+    // Every path in the subtree changed; saved one by one so the bitmap index sees each
+    Map<UUID, String> paths = new HashMap<>();
+    for (Equipment equipment : equipmentRepository.findInLocationSubtree(id)) {
+      equipment.setLocation(paths.computeIfAbsent(equipment.getLocationId(), this::pathOf));
+      equipmentRepository.save(equipment);
+    }
+    return toNode(location, pathOf(id));
+  }
+
+  public LocationDto.SubtreeSummary getSubtreeSummary(UUID id) {
+    Location location = getLocation(id);
+    String path = pathOf(id);
+
+    Map<EquipmentStatus, Long> statusCounts = getSubtreeStatusCounts(id);
+
+    // Descendant paths are derived from the root path plus the chain of names below it
+    List<Location> subtree = locationRepository.findSubtree(id);
+    Map<UUID, String> paths = new HashMap<>();
+    paths.put(id, path);
+    List<LocationDto.Node> descendants = subtree.stream()
+        .filter(node -> !node.getId().equals(id))
+        .map(node -> {
+          String nodePath = paths.get(node.getParentId()) + PATH_SEPARATOR + node.getName();
+          paths.put(node.getId(), nodePath);
+          return toNode(node, nodePath);
+        })
+        .toList();
+
+    LocationDto.SubtreeSummary summary = new LocationDto.SubtreeSummary();
+    summary.setLocation(toNode(location, path));
+    summary.setStatusCounts(statusCounts);
+    summary.setTotalEquipment(statusCounts.values().stream().mapToLong(Long::longValue).sum());
+    summary.setDescendants(descendants);
+    return summary;
+  }
+
+  // Sums the trigger-maintained per-location counts over the subtree's closure rows
+  public Map<EquipmentStatus, Long> getSubtreeStatusCounts(UUID id) {
+    Map<EquipmentStatus, Long> counts = new EnumMap<>(EquipmentStatus.class);
+    for (Object[] row : locationRepository.countSubtreeByStatus(id)) {
+      counts.put(EquipmentStatus.valueOf((String) row[0]), ((Number) row[1]).longValue());
+    }
+    return counts;
+  }
+
+  public List<Equipment> findEquipmentInSubtree(UUID id) {
+    getLocation(id);
+    return equipmentRepository.findActiveInLocationSubtree(id);
+  }
+
+  @Transactional
+  public Equipment placeEquipment(UUID equipmentId, UUID locationId) {
+    Equipment equipment = equipmentRepository.findById(equipmentId)
+        .orElseThrow(() -> new IllegalArgumentException("Equipment not found: " + equipmentId));
+    Location location = getLocation(locationId);
+
+    log.info("Placing equipment {} in location {}", equipment.getQrCode(), location.getName());
+
+    equipment.setLocationId(location.getId());
+    equipment.setLocation(pathOf(location.getId()));
+    return equipmentRepository.save(equipment);
+  }
+
+  /** Location whose path ({@code Building > Room > Shelf}) is exactly {@code path}. */
+  Optional<Location> findByPath(String path) {
+    Location location = null;
+    for (String name : path.split(PATH_SEPARATOR.trim())) {
+      if (name.isBlank()) {
+        return Optional.empty();
+      }
+      Optional<Location> next = locationRepository.findByParentIdAndName(location != null ? location.getId() : null, name.trim());
+      if (next.isEmpty()) {
+        return Optional.empty();
+      }
+      location = next.get();
+    }
+    return Optional.ofNullable(location);
+  }
+
+  /** Names from the root down to {@code id}, joined with {@code " > "}. */
+  String pathOf(UUID id) {
+    return locationRepository.findPath(id).stream()
+        .map(Location::getName)
+        .collect(Collectors.joining(PATH_SEPARATOR));
+  }
+
+  private Location getLocation(UUID id) {
+    return locationRepository.findById(id)
+        .orElseThrow(() -> new IllegalArgumentException("Location not found: " + id));
+  }
+
+  private static void requireNested(LocationType parentType, LocationType childType) {
+    if (childType.ordinal() <= parentType.ordinal()) {
+      throw new IllegalArgumentException(
+          "A " + childType.getDisplayName() + " cannot be placed inside a " + parentType.getDisplayName());
+    }
+  }
+
+  private static LocationDto.Node toNode(Location location, String path) {
+    LocationDto.Node node = new LocationDto.Node();
+    node.setId(location.getId());
+    node.setParentId(location.getParentId());
+    node.setName(location.getName());
+    node.setLocationType(location.getLocationType());
+    node.setPath(path);
+    return node;
+  }
+}
@@ -0,0 +1,51 @@
+package com.band.service;
+
+import com.band.domain.DigitalSignature;
+import com.band.domain.EquipmentAssignment;
+import com.band.repo.DigitalSignatureRepository;
+import com.band.repo.EquipmentAssignmentRepository;
+import com.band.storage.SignatureOffloader;
+import com.band.storage.SignatureStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+// Not transactional: an image still held inline is offloaded on first read, which writes to the primary
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SignatureService {
+
+  private final DigitalSignatureRepository signatureRepository;
+  private final EquipmentAssignmentRepository assignmentRepository;
+  private final SignatureStore signatureStore;
+  private final SignatureOffloader signatureOffloader;
+
+  /** Key of a digital signature's image, if it has one. */
+  public Optional<String> signatureKey(UUID id) {
+    Optional<DigitalSignature> signature = signatureRepository.findById(id);
+    if (signature.isEmpty()) {
+      return Optional.empty();
+    }
+    String key = signature.get().getSignatureHash();
+    return Optional.ofNullable(key != null ? key : signatureOffloader.offloadSignature(id));
+  }
+
+  /** Key of an assignment's checkout or return signature image, if it has one. */
+  public Optional<String> assignmentSignatureKey(UUID assignmentId, boolean checkout) {
+    Optional<EquipmentAssignment> assignment = assignmentRepository.findById(assignmentId);
+    if (assignment.isEmpty()) {
+      return Optional.empty();
+    }
+    String key = checkout ? assignment.get().getCheckoutSignatureHash() : assignment.get().getReturnSignatureHash();
+    return Optional.ofNullable(key != null ? key : signatureOffloader.offloadAssignment(assignmentId, checkout));
+  }
+
+  public SignatureStore.StoredImage open(String key) throws IOException {
+    return signatureStore.open(key);
+  }
+}
@@ -0,0 +1,83 @@
+package com.band.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+/**
+ * Single-node store under {@code app.signatures.filesystem.root}, for local
+ * runs and tests: {@code ab/cd/<key>} holds the image and {@code <key>.type}
+ * its content type. Files are written to a temporary name and moved into
+ * place, so a reader never sees a partial image.
+ */
+@Component
+@ConditionalOnProperty(name = "app.signatures.store", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemSignatureStore implements SignatureStore {
+
+  private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+  private final Path root;
+
+  public FileSystemSignatureStore(@Value("${app.signatures.filesystem.root:./data/signatures}") Path root) {
+    this.root = root.toAbsolutePath().normalize();
+  }
+
+  @Override
+  public void put(String key, SignatureImage image) throws IOException {
+    Path file = pathOf(key);
+    if (Files.exists(file)) {
+      return;
+    }
+    Files.createDirectories(file.getParent());
+    write(typeOf(file), image.contentType().getBytes(StandardCharsets.UTF_8));
+    write(file, image.bytes());
+  }
+
+  @Override
+  public StoredImage open(String key) throws IOException {
+    Path file = pathOf(key);
+    if (!Files.exists(file)) {
+      throw new FileNotFoundException("No signature image " + key);
+    }
+    Path type = typeOf(file);
+    String contentType = Files.exists(type) ? Files.readString(type, StandardCharsets.UTF_8) : SignatureImage.OCTET_STREAM;
+    return new StoredImage(Files.newInputStream(file), contentType, Files.size(file));
+  }
+
+  private Path pathOf(String key) {
+    if (!KEY.matcher(key).matches()) {
+      throw new IllegalArgumentException("Not a signature key: " + key);
+    }
+    return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+  }
+
+  private static Path typeOf(Path file) {
+    return file.resolveSibling(file.getFileName() + ".type");
+  }
+
+  private static void write(Path target, byte[] bytes) throws IOException {
+    Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, bytes);
+      try {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target);
+      }
+    } catch (FileAlreadyExistsException e) {
+      // Written concurrently by another request; same key, same bytes
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.band.storage;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.errors.MinioException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * Stores signature images as objects in a MinIO (or any S3-compatible)
+ * bucket, created on startup if missing. Objects already present are not
+ * uploaded again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.signatures.store", havingValue = "minio")
+@Slf4j
+public class MinioSignatureStore implements SignatureStore {
+
+  private final MinioClient client;
+  private final String bucket;
+
+  public MinioSignatureStore(@Value("${app.signatures.minio.endpoint}") String endpoint,
+                             @Value("${app.signatures.minio.access-key}") String accessKey,
+                             @Value("${app.signatures.minio.secret-key}") String secretKey,
+                             @Value("${app.signatures.minio.bucket:band-signatures}") String bucket) throws IOException {
+    this.client = MinioClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).build();
+    this.bucket = bucket;
+    try {
+      if (!client.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+        client.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+        log.info("Created signature bucket {}", bucket);
+      }
+    } catch (MinioException | GeneralSecurityException e) {
+      throw new IOException("Signature bucket " + bucket + " is not usable", e);
+    }
+  }
+
+  @Override
+  public void put(String key, SignatureImage image) throws IOException {
+    try {
+      if (exists(key)) {
+        return;
+      }
+      client.putObject(PutObjectArgs.builder()
+          .bucket(bucket)
+          .object(key)
+          .stream(new ByteArrayInputStream(image.bytes()), image.bytes().length, -1)
+          .contentType(image.contentType())
+          .build());
+    } catch (MinioException | GeneralSecurityException e) {
+      throw new IOException("Could not store signature " + key, e);
+    }
+  }
+
+  @Override
+  public StoredImage open(String key) throws IOException {
+    try {
+      GetObjectResponse response = client.getObject(GetObjectArgs.builder().bucket(bucket).object(key).build());
+      String length = response.headers().get("Content-Length");
+      return new StoredImage(response, response.headers().get("Content-Type"), length != null ? Long.parseLong(length) : -1);
+    } catch (ErrorResponseException e) {
+      if ("NoSuchKey".equals(e.errorResponse().code())) {
+        throw new FileNotFoundException("No signature image " + key);
+      }
+      throw new IOException("Could not read signature " + key, e);
+    } catch (MinioException | GeneralSecurityException e) {
+      throw new IOException("Could not read signature " + key, e);
+    }
+  }
+
+  private boolean exists(String key) throws MinioException, GeneralSecurityException, IOException {
+    try {
+      client.statObject(StatObjectArgs.builder().bucket(bucket).object(key).build());
+      return true;
+    } catch (ErrorResponseException e) {
+      if ("NoSuchKey".equals(e.errorResponse().code())) {
+        return false;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.band.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Image bytes and content type decoded from the forms signatures have been
+ * submitted in: data URLs ({@code data:image/png;base64,...}), inline SVG
+ * markup, or bare base64 of the given format (sniffed from the bytes when
+ * there is none).
+ *
+ * <p>The content type is whatever the submitter claimed, so only PNG and SVG
+ * are kept; anything else is {@code application/octet-stream}, which no
+ * browser renders.
+ */
+public record SignatureImage(byte[] bytes, String contentType) {
+
+  public static final String PNG = "image/png";
+  public static final String SVG = "image/svg+xml";
+  public static final String OCTET_STREAM = "application/octet-stream";
+
+  public SignatureImage {
+    contentType = servable(contentType);
+  }
+
+  /** {@code contentType} without parameters if it is PNG or SVG, otherwise {@code application/octet-stream}. */
+  public static String servable(String contentType) {
+    if (contentType == null) {
+      return OCTET_STREAM;
+    }
+    int parameters = contentType.indexOf(';');
+    String type = (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    return type.equals(PNG) || type.equals(SVG) ? type : OCTET_STREAM;
+  }
+
+  public static SignatureImage decode(String encoded, String format) {
+    String value = encoded.trim();
+    if (value.startsWith("data:")) {
+      int comma = value.indexOf(',');
+      if (comma < 0) {
+        throw new IllegalArgumentException("Malformed data URL");
+      }
+      String header = value.substring(5, comma);
+      String payload = value.substring(comma + 1);
+      boolean base64 = header.endsWith(";base64");
+      String type = base64 ? header.substring(0, header.length() - 7) : header;
+      byte[] bytes = base64 ? Base64.getMimeDecoder().decode(payload) : payload.getBytes(StandardCharsets.UTF_8);
+      return new SignatureImage(bytes, type.isEmpty() ? contentTypeOf(format) : type);
+    }
+    if (value.startsWith("<")) {
+      return new SignatureImage(value.getBytes(StandardCharsets.UTF_8), SVG);
+    }
+    byte[] bytes = Base64.getMimeDecoder().decode(value);
+    return new SignatureImage(bytes, format != null ? contentTypeOf(format) : sniff(bytes));
+  }
+
+  /** Hex SHA-256 of the bytes: the image's key in the {@link SignatureStore}. */
+  public String key() {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // signature_format column: SVG, PNG, or JSON (path data, not an image)
+  private static String contentTypeOf(String format) {
+    return switch (format == null ? "SVG" : format.toUpperCase(Locale.ROOT)) {
+      case "PNG" -> PNG;
+      case "JSON" -> OCTET_STREAM;
+      default -> SVG;
+    };
+  }
+
+  // Assignment signatures carry no format column
+  private static String sniff(byte[] bytes) {
+    if (bytes.length >= 4 && (bytes[0] & 0xff) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+      return PNG;
+    }
+    return bytes.length > 0 && bytes[0] == '<' ? SVG : OCTET_STREAM;
+  }
+}
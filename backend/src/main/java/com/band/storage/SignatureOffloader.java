@@ -0,0 +1,172 @@
+package com.band.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves signature images still held inline in the database (see migration V9)
+ * into the {@link SignatureStore}: each image is stored under its key, then
+ * the row gets the key and its inline copy is cleared. Runs in batches of
+ * {@code batch-size} rows until nothing is left, every {@code interval}.
+ *
+ * <p>Values that do not decode as an image are stored as they are, as
+ * {@code application/octet-stream}, so no row is left behind.
+ */
+@Component
+@Slf4j
+public class SignatureOffloader {
+
+  private static final String INLINE_SIGNATURES =
+      "SELECT id, signature_data, signature_format FROM digital_signatures WHERE signature_data IS NOT NULL";
+  private static final String INLINE_ASSIGNMENTS =
+      "SELECT id, checkout_date, checkout_signature, return_signature FROM equipment_assignments "
+          + "WHERE (checkout_signature IS NOT NULL OR return_signature IS NOT NULL)";
+
+  private record InlineSignature(UUID id, String data, String format) {
+  }
+
+  private record InlineAssignment(UUID id, Timestamp checkoutDate, String checkout, String returned) {
+  }
+
+  private final JdbcTemplate jdbc;
+  private final SignatureStore store;
+  private final int batchSize;
+  private final Counter signatures;
+  private final Counter assignments;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("signature-offloader").daemon().factory());
+
+  public SignatureOffloader(JdbcTemplate jdbc,
+                            SignatureStore store,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.signatures.offload.enabled:true}") boolean enabled,
+                            @Value("${app.signatures.offload.batch-size:500}") int batchSize,
+                            @Value("${app.signatures.offload.interval:10m}") Duration interval) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("app.signatures.offload.batch-size must be at least 1");
+    }
+    this.jdbc = jdbc;
+    this.store = store;
+    this.batchSize = batchSize;
+    this.signatures = Counter.builder("band.signatures.offloaded").tag("table", "digital_signatures")
+        .description("Inline signature images moved to object storage").register(meterRegistry);
+    this.assignments = Counter.builder("band.signatures.offloaded").tag("table", "equipment_assignments")
+        .description("Inline signature images moved to object storage").register(meterRegistry);
+    if (enabled) {
+      scheduler.scheduleWithFixedDelay(this::runSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** Offloads one digital signature now; returns its key, or null if it has no image. */
+  public String offloadSignature(UUID id) {
+    List<InlineSignature> rows = jdbc.query(INLINE_SIGNATURES + " AND id = ?",
+        (rs, i) -> new InlineSignature(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)), id);
+    if (rows.isEmpty()) {
+      return jdbc.queryForList("SELECT signature_hash FROM digital_signatures WHERE id = ?", String.class, id)
+          .stream().findFirst().orElse(null);
+    }
+    return offload(rows.get(0));
+  }
+
+  /** Offloads one assignment's signatures now; returns the checkout or return key, or null if there is none. */
+  public String offloadAssignment(UUID id, boolean checkout) {
+    jdbc.query(INLINE_ASSIGNMENTS + " AND id = ?", this::mapAssignment, id)
+        .forEach(this::offload);
+    String column = checkout ? "checkout_signature_hash" : "return_signature_hash";
+    return jdbc.queryForList("SELECT " + column + " FROM equipment_assignments WHERE id = ?", String.class, id)
+        .stream().findFirst().orElse(null);
+  }
+
+  private void runSafely() {
+    try {
+      run();
+    } catch (Exception e) {
+      log.warn("Signature offload failed: {}", e.getMessage());
+    }
+  }
+
+  void run() {
+    long moved = 0;
+    List<InlineSignature> signatureBatch;
+    do {
+      signatureBatch = jdbc.query(INLINE_SIGNATURES + " LIMIT ?",
+          (rs, i) -> new InlineSignature(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)), batchSize);
+      signatureBatch.forEach(this::offload);
+      moved += signatureBatch.size();
+    } while (signatureBatch.size() == batchSize);
+
+    List<InlineAssignment> assignmentBatch;
+    do {
+      assignmentBatch = jdbc.query(INLINE_ASSIGNMENTS + " LIMIT ?", this::mapAssignment, batchSize);
+      assignmentBatch.forEach(this::offload);
+      moved += assignmentBatch.size();
+    } while (assignmentBatch.size() == batchSize);
+
+    if (moved > 0) {
+      log.info("Moved the signatures of {} rows to object storage", moved);
+    }
+  }
+
+  private InlineAssignment mapAssignment(ResultSet rs, int row) throws SQLException {
+    return new InlineAssignment(rs.getObject(1, UUID.class), rs.getTimestamp(2), rs.getString(3), rs.getString(4));
+  }
+
+  private String offload(InlineSignature row) {
+    String key = put(row.data(), row.format());
+    jdbc.update("UPDATE digital_signatures SET signature_hash = ?, signature_data = NULL WHERE id = ?", key, row.id());
+    signatures.increment();
+    return key;
+  }
+
+  private void offload(InlineAssignment row) {
+    String checkout = row.checkout() != null ? put(row.checkout(), null) : null;
+    String returned = row.returned() != null ? put(row.returned(), null) : null;
+    // checkout_date is part of the key and picks the partition
+    jdbc.update("UPDATE equipment_assignments SET "
+            + "checkout_signature_hash = COALESCE(?, checkout_signature_hash), checkout_signature = NULL, "
+            + "return_signature_hash = COALESCE(?, return_signature_hash), return_signature = NULL "
+            + "WHERE id = ? AND checkout_date = ?",
+        checkout, returned, row.id(), row.checkoutDate());
+    assignments.increment();
+  }
+
+  // Stored before the row is updated: an image without a row is harmless, a row without its image is not
+  private String put(String data, String format) {
+    SignatureImage image;
+    try {
+      image = SignatureImage.decode(data, format);
+    } catch (IllegalArgumentException e) {
+      image = new SignatureImage(data.getBytes(StandardCharsets.UTF_8), SignatureImage.OCTET_STREAM);
+    }
+    String key = image.key();
+    try {
+      store.put(key, image);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return key;
+  }
+
+  @PreDestroy
+  void stop() {
+    scheduler.shutdownNow();
+  }
+}
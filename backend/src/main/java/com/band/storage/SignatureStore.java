@@ -0,0 +1,22 @@
+package com.band.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where signature images live. Objects are content-addressed: the key is the
+ * hex SHA-256 of the bytes, so storing the same image twice keeps one copy and
+ * an object never changes once written.
+ */
+public interface SignatureStore {
+
+  /** A stored image, opened for reading; the caller closes {@code content}. */
+  record StoredImage(InputStream content, String contentType, long length) {
+  }
+
+  /** Stores {@code image} under {@code key} unless an object with that key already exists. */
+  void put(String key, SignatureImage image) throws IOException;
+
+  /** Opens the image stored under {@code key}; throws {@link java.io.FileNotFoundException} if there is none. */
+  StoredImage open(String key) throws IOException;
+}
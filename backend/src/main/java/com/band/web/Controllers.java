@@ -3,40 +3,135 @@ package com.band.web;
 import com.band.domain.Task;
 import com.band.repo.TaskRepository;
 import com.band.repo.QueueRepository;
+import com.band.security.BandUserDetails;
 import com.band.security.JwtService;
+import com.band.security.PasswordHashingPool;
 import com.band.web.dto.AuthDtos;
-import com.band.repo.UserRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/v1")
 public class Controllers {
+  // Browsers keep the refresh token here, out of reach of page scripts; it is only sent to the auth endpoints
+  static final String REFRESH_COOKIE = "refresh_token";
+  private static final String REFRESH_COOKIE_PATH = "/api/v1/auth";
+
   private final AuthenticationManager authManager;
-  private final UserRepository userRepository;
-  private final PasswordEncoder encoder;
+  private final PasswordHashingPool hashingPool;
   private final JwtService jwtService;
   private final TaskRepository taskRepository;
   private final QueueRepository queueRepository;
+  private final boolean secureCookie;
 
-  public Controllers(AuthenticationManager am, UserRepository ur, PasswordEncoder pe, JwtService js, TaskRepository tr, QueueRepository qr) {
-    this.authManager = am; this.userRepository = ur; this.encoder = pe; this.jwtService = js; this.taskRepository = tr; this.queueRepository = qr;
+  public Controllers(AuthenticationManager am, PasswordHashingPool hp, JwtService js, TaskRepository tr, QueueRepository qr,
+                     @Value("${app.auth.refresh-cookie-secure:true}") boolean secureCookie) {
+    this.authManager = am; this.hashingPool = hp; this.jwtService = js; this.taskRepository = tr; this.queueRepository = qr;
+    this.secureCookie = secureCookie;
   }
 
+  // BCrypt runs on the hashing pool; the request thread is released while it waits
   @PostMapping("/auth/login")
-  public ResponseEntity<?> login(@RequestBody AuthDtos.LoginRequest req) {
-    Authentication auth = authManager.authenticate(new UsernamePasswordAuthenticationToken(req.email, req.password));
-    var user = userRepository.findByEmail(auth.getName()).orElseThrow();
-    String token = jwtService.generate(user.getEmail(), user.getRole());
-    AuthDtos.LoginResponse res = new AuthDtos.LoginResponse();
-    res.token = token; res.name = user.getName(); res.role = user.getRole();
-    return ResponseEntity.ok(res);
+  public CompletableFuture<ResponseEntity<?>> login(@RequestBody AuthDtos.LoginRequest req) {
+    return hashingPool.submit(() -> authManager.authenticate(new UsernamePasswordAuthenticationToken(req.email, req.password)))
+        .<ResponseEntity<?>>thenApply(auth -> {
+          BandUserDetails user = (BandUserDetails) auth.getPrincipal();
+          JwtService.TokenPair tokens = jwtService.issue(user.getUsername(), user.getRole());
+          AuthDtos.LoginResponse res = new AuthDtos.LoginResponse();
+          res.token = tokens.accessToken(); res.expiresIn = expiresIn(tokens);
+          res.name = user.getDisplayName(); res.role = user.getRole();
+          if (req.refreshTokenInBody) {
+            res.refreshToken = tokens.refreshToken();
+            return ResponseEntity.ok().body(res);
+          }
+          return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, refreshCookie(tokens).toString()).body(res);
+        })
+        .exceptionally(e -> {
+          Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+          if (cause instanceof PasswordHashingPool.Rejected rejected) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(rejected.getRetryAfter().toSeconds()))
+                .build();
+          }
+          if (cause instanceof AuthenticationException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+          }
+          throw e instanceof CompletionException completion ? completion : new CompletionException(cause);
+        });
+  }
+
+  // Browsers present the cookie and get the next one as a cookie; a token sent in the body is rotated in the body
+  @PostMapping("/auth/refresh")
+  public ResponseEntity<?> refresh(@RequestBody(required = false) AuthDtos.RefreshRequest req,
+                                   @CookieValue(value = REFRESH_COOKIE, required = false) String cookie) {
+    boolean inBody = req != null && req.refreshToken != null;
+    String presented = inBody ? req.refreshToken : cookie;
+    if (presented == null) return ResponseEntity.badRequest().build();
+    return jwtService.refresh(presented)
+        .<ResponseEntity<?>>map(tokens -> {
+          AuthDtos.RefreshResponse res = new AuthDtos.RefreshResponse();
+          res.token = tokens.accessToken(); res.expiresIn = expiresIn(tokens);
+          if (inBody) {
+            res.refreshToken = tokens.refreshToken();
+            return ResponseEntity.ok().body(res);
+          }
+          return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, refreshCookie(tokens).toString()).body(res);
+        })
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+            .header(HttpHeaders.SET_COOKIE, clearedRefreshCookie().toString()).build());
+  }
+
+  @PostMapping("/auth/logout")
+  public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+    jwtService.validate(authorization.substring(authorization.indexOf(' ') + 1)).ifPresent(claims -> {
+      String family = JwtService.stringClaim(claims, JwtService.FAMILY_CLAIM);
+      if (family != null) jwtService.revokeFamily(family);
+    });
+    return ResponseEntity.noContent().header(HttpHeaders.SET_COOKIE, clearedRefreshCookie().toString()).build();
+  }
+
+  @PostMapping("/auth/stream-token")
+  public ResponseEntity<?> streamToken(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+    return jwtService.validate(authorization.substring(authorization.indexOf(' ') + 1))
+        .<ResponseEntity<?>>map(claims -> {
+          JwtService.StreamToken token = jwtService.issueStream(claims);
+          AuthDtos.StreamTokenResponse res = new AuthDtos.StreamTokenResponse();
+          res.token = token.token();
+          res.expiresIn = Math.max(0, token.expiresAt().getEpochSecond() - Instant.now().getEpochSecond());
+          return ResponseEntity.ok(res);
+        })
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+  }
+
+  private ResponseCookie refreshCookie(JwtService.TokenPair tokens) {
+    return refreshCookie(tokens.refreshToken(), Duration.between(Instant.now(), tokens.refreshExpiresAt()));
+  }
+
+  private ResponseCookie clearedRefreshCookie() {
+    return refreshCookie("", Duration.ZERO);
+  }
+
+  private ResponseCookie refreshCookie(String value, Duration maxAge) {
+    return ResponseCookie.from(REFRESH_COOKIE, value)
+        .httpOnly(true).secure(secureCookie).sameSite("Strict").path(REFRESH_COOKIE_PATH).maxAge(maxAge)
+        .build();
+  }
+
+  private static long expiresIn(JwtService.TokenPair tokens) {
+    return Math.max(0, tokens.accessExpiresAt().getEpochSecond() - Instant.now().getEpochSecond());
   }
 
   @GetMapping("/tasks")
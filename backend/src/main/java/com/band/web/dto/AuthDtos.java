@@ -1,13 +1,37 @@
 package com.band.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class AuthDtos {
   public static class LoginRequest {
     public String email;
     public String password;
+    // For clients without a cookie jar: the refresh token comes back in the body instead of a cookie
+    public boolean refreshTokenInBody;
   }
   public static class LoginResponse {
     public String token;
+    // Only when requested with refreshTokenInBody; browsers get the HttpOnly cookie
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String refreshToken;
+    // Seconds until the access token expires; refresh before then
+    public long expiresIn;
     public String name;
     public String role;
   }
+  public static class RefreshRequest {
+    public String refreshToken;
+  }
+  public static class RefreshResponse {
+    public String token;
+    // Only when the old one was presented in the body
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String refreshToken;
+    public long expiresIn;
+  }
+  public static class StreamTokenResponse {
+    // Pass as access_token when opening /api/stream/**; only checked when the stream opens
+    public String token;
+    public long expiresIn;
+  }
 }
@@ -0,0 +1,36 @@
+package com.band.web.dto;
+
+import com.band.domain.Equipment;
+import com.band.domain.Equipment.EquipmentCategory;
+import com.band.domain.Equipment.EquipmentCondition;
+import com.band.domain.Equipment.EquipmentStatus;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class EquipmentQueryDto {
+
+    @Data
+    public static class Request {
+        private Set<EquipmentCategory> categories;
+        private Set<EquipmentStatus> statuses;
+        private Set<EquipmentCondition> conditions;
+        private Set<String> locations;
+        private String search;
+        private int page = 0;
+        private int size = 20;
+    }
+
+    @Data
+    public static class Response {
+        private List<Equipment> content;
+        private int page;
+        private int size;
+        private long totalElements;
+        private int totalPages;
+        // facet name -> value -> count, e.g. "category" -> {"BRASS": 12}
+        private Map<String, Map<String, Long>> facets;
+    }
+}
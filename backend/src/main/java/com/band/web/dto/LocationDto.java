@@ -0,0 +1,43 @@
+package com.band.web.dto;
+
+import com.band.domain.Equipment.EquipmentStatus;
+import com.band.domain.Location.LocationType;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class LocationDto {
+
+    @Data
+    public static class CreateRequest {
+        private UUID parentId;
+        private String name;
+        private LocationType locationType;
+    }
+
+    @Data
+    public static class MoveRequest {
+        // null moves the node to the top level
+        private UUID parentId;
+    }
+
+    @Data
+    public static class Node {
+        private UUID id;
+        private UUID parentId;
+        private String name;
+        private LocationType locationType;
+        // Names from the root down to this node, e.g. "Music Building > Band Room > Cabinet 2"
+        private String path;
+    }
+
+    @Data
+    public static class SubtreeSummary {
+        private Node location;
+        private Map<EquipmentStatus, Long> statusCounts;
+        private long totalEquipment;
+        private List<Node> descendants;
+    }
+}
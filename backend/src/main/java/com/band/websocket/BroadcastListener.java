@@ -0,0 +1,13 @@
+package com.band.websocket;
+
+import java.util.List;
+
+/**
+ * Notified of every topic broadcast delivered on this node, whether it
+ * originated here or was relayed from another node. Called on the sending
+ * thread, so implementations must not block.
+ */
+public interface BroadcastListener {
+
+    void onBroadcast(StompBroadcaster.EncodedPayload payload, List<String> destinations);
+}
@@ -0,0 +1,44 @@
+package com.band.websocket;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries broadcasts to the other backend nodes. {@link StompBroadcaster} always
+ * delivers to its own node's broker first; the relay only covers the rest of the
+ * cluster, where each node then fans the event out to its own subscribers.
+ */
+public interface BroadcastRelay {
+
+    /** Next value of the sequence shared by all nodes; every broadcast takes one. */
+    long nextSequence();
+
+    /**
+     * Lowest value the sequence may take now: the wall clock in microseconds.
+     * Sequences never go below it, so one numbered after a restart is always
+     * higher than any a client kept from before, and resuming with an old
+     * {@code last-seq} falls before the node's boot sequence and forces a resync.
+     */
+    static long clockFloor() {
+        return System.currentTimeMillis() * 1000;
+    }
+
+    /** Latest sequence number handed out, without taking a new one. */
+    long currentSequence();
+
+    void publish(StompBroadcaster.EncodedPayload payload, List<String> destinations);
+
+    void publishToUser(StompBroadcaster.EncodedPayload payload, String user, String destination);
+
+    /** Called once by the broadcaster with the callback used for events arriving from other nodes. */
+    void setReceiver(Receiver receiver);
+
+    /** Local delivery of a relayed event; {@code full} is the complete message JSON, {@code envelope} may be null. */
+    interface Receiver {
+        void deliver(byte[] full, EventEnvelope envelope, long seq, Map<String, String> attributes,
+                     List<String> destinations);
+
+        void deliverToUser(byte[] full, EventEnvelope envelope, long seq, Map<String, String> attributes,
+                           String user, String destination);
+    }
+}
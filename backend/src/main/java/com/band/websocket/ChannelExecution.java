@@ -0,0 +1,185 @@
+package com.band.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the client inbound and outbound channels run their handlers.
+ *
+ * <p>With {@code app.websocket.channels.virtual-threads} enabled every message is
+ * handled on its own virtual thread, so a handler blocked on a slow transaction
+ * no longer holds one of a few pooled threads. Since that removes the implicit
+ * cap on concurrent handlers, {@code @MessageMapping} and {@code @SubscribeMapping}
+ * invocations (application destinations only) take one of
+ * {@code db-permits} permits first; a message that cannot get one within
+ * {@code db-permit-timeout} is rejected with an error to the sender instead of
+ * queueing on the connection pool. Time spent between send and handling is
+ * recorded per channel either way.
+ */
+@Component
+@Slf4j
+public class ChannelExecution {
+
+    private static final String ENQUEUED_HEADER = "band.enqueuedNanos";
+
+    private final boolean virtualThreads;
+    private final Semaphore dbPermits;
+    private final Duration permitTimeout;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Timer permitWait;
+    private final Counter permitRejected;
+
+    public ChannelExecution(MeterRegistry meterRegistry,
+                            @Lazy SimpMessagingTemplate messagingTemplate,
+                            @Value("${app.websocket.channels.virtual-threads:false}") boolean virtualThreads,
+                            @Value("${app.websocket.channels.db-permits:6}") int dbPermits,
+                            @Value("${app.websocket.channels.db-permit-timeout:5s}") Duration permitTimeout) {
+        if (dbPermits < 1) {
+            throw new IllegalStateException("app.websocket.channels.db-permits must be positive");
+        }
+        this.virtualThreads = virtualThreads;
+        this.dbPermits = new Semaphore(dbPermits, true);
+        this.permitTimeout = permitTimeout;
+        this.messagingTemplate = messagingTemplate;
+        this.meterRegistry = meterRegistry;
+
+        this.permitWait = Timer.builder("band.websocket.db.permit.wait")
+            .description("Time message handlers waited for a database permit")
+            .register(meterRegistry);
+        this.permitRejected = Counter.builder("band.websocket.db.permit.rejected")
+            .description("Messages rejected because no database permit became available in time")
+            .register(meterRegistry);
+        Gauge.builder("band.websocket.db.permit.available", this.dbPermits, Semaphore::availablePermits)
+            .description("Database permits currently free for message handlers")
+            .register(meterRegistry);
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** A virtual-thread-per-message executor for the named channel. */
+    public Executor virtualThreadExecutor(String channel) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(channel + "-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /** Records how long each message waited between being sent and being handled. */
+    public ExecutorChannelInterceptor queueDelayInterceptor(String channel) {
+        Timer delay = Timer.builder("band.websocket.channel.queue.delay")
+            .description("Time messages waited for a channel thread")
+            .tag("channel", channel)
+            .register(meterRegistry);
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+                accessor.setHeader(ENQUEUED_HEADER, System.nanoTime());
+                return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+            }
+
+            @Override
+            public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+                if (message.getHeaders().get(ENQUEUED_HEADER) instanceof Long enqueued) {
+                    delay.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                }
+                return message;
+            }
+        };
+    }
+
+    /** Bounds how many {@code @MessageMapping} handlers run at once. */
+    public ExecutorChannelInterceptor databasePermitInterceptor() {
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+                if (!needsPermit(message, handler)) {
+                    return message;
+                }
+                long start = System.nanoTime();
+                boolean acquired;
+                try {
+                    acquired = dbPermits.tryAcquire(permitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    acquired = false;
+                }
+                permitWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (!acquired) {
+                    reject(message);
+                    return null;
+                }
+                return message;
+            }
+
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                // Only reached for messages whose beforeHandle did not return null
+                if (needsPermit(message, handler)) {
+                    dbPermits.release();
+                }
+            }
+        };
+    }
+
+    // Only messages the annotation handler will invoke a method for: sends to an application destination
+    // (@MessageMapping) and subscriptions to one (@SubscribeMapping). Subscriptions to broker destinations,
+    // which are most of them, and sends the handler ignores touch no database
+    private static boolean needsPermit(Message<?> message, MessageHandler handler) {
+        if (!(handler instanceof SimpAnnotationMethodMessageHandler annotationHandler)) {
+            return false;
+        }
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type != SimpMessageType.MESSAGE && type != SimpMessageType.SUBSCRIBE) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) {
+            return false;
+        }
+        for (String prefix : annotationHandler.getDestinationPrefixes()) {
+            if (destination.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(Message<?> message) {
+        permitRejected.increment();
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        log.warn("No database permit within {} for {}; rejecting message", permitTimeout, destination);
+        Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+        if (user != null) {
+            messagingTemplate.convertAndSendToUser(user.getName(), "/queue/errors",
+                new EquipmentWebSocketController.ErrorMessage("Server busy, please retry: " + destination, Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.band.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only Server-Sent Events streams of a role's dashboard topics, for
+ * displays that never send anything and do not need a STOMP session.
+ *
+ * <p>Streams see the same broadcasts as STOMP subscribers, as a
+ * {@link BroadcastListener}. The broadcasting thread only queues each event;
+ * writes happen on a virtual thread per stream, so a stalled display never
+ * holds up anyone else. A stream whose queue overflows is closed and resumes
+ * from {@link EventHistory} when the browser reconnects with
+ * {@code Last-Event-ID}. Event ids are broadcast sequence numbers.
+ */
+@Component
+@Slf4j
+public class DashboardStreams implements BroadcastListener {
+
+    /** Dashboards that can be streamed, with the topics they are fed from. */
+    public enum DashboardRole {
+        DIRECTOR("/topic/director/", Set.of("BAND_DIRECTOR", "SUPERVISOR")),
+        EQUIPMENT_MANAGER("/topic/equipment-manager/", Set.of("EQUIPMENT_MANAGER", "SUPERVISOR")),
+        SUPERVISOR("/topic/supervisor/", Set.of("SUPERVISOR")),
+        EQUIPMENT("/topic/equipment/", Set.of("STUDENT", "BAND_DIRECTOR", "EQUIPMENT_MANAGER", "SUPERVISOR"));
+
+        private final String topicPrefix;
+        private final Set<String> allowedRoles;
+
+        DashboardRole(String topicPrefix, Set<String> allowedRoles) {
+            this.topicPrefix = topicPrefix;
+            this.allowedRoles = allowedRoles;
+        }
+
+        public String getTopicPrefix() { return topicPrefix; }
+
+        public boolean isAllowed(String role) {
+            return allowedRoles.contains(role);
+        }
+
+        // Path form matches /api/dashboard/{role}: director, equipment-manager, ...
+        public static DashboardRole fromPath(String path) {
+            return valueOf(path.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final EventHistory history;
+    private final int maxStreams;
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final Map<Stream, DashboardRole> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final SimpleAsyncTaskExecutor writers = new SimpleAsyncTaskExecutor("sse-");
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("sse-heartbeat").daemon().factory());
+
+    private final Counter rejected;
+    private final Counter overflowed;
+
+    public DashboardStreams(EventHistory history,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.sse.max-streams:200}") int maxStreams,
+                            @Value("${app.sse.queue-capacity:64}") int queueCapacity,
+                            @Value("${app.sse.timeout:30m}") Duration timeout,
+                            @Value("${app.sse.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.history = history;
+        this.maxStreams = maxStreams;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.writers.setVirtualThreads(true);
+
+        this.rejected = Counter.builder("band.sse.rejected")
+            .description("Dashboard streams refused because the stream cap was reached")
+            .register(meterRegistry);
+        this.overflowed = Counter.builder("band.sse.overflowed")
+            .description("Dashboard streams closed because the client fell too far behind")
+            .register(meterRegistry);
+        Gauge.builder("band.sse.open", open, AtomicInteger::get)
+            .description("Open dashboard streams")
+            .register(meterRegistry);
+
+        // Comment lines keep proxies from closing idle streams and reveal dead clients
+        heartbeats.scheduleAtFixedRate(() -> {
+            Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("hb").build();
+            streams.keySet().forEach(stream -> stream.enqueue(heartbeat, 0L));
+        }, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream, or returns null if the cap is reached. Events after
+     * {@code lastEventId} are replayed first; if they are no longer retained the
+     * stream starts with a {@code resync} event instead.
+     */
+    public SseEmitter open(DashboardRole role, Long lastEventId) {
+        if (open.incrementAndGet() > maxStreams) {
+            open.decrementAndGet();
+            rejected.increment();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Stream stream = new Stream(emitter);
+        emitter.onCompletion(() -> close(stream));
+        emitter.onTimeout(() -> close(stream));
+        emitter.onError(e -> close(stream));
+
+        // Registered before the replay is read so nothing falls in between; live
+        // events queued meanwhile wait for the lock and skip what was replayed
+        synchronized (stream) {
+            streams.put(stream, role);
+            if (lastEventId != null) {
+                EventHistory.Replay replay = history.replaySinceUnder(role.getTopicPrefix(), lastEventId);
+                if (replay.resyncRequired()) {
+                    stream.enqueue(SseEmitter.event().name("resync")
+                        .data(Map.of("type", "RESYNC_REQUIRED", "latestSeq", replay.latestSeq(), "timestamp", Instant.now()),
+                            MediaType.APPLICATION_JSON).build(), 0L);
+                } else {
+                    for (StompBroadcaster.EncodedPayload payload : replay.events()) {
+                        stream.replay(toEvent(payload), payload.getSeq());
+                    }
+                }
+            }
+        }
+        log.debug("Opened {} dashboard stream ({} open)", role, open.get());
+        return emitter;
+    }
+
+    @Override
+    public void onBroadcast(StompBroadcaster.EncodedPayload payload, List<String> destinations) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> event = null;
+        for (Map.Entry<Stream, DashboardRole> entry : streams.entrySet()) {
+            String prefix = entry.getValue().getTopicPrefix();
+            if (destinations.stream().anyMatch(destination -> destination.startsWith(prefix))) {
+                if (event == null) {
+                    event = toEvent(payload);
+                }
+                entry.getKey().enqueue(event, payload.getSeq());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        streams.keySet().forEach(stream -> stream.emitter.complete());
+    }
+
+    // Built once and shared by every stream it is queued on
+    private static Set<DataWithMediaType> toEvent(StompBroadcaster.EncodedPayload payload) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event();
+        if (payload.getSeq() > 0) {
+            event.id(Long.toString(payload.getSeq()));
+        }
+        if (payload.getEnvelope() != null) {
+            event.name(payload.getEnvelope().type());
+        }
+        return event
+            .data(new String(payload.bytes(WireFormat.FULL), StandardCharsets.UTF_8), MediaType.APPLICATION_JSON)
+            .build();
+    }
+
+    private void close(Stream stream) {
+        streams.remove(stream);
+        if (stream.released.compareAndSet(false, true)) {
+            open.decrementAndGet();
+        }
+    }
+
+    private final class Stream {
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> pending = new ArrayDeque<>();
+        private final Set<Long> replayed = new HashSet<>();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private boolean writing;
+        private boolean closed;
+
+        Stream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Set<DataWithMediaType> event, long seq) {
+            synchronized (this) {
+                if (closed || (seq > 0 && replayed.contains(seq))) {
+                    return;
+                }
+                if (pending.size() >= queueCapacity) {
+                    overflowed.increment();
+                    closed = true;
+                    pending.clear();
+                    writers.execute(emitter::complete);
+                    return;
+                }
+                pending.add(event);
+                if (writing) {
+                    return;
+                }
+                writing = true;
+            }
+            writers.execute(this::drain);
+        }
+
+        // Replayed events are not held to the queue capacity, and are not sent again if they also arrive live
+        synchronized void replay(Set<DataWithMediaType> event, long seq) {
+            replayed.add(seq);
+            pending.add(event);
+            if (!writing) {
+                writing = true;
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null || closed) {
+                        writing = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter callbacks remove the stream
+                    synchronized (this) {
+                        closed = true;
+                        pending.clear();
+                        writing = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -9,13 +9,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -24,23 +24,24 @@ import java.util.UUID;
 @Slf4j
 public class EquipmentWebSocketController {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompBroadcaster broadcaster;
     private final EquipmentService equipmentService;
     private final EquipmentAssignmentService assignmentService;
     
     @MessageMapping("/equipment/subscribe")
-    @SendTo("/topic/equipment/updates")
-    public EquipmentUpdateMessage subscribeToEquipmentUpdates(@Payload Map<String, Object> payload,
-                                                            SimpMessageHeaderAccessor headerAccessor) {
+    public void subscribeToEquipmentUpdates(@Payload Map<String, Object> payload,
+                                            SimpMessageHeaderAccessor headerAccessor) {
         String username = headerAccessor.getUser().getName();
         log.info("User {} subscribed to equipment updates", username);
         
-        return new EquipmentUpdateMessage(
+        EquipmentUpdateMessage message = new EquipmentUpdateMessage(
             "SUBSCRIPTION_CONFIRMED",
             null,
             "Successfully subscribed to equipment updates",
             Instant.now()
         );
+        // Sequenced like every other frame on the topic, so resuming clients see no unnumbered gap
+        broadcaster.send(broadcaster.encode(message), "/topic/equipment/updates");
     }
     
     @MessageMapping("/equipment/{equipmentId}/status")
@@ -64,18 +65,19 @@ public class EquipmentWebSocketController {
                 Instant.now()
             );
             
-            messagingTemplate.convertAndSend("/topic/equipment/updates", message);
+            // Serialized once per wire format and shared by every destination below
+            StompBroadcaster.EncodedPayload payload = broadcaster.encode(message,
+                equipmentEnvelope("STATUS_UPDATED", equipment),
+                SubscriptionSelectors.attributes(equipment, equipment.getAssignedTo()));
             
-            // Send targeted message to equipment manager queue
-            messagingTemplate.convertAndSend("/topic/equipment-manager/updates", message);
+            // Broadcast to the equipment topic and its shards, and the equipment manager queue
+            broadcaster.send(payload, destinations(
+                SubscriptionSelectors.equipmentTopics(equipment, equipment.getAssignedTo()),
+                "/topic/equipment-manager/updates"));
             
             // If equipment is assigned, notify the student
             if (equipment.getAssignedTo() != null) {
-                messagingTemplate.convertAndSendToUser(
-                    equipment.getAssignedTo().getEmail(),
-                    "/queue/equipment/updates",
-                    message
-                );
+                broadcaster.sendToUser(payload, equipment.getAssignedTo().getEmail(), "/queue/equipment/updates");
             }
             
         } catch (Exception e) {
@@ -110,21 +112,18 @@ public class EquipmentWebSocketController {
                 Instant.now()
             );
             
-            // Send to general equipment updates topic
-            messagingTemplate.convertAndSend("/topic/equipment/updates", message);
-            
-            // Send to equipment manager dashboard
-            messagingTemplate.convertAndSend("/topic/equipment-manager/assignments", message);
+            StompBroadcaster.EncodedPayload payload = broadcaster.encode(message,
+                assignmentEnvelope("EQUIPMENT_CHECKED_OUT", assignment),
+                SubscriptionSelectors.attributes(assignment.getEquipment(), assignment.getStudent()));
             
-            // Send to band director dashboard
-            messagingTemplate.convertAndSend("/topic/director/assignments", message);
+            // Equipment topic and its shards, equipment manager and band director dashboards
+            broadcaster.send(payload, destinations(
+                SubscriptionSelectors.equipmentTopics(assignment.getEquipment(), assignment.getStudent()),
+                "/topic/equipment-manager/assignments",
+                "/topic/director/assignments"));
             
             // Notify the specific student
-            messagingTemplate.convertAndSendToUser(
-                assignment.getStudent().getEmail(),
-                "/queue/assignments/updates",
-                message
-            );
+            broadcaster.sendToUser(payload, assignment.getStudent().getEmail(), "/queue/assignments/updates");
             
         } catch (Exception e) {
             log.error("Error processing equipment checkout via WebSocket", e);
@@ -156,28 +155,29 @@ public class EquipmentWebSocketController {
                 Instant.now()
             );
             
+            StompBroadcaster.EncodedPayload payload = broadcaster.encode(message,
+                assignmentEnvelope("EQUIPMENT_RETURNED", assignment),
+                SubscriptionSelectors.attributes(assignment.getEquipment(), assignment.getStudent()));
+            
             // Broadcast return notification
-            messagingTemplate.convertAndSend("/topic/equipment/updates", message);
-            messagingTemplate.convertAndSend("/topic/equipment-manager/assignments", message);
-            messagingTemplate.convertAndSend("/topic/director/assignments", message);
+            broadcaster.send(payload, destinations(
+                SubscriptionSelectors.equipmentTopics(assignment.getEquipment(), assignment.getStudent()),
+                "/topic/equipment-manager/assignments",
+                "/topic/director/assignments"));
             
             // If approval is needed due to damage/condition change, notify supervisors
             if (assignment.getStatus() == EquipmentAssignment.AssignmentStatus.PENDING_RETURN) {
-                messagingTemplate.convertAndSend("/topic/supervisor/approvals", 
-                    new ApprovalNeededMessage(
-                        assignment,
-                        "Equipment return requires approval due to condition change or damage",
-                        Instant.now()
-                    )
+                ApprovalNeededMessage approval = new ApprovalNeededMessage(
+                    assignment,
+                    "Equipment return requires approval due to condition change or damage",
+                    Instant.now()
                 );
+                broadcaster.send(broadcaster.encode(approval, assignmentEnvelope("APPROVAL_NEEDED", assignment)),
+                    "/topic/supervisor/approvals");
             }
             
             // Notify the student
-            messagingTemplate.convertAndSendToUser(
-                assignment.getStudent().getEmail(),
-                "/queue/assignments/updates",
-                message
-            );
+            broadcaster.sendToUser(payload, assignment.getStudent().getEmail(), "/queue/assignments/updates");
             
         } catch (Exception e) {
             log.error("Error processing equipment return via WebSocket", e);
@@ -205,11 +205,15 @@ public class EquipmentWebSocketController {
                 Instant.now()
             );
             
-            // Notify equipment managers
-            messagingTemplate.convertAndSend("/topic/equipment-manager/maintenance", message);
+            EventEnvelope envelope = EventEnvelope.of("MAINTENANCE_SCHEDULED", "equipment", maintenance.getEquipmentId(),
+                EventEnvelope.changes(
+                    "maintenanceType", maintenance.getMaintenanceType(),
+                    "scheduledDate", epochMillis(maintenance.getScheduledDate())));
             
-            // Notify band director
-            messagingTemplate.convertAndSend("/topic/director/maintenance", message);
+            // Notify equipment managers and the band director
+            broadcaster.send(broadcaster.encode(message, envelope),
+                "/topic/equipment-manager/maintenance",
+                "/topic/director/maintenance");
             
         } catch (Exception e) {
             log.error("Error scheduling maintenance via WebSocket", e);
@@ -233,25 +237,56 @@ public class EquipmentWebSocketController {
             Instant.now()
         );
         
+        // Role topics go through the broadcaster so subscribers on other nodes are refreshed too
         switch (role.toUpperCase()) {
             case "STUDENT":
-                messagingTemplate.convertAndSendToUser(username, "/queue/dashboard/refresh", message);
+                broadcaster.sendToUser(broadcaster.encode(message), username, "/queue/dashboard/refresh");
                 break;
             case "BAND_DIRECTOR":
-                messagingTemplate.convertAndSend("/topic/director/dashboard/refresh", message);
+                broadcaster.send(broadcaster.encode(message), "/topic/director/dashboard/refresh");
                 break;
             case "EQUIPMENT_MANAGER":
-                messagingTemplate.convertAndSend("/topic/equipment-manager/dashboard/refresh", message);
+                broadcaster.send(broadcaster.encode(message), "/topic/equipment-manager/dashboard/refresh");
                 break;
             case "SUPERVISOR":
-                messagingTemplate.convertAndSend("/topic/supervisor/dashboard/refresh", message);
+                broadcaster.send(broadcaster.encode(message), "/topic/supervisor/dashboard/refresh");
                 break;
         }
     }
     
+    // Compact forms of the messages above, for clients that negotiated an event-format at CONNECT
+    private static EventEnvelope equipmentEnvelope(String type, Equipment equipment) {
+        return EventEnvelope.of(type, "equipment", equipment.getId(), EventEnvelope.changes(
+            "status", equipment.getStatus(),
+            "condition", equipment.getCondition(),
+            "location", equipment.getLocation(),
+            "assignedToId", equipment.getAssignedTo() != null ? equipment.getAssignedTo().getId() : null));
+    }
+    
+    private static EventEnvelope assignmentEnvelope(String type, EquipmentAssignment assignment) {
+        return EventEnvelope.of(type, "assignment", assignment.getId(), EventEnvelope.changes(
+            "status", assignment.getStatus(),
+            "equipmentId", assignment.getEquipment().getId(),
+            "qrCode", assignment.getEquipment().getQrCode(),
+            "studentId", assignment.getStudent().getId(),
+            "expectedReturnDate", epochMillis(assignment.getExpectedReturnDate()),
+            "actualReturnDate", epochMillis(assignment.getActualReturnDate()),
+            "returnCondition", assignment.getReturnCondition()));
+    }
+    
+    private static String[] destinations(List<String> shards, String... others) {
+        List<String> all = new ArrayList<>(shards);
+        all.addAll(List.of(others));
+        return all.toArray(String[]::new);
+    }
+    
+    private static Long epochMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : null;
+    }
+    
     private void sendErrorMessage(String username, String error) {
         ErrorMessage errorMsg = new ErrorMessage(error, Instant.now());
-        messagingTemplate.convertAndSendToUser(username, "/queue/errors", errorMsg);
+        broadcaster.sendToUser(broadcaster.encode(errorMsg), username, "/queue/errors");
     }
     
     // Message DTOs
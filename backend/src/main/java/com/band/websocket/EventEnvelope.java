@@ -0,0 +1,61 @@
+package com.band.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact real-time event: what happened to which entity and the fields that
+ * changed, instead of the whole entity graph. Property names are kept short
+ * because they are repeated in every frame.
+ *
+ * @param version schema version, bumped on incompatible changes
+ * @param type    event type, e.g. {@code EQUIPMENT_CHECKED_OUT}
+ * @param entity  entity kind, e.g. {@code assignment}
+ * @param id      entity id
+ * @param seq     sequence number assigned when the event is broadcast
+ * @param ts      epoch milliseconds
+ * @param changes changed fields; null values mean the field was cleared
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record EventEnvelope(
+    @JsonProperty("v") int version,
+    @JsonProperty("t") String type,
+    @JsonProperty("e") String entity,
+    @JsonProperty("id") UUID id,
+    @JsonProperty("seq") long seq,
+    @JsonProperty("ts") long ts,
+    @JsonProperty("d") Map<String, Object> changes) {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    // Kept in broadcast payloads and event history, so the changes are copied and read-only
+    public EventEnvelope {
+        changes = changes != null ? Collections.unmodifiableMap(new LinkedHashMap<>(changes)) : null;
+    }
+
+    public static EventEnvelope of(String type, String entity, UUID id, Map<String, Object> changes) {
+        return new EventEnvelope(SCHEMA_VERSION, type, entity, id, 0L, System.currentTimeMillis(), changes);
+    }
+
+    public EventEnvelope withSeq(long seq) {
+        return new EventEnvelope(version, type, entity, id, seq, ts, changes);
+    }
+
+    /** Builds an ordered change map from alternating names and values; values may be null. */
+    public static Map<String, Object> changes(Object... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected name/value pairs");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            Object value = namesAndValues[i + 1];
+            changes.put((String) namesAndValues[i], value instanceof Enum<?> e ? e.name() : value);
+        }
+        return changes;
+    }
+}
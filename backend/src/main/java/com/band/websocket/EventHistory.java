@@ -0,0 +1,139 @@
+package com.band.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recent broadcasts per {@code /topic} destination, kept so a reconnecting client
+ * can be sent just the events it missed.
+ *
+ * <p>Each topic holds a bounded ring of payloads ordered by sequence number.
+ * Sequence numbers are global, so a topic's ring has gaps that belong to other
+ * topics; what matters is whether anything after the client's {@code last-seq}
+ * has already been evicted, or happened before this node started listening. In
+ * either case the client has to resync. User queues are not retained: they carry
+ * replies and errors for a single session, not shared state.
+ */
+@Component
+public class EventHistory implements BroadcastListener {
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final int capacity;
+    private final long bootSequence;
+    private final AtomicLong latestSeen = new AtomicLong();
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+    public EventHistory(BroadcastRelay relay,
+                        @Value("${app.websocket.history.capacity-per-topic:256}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalStateException("app.websocket.history.capacity-per-topic must be positive");
+        }
+        this.capacity = capacity;
+        // Anything numbered up to here was broadcast before this node could see it
+        this.bootSequence = relay.currentSequence();
+        this.latestSeen.set(bootSequence);
+    }
+
+    @Override
+    public void onBroadcast(StompBroadcaster.EncodedPayload payload, List<String> destinations) {
+        if (payload.getSeq() <= 0) {
+            return;
+        }
+        latestSeen.accumulateAndGet(payload.getSeq(), Math::max);
+        for (String destination : destinations) {
+            if (destination.startsWith(TOPIC_PREFIX)) {
+                rings.computeIfAbsent(destination, d -> new Ring(bootSequence)).add(payload, capacity);
+            }
+        }
+    }
+
+    /** Events on {@code destination} numbered after {@code lastSeq}, oldest first. */
+    public Replay replaySince(String destination, long lastSeq) {
+        long latest = latestSeen.get();
+        // A sequence from the future means the counter was reset; the client cannot trust its state
+        if (lastSeq > latest) {
+            return Replay.resync(latest);
+        }
+        Ring ring = rings.get(destination);
+        if (ring == null) {
+            return lastSeq < bootSequence ? Replay.resync(latest) : Replay.of(List.of(), latest);
+        }
+        return ring.since(lastSeq, latest);
+    }
+
+    /**
+     * Events on every retained topic under {@code prefix} numbered after
+     * {@code lastSeq}, each once even if it went to several of those topics.
+     */
+    public Replay replaySinceUnder(String prefix, long lastSeq) {
+        long latest = latestSeen.get();
+        if (lastSeq > latest || lastSeq < bootSequence) {
+            return Replay.resync(latest);
+        }
+        Map<Long, StompBroadcaster.EncodedPayload> missed = new TreeMap<>();
+        for (Map.Entry<String, Ring> entry : rings.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                continue;
+            }
+            Replay replay = entry.getValue().since(lastSeq, latest);
+            if (replay.resyncRequired()) {
+                return replay;
+            }
+            replay.events().forEach(payload -> missed.putIfAbsent(payload.getSeq(), payload));
+        }
+        return Replay.of(List.copyOf(missed.values()), latest);
+    }
+
+    public record Replay(List<StompBroadcaster.EncodedPayload> events, boolean resyncRequired, long latestSeq) {
+        static Replay of(List<StompBroadcaster.EncodedPayload> events, long latestSeq) {
+            return new Replay(events, false, latestSeq);
+        }
+
+        static Replay resync(long latestSeq) {
+            return new Replay(List.of(), true, latestSeq);
+        }
+    }
+
+    private static final class Ring {
+        private final Deque<StompBroadcaster.EncodedPayload> events = new ArrayDeque<>();
+        // Highest sequence that may be missing from this ring
+        private long evictedUpTo;
+
+        Ring(long evictedUpTo) {
+            this.evictedUpTo = evictedUpTo;
+        }
+
+        synchronized void add(StompBroadcaster.EncodedPayload payload, int capacity) {
+            events.addLast(payload);
+            while (events.size() > capacity) {
+                evictedUpTo = Math.max(evictedUpTo, events.removeFirst().getSeq());
+            }
+        }
+
+        synchronized Replay since(long lastSeq, long latest) {
+            if (lastSeq < evictedUpTo) {
+                return Replay.resync(latest);
+            }
+            List<StompBroadcaster.EncodedPayload> missed = new ArrayList<>();
+            for (StompBroadcaster.EncodedPayload payload : events) {
+                if (payload.getSeq() > lastSeq) {
+                    missed.add(payload);
+                }
+            }
+            // Relayed events can arrive slightly out of order across nodes
+            missed.sort(Comparator.comparingLong(StompBroadcaster.EncodedPayload::getSeq));
+            return Replay.of(missed, latest);
+        }
+    }
+}
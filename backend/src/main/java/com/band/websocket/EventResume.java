@@ -0,0 +1,106 @@
+package com.band.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Lets a reconnecting client pick up where it left off. A SUBSCRIBE carrying a
+ * {@code last-seq} header is answered, once the broker has registered the
+ * subscription, with every retained event on that topic numbered after it, or
+ * with a single {@code RESYNC_REQUIRED} message if part of the gap is no longer
+ * in {@link EventHistory}.
+ *
+ * <p>Live events may interleave with the replay, so clients should apply events
+ * in {@code seq} order and ignore any sequence they have already seen.
+ */
+@Component
+@Slf4j
+public class EventResume {
+
+    static final String LAST_SEQ_HEADER = "last-seq";
+    static final String REPLAY_HEADER = "replay";
+
+    private final EventHistory history;
+    private final StompBroadcaster broadcaster;
+    private final MessageChannel clientOutboundChannel;
+
+    public EventResume(EventHistory history,
+                       @Lazy StompBroadcaster broadcaster,
+                       @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.history = history;
+        this.broadcaster = broadcaster;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    public ExecutorChannelInterceptor inboundInterceptor() {
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                if (ex == null && handler instanceof SimpleBrokerMessageHandler) {
+                    resume(StompHeaderAccessor.wrap(message));
+                }
+            }
+        };
+    }
+
+    private void resume(StompHeaderAccessor subscribe) {
+        if (subscribe.getCommand() != StompCommand.SUBSCRIBE) {
+            return;
+        }
+        String header = subscribe.getFirstNativeHeader(LAST_SEQ_HEADER);
+        if (header == null) {
+            return;
+        }
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", LAST_SEQ_HEADER, header);
+            return;
+        }
+
+        String destination = subscribe.getDestination();
+        EventHistory.Replay replay = history.replaySince(destination, lastSeq);
+        if (replay.resyncRequired()) {
+            log.debug("Session {} must resync {} from seq {}", subscribe.getSessionId(), destination, lastSeq);
+            ResyncRequiredMessage resync = new ResyncRequiredMessage(
+                "RESYNC_REQUIRED", destination, replay.latestSeq(), Instant.now());
+            send(subscribe, broadcaster.encodeControl(resync), false);
+            return;
+        }
+        String filter = subscribe.getFirstNativeHeader(SubscriptionSelectors.FILTER_HEADER);
+        for (StompBroadcaster.EncodedPayload payload : replay.events()) {
+            if (SubscriptionSelectors.matches(filter, payload.getAttributes())) {
+                send(subscribe, payload, true);
+            }
+        }
+    }
+
+    // Addressed to the one subscription, bypassing the broker's fan-out
+    private void send(StompHeaderAccessor subscribe, StompBroadcaster.EncodedPayload payload, boolean replayed) {
+        SimpMessageHeaderAccessor accessor = StompBroadcaster.headersFor(payload);
+        accessor.setSessionId(subscribe.getSessionId());
+        accessor.setSubscriptionId(subscribe.getSubscriptionId());
+        accessor.setDestination(subscribe.getDestination());
+        accessor.setUser(subscribe.getUser());
+        if (replayed) {
+            accessor.setNativeHeader(REPLAY_HEADER, "true");
+        }
+        clientOutboundChannel.send(StompBroadcaster.emptyBody(accessor));
+    }
+
+    public record ResyncRequiredMessage(String type, String destination, long latestSeq, Instant timestamp) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.band.websocket;
+
+import com.band.security.EndpointGroup;
+import com.band.security.RateLimitPolicy;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Applies the {@code stomp} rate-limit budget to SEND frames, keyed like HTTP
+ * requests by the authenticated user. A message over budget is dropped and the
+ * sender is told on {@code /queue/errors} when to retry.
+ */
+@Component
+public class InboundRateLimit {
+
+    private final RateLimitPolicy policy;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public InboundRateLimit(RateLimitPolicy policy, @Lazy SimpMessagingTemplate messagingTemplate) {
+        this.policy = policy;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    public ChannelInterceptor inboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                    return message;
+                }
+                Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+                String subject = user != null ? user.getName() : "session:" + SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                Duration wait = policy.check(subject,
+                        user instanceof Authentication auth ? auth.getAuthorities() : null, EndpointGroup.STOMP);
+                if (wait.isZero()) {
+                    return message;
+                }
+                if (user != null) {
+                    long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+                    messagingTemplate.convertAndSendToUser(user.getName(), "/queue/errors",
+                            new EquipmentWebSocketController.ErrorMessage(
+                                    "Rate limit exceeded, retry in " + seconds + "s: " + SimpMessageHeaderAccessor.getDestination(message.getHeaders()),
+                                    Instant.now()));
+                }
+                return null;
+            }
+        };
+    }
+}
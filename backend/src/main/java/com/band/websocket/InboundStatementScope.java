@@ -0,0 +1,57 @@
+package com.band.websocket;
+
+import com.band.db.StatementAccounting;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Makes each {@code @MessageMapping} invocation a unit of work for
+ * {@link StatementAccounting}, the way HTTP requests are. Ids in the
+ * destination are replaced by {@code {id}} in metric tags.
+ */
+@Component
+public class InboundStatementScope {
+
+    private static final Pattern UUID_SEGMENT = Pattern.compile(
+            "/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
+
+    private final StatementAccounting statementAccounting;
+
+    public InboundStatementScope(StatementAccounting statementAccounting) {
+        this.statementAccounting = statementAccounting;
+    }
+
+    public ExecutorChannelInterceptor inboundInterceptor() {
+        // beforeHandle and afterMessageHandled run on the thread that handles the message
+        ThreadLocal<StatementAccounting.Unit> units = new ThreadLocal<>();
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+                if (handler instanceof SimpAnnotationMethodMessageHandler
+                        && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                    units.set(statementAccounting.open("stomp",
+                            "STOMP " + SimpMessageHeaderAccessor.getDestination(message.getHeaders())));
+                }
+                return message;
+            }
+
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                StatementAccounting.Unit unit = units.get();
+                if (unit != null) {
+                    units.remove();
+                    String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                    unit.close(destination != null ? UUID_SEGMENT.matcher(destination).replaceAll("/{id}") : "unknown");
+                }
+            }
+        };
+    }
+}
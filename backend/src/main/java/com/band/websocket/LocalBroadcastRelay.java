@@ -0,0 +1,38 @@
+package com.band.websocket;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Single-node default: the in-process broker already reaches every subscriber. */
+@Component
+@ConditionalOnProperty(name = "app.websocket.relay", havingValue = "local", matchIfMissing = true)
+public class LocalBroadcastRelay implements BroadcastRelay {
+
+    // Seeded from the clock, so numbering does not restart at zero with the process
+    private final AtomicLong sequence = new AtomicLong(BroadcastRelay.clockFloor());
+
+    @Override
+    public long nextSequence() {
+        return sequence.accumulateAndGet(BroadcastRelay.clockFloor(), (prev, floor) -> Math.max(prev + 1, floor));
+    }
+
+    @Override
+    public long currentSequence() {
+        return sequence.get();
+    }
+
+    @Override
+    public void publish(StompBroadcaster.EncodedPayload payload, List<String> destinations) {
+    }
+
+    @Override
+    public void publishToUser(StompBroadcaster.EncodedPayload payload, String user, String destination) {
+    }
+
+    @Override
+    public void setReceiver(Receiver receiver) {
+    }
+}
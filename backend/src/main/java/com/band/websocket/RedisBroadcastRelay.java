@@ -0,0 +1,279 @@
+package com.band.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Relays broadcasts between backend nodes over Redis pub/sub.
+ *
+ * <p>Topic broadcasts go to one shared channel that every node subscribes to.
+ * User messages are routed through a Redis hash of user -> node -> session count,
+ * so they are published only to the channels of nodes where the user is
+ * connected; each node then resolves the user destination against its own
+ * sessions. Messages carry the origin node, which ignores its own echo.
+ *
+ * <p>Every {@code presence-heartbeat} a node renews a liveness key and
+ * rewrites its own presence entries with an expiry. Entries of a node whose
+ * liveness key has expired (it crashed without removing them) are skipped and
+ * deleted the next time a message is routed to that user.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.relay", havingValue = "redis")
+@Slf4j
+public class RedisBroadcastRelay implements BroadcastRelay, MessageListener {
+
+    private static final String BROADCAST_CHANNEL = "band:ws:broadcast";
+    private static final String NODE_CHANNEL_PREFIX = "band:ws:node:";
+    private static final String USER_NODES_PREFIX = "band:ws:user-nodes:";
+    private static final String NODE_ALIVE_PREFIX = "band:ws:node-alive:";
+    private static final String SEQUENCE_KEY = "band:ws:seq";
+    // INCR, raised to the clock floor if behind it, so a flushed or new key never restarts at zero
+    private static final RedisScript<Long> NEXT_SEQUENCE = RedisScript.of(
+        "local v = redis.call('INCR', KEYS[1]) "
+            + "local floor = tonumber(ARGV[1]) "
+            + "if v < floor then redis.call('SET', KEYS[1], ARGV[1]) v = floor end "
+            + "return v", Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    // Liveness and presence outlast a few missed heartbeats
+    private final Duration presenceTtl;
+
+    // Local STOMP session id -> user, so a disconnect is only counted once
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+
+    private final Timer latency;
+    private final Counter published;
+    private final Counter received;
+    private final Counter failures;
+
+    // Used only while Redis is unreachable, so broadcasts keep flowing locally
+    private final AtomicLong fallbackSequence = new AtomicLong(BroadcastRelay.clockFloor());
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("relay-presence").daemon().factory());
+
+    private volatile Receiver receiver;
+
+    public RedisBroadcastRelay(StringRedisTemplate redis,
+                               RedisMessageListenerContainer listenerContainer,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.websocket.node-id:}") String nodeId,
+                               @Value("${app.websocket.presence-heartbeat:10s}") Duration presenceHeartbeat) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        this.presenceTtl = presenceHeartbeat.multipliedBy(3);
+
+        this.latency = Timer.builder("band.websocket.relay.latency")
+            .description("Time from publish on one node to receipt on another")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.published = Counter.builder("band.websocket.relay.published").register(meterRegistry);
+        this.received = Counter.builder("band.websocket.relay.received").register(meterRegistry);
+        this.failures = Counter.builder("band.websocket.relay.failures").register(meterRegistry);
+
+        listenerContainer.addMessageListener(this,
+            List.of(new ChannelTopic(BROADCAST_CHANNEL), new ChannelTopic(NODE_CHANNEL_PREFIX + this.nodeId)));
+        log.info("Redis broadcast relay enabled for node {}", this.nodeId);
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, 0, presenceHeartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void setReceiver(Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public long nextSequence() {
+        try {
+            Long seq = redis.execute(NEXT_SEQUENCE, List.of(SEQUENCE_KEY), Long.toString(BroadcastRelay.clockFloor()));
+            fallbackSequence.accumulateAndGet(seq, Math::max);
+            return seq;
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to take a broadcast sequence from Redis: {}", e.getMessage());
+            return fallbackSequence.accumulateAndGet(BroadcastRelay.clockFloor(), (prev, floor) -> Math.max(prev + 1, floor));
+        }
+    }
+
+    @Override
+    public long currentSequence() {
+        try {
+            String seq = redis.opsForValue().get(SEQUENCE_KEY);
+            return Math.max(seq != null ? Long.parseLong(seq) : 0L, BroadcastRelay.clockFloor());
+        } catch (Exception e) {
+            failures.increment();
+            return fallbackSequence.get();
+        }
+    }
+
+    @Override
+    public void publish(StompBroadcaster.EncodedPayload payload, List<String> destinations) {
+        send(BROADCAST_CHANNEL, RelayMessage.of(nodeId, payload, destinations, null));
+    }
+
+    @Override
+    public void publishToUser(StompBroadcaster.EncodedPayload payload, String user, String destination) {
+        RelayMessage message = RelayMessage.of(nodeId, payload, List.of(destination), user);
+        String key = USER_NODES_PREFIX + user;
+        // Local delivery has already happened; a Redis outage only affects other nodes
+        try {
+            for (Object node : redis.opsForHash().keys(key)) {
+                if (nodeId.equals(node)) {
+                    continue;
+                }
+                if (Boolean.TRUE.equals(redis.hasKey(NODE_ALIVE_PREFIX + node))) {
+                    send(NODE_CHANNEL_PREFIX + node, message);
+                } else {
+                    redis.opsForHash().delete(key, node);
+                }
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to look up relay presence for {}: {}", user, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            RelayMessage relayed = objectMapper.readValue(message.getBody(), RelayMessage.class);
+            if (nodeId.equals(relayed.origin()) || receiver == null) {
+                return;
+            }
+            received.increment();
+            latency.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - relayed.publishedAt())));
+
+            byte[] full = relayed.full().getBytes(StandardCharsets.UTF_8);
+            if (relayed.user() != null) {
+                receiver.deliverToUser(full, relayed.envelope(), relayed.seq(), relayed.attributes(), relayed.user(), relayed.destinations().get(0));
+            } else {
+                receiver.deliver(full, relayed.envelope(), relayed.seq(), relayed.attributes(), relayed.destinations());
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Dropping unreadable relay message: {}", e.getMessage());
+        }
+    }
+
+    // User presence, so user messages are only published to nodes that can deliver them
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = (String) event.getMessage().getHeaders().get("simpSessionId");
+        if (user == null || sessionId == null) {
+            return;
+        }
+        localSessions.put(sessionId, user.getName());
+        updatePresence(user.getName(), 1);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String user = localSessions.remove(event.getSessionId());
+        if (user != null) {
+            updatePresence(user, -1);
+        }
+    }
+
+    @PreDestroy
+    public void removePresence() {
+        heartbeats.shutdownNow();
+        localSessions.values().forEach(user -> updatePresence(user, -1));
+        localSessions.clear();
+        try {
+            redis.delete(NODE_ALIVE_PREFIX + nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to remove relay liveness for node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    // Also restores entries lost while Redis was unreachable
+    void heartbeat() {
+        try {
+            redis.opsForValue().set(NODE_ALIVE_PREFIX + nodeId, "1", presenceTtl);
+            Map<String, Long> sessionsByUser = localSessions.values().stream()
+                .collect(Collectors.groupingBy(user -> user, Collectors.counting()));
+            sessionsByUser.forEach((user, sessions) -> {
+                String key = USER_NODES_PREFIX + user;
+                redis.opsForHash().put(key, nodeId, sessions.toString());
+                redis.expire(key, presenceTtl);
+            });
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to renew relay presence for node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void updatePresence(String user, int delta) {
+        String key = USER_NODES_PREFIX + user;
+        try {
+            Long sessions = redis.opsForHash().increment(key, nodeId, delta);
+            if (sessions <= 0) {
+                redis.opsForHash().delete(key, nodeId);
+            } else {
+                redis.expire(key, presenceTtl);
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to update relay presence for {}: {}", user, e.getMessage());
+        }
+    }
+
+    private void send(String channel, RelayMessage message) {
+        // Local delivery has already happened; a Redis outage only affects other nodes
+        try {
+            redis.convertAndSend(channel, objectMapper.writeValueAsString(message));
+            published.increment();
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to relay broadcast to {}: {}", channel, e.getMessage());
+        }
+    }
+
+    /** Wire form of a relayed broadcast; {@code full} is the complete message JSON. */
+    record RelayMessage(String origin, long publishedAt, long seq, List<String> destinations, String user,
+                        String full, EventEnvelope envelope, Map<String, String> attributes) {
+
+        static RelayMessage of(String origin, StompBroadcaster.EncodedPayload payload,
+                               List<String> destinations, String user) {
+            return new RelayMessage(origin, System.currentTimeMillis(), payload.getSeq(), destinations, user,
+                new String(payload.bytes(WireFormat.FULL), StandardCharsets.UTF_8), payload.getEnvelope(),
+                payload.getAttributes());
+        }
+    }
+}
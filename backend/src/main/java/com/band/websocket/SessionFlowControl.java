@@ -0,0 +1,262 @@
+package com.band.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps slow WebSocket clients from delaying everyone else.
+ *
+ * <p>Every outbound MESSAGE frame is counted against its session until the
+ * socket write completes, or until the send is abandoned before it reaches the
+ * socket. Other frames (CONNECTED, RECEIPT, ERROR, heartbeats) are not counted:
+ * some never produce a write. Once a session has {@code conflate-after} frames outstanding it is
+ * considered lagging: further entity events for it are held back, keeping only
+ * the latest event per destination and entity id, and are released when the
+ * backlog falls to {@code resume-below}. Sessions that still exceed the send
+ * buffer or time limit configured in {@link WebSocketConfig} are closed by
+ * Spring's session decorator.
+ */
+@Component
+@Slf4j
+public class SessionFlowControl {
+
+    private static final String RELEASED_HEADER = "band.conflationReleased";
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final int conflateAfter;
+    private final int resumeBelow;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    private final Counter conflated;
+    private final Counter dropped;
+    private final Counter terminated;
+
+    public SessionFlowControl(MeterRegistry meterRegistry,
+                              @Value("${app.websocket.flow.conflate-after:32}") int conflateAfter,
+                              @Value("${app.websocket.flow.resume-below:8}") int resumeBelow) {
+        if (resumeBelow >= conflateAfter) {
+            throw new IllegalStateException("app.websocket.flow.resume-below must be lower than conflate-after");
+        }
+        this.conflateAfter = conflateAfter;
+        this.resumeBelow = resumeBelow;
+
+        this.conflated = Counter.builder("band.websocket.conflated")
+            .description("Events replaced by a newer event for the same entity while the session was lagging")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("band.websocket.dropped")
+            .description("Held-back events discarded because the session closed")
+            .register(meterRegistry);
+        this.terminated = Counter.builder("band.websocket.slow.terminated")
+            .description("Sessions closed for exceeding the send buffer or time limit")
+            .register(meterRegistry);
+        Gauge.builder("band.websocket.lagging", sessions, all -> all.values().stream().filter(SessionState::isLagging).count())
+            .description("Sessions currently receiving conflated updates")
+            .register(meterRegistry);
+    }
+
+    /** Wraps each raw session so completed socket writes are counted. */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionState());
+                super.afterConnectionEstablished(new CountingSession(session));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionState state = sessions.remove(session.getId());
+                if (state != null) {
+                    int discarded = state.discard();
+                    if (discarded > 0) {
+                        dropped.increment(discarded);
+                    }
+                }
+                if (CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                    terminated.increment();
+                    log.info("Closed slow WebSocket session {}", session.getId());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public ChannelInterceptor outboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+                if (state == null) {
+                    return message;
+                }
+                String key = conflationKey(message);
+                if (key != null && message.getHeaders().get(RELEASED_HEADER) == null
+                        && state.pending.get() >= conflateAfter) {
+                    if (state.hold(key, message, channel)) {
+                        conflated.increment();
+                    }
+                    return null;
+                }
+                if (isCounted(message)) {
+                    state.pending.incrementAndGet();
+                }
+                return message;
+            }
+
+            // A later interceptor dropped the message or the executor refused it: no write will come
+            @Override
+            public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if ((!sent || ex != null) && sessionId != null && isCounted(message)) {
+                    written(sessionId);
+                }
+            }
+        };
+    }
+
+    private static boolean isCounted(Message<?> message) {
+        return SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE;
+    }
+
+    // The STOMP frames the outbound interceptor counted: they start with their command
+    private static boolean isMessageFrame(WebSocketMessage<?> message) {
+        ByteBuffer frame;
+        if (message instanceof TextMessage text) {
+            frame = ByteBuffer.wrap(text.asBytes());
+        } else if (message instanceof BinaryMessage binary) {
+            frame = binary.getPayload();
+        } else {
+            return false;
+        }
+        if (frame.remaining() < MESSAGE_COMMAND.length) {
+            return false;
+        }
+        for (int i = 0; i < MESSAGE_COMMAND.length; i++) {
+            if (frame.get(frame.position() + i) != MESSAGE_COMMAND[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Only compact-envelope broadcasts identify an entity; everything else is always delivered
+    private static String conflationKey(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        if (!(message.getHeaders().get(StompBroadcaster.PAYLOAD_HEADER) instanceof StompBroadcaster.EncodedPayload payload)
+                || payload.getEnvelope() == null) {
+            return null;
+        }
+        EventEnvelope envelope = payload.getEnvelope();
+        UUID id = envelope.id();
+        return id == null ? null
+            : SimpMessageHeaderAccessor.getDestination(message.getHeaders()) + '|' + envelope.entity() + '|' + id;
+    }
+
+    private void written(String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        if (state == null) {
+            return;
+        }
+        int pending = state.pending.updateAndGet(n -> Math.max(0, n - 1));
+        if (pending <= resumeBelow) {
+            state.release();
+        }
+    }
+
+    private static final class SessionState {
+        final AtomicInteger pending = new AtomicInteger();
+
+        // Latest held-back event per destination and entity, in arrival order
+        private final Map<String, Message<?>> held = new LinkedHashMap<>();
+        private MessageChannel channel;
+
+        boolean isLagging() {
+            synchronized (held) {
+                return !held.isEmpty();
+            }
+        }
+
+        /** Returns true if an older event for the same key was replaced. */
+        boolean hold(String key, Message<?> message, MessageChannel channel) {
+            synchronized (held) {
+                this.channel = channel;
+                return held.put(key, message) != null;
+            }
+        }
+
+        void release() {
+            List<Message<?>> toSend;
+            MessageChannel target;
+            synchronized (held) {
+                if (held.isEmpty()) {
+                    return;
+                }
+                toSend = new ArrayList<>(held.values());
+                held.clear();
+                target = channel;
+            }
+            for (Message<?> message : toSend) {
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+                accessor.setHeader(RELEASED_HEADER, Boolean.TRUE);
+                target.send(MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders()));
+            }
+        }
+
+        int discard() {
+            synchronized (held) {
+                int size = held.size();
+                held.clear();
+                return size;
+            }
+        }
+    }
+
+    private final class CountingSession extends WebSocketSessionDecorator {
+        CountingSession(WebSocketSession session) {
+            super(session);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (isMessageFrame(message)) {
+                    written(getId());
+                }
+            }
+        }
+    }
+}
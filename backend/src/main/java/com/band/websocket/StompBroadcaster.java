@@ -0,0 +1,237 @@
+package com.band.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans one event out to several STOMP destinations while serializing it only once
+ * per wire format.
+ *
+ * <p>{@link SimpMessagingTemplate#convertAndSend} runs the Jackson converter on
+ * every call, so sending the same entity graph to four destinations walks and
+ * encodes it four times. Here the full message is serialized once, on the
+ * caller's thread while its entities are still loaded, so a failure reaches the
+ * caller; the payload keeps only those bytes and the immutable envelope. The
+ * broker receives an {@link EncodedPayload} in a message header;
+ * {@link WireFormatNegotiator} picks the encoding each session negotiated and
+ * each envelope encoding is produced at most once, on first use. Each
+ * broadcast is delivered to this node's broker and {@link BroadcastListener}s
+ * and handed to the {@link BroadcastRelay} for the other nodes.
+ */
+@Component
+@Slf4j
+public class StompBroadcaster implements BroadcastRelay.Receiver {
+
+    static final String PAYLOAD_HEADER = "band.encodedPayload";
+    static final String SEQ_HEADER = "seq";
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastRelay relay;
+    private final List<BroadcastListener> listeners;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+
+    public StompBroadcaster(SimpMessagingTemplate messagingTemplate, BroadcastRelay relay,
+                            List<BroadcastListener> listeners) {
+        this.messagingTemplate = messagingTemplate;
+        this.relay = relay;
+        this.listeners = listeners;
+        // Encode exactly as convertAndSend would, so clients see the same JSON
+        this.jsonMapper = brokerObjectMapper(messagingTemplate.getMessageConverter());
+        this.cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+        relay.setReceiver(this);
+    }
+
+    /**
+     * Payload for messages that have no compact form; every format gets the full
+     * message. Like every broadcast it takes the next cluster-wide sequence number.
+     */
+    public EncodedPayload encode(Object message) {
+        return new EncodedPayload(full(message), null, relay.nextSequence(), Map.of(), jsonMapper, cborMapper);
+    }
+
+    /**
+     * Payload carrying both the full message and its compact envelope, which is
+     * stamped with the same sequence number as the frame.
+     */
+    public EncodedPayload encode(Object message, EventEnvelope envelope) {
+        return encode(message, envelope, Map.of());
+    }
+
+    /**
+     * As {@link #encode(Object, EventEnvelope)}, with attributes sent as native
+     * headers so subscription selectors can match on them; see
+     * {@link SubscriptionSelectors}.
+     */
+    public EncodedPayload encode(Object message, EventEnvelope envelope, Map<String, String> attributes) {
+        byte[] full = full(message);
+        long seq = relay.nextSequence();
+        return new EncodedPayload(full, envelope.withSeq(seq), seq, attributes, jsonMapper, cborMapper);
+    }
+
+    /** Unsequenced payload for control messages addressed to one subscription. */
+    EncodedPayload encodeControl(Object message) {
+        return new EncodedPayload(full(message), null, 0L, Map.of(), jsonMapper, cborMapper);
+    }
+
+    private byte[] full(Object message) {
+        try {
+            return jsonMapper.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + message.getClass().getSimpleName(), e);
+        }
+    }
+
+    public void send(EncodedPayload payload, String... destinations) {
+        List<String> targets = List.of(destinations);
+        sendLocally(payload, targets);
+        relay.publish(payload, targets);
+    }
+
+    public void sendToUser(EncodedPayload payload, String user, String destination) {
+        sendToUserLocally(payload, user, destination);
+        relay.publishToUser(payload, user, destination);
+    }
+
+    // Events relayed from other nodes are only fanned out to this node's sessions
+
+    @Override
+    public void deliver(byte[] full, EventEnvelope envelope, long seq, Map<String, String> attributes,
+                        List<String> destinations) {
+        sendLocally(new EncodedPayload(full, envelope, seq, attributes, jsonMapper, cborMapper), destinations);
+    }
+
+    @Override
+    public void deliverToUser(byte[] full, EventEnvelope envelope, long seq, Map<String, String> attributes,
+                              String user, String destination) {
+        sendToUserLocally(new EncodedPayload(full, envelope, seq, attributes, jsonMapper, cborMapper),
+            user, destination);
+    }
+
+    private void sendLocally(EncodedPayload payload, List<String> destinations) {
+        for (String destination : destinations) {
+            messagingTemplate.send(destination, toMessage(payload));
+        }
+        for (BroadcastListener listener : listeners) {
+            listener.onBroadcast(payload, destinations);
+        }
+    }
+
+    // Same resolution as SimpMessagingTemplate.convertAndSendToUser
+    private void sendToUserLocally(EncodedPayload payload, String user, String destination) {
+        String prefix = messagingTemplate.getUserDestinationPrefix();
+        String encodedUser = StringUtils.replace(user, "/", "%2F");
+        String userDestination = prefix + encodedUser + (destination.startsWith("/") ? destination : "/" + destination);
+        messagingTemplate.send(userDestination, toMessage(payload));
+    }
+
+    private static Message<byte[]> toMessage(EncodedPayload payload) {
+        SimpMessageHeaderAccessor accessor = headersFor(payload);
+        accessor.setLeaveMutable(true);
+        MessageHeaders headers = accessor.getMessageHeaders();
+        return MessageBuilder.createMessage(EMPTY, headers);
+    }
+
+    /**
+     * Message headers for a broadcast frame. The body is left empty and filled in
+     * per session by {@link WireFormatNegotiator}.
+     */
+    static SimpMessageHeaderAccessor headersFor(EncodedPayload payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setHeader(PAYLOAD_HEADER, payload);
+        if (payload.getSeq() > 0) {
+            accessor.setNativeHeader(SEQ_HEADER, Long.toString(payload.getSeq()));
+        }
+        payload.getAttributes().forEach(accessor::setNativeHeader);
+        return accessor;
+    }
+
+    static Message<byte[]> emptyBody(SimpMessageHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(EMPTY, accessor.getMessageHeaders());
+    }
+
+    private static ObjectMapper brokerObjectMapper(MessageConverter converter) {
+        if (converter instanceof MappingJackson2MessageConverter jackson) {
+            return jackson.getObjectMapper();
+        }
+        if (converter instanceof CompositeMessageConverter composite) {
+            for (MessageConverter delegate : composite.getConverters()) {
+                if (delegate instanceof MappingJackson2MessageConverter jackson) {
+                    return jackson.getObjectMapper();
+                }
+            }
+        }
+        log.warn("No Jackson converter registered with the broker; using a default ObjectMapper");
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    /**
+     * One broadcast event: the full message already serialized, and its envelope
+     * with the envelope's encodings memoized per {@link WireFormat}. Holds no
+     * entities, so it is safe to share between the broker threads delivering it
+     * and to keep in {@link EventHistory}.
+     */
+    public static final class EncodedPayload {
+        private final EventEnvelope envelope;
+        private final long seq;
+        private final Map<String, String> attributes;
+        private final ObjectMapper jsonMapper;
+        private final ObjectMapper cborMapper;
+        private final Map<WireFormat, byte[]> encodings = new ConcurrentHashMap<>(4);
+
+        private EncodedPayload(byte[] full, EventEnvelope envelope, long seq, Map<String, String> attributes,
+                               ObjectMapper jsonMapper, ObjectMapper cborMapper) {
+            this.envelope = envelope;
+            this.seq = seq;
+            this.attributes = attributes != null ? Map.copyOf(attributes) : Map.of();
+            this.jsonMapper = jsonMapper;
+            this.cborMapper = cborMapper;
+            encodings.put(WireFormat.FULL, full);
+        }
+
+        public EventEnvelope getEnvelope() { return envelope; }
+        public long getSeq() { return seq; }
+        public Map<String, String> getAttributes() { return attributes; }
+
+        // Messages without an envelope are always sent in full
+        public WireFormat effectiveFormat(WireFormat requested) {
+            return envelope == null ? WireFormat.FULL : requested;
+        }
+
+        public byte[] bytes(WireFormat format) {
+            return encodings.computeIfAbsent(effectiveFormat(format), this::encode);
+        }
+
+        private byte[] encode(WireFormat format) {
+            try {
+                // FULL is encoded when the payload is created
+                return format == WireFormat.CBOR
+                    ? cborMapper.writeValueAsBytes(envelope)
+                    : jsonMapper.writeValueAsBytes(envelope);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize event as " + format, e);
+            }
+        }
+    }
+}
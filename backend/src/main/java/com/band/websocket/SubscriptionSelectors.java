@@ -0,0 +1,166 @@
+package com.band.websocket;
+
+import com.band.domain.Equipment;
+import com.band.domain.User;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sharded equipment topics and server-side subscription filters.
+ *
+ * <p>Equipment and assignment events are published to the shared
+ * {@code /topic/equipment/updates} topic and also to one topic per category
+ * ({@code /topic/equipment/category/BRASS}) and per band section of the student
+ * holding the item ({@code /topic/equipment/section/brass}), so a student
+ * subscribes only to the shards they care about.
+ *
+ * <p>A SUBSCRIBE may also carry a {@code filter} header such as
+ * {@code category=BRASS,WOODWIND;status=AVAILABLE}. It is translated into the
+ * simple broker's selector expression and evaluated against the attributes each
+ * event carries as native headers, so non-matching subscribers are skipped
+ * before any frame is encoded for them.
+ */
+@Component
+public class SubscriptionSelectors {
+
+    public static final String FILTER_HEADER = "filter";
+    // Header the simple broker reads selector expressions from; never accepted from clients
+    static final String SELECTOR_HEADER = "band-selector";
+
+    static final String CATEGORY = "category";
+    static final String STATUS = "status";
+    static final String SECTION = "section";
+
+    private static final Set<String> KEYS = Set.of(CATEGORY, STATUS, SECTION);
+    private static final Pattern VALUE = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final String EQUIPMENT_TOPIC = "/topic/equipment/updates";
+    private static final String CATEGORY_TOPIC = "/topic/equipment/category/";
+    private static final String SECTION_TOPIC = "/topic/equipment/section/";
+
+    /** The shared topic plus the category and section shards for this event. */
+    public static List<String> equipmentTopics(Equipment equipment, User holder) {
+        List<String> topics = new ArrayList<>(3);
+        topics.add(EQUIPMENT_TOPIC);
+        if (equipment.getCategory() != null) {
+            topics.add(CATEGORY_TOPIC + equipment.getCategory().name());
+        }
+        String section = sectionOf(holder);
+        if (section != null) {
+            topics.add(SECTION_TOPIC + section);
+        }
+        return topics;
+    }
+
+    /** Attributes a {@code filter} can match on. */
+    public static Map<String, String> attributes(Equipment equipment, User holder) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        if (equipment.getCategory() != null) {
+            attributes.put(CATEGORY, equipment.getCategory().name());
+        }
+        if (equipment.getStatus() != null) {
+            attributes.put(STATUS, equipment.getStatus().name());
+        }
+        String section = sectionOf(holder);
+        if (section != null) {
+            attributes.put(SECTION, section);
+        }
+        return attributes;
+    }
+
+    // Sections are free text on the user ("Brass", "woodwind"); topics use a normalized slug
+    static String sectionOf(User holder) {
+        if (holder == null || holder.getBandSection() == null || holder.getBandSection().isBlank()) {
+            return null;
+        }
+        return holder.getBandSection().trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+    }
+
+    public ChannelInterceptor inboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor stomp = StompHeaderAccessor.wrap(message);
+                if (stomp.getCommand() != StompCommand.SUBSCRIBE) {
+                    return message;
+                }
+                String filter = stomp.getFirstNativeHeader(FILTER_HEADER);
+                if (filter == null && stomp.getFirstNativeHeader(SELECTOR_HEADER) == null) {
+                    return message;
+                }
+                stomp.removeNativeHeader(SELECTOR_HEADER);
+                if (filter != null && !filter.isBlank()) {
+                    stomp.setNativeHeader(SELECTOR_HEADER, toExpression(filter));
+                }
+                return MessageBuilder.createMessage(message.getPayload(), stomp.getMessageHeaders());
+            }
+        };
+    }
+
+    /**
+     * Translates {@code key=v1,v2;key2=v3} into a selector expression. Keys and
+     * values are checked against a fixed whitelist, so the expression can only
+     * compare native headers with literals.
+     */
+    static String toExpression(String filter) {
+        List<String> clauses = new ArrayList<>();
+        parse(filter).forEach((key, values) -> clauses.add("(" + values.stream()
+            .map(value -> "headers." + key + " == '" + value + "'")
+            .collect(Collectors.joining(" or ")) + ")"));
+        return String.join(" and ", clauses);
+    }
+
+    /** Same test as the broker applies, for events delivered outside it such as resume replays. */
+    static boolean matches(String filter, Map<String, String> attributes) {
+        if (filter == null || filter.isBlank()) {
+            return true;
+        }
+        return parse(filter).entrySet().stream()
+            .allMatch(clause -> clause.getValue().contains(attributes.get(clause.getKey())));
+    }
+
+    private static Map<String, Set<String>> parse(String filter) {
+        Map<String, Set<String>> clauses = new LinkedHashMap<>();
+        for (String clause : filter.split(";")) {
+            if (clause.isBlank()) {
+                continue;
+            }
+            int eq = clause.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Invalid filter clause: " + clause.trim());
+            }
+            String key = clause.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unsupported filter key: " + key);
+            }
+            Set<String> values = new LinkedHashSet<>();
+            for (String value : clause.substring(eq + 1).split(",")) {
+                String trimmed = value.trim();
+                if (!VALUE.matcher(trimmed).matches()) {
+                    throw new IllegalArgumentException("Invalid filter value for " + key + ": " + trimmed);
+                }
+                values.add(key.equals(SECTION) ? trimmed.toLowerCase(Locale.ROOT) : trimmed.toUpperCase(Locale.ROOT));
+            }
+            clauses.put(key, values);
+        }
+        if (clauses.isEmpty()) {
+            throw new IllegalArgumentException("Empty filter");
+        }
+        return clauses;
+    }
+}
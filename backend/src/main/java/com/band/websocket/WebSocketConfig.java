@@ -1,19 +1,42 @@
 package com.band.websocket;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WireFormatNegotiator wireFormatNegotiator;
+    private final SessionFlowControl sessionFlowControl;
+    private final EventResume eventResume;
+    private final ChannelExecution channelExecution;
+    private final SubscriptionSelectors subscriptionSelectors;
+    private final InboundRateLimit inboundRateLimit;
+    private final InboundStatementScope inboundStatementScope;
+
+    @Value("${app.websocket.flow.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+
+    @Value("${app.websocket.flow.send-buffer-size-limit:512KB}")
+    private DataSize sendBufferSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple in-memory message broker to send messages to clients
-        config.enableSimpleBroker("/topic", "/queue", "/user");
+        config.enableSimpleBroker("/topic", "/queue", "/user")
+                .setSelectorHeaderName(SubscriptionSelectors.SELECTOR_HEADER);
         
         // Set application destination prefix for messages bound for methods annotated with @MessageMapping
         config.setApplicationDestinationPrefixes("/app");
@@ -28,5 +51,52 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        
+        // Raw WebSocket endpoint for clients that want binary (CBOR) event frames
+        registry.addEndpoint("/ws/native")
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(wireFormatNegotiator.binaryCapableHandshake());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (channelExecution.isVirtualThreads()) {
+            registration.executor(channelExecution.virtualThreadExecutor("ws-inbound"));
+        }
+        // Drop SENDs over the sender's rate-limit budget, read the event-format header
+        // on CONNECT, turn SUBSCRIBE filters into broker selectors, replay missed events
+        // once a SUBSCRIBE carrying last-seq has been registered with the broker, and
+        // take a database permit before running a @MessageMapping handler, whose
+        // statements are then accounted to the message
+        registration.interceptors(
+                channelExecution.queueDelayInterceptor("inbound"),
+                inboundRateLimit.inboundInterceptor(),
+                wireFormatNegotiator.inboundInterceptor(),
+                subscriptionSelectors.inboundInterceptor(),
+                eventResume.inboundInterceptor(),
+                channelExecution.databasePermitInterceptor(),
+                inboundStatementScope.inboundInterceptor());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (channelExecution.isVirtualThreads()) {
+            registration.executor(channelExecution.virtualThreadExecutor("ws-outbound"));
+        }
+        // Hold back superseded updates for lagging sessions, then encode what is sent
+        // in each session's negotiated format
+        registration.interceptors(
+                channelExecution.queueDelayInterceptor("outbound"),
+                sessionFlowControl.outboundInterceptor(),
+                wireFormatNegotiator.outboundInterceptor());
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A session that cannot drain within these limits is closed rather than
+        // letting its backlog grow without bound
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferSizeLimit.toBytes())
+                .addDecoratorFactory(sessionFlowControl::decorate);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.band.websocket;
+
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Encodings a STOMP client can ask for with the {@code event-format} header on
+ * CONNECT. Clients that send nothing keep receiving the full entity messages.
+ */
+public enum WireFormat {
+    // Original messages with embedded entities
+    FULL("full", MimeTypeUtils.APPLICATION_JSON, false),
+    // Compact EventEnvelope as JSON
+    JSON("json", MimeTypeUtils.APPLICATION_JSON, false),
+    // Compact EventEnvelope as CBOR; only over raw WebSocket, SockJS frames are text-only
+    CBOR("cbor", MimeTypeUtils.APPLICATION_OCTET_STREAM, true);
+
+    public static final String HEADER = "event-format";
+
+    private final String headerValue;
+    private final MimeType contentType;
+    private final boolean binary;
+
+    WireFormat(String headerValue, MimeType contentType, boolean binary) {
+        this.headerValue = headerValue;
+        this.contentType = contentType;
+        this.binary = binary;
+    }
+
+    public String getHeaderValue() { return headerValue; }
+    public MimeType getContentType() { return contentType; }
+    public boolean isBinary() { return binary; }
+
+    public static WireFormat fromHeader(String value) {
+        if (value != null) {
+            for (WireFormat format : values()) {
+                if (format.headerValue.equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+        }
+        return FULL;
+    }
+}
@@ -0,0 +1,109 @@
+package com.band.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the {@code event-format} each STOMP session asked for at CONNECT and
+ * encodes broadcast payloads accordingly on the way out. Binary formats are only
+ * granted to sessions that connected through the raw WebSocket endpoint.
+ */
+@Component
+@Slf4j
+public class WireFormatNegotiator {
+
+    static final String BINARY_CAPABLE_ATTRIBUTE = "band.binaryCapable";
+
+    private final Map<String, WireFormat> formatsBySession = new ConcurrentHashMap<>();
+
+    public WireFormat formatFor(String sessionId) {
+        return sessionId != null ? formatsBySession.getOrDefault(sessionId, WireFormat.FULL) : WireFormat.FULL;
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        formatsBySession.remove(event.getSessionId());
+    }
+
+    public ChannelInterceptor inboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+                if (accessor.getCommand() == StompCommand.CONNECT) {
+                    negotiate(accessor);
+                }
+                return message;
+            }
+        };
+    }
+
+    public ChannelInterceptor outboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (!(message.getHeaders().get(StompBroadcaster.PAYLOAD_HEADER) instanceof StompBroadcaster.EncodedPayload payload)) {
+                    return message;
+                }
+                WireFormat format = payload.effectiveFormat(
+                    formatFor(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())));
+
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+                accessor.removeHeader(StompBroadcaster.PAYLOAD_HEADER);
+                accessor.setContentType(format.getContentType());
+                if (format != WireFormat.FULL) {
+                    accessor.setNativeHeader(WireFormat.HEADER, format.getHeaderValue());
+                }
+                return MessageBuilder.createMessage(payload.bytes(format), accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    /** Marks sessions opened on the raw WebSocket endpoint as able to receive binary frames. */
+    public HandshakeInterceptor binaryCapableHandshake() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(BINARY_CAPABLE_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    private void negotiate(StompHeaderAccessor accessor) {
+        WireFormat requested = WireFormat.fromHeader(accessor.getFirstNativeHeader(WireFormat.HEADER));
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        boolean binaryCapable = attributes != null && Boolean.TRUE.equals(attributes.get(BINARY_CAPABLE_ATTRIBUTE));
+
+        WireFormat granted = requested.isBinary() && !binaryCapable ? WireFormat.JSON : requested;
+        if (granted != requested) {
+            log.debug("Session {} asked for {} over a text-only transport; using {}",
+                accessor.getSessionId(), requested, granted);
+        }
+        if (granted != WireFormat.FULL) {
+            formatsBySession.put(accessor.getSessionId(), granted);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- V10: The location text of placed equipment becomes the location's full path
+-- ("Music Building > Band Room > Shelf 1") instead of the node's own name.
+-- Names are only unique under one parent, so same-named shelves in different
+-- cabinets were merged in the location facet and the bitmap index.
+-- EquipmentService keeps the text in step from here on. A path of four
+-- 255-character names no longer fits VARCHAR(255).
+
+ALTER TABLE equipment ALTER COLUMN location TYPE TEXT;
+
+UPDATE equipment e
+SET location = p.path
+FROM (SELECT c.descendant_id AS location_id,
+             string_agg(l.name, ' > ' ORDER BY c.depth DESC) AS path
+      FROM location_closure c
+      JOIN locations l ON l.id = c.ancestor_id
+      GROUP BY c.descendant_id) p
+WHERE e.location_id = p.location_id
+  AND e.location IS DISTINCT FROM p.path;
@@ -0,0 +1,55 @@
+-- V11: Catch-all partition for equipment_assignments
+--
+-- Without it an assignment dated outside the yearly partitions that exist
+-- (a backdated import, a clock far off) failed with "no partition of relation
+-- found for row". Such rows now land in equipment_assignments_default until
+-- ensure_assignment_partition() creates their year, which moves them out;
+-- AssignmentArchiver does that for every year it finds there.
+--
+-- Limit: a year that was archived has a cold partition, which only accepts
+-- closed assignments (its _closed check). An open assignment dated in an
+-- archived year is still rejected; it has to be entered closed, or the year
+-- copied back to a hot partition by hand.
+
+CREATE TABLE equipment_assignments_default PARTITION OF equipment_assignments DEFAULT;
+
+-- Creates the hot partition for a year unless it (or its cold copy) exists.
+-- Rows for that year waiting in the default partition move into it: the new
+-- table is filled first and then attached, since attaching a range the default
+-- partition still has rows for fails
+CREATE OR REPLACE FUNCTION ensure_assignment_partition(p_year INT) RETURNS VOID AS $$
+DECLARE
+    hot TEXT := format('equipment_assignments_%s', p_year);
+    lower_bound DATE := make_date(p_year, 1, 1);
+    upper_bound DATE := make_date(p_year + 1, 1, 1);
+BEGIN
+    IF to_regclass(hot) IS NOT NULL
+       OR to_regclass(format('equipment_assignments_cold_%s', p_year)) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    -- No new rows for the year reach the default partition during the move
+    LOCK TABLE equipment_assignments_default IN EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE equipment_assignments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', hot);
+    EXECUTE format('WITH moved AS (DELETE FROM equipment_assignments_default '
+                   'WHERE checkout_date >= %L AND checkout_date < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   lower_bound, upper_bound, hot);
+    EXECUTE format('ALTER TABLE equipment_assignments ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   hot, lower_bound, upper_bound);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Start of the oldest hot partition, or the oldest open assignment waiting in
+-- the default partition if that is earlier: no open assignment has an earlier
+-- checkout_date. Same type as checkout_date, so it does not depend on the
+-- session time zone
+CREATE OR REPLACE FUNCTION assignment_hot_from() RETURNS TIMESTAMP AS $$
+    SELECT LEAST(
+        (SELECT min(make_date(substring(c.relname FROM '^equipment_assignments_(\d{4})$')::INT, 1, 1))::TIMESTAMP
+         FROM pg_inherits i
+         JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = 'equipment_assignments'::regclass
+           AND c.relname ~ '^equipment_assignments_\d{4}$'),
+        (SELECT min(checkout_date) FROM equipment_assignments_default
+         WHERE status NOT IN ('RETURNED', 'LOST', 'DAMAGED')));
+$$ LANGUAGE sql STABLE;
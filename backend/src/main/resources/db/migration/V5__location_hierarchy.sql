@@ -0,0 +1,134 @@
+-- V5: Hierarchical storage locations (building > room > cabinet > shelf)
+--
+-- The tree is stored as an adjacency list (locations.parent_id) plus a closure
+-- table holding every ancestor/descendant pair, so a whole subtree is a single
+-- indexed lookup. Per-status counts of the equipment placed directly in each
+-- location are maintained by a trigger in the same transaction as the
+-- equipment write; subtree totals are summed through the closure table when
+-- read. Keeping running totals on every ancestor instead would make each
+-- checkout in a building update that building's row, serialising all of them.
+
+CREATE TABLE IF NOT EXISTS locations (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    parent_id UUID REFERENCES locations(id),
+    name VARCHAR(255) NOT NULL,
+    location_type VARCHAR(50) NOT NULL CHECK (location_type IN ('BUILDING', 'ROOM', 'CABINET', 'SHELF')),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    UNIQUE (parent_id, name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_locations_parent ON locations(parent_id);
+
+CREATE TABLE IF NOT EXISTS location_closure (
+    ancestor_id UUID NOT NULL REFERENCES locations(id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES locations(id) ON DELETE CASCADE,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_location_closure_descendant ON location_closure(descendant_id, ancestor_id);
+
+-- Active equipment per status placed directly in location_id (not its descendants)
+CREATE TABLE IF NOT EXISTS location_status_counts (
+    location_id UUID NOT NULL REFERENCES locations(id) ON DELETE CASCADE,
+    status VARCHAR(50) NOT NULL,
+    equipment_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (location_id, status)
+);
+
+ALTER TABLE equipment ADD COLUMN IF NOT EXISTS location_id UUID REFERENCES locations(id);
+CREATE INDEX IF NOT EXISTS idx_equipment_location_id ON equipment(location_id);
+
+-- Closure maintenance: a new node inherits its parent's ancestors; a moved
+-- node detaches its subtree from the old ancestors and attaches it under the
+-- new parent. Counts are per location, so a move leaves them untouched.
+CREATE OR REPLACE FUNCTION location_closure_maintain() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO location_closure (ancestor_id, descendant_id, depth)
+        SELECT NEW.id, NEW.id, 0
+        UNION ALL
+        SELECT c.ancestor_id, NEW.id, c.depth + 1
+        FROM location_closure c
+        WHERE c.descendant_id = NEW.parent_id;
+        RETURN NULL;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM location_closure WHERE ancestor_id = NEW.id AND descendant_id = NEW.parent_id) THEN
+        RAISE EXCEPTION 'Location % cannot be moved beneath its own subtree', NEW.id;
+    END IF;
+
+    DELETE FROM location_closure c
+    USING location_closure sub, location_closure anc
+    WHERE sub.ancestor_id = NEW.id
+      AND anc.descendant_id = NEW.id AND anc.depth > 0
+      AND c.ancestor_id = anc.ancestor_id
+      AND c.descendant_id = sub.descendant_id;
+
+    INSERT INTO location_closure (ancestor_id, descendant_id, depth)
+    SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1
+    FROM location_closure p, location_closure s
+    WHERE p.descendant_id = NEW.parent_id AND s.ancestor_id = NEW.id;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_location_closure_insert
+AFTER INSERT ON locations
+FOR EACH ROW EXECUTE FUNCTION location_closure_maintain();
+
+CREATE TRIGGER trg_location_closure_move
+AFTER UPDATE OF parent_id ON locations
+FOR EACH ROW
+WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id)
+EXECUTE FUNCTION location_closure_maintain();
+
+-- Location counts: only active equipment placed in a location is counted, and
+-- only in that location's own row
+CREATE OR REPLACE FUNCTION equipment_location_counts_maintain() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.location_id IS NOT NULL AND OLD.active THEN
+        UPDATE location_status_counts
+        SET equipment_count = equipment_count - 1
+        WHERE location_id = OLD.location_id AND status = OLD.status;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.location_id IS NOT NULL AND NEW.active THEN
+        INSERT INTO location_status_counts (location_id, status, equipment_count)
+        VALUES (NEW.location_id, NEW.status, 1)
+        ON CONFLICT (location_id, status)
+        DO UPDATE SET equipment_count = location_status_counts.equipment_count + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_equipment_location_counts_insert_delete
+AFTER INSERT OR DELETE ON equipment
+FOR EACH ROW EXECUTE FUNCTION equipment_location_counts_maintain();
+
+-- Hibernate rewrites every column on update, so only fire when a counted attribute changed
+CREATE TRIGGER trg_equipment_location_counts_update
+AFTER UPDATE ON equipment
+FOR EACH ROW
+WHEN (OLD.location_id IS DISTINCT FROM NEW.location_id
+   OR OLD.status IS DISTINCT FROM NEW.status
+   OR OLD.active IS DISTINCT FROM NEW.active)
+EXECUTE FUNCTION equipment_location_counts_maintain();
+
+-- Backfill: existing free-text locations become rooms of a single building
+INSERT INTO locations (name, location_type) VALUES ('Music Building', 'BUILDING');
+
+INSERT INTO locations (parent_id, name, location_type)
+SELECT b.id, d.location, 'ROOM'
+FROM locations b,
+     (SELECT DISTINCT location FROM equipment WHERE location IS NOT NULL AND location <> '') d
+WHERE b.parent_id IS NULL AND b.name = 'Music Building';
+
+UPDATE equipment e
+SET location_id = l.id
+FROM locations l
+JOIN locations b ON b.id = l.parent_id AND b.parent_id IS NULL AND b.name = 'Music Building'
+WHERE l.name = e.location;
@@ -0,0 +1,37 @@
+-- V6: Time-ordered (version 7) UUID defaults
+--
+-- The application now generates UUIDv7 keys itself (com.band.domain.id.UuidV7);
+-- these defaults cover rows inserted by SQL (seed scripts, manual fixes) so they
+-- land in key order too. Existing v4 keys are left alone: both versions are
+-- valid uuid values, old rows keep their place in the index, and only new keys
+-- append at its right edge. Tables can be REINDEXed at a quiet time to compact
+-- pages split by earlier random inserts.
+--
+-- PostgreSQL 18 ships uuidv7(); once the database is upgraded the defaults can
+-- switch to it and this function can be dropped.
+
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+  -- 48-bit millisecond timestamp over the first 6 bytes of a random v4 UUID,
+  -- then the version nibble turned from 0100 into 0111; the variant bits stay
+  SELECT encode(
+    set_bit(
+      set_bit(
+        overlay(uuid_send(gen_random_uuid())
+                placing substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                FROM 1 FOR 6),
+        52, 1),
+      53, 1),
+    'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+-- Write-heavy tables first
+ALTER TABLE equipment_assignments ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE digital_signatures ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE equipment_maintenance ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE queues ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE equipment ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE band_events ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE locations ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,150 @@
+-- V7: Range-partition equipment_assignments by checkout_date
+--
+-- One partition per calendar year. Current years are "hot" partitions
+-- (equipment_assignments_YYYY). Once a year is older than
+-- app.assignments.archive.after-years and all of its assignments are closed,
+-- com.band.db.AssignmentArchiver calls archive_assignment_partition() to
+-- rewrite it as a packed, compressed "cold" partition
+-- (equipment_assignments_cold_YYYY). Cold partitions can only hold closed
+-- assignments, so every open row lives in a hot partition and queries for
+-- active rows can prune cold partitions by date (assignment_hot_from()).
+--
+-- Nothing references equipment_assignments(id), so the table is rebuilt in
+-- place. The primary key has to include the partition key.
+
+ALTER TABLE equipment_assignments RENAME TO equipment_assignments_unpartitioned;
+ALTER INDEX equipment_assignments_pkey RENAME TO equipment_assignments_unpartitioned_pkey;
+
+CREATE TABLE equipment_assignments (
+    id UUID NOT NULL DEFAULT uuid_generate_v7(),
+    student_id UUID NOT NULL REFERENCES users(id),
+    equipment_id UUID NOT NULL REFERENCES equipment(id),
+    checkout_date TIMESTAMP NOT NULL,
+    expected_return_date TIMESTAMP,
+    actual_return_date TIMESTAMP,
+    status VARCHAR(50) NOT NULL CHECK (status IN ('PENDING_CHECKOUT', 'CHECKED_OUT', 'PENDING_RETURN', 'RETURNED', 'OVERDUE', 'LOST', 'DAMAGED')),
+    checked_out_by UUID REFERENCES users(id),
+    returned_to UUID REFERENCES users(id),
+    peer_reviewer_id UUID REFERENCES users(id),
+    supervisor_approved_by UUID REFERENCES users(id),
+    checkout_condition VARCHAR(50) CHECK (checkout_condition IN ('EXCELLENT', 'GOOD', 'FAIR', 'POOR', 'REPAIR_NEEDED')),
+    return_condition VARCHAR(50) CHECK (return_condition IN ('EXCELLENT', 'GOOD', 'FAIR', 'POOR', 'REPAIR_NEEDED')),
+    checkout_signature TEXT,
+    return_signature TEXT,
+    assignment_purpose VARCHAR(100),
+    checkout_notes TEXT,
+    return_notes TEXT,
+    damage_notes TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at TIMESTAMP DEFAULT now(),
+    event_id UUID REFERENCES band_events(id),
+    PRIMARY KEY (id, checkout_date)
+) PARTITION BY RANGE (checkout_date);
+
+-- Creates the hot partition for a year unless it (or its cold copy) exists
+CREATE OR REPLACE FUNCTION ensure_assignment_partition(p_year INT) RETURNS VOID AS $$
+BEGIN
+    IF to_regclass(format('equipment_assignments_%s', p_year)) IS NULL
+       AND to_regclass(format('equipment_assignments_cold_%s', p_year)) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF equipment_assignments FOR VALUES FROM (%L) TO (%L)',
+                       format('equipment_assignments_%s', p_year),
+                       make_date(p_year, 1, 1), make_date(p_year + 1, 1, 1));
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rewrites a hot partition as a cold one. Returns false, leaving it hot, while
+-- any assignment in it is still open. Reads continue during the copy; writes
+-- to that year wait for it.
+CREATE OR REPLACE FUNCTION archive_assignment_partition(p_year INT, p_tablespace TEXT DEFAULT NULL) RETURNS BOOLEAN AS $$
+DECLARE
+    hot TEXT := format('equipment_assignments_%s', p_year);
+    cold TEXT := format('equipment_assignments_cold_%s', p_year);
+    lower_bound DATE := make_date(p_year, 1, 1);
+    upper_bound DATE := make_date(p_year + 1, 1, 1);
+    open_rows BIGINT;
+BEGIN
+    IF to_regclass(hot) IS NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('LOCK TABLE %I IN EXCLUSIVE MODE', hot);
+    EXECUTE format('SELECT count(*) FROM %I WHERE status NOT IN (''RETURNED'', ''LOST'', ''DAMAGED'')', hot) INTO open_rows;
+    IF open_rows > 0 THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Packed pages, and text columns (signatures, notes) compressed from 128
+    -- bytes up instead of the usual 2kB; pglz trades speed for ratio, which
+    -- suits rows that are rarely read
+    EXECUTE format('CREATE TABLE %I (LIKE equipment_assignments INCLUDING DEFAULTS INCLUDING CONSTRAINTS) '
+                   'WITH (fillfactor = 100, toast_tuple_target = 128)%s',
+                   cold, CASE WHEN p_tablespace IS NULL OR p_tablespace = '' THEN '' ELSE format(' TABLESPACE %I', p_tablespace) END);
+    EXECUTE format('ALTER TABLE %I '
+                   'ALTER COLUMN checkout_signature SET COMPRESSION pglz, ALTER COLUMN return_signature SET COMPRESSION pglz, '
+                   'ALTER COLUMN checkout_notes SET COMPRESSION pglz, ALTER COLUMN return_notes SET COMPRESSION pglz, '
+                   'ALTER COLUMN damage_notes SET COMPRESSION pglz, '
+                   'ADD CONSTRAINT %I CHECK (status IN (''RETURNED'', ''LOST'', ''DAMAGED'')), '
+                   'ADD CONSTRAINT %I CHECK (checkout_date >= %L AND checkout_date < %L)',
+                   cold, cold || '_closed', cold || '_bounds', lower_bound, upper_bound);
+    -- Equipment history reads stay on few pages
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I ORDER BY equipment_id, checkout_date', cold, hot);
+
+    EXECUTE format('ALTER TABLE equipment_assignments DETACH PARTITION %I', hot);
+    EXECUTE format('DROP TABLE %I', hot);
+    -- The bounds check lets the attach skip scanning the rows
+    EXECUTE format('ALTER TABLE equipment_assignments ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   cold, lower_bound, upper_bound);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', cold, cold || '_bounds');
+    EXECUTE format('ANALYZE %I', cold);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Start of the oldest hot partition: no open assignment has an earlier checkout_date.
+-- Same type as checkout_date, so it does not depend on the session time zone
+CREATE OR REPLACE FUNCTION assignment_hot_from() RETURNS TIMESTAMP AS $$
+    SELECT min(make_date(substring(c.relname FROM '^equipment_assignments_(\d{4})$')::INT, 1, 1))::TIMESTAMP
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'equipment_assignments'::regclass
+      AND c.relname ~ '^equipment_assignments_\d{4}$';
+$$ LANGUAGE sql STABLE;
+
+-- Partitions for every year with data, through next year
+DO $$
+DECLARE
+    this_year INT := extract(YEAR FROM now())::INT;
+    first_year INT;
+    last_year INT;
+BEGIN
+    SELECT LEAST(extract(YEAR FROM min(checkout_date))::INT, this_year),
+           GREATEST(extract(YEAR FROM max(checkout_date))::INT, this_year + 1)
+      INTO first_year, last_year
+      FROM equipment_assignments_unpartitioned;
+    FOR y IN first_year..last_year LOOP
+        PERFORM ensure_assignment_partition(y);
+    END LOOP;
+END $$;
+
+INSERT INTO equipment_assignments (id, student_id, equipment_id, checkout_date, expected_return_date, actual_return_date,
+    status, checked_out_by, returned_to, peer_reviewer_id, supervisor_approved_by, checkout_condition, return_condition,
+    checkout_signature, return_signature, assignment_purpose, checkout_notes, return_notes, damage_notes,
+    created_at, updated_at, event_id)
+SELECT id, student_id, equipment_id, checkout_date, expected_return_date, actual_return_date,
+    status, checked_out_by, returned_to, peer_reviewer_id, supervisor_approved_by, checkout_condition, return_condition,
+    checkout_signature, return_signature, assignment_purpose, checkout_notes, return_notes, damage_notes,
+    created_at, updated_at, event_id
+FROM equipment_assignments_unpartitioned;
+
+DROP TABLE equipment_assignments_unpartitioned;
+
+-- Indexes are created on every partition, present and future
+CREATE INDEX idx_equipment_assignments_student ON equipment_assignments(student_id);
+CREATE INDEX idx_equipment_assignments_equipment ON equipment_assignments(equipment_id);
+CREATE INDEX idx_equipment_assignments_status ON equipment_assignments(status);
+CREATE INDEX idx_equipment_assignments_checkout_date ON equipment_assignments(checkout_date);
+CREATE INDEX idx_equipment_assignments_event ON equipment_assignments(event_id);
+
+-- Hot index: only rows currently checked out, so it stays small however long the history gets
+CREATE INDEX idx_equipment_assignments_checked_out ON equipment_assignments(expected_return_date, equipment_id, student_id)
+    WHERE status = 'CHECKED_OUT';
@@ -0,0 +1,55 @@
+-- V8: Indexes for the repository queries that the query-plan check
+-- (com.band.db.plan.PlanCheckTest, mvn test -Pplancheck) flags without them:
+-- on its scale-1 dataset each ran as a sequential scan of a table of 10,000+
+-- rows keeping under 5% of what it read. The plans with these indexes are the
+-- committed baseline, src/test/resources/plan-check/baseline.json. Each group
+-- names the queries it serves.
+--
+-- Substring searches (LIKE '%term%') can only use trigram indexes, built on
+-- the same expression the query filters on (UPPER(...) for derived
+-- ...ContainingIgnoreCase methods). The band_events searches get none: at
+-- 20k rows the planner scans the table even with one.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- band_events
+-- findByVenue
+CREATE INDEX IF NOT EXISTS idx_band_events_venue ON band_events(venue);
+-- findEventsByMonthAndYear (HQL year()/month() render as extract)
+CREATE INDEX IF NOT EXISTS idx_band_events_year_month
+    ON band_events((extract(year FROM event_date)), (extract(month FROM event_date)));
+-- findEventsWithSpecialRequirements
+CREATE INDEX IF NOT EXISTS idx_band_events_special_requirements ON band_events(event_date)
+    WHERE special_requirements IS NOT NULL AND special_requirements <> '';
+
+-- digital_signatures
+-- findByCreatedAtBetween, findByCreatedAtAfter, findRecentSignatures, getSignatureStatsByDate
+CREATE INDEX IF NOT EXISTS idx_digital_signatures_created_at ON digital_signatures(created_at);
+-- findByIpAddress
+CREATE INDEX IF NOT EXISTS idx_digital_signatures_ip_address ON digital_signatures(ip_address);
+
+-- equipment
+-- findBySerialNumber
+CREATE INDEX IF NOT EXISTS idx_equipment_serial_number ON equipment(serial_number);
+-- findByLocation, findByLocationContainingIgnoreCase
+CREATE INDEX IF NOT EXISTS idx_equipment_location ON equipment(location);
+CREATE INDEX IF NOT EXISTS idx_equipment_location_upper_trgm ON equipment USING gin (upper(location) gin_trgm_ops);
+
+-- equipment_assignments (created on the partitioned parent, so every partition gets them)
+-- findByExpectedReturnDateBetween
+CREATE INDEX IF NOT EXISTS idx_equipment_assignments_expected_return ON equipment_assignments(expected_return_date);
+-- findByPeerReviewerId, findBySupervisorApprovedBy
+CREATE INDEX IF NOT EXISTS idx_equipment_assignments_peer_reviewer ON equipment_assignments(peer_reviewer_id);
+CREATE INDEX IF NOT EXISTS idx_equipment_assignments_supervisor ON equipment_assignments(supervisor_approved_by);
+-- findRecentReturns
+CREATE INDEX IF NOT EXISTS idx_equipment_assignments_actual_return ON equipment_assignments(actual_return_date);
+-- findAssignmentsWithDamage
+CREATE INDEX IF NOT EXISTS idx_equipment_assignments_damaged ON equipment_assignments(checkout_date)
+    WHERE damage_notes IS NOT NULL AND damage_notes <> '';
+
+-- equipment_maintenance
+-- findByTechnicianName
+CREATE INDEX IF NOT EXISTS idx_equipment_maintenance_technician ON equipment_maintenance(technician_name);
+-- findByCompletedDateBetween, findRecentCompletedMaintenance, getMaintenanceCountByEquipmentCategory,
+-- getTotalMaintenanceCostSince
+CREATE INDEX IF NOT EXISTS idx_equipment_maintenance_completed_date ON equipment_maintenance(completed_date);
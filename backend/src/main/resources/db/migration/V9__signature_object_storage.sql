@@ -0,0 +1,29 @@
+-- V9: Signature images move to object storage (com.band.storage.SignatureStore)
+--
+-- Each image is stored once under the hex SHA-256 of its bytes. Rows keep only
+-- that key: digital_signatures.signature_hash, and the new *_signature_hash
+-- columns on equipment_assignments.
+--
+-- The inline TEXT columns cannot be copied to object storage from SQL. They
+-- stay as a holding area that com.band.storage.SignatureOffloader drains in the
+-- background after startup, setting the hash and clearing the inline data row
+-- by row. Drop them in a later migration once every environment has drained.
+
+ALTER TABLE equipment_assignments ADD COLUMN checkout_signature_hash VARCHAR(64);
+ALTER TABLE equipment_assignments ADD COLUMN return_signature_hash VARCHAR(64);
+
+ALTER TABLE digital_signatures ALTER COLUMN signature_data DROP NOT NULL;
+
+-- signature_hash was never a content address; it becomes one when the row is offloaded
+UPDATE digital_signatures SET signature_hash = NULL WHERE signature_data IS NOT NULL;
+
+-- findInvalidSignatures now means "no stored image"
+DROP INDEX IF EXISTS idx_digital_signatures_invalid;
+CREATE INDEX IF NOT EXISTS idx_digital_signatures_invalid ON digital_signatures(created_at)
+    WHERE signature_hash IS NULL;
+
+-- Rows the offloader still has to move
+CREATE INDEX IF NOT EXISTS idx_digital_signatures_inline ON digital_signatures(id)
+    WHERE signature_data IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_equipment_assignments_inline_signatures ON equipment_assignments(id)
+    WHERE checkout_signature IS NOT NULL OR return_signature IS NOT NULL;
@@ -0,0 +1,92 @@
+package com.band.cache;
+
+import com.band.domain.Location;
+import com.band.domain.Location.LocationType;
+import com.band.service.LocationService;
+import com.band.support.DatabaseTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A region far smaller than the working set, so updates race loads and evictions throughout
+@TestPropertySource(properties = "app.cache.max-entries-per-region=16")
+class ReadWriteCacheConcurrencyTest extends DatabaseTest {
+
+  private static final int LOCATIONS = 64;
+  private static final int UPDATED = 8;
+  private static final int ROUNDS = 300;
+
+  @Autowired
+  private LocationService locationService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Test
+  void cachedRowsMatchTheDatabaseAfterConcurrentUpdates() throws Exception {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < LOCATIONS; i++) {
+      ids.add(locationService.createLocation(null, "Cache " + UUID.randomUUID(), LocationType.BUILDING).getId());
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> work = new ArrayList<>();
+      for (int t = 0; t < 2; t++) {
+        work.add(pool.submit(() -> {
+          for (int i = 0; i < ROUNDS; i++) {
+            UUID id = ids.get(ThreadLocalRandom.current().nextInt(UPDATED));
+            transactionTemplate.executeWithoutResult(status ->
+                entityManager.find(Location.class, id).setName("Cache " + UUID.randomUUID()));
+          }
+        }));
+      }
+      for (int t = 0; t < 6; t++) {
+        work.add(pool.submit(() -> {
+          for (int i = 0; i < ROUNDS * 4; i++) {
+            UUID id = ids.get(ThreadLocalRandom.current().nextInt(LOCATIONS));
+            transactionTemplate.executeWithoutResult(status -> entityManager.find(Location.class, id));
+          }
+        }));
+      }
+      for (Future<?> future : work) {
+        future.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    for (UUID id : ids.subList(0, UPDATED)) {
+      String stored = jdbc.queryForObject("SELECT name FROM locations WHERE id = ?", String.class, id);
+      EntityManager fresh = entityManagerFactory.createEntityManager();
+      try {
+        assertThat(fresh.find(Location.class, id).getName()).as("location %s", id).isEqualTo(stored);
+      } finally {
+        fresh.close();
+      }
+    }
+  }
+}
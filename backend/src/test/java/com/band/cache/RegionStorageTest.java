@@ -0,0 +1,52 @@
+package com.band.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegionStorageTest {
+
+  private final RegionStorage region = new RegionStorage("test", 10, Duration.ofHours(1), new SimpleMeterRegistry());
+
+  @Test
+  void softLocksAreNotShedToMakeRoom() throws Exception {
+    Object lock = softLock();
+    region.putIntoCache("locked", lock, null);
+    for (int i = 0; i < 100; i++) {
+      region.putIntoCache("row-" + i, "value-" + i, null);
+    }
+
+    assertThat(region.getFromCache("locked", null)).isSameAs(lock);
+    assertThat(region.size()).isLessThanOrEqualTo(10);
+  }
+
+  @Test
+  void newKeysAreNotCachedWhileOnlyLocksAreLeft() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      region.putIntoCache("locked-" + i, softLock(), null);
+    }
+
+    region.putIntoCache("row", "value", null);
+    assertThat(region.contains("row")).isFalse();
+
+    // Locks still go in, and a lock is still replaced on commit
+    region.putIntoCache("locked-10", softLock(), null);
+    assertThat(region.contains("locked-10")).isTrue();
+    region.putIntoCache("locked-0", "committed", null);
+    assertThat(region.getFromCache("locked-0", null)).isEqualTo("committed");
+  }
+
+  // Built the way AbstractReadWriteAccess.lockItem does; the constructor is package-private
+  private static Object softLock() throws Exception {
+    Constructor<AbstractReadWriteAccess.SoftLockImpl> constructor = AbstractReadWriteAccess.SoftLockImpl.class
+        .getDeclaredConstructor(long.class, UUID.class, long.class, Object.class);
+    constructor.setAccessible(true);
+    return constructor.newInstance(System.currentTimeMillis() + 60_000, UUID.randomUUID(), 1L, null);
+  }
+}
@@ -0,0 +1,87 @@
+package com.band.db;
+
+import com.band.support.DatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssignmentArchiverTest extends DatabaseTest {
+
+  @Autowired
+  private AssignmentArchiver archiver;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Test
+  void hotFromIsBelowTheOldestHotPartitionInEveryTimeZone() {
+    archiver.run();
+
+    for (String zone : new String[] {"Pacific/Kiritimati", "UTC", "Etc/GMT+12", "America/New_York"}) {
+      // Bound as Hibernate binds an Instant and compared in the session's zone, as checkout_date >= :hotFrom is
+      Boolean below = jdbc.execute((ConnectionCallback<Boolean>) connection -> {
+        try (Statement session = connection.createStatement()) {
+          session.execute("SET TIME ZONE '" + zone + "'");
+          try (PreparedStatement check = connection.prepareStatement("SELECT ? <= assignment_hot_from()")) {
+            check.setObject(1, archiver.hotFrom().atOffset(ZoneOffset.UTC));
+            try (ResultSet rs = check.executeQuery()) {
+              rs.next();
+              return rs.getBoolean(1);
+            }
+          } finally {
+            session.execute("RESET TIME ZONE");
+          }
+        }
+      });
+      assertThat(below).as("session time zone %s", zone).isTrue();
+    }
+  }
+
+  @Test
+  void assignmentsOutsideTheYearPartitionsWaitInTheDefaultUntilOneNodeMovesThem() {
+    UUID studentId = UUID.randomUUID();
+    jdbc.update("INSERT INTO users (id, email, password, name, role) VALUES (?, ?, '-', 'Archive User', 'Student')",
+        studentId, "archive-" + studentId + "@example.test");
+    UUID equipmentId = UUID.randomUUID();
+    jdbc.update("INSERT INTO equipment (id, qr_code, make, model, category, condition, status) "
+        + "VALUES (?, ?, 'Yamaha', 'YTR-2330', 'BRASS', 'GOOD', 'CHECKED_OUT')", equipmentId, "ARCHIVE-" + equipmentId);
+    UUID id = UUID.randomUUID();
+    jdbc.update("INSERT INTO equipment_assignments (id, student_id, equipment_id, checkout_date, status) "
+        + "VALUES (?, ?, ?, TIMESTAMP '1990-05-01 10:00', 'CHECKED_OUT')", id, studentId, equipmentId);
+
+    assertThat(partitionOf(id)).isEqualTo("equipment_assignments_default");
+    assertThat(jdbc.queryForObject("SELECT assignment_hot_from() <= TIMESTAMP '1990-05-01 10:00'", Boolean.class)).isTrue();
+
+    // Another node holds the maintenance lock: this one leaves the partitions alone
+    jdbc.execute((ConnectionCallback<Void>) connection -> {
+      try (Statement other = connection.createStatement()) {
+        other.execute("SELECT pg_advisory_lock('equipment_assignments'::regclass::oid::BIGINT)");
+        try {
+          archiver.run();
+        } finally {
+          other.execute("SELECT pg_advisory_unlock('equipment_assignments'::regclass::oid::BIGINT)");
+        }
+      }
+      return null;
+    });
+    assertThat(partitionOf(id)).isEqualTo("equipment_assignments_default");
+
+    archiver.run();
+    assertThat(partitionOf(id)).isEqualTo("equipment_assignments_1990");
+    assertThat(archiver.hotFrom()).isBefore(Instant.parse("1990-01-01T00:00:00Z"));
+  }
+
+  private String partitionOf(UUID id) {
+    return jdbc.queryForObject("SELECT tableoid::regclass::TEXT FROM equipment_assignments WHERE id = ?", String.class, id);
+  }
+}
@@ -0,0 +1,61 @@
+package com.band.db;
+
+import com.band.domain.User;
+import com.band.support.DatabaseTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The test database is its own "replica": never in recovery, so never behind
+@TestPropertySource(properties = "app.datasource.replicas.urls=${spring.datasource.url}")
+class ReplicaReadsTest extends DatabaseTest {
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Test
+  void onlyLoadsFromThePrimaryAreCached() throws Exception {
+    for (int i = 0; i < 50 && Double.isNaN(meterRegistry.get("band.db.replica.lag").gauge().value()); i++) {
+      Thread.sleep(100);
+    }
+    UUID id = UUID.randomUUID();
+    jdbc.update("INSERT INTO users (id, email, password, name, role) VALUES (?, ?, '-', 'Replica User', 'Student')",
+        id, "replica-" + id + "@example.test");
+    double toReplica = meterRegistry.get("band.db.routing").tag("target", "replica").counter().count();
+
+    TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    readOnly.executeWithoutResult(status -> {
+      assertThat(entityManager.find(User.class, id)).isNotNull();
+      assertThat(ReplicaReads.active()).isTrue();
+    });
+    assertThat(meterRegistry.get("band.db.routing").tag("target", "replica").counter().count()).isGreaterThan(toReplica);
+    assertThat(ReplicaReads.active()).isFalse();
+    assertThat(entityManagerFactory.getCache().contains(User.class, id)).isFalse();
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.find(User.class, id));
+    assertThat(entityManagerFactory.getCache().contains(User.class, id)).isTrue();
+  }
+}
@@ -0,0 +1,81 @@
+package com.band.db;
+
+import com.band.security.JwtService;
+import com.band.support.DatabaseTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"app.db.accounting.enabled=true", "app.db.accounting.header=true"})
+class StatementAccountingTest extends DatabaseTest {
+
+  private static final String SUMMARY = "[1-9]\\d*; time=[\\d.]+ms; rows=\\d+";
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Test
+  void loginOnTheHashingPoolCountsTowardsTheRequest() throws Exception {
+    String email = "accounting-" + UUID.randomUUID() + "@example.test";
+    jdbc.update("INSERT INTO users (id, email, password, name, role) VALUES (?, ?, ?, 'Accounting User', 'Student')",
+        UUID.randomUUID(), email, passwordEncoder.encode("secret"));
+
+    MvcResult started = mvc.perform(post("/api/v1/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"" + email + "\",\"password\":\"secret\"}"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MvcResult result = mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    assertThat(result.getResponse().getHeader(StatementScopeFilter.HEADER)).matches(SUMMARY);
+    assertThat(meterRegistry.find("band.db.statement").tag("repository", "UserRepository.findByEmail").timer())
+        .extracting(Timer::count).isNotEqualTo(0L);
+  }
+
+  @Test
+  void streamedExportIsOneUnitUntilItCompletes() throws Exception {
+    String access = jwtService.issue("director@band.app", "BAND_DIRECTOR").accessToken();
+
+    MvcResult started = mvc.perform(get("/api/export/equipment").header(HttpHeaders.AUTHORIZATION, "Bearer " + access))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+    // The header went out before the body; the statements that wrote the body are in the request meters
+    assertThat(meterRegistry.find("band.db.request.statements").tags("kind", "http", "route", "GET /api/export/{dataset}")
+        .summary()).isNotNull().satisfies(statements -> assertThat(statements.totalAmount()).isPositive());
+  }
+}
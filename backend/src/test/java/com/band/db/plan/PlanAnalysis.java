@@ -0,0 +1,56 @@
+package com.band.db.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The figures taken from one {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)}
+ * result, plus the sequential scans that read a large table to keep only a
+ * small part of it. A scan that keeps most of what it reads (a report over the
+ * whole table) is what a sequential scan is for, and is not flagged.
+ */
+record PlanAnalysis(double totalCost,
+                    double executionMillis,
+                    long sharedHitBlocks,
+                    long sharedReadBlocks,
+                    List<String> wastefulScans) {
+
+  /**
+   * @param tableRows       estimated rows per table, from pg_class
+   * @param minRows         tables smaller than this are never flagged
+   * @param maxKeptFraction a scan keeping less than this fraction of the rows it read is flagged
+   */
+  static PlanAnalysis of(JsonNode explain, Map<String, Long> tableRows, long minRows, double maxKeptFraction) {
+    JsonNode root = explain.get(0);
+    JsonNode plan = root.get("Plan");
+    List<String> wasteful = new ArrayList<>();
+    collectScans(plan, tableRows, minRows, maxKeptFraction, wasteful);
+    return new PlanAnalysis(
+        plan.path("Total Cost").asDouble(),
+        root.path("Execution Time").asDouble(),
+        plan.path("Shared Hit Blocks").asLong(),
+        plan.path("Shared Read Blocks").asLong(),
+        List.copyOf(wasteful));
+  }
+
+  private static void collectScans(JsonNode node, Map<String, Long> tableRows, long minRows,
+                                   double maxKeptFraction, List<String> wasteful) {
+    if ("Seq Scan".equals(node.path("Node Type").asText())) {
+      String relation = node.path("Relation Name").asText();
+      // Partitions are flagged under their own names; compare against the partition's size
+      long size = tableRows.getOrDefault(relation, 0L);
+      long loops = Math.max(1, node.path("Actual Loops").asLong());
+      long kept = node.path("Actual Rows").asLong() * loops;
+      long read = kept + node.path("Rows Removed by Filter").asLong() * loops;
+      if (size >= minRows && read > 0 && (double) kept / read < maxKeptFraction) {
+        wasteful.add(String.format("Seq Scan on %s read %d rows to keep %d", relation, read, kept));
+      }
+    }
+    for (JsonNode child : node.path("Plans")) {
+      collectScans(child, tableRows, minRows, maxKeptFraction, wasteful);
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package com.band.db.plan;
+
+import com.band.support.DatabaseTest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query method of every repository in {@code com.band.repo} against
+ * a synthetic production-sized dataset under {@code EXPLAIN (ANALYZE, BUFFERS)}
+ * and fails when a plan regresses:
+ * <ul>
+ *   <li>a sequential scan of a large table keeps only a small fraction of the rows it reads, or</li>
+ *   <li>a plan's total cost exceeds the committed baseline by more than {@code tolerance-percent}
+ *       and {@code min-cost-increase}.</li>
+ * </ul>
+ * Queries listed in {@code allow} (as {@code Repository.method}) are reported but never fail the run.
+ * Loading the dataset takes minutes, so the test is tagged {@code plancheck} and only runs with
+ * {@code mvn test -Pplancheck}, against a scratch database.
+ */
+@Tag("plancheck")
+@ActiveProfiles({"test", "plancheck"})
+@Import(StatementRecorder.class)
+@Slf4j
+class PlanCheckTest extends DatabaseTest {
+
+  private static final String TABLE_ROWS =
+      "SELECT c.relname, c.reltuples::BIGINT FROM pg_class c "
+          + "WHERE c.relkind = 'r' AND c.relnamespace = 'public'::regnamespace";
+
+  /** One query's outcome, as written to the report. */
+  record Result(String status, String sql, Double totalCost, Double executionMillis,
+                Long sharedHitBlocks, Long sharedReadBlocks, List<String> problems) {
+  }
+
+  private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private StatementRecorder recorder;
+
+  @Value("${app.plan-check.scale}")
+  private int scale;
+
+  @Value("${app.plan-check.min-rows}")
+  private long minRows;
+
+  @Value("${app.plan-check.seq-scan-max-fraction}")
+  private double seqScanMaxFraction;
+
+  @Value("${app.plan-check.tolerance-percent}")
+  private double tolerancePercent;
+
+  @Value("${app.plan-check.min-cost-increase}")
+  private double minCostIncrease;
+
+  @Value("${app.plan-check.baseline}")
+  private Path baseline;
+
+  @Value("${app.plan-check.out}")
+  private Path out;
+
+  @Value("${app.plan-check.save-baseline}")
+  private boolean saveBaseline;
+
+  @Value("${app.plan-check.allow:}")
+  private Set<String> allow;
+
+  @Test
+  void repositoryQueriesUseIndexesOnTheSyntheticDataset() throws Exception {
+    SyntheticDataset dataset = new SyntheticDataset(jdbc, scale);
+    if (!dataset.isLoaded()) {
+      log.info("Loading the synthetic dataset (scale {}); this takes a few minutes", scale);
+      dataset.load();
+    }
+    Map<String, Long> tableRows = new HashMap<>();
+    jdbc.query(TABLE_ROWS, rs -> {
+      tableRows.put(rs.getString(1), rs.getLong(2));
+    });
+    QueryArguments arguments = new QueryArguments(jdbc);
+
+    Map<String, Result> results = new TreeMap<>();
+    Repositories repositories = new Repositories(context);
+    for (Class<?> domainType : repositories) {
+      RepositoryInformation info = repositories.getRequiredRepositoryInformation(domainType);
+      Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+      for (Method method : queryMethods(info.getRepositoryInterface())) {
+        String key = info.getRepositoryInterface().getSimpleName() + "." + method.getName();
+        if (results.containsKey(key)) {
+          key += "#" + method.getParameterCount();
+        }
+        results.put(key, check(repository, method, domainType, arguments, tableRows));
+      }
+    }
+
+    Set<String> allowed = allow.stream().map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toSet());
+    Map<String, Result> previous = Files.exists(baseline)
+        ? mapper.readValue(baseline.toFile(), new TypeReference<Map<String, Result>>() { })
+        : Map.of();
+    List<String> failures = new ArrayList<>();
+    results.forEach((key, result) -> {
+      List<String> problems = new ArrayList<>(result.problems());
+      Result before = previous.get(key);
+      if (result.totalCost() != null && before != null && before.totalCost() != null
+          && result.totalCost() > before.totalCost() * (1 + tolerancePercent / 100)
+          && result.totalCost() > before.totalCost() + minCostIncrease) {
+        problems.add(String.format("Total cost %.0f, baseline %.0f", result.totalCost(), before.totalCost()));
+      }
+      if (!problems.isEmpty() && !"skipped".equals(result.status()) && !allowed.contains(key)) {
+        problems.forEach(problem -> failures.add(key + ": " + problem));
+      }
+    });
+
+    write(out, results);
+    log.info("Checked {} queries; plans written to {}", results.size(), out);
+    if (saveBaseline) {
+      write(baseline, results);
+      log.info("Saved as baseline {}", baseline);
+    } else {
+      assertThat(previous).as("baseline %s; create it with -Dapp.plan-check.save-baseline=true", baseline)
+          .isNotEmpty();
+    }
+    assertThat(failures).as("plan regressions").isEmpty();
+  }
+
+  // Declared in this app's repositories; default methods only combine the checked ones
+  private static List<Method> queryMethods(Class<?> repositoryInterface) {
+    return Arrays.stream(repositoryInterface.getMethods())
+        .filter(method -> method.getDeclaringClass().getPackageName().equals("com.band.repo"))
+        .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+        .filter(method -> !method.isAnnotationPresent(Modifying.class))
+        .filter(method -> !method.getName().startsWith("delete") && !method.getName().startsWith("remove"))
+        .sorted(Comparator.comparing(Method::getName).thenComparing(Method::getParameterCount))
+        .toList();
+  }
+
+  private Result check(Object repository, Method method, Class<?> domainType,
+                       QueryArguments arguments, Map<String, Long> tableRows) {
+    Object[] args;
+    try {
+      args = arguments.forMethod(method, domainType);
+    } catch (QueryArguments.UnsupportedParameterException e) {
+      return new Result("skipped", null, null, null, null, null, List.of("No argument for " + e.getMessage()));
+    }
+    StatementRecorder.Captured captured;
+    try {
+      captured = recorder.capture(() -> invoke(repository, method, args));
+    } catch (RuntimeException e) {
+      return new Result("error", null, null, null, null, null, List.of(String.valueOf(e.getMessage())));
+    }
+    if (captured == null) {
+      return new Result("skipped", null, null, null, null, null, List.of("No statement executed"));
+    }
+    try {
+      PlanAnalysis plan = PlanAnalysis.of(explain(captured), tableRows, minRows, seqScanMaxFraction);
+      return new Result(plan.wastefulScans().isEmpty() ? "ok" : "seq-scan", captured.sql(), plan.totalCost(),
+          plan.executionMillis(), plan.sharedHitBlocks(), plan.sharedReadBlocks(), plan.wastefulScans());
+    } catch (SQLException | IOException e) {
+      return new Result("error", captured.sql(), null, null, null, null, List.of(String.valueOf(e.getMessage())));
+    }
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // EXPLAIN ANALYZE executes the statement, so it runs in a transaction that is always rolled back
+  private JsonNode explain(StatementRecorder.Captured captured) throws SQLException, IOException {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement =
+               connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + captured.sql())) {
+        for (StatementRecorder.Binding binding : captured.bindings()) {
+          binding.applyTo(statement);
+        }
+        try (ResultSet rs = statement.executeQuery()) {
+          rs.next();
+          return mapper.readTree(rs.getString(1));
+        }
+      } finally {
+        connection.rollback();
+      }
+    }
+  }
+
+  private void write(Path path, Map<String, Result> results) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    mapper.writeValue(path.toFile(), results);
+  }
+}
@@ -0,0 +1,289 @@
+package com.band.db.plan;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Makes up arguments for a repository method from parameter names and types,
+ * so every query runs with values the dataset actually contains: ids and
+ * emails are sampled from the tables, dates fall in the last month, search
+ * terms match some rows. Names come from {@code @Param}, or from the property
+ * path of a derived query method ({@code findByStudent_IdAndStatus} gives
+ * student.id and status).
+ */
+class QueryArguments {
+
+  /** No sensible value can be made up for this parameter. */
+  static final class UnsupportedParameterException extends RuntimeException {
+    UnsupportedParameterException(String message) {
+      super(message);
+    }
+  }
+
+  private static final String SEARCH_TERM = "trum";
+
+  private final UUID userId;
+  private final String userEmail;
+  private final UUID equipmentId;
+  private final String qrCode;
+  private final String serialNumber;
+  private final String equipmentLocation;
+  private final UUID eventId;
+  private final String venue;
+  private final UUID assignmentId;
+  private final UUID locationId;
+  private final String technician;
+  private final Instant now = Instant.now();
+
+  QueryArguments(JdbcTemplate jdbc) {
+    this.userId = sample(jdbc, "SELECT id FROM users WHERE role = 'Student' ORDER BY email LIMIT 1", UUID.class);
+    this.userEmail = sample(jdbc, "SELECT email FROM users WHERE role = 'Student' ORDER BY email LIMIT 1", String.class);
+    this.equipmentId = sample(jdbc, "SELECT id FROM equipment ORDER BY qr_code LIMIT 1", UUID.class);
+    this.qrCode = sample(jdbc, "SELECT qr_code FROM equipment ORDER BY qr_code LIMIT 1", String.class);
+    this.serialNumber = sample(jdbc, "SELECT serial_number FROM equipment WHERE serial_number IS NOT NULL ORDER BY qr_code LIMIT 1", String.class);
+    this.equipmentLocation = sample(jdbc, "SELECT location FROM equipment WHERE location IS NOT NULL ORDER BY qr_code LIMIT 1", String.class);
+    this.eventId = sample(jdbc, "SELECT id FROM band_events ORDER BY event_date DESC LIMIT 1", UUID.class);
+    this.venue = sample(jdbc, "SELECT venue FROM band_events WHERE venue IS NOT NULL ORDER BY event_date DESC LIMIT 1", String.class);
+    this.assignmentId = sample(jdbc, "SELECT id FROM equipment_assignments ORDER BY checkout_date DESC LIMIT 1", UUID.class);
+    this.locationId = sample(jdbc, "SELECT id FROM locations ORDER BY name LIMIT 1", UUID.class);
+    this.technician = sample(jdbc, "SELECT technician_name FROM equipment_maintenance WHERE technician_name IS NOT NULL LIMIT 1", String.class);
+  }
+
+  private static <T> T sample(JdbcTemplate jdbc, String sql, Class<T> type) {
+    List<T> values = jdbc.queryForList(sql, type);
+    return values.isEmpty() ? null : values.get(0);
+  }
+
+  Object[] forMethod(Method method, Class<?> domainType) {
+    Parameter[] parameters = method.getParameters();
+    List<String> names = names(method, domainType);
+    Object[] args = new Object[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      args[i] = value(names.get(i), parameters[i].getType(), parameters[i].getParameterizedType());
+    }
+    return args;
+  }
+
+  private static List<String> names(Method method, Class<?> domainType) {
+    Parameter[] parameters = method.getParameters();
+    List<String> names = new ArrayList<>();
+    List<String> derived = null;
+    for (int i = 0; i < parameters.length; i++) {
+      Param param = parameters[i].getAnnotation(Param.class);
+      if (param != null) {
+        names.add(param.value());
+        continue;
+      }
+      if (derived == null) {
+        derived = derivedNames(method, domainType);
+      }
+      names.add(i < derived.size() ? derived.get(i) : parameters[i].getName());
+    }
+    return names;
+  }
+
+  // One name per argument, from the property paths of the derived query
+  private static List<String> derivedNames(Method method, Class<?> domainType) {
+    List<String> names = new ArrayList<>();
+    try {
+      for (Part part : new PartTree(method.getName(), domainType).getParts()) {
+        for (int i = 0; i < part.getNumberOfArguments(); i++) {
+          String path = part.getProperty().toDotPath();
+          names.add(part.getType() == Part.Type.CONTAINING ? path + ".containing"
+              : i == 0 && part.getNumberOfArguments() == 2 ? path + ".from"
+              : i == 1 ? path + ".to" : path);
+        }
+      }
+    } catch (RuntimeException e) {
+      // Not a derived query (custom fragment); fall back to the compiled names
+    }
+    return names;
+  }
+
+  private Object value(String name, Class<?> type, Type genericType) {
+    String key = name.toLowerCase(Locale.ROOT);
+    if (type == UUID.class) {
+      return uuidFor(key);
+    }
+    if (type == String.class) {
+      return stringFor(key);
+    }
+    if (type == Instant.class) {
+      return instantFor(key);
+    }
+    if (type == LocalDateTime.class) {
+      return LocalDateTime.ofInstant(instantFor(key), ZoneOffset.UTC);
+    }
+    if (type == LocalDate.class) {
+      return LocalDate.ofInstant(instantFor(key), ZoneOffset.UTC);
+    }
+    if (type == int.class || type == Integer.class || type == long.class || type == Long.class) {
+      long value = numberFor(key);
+      return type == int.class || type == Integer.class ? (Object) (int) value : (Object) value;
+    }
+    if (type == boolean.class || type == Boolean.class) {
+      return Boolean.TRUE;
+    }
+    if (type == BigDecimal.class || type == Double.class || type == double.class) {
+      return type == BigDecimal.class ? BigDecimal.valueOf(500) : (Object) 500.0;
+    }
+    if (type.isEnum()) {
+      return type.getEnumConstants()[0];
+    }
+    if (Collection.class.isAssignableFrom(type) && genericType instanceof ParameterizedType parameterized) {
+      Type element = parameterized.getActualTypeArguments()[0];
+      if (element instanceof Class<?> elementType) {
+        Object value = value(name, elementType, elementType);
+        return Set.class.isAssignableFrom(type) ? Set.of(value) : List.of(value);
+      }
+    }
+    if (type == Pageable.class) {
+      return PageRequest.of(0, 20);
+    }
+    if (type == Sort.class) {
+      return Sort.unsorted();
+    }
+    if (type.isRecord()) {
+      return record(type);
+    }
+    throw new UnsupportedParameterException(name + ": " + type.getSimpleName());
+  }
+
+  // Filters and similar records: first enum constant per set, the search term for strings
+  private Object record(Class<?> type) {
+    RecordComponent[] components = type.getRecordComponents();
+    Class<?>[] types = new Class<?>[components.length];
+    Object[] values = new Object[components.length];
+    for (int i = 0; i < components.length; i++) {
+      types[i] = components[i].getType();
+      values[i] = value(components[i].getName(), types[i], components[i].getGenericType());
+    }
+    try {
+      return type.getDeclaredConstructor(types).newInstance(values);
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedParameterException(type.getSimpleName() + ": " + e.getMessage());
+    }
+  }
+
+  private UUID uuidFor(String key) {
+    if (key.contains("assignment")) {
+      return assignmentId;
+    }
+    if (key.contains("equipment")) {
+      return equipmentId;
+    }
+    if (key.contains("event")) {
+      return eventId;
+    }
+    if (key.contains("location") || key.contains("ancestor") || key.contains("descendant") || key.equals("id")) {
+      return locationId;
+    }
+    return userId;
+  }
+
+  private String stringFor(String key) {
+    if (key.endsWith(".containing") || key.contains("search") || key.contains("keyword")) {
+      return SEARCH_TERM;
+    }
+    if (key.contains("email")) {
+      return userEmail;
+    }
+    if (key.contains("qrcode")) {
+      return qrCode;
+    }
+    if (key.contains("serial")) {
+      return serialNumber;
+    }
+    if (key.contains("venue")) {
+      return venue;
+    }
+    if (key.contains("location")) {
+      return equipmentLocation;
+    }
+    if (key.contains("technician")) {
+      return technician;
+    }
+    if (key.contains("role")) {
+      return "Band Director";
+    }
+    if (key.contains("section")) {
+      return "brass";
+    }
+    if (key.contains("instrument")) {
+      return "Tuba";
+    }
+    if (key.contains("standing")) {
+      return "probation";
+    }
+    if (key.contains("purpose")) {
+      return "COMPETITION";
+    }
+    if (key.contains("ipaddress")) {
+      return "10.1.2.3";
+    }
+    if (key.contains("useragent")) {
+      return "Mozilla/5.0 (iPad)";
+    }
+    return "x";
+  }
+
+  // Windows: a month back to now, due-by dates two weeks ahead, open-assignment bound three years back
+  private Instant instantFor(String key) {
+    if (key.equals("hotfrom")) {
+      return now.minus(3 * 365, ChronoUnit.DAYS);
+    }
+    if (key.endsWith(".to") || key.contains("end")) {
+      return now;
+    }
+    if (key.endsWith(".from") || key.contains("start") || key.contains("since") || key.endsWith("after")) {
+      return now.minus(30, ChronoUnit.DAYS);
+    }
+    if (key.contains("date") || key.contains("until")) {
+      return now.plus(14, ChronoUnit.DAYS);
+    }
+    return now.minus(30, ChronoUnit.DAYS);
+  }
+
+  private long numberFor(String key) {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    if (key.contains("month")) {
+      return today.getMonthValue();
+    }
+    if (key.contains("year")) {
+      return today.getYear();
+    }
+    if (key.contains("grade")) {
+      return 10;
+    }
+    if (key.contains("offset")) {
+      return 0;
+    }
+    if (key.contains("limit")) {
+      return 50;
+    }
+    return 10;
+  }
+}
@@ -0,0 +1,131 @@
+package com.band.db.plan;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Captures the first statement a repository call would execute, with its
+ * bound parameters, instead of executing it. The call is aborted at that
+ * point, so capturing a query that returns a million entities costs nothing;
+ * the plan checker then runs the statement itself under EXPLAIN.
+ *
+ * <p>Wraps the application's {@code dataSource} bean; imported by
+ * {@link PlanCheckTest} only.
+ */
+class StatementRecorder implements BeanPostProcessor {
+
+  /** A parameter setter call, e.g. {@code setObject(1, uuid)}, replayed on the EXPLAIN statement. */
+  record Binding(Method setter, Object[] args) {
+    void applyTo(PreparedStatement statement) throws SQLException {
+      try {
+        setter.invoke(statement, args);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      } catch (InvocationTargetException e) {
+        throw e.getCause() instanceof SQLException sql ? sql : new SQLException(e.getCause());
+      }
+    }
+  }
+
+  record Captured(String sql, List<Binding> bindings) {
+  }
+
+  /** Thrown in place of executing the captured statement. */
+  static final class CapturedException extends SQLException {
+    CapturedException() {
+      super("Statement captured for EXPLAIN", "BAND0", 0, null);
+    }
+  }
+
+  private static final ThreadLocal<Captured[]> CAPTURE = new ThreadLocal<>();
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+      return proxy(DataSource.class, dataSource, (target, method, args) -> {
+        Object result = invoke(target, method, args);
+        return result instanceof Connection connection ? wrap(connection) : result;
+      });
+    }
+    return bean;
+  }
+
+  /**
+   * Runs {@code call} and returns the first prepared statement it tried to
+   * execute, or null if it executed none (e.g. a default method).
+   */
+  Captured capture(Supplier<?> call) {
+    Captured[] slot = new Captured[1];
+    CAPTURE.set(slot);
+    try {
+      call.get();
+    } catch (RuntimeException e) {
+      if (slot[0] == null) {
+        throw e;
+      }
+    } finally {
+      CAPTURE.remove();
+    }
+    return slot[0];
+  }
+
+  private static Connection wrap(Connection connection) {
+    return proxy(Connection.class, connection, (target, method, args) -> {
+      Object result = invoke(target, method, args);
+      if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+        return wrap(statement, (String) args[0]);
+      }
+      return result;
+    });
+  }
+
+  private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+    List<Binding> bindings = new ArrayList<>();
+    return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+      String name = method.getName();
+      Captured[] slot = CAPTURE.get();
+      if (slot != null) {
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+          bindings.add(new Binding(method, args.clone()));
+        } else if (name.equals("clearParameters")) {
+          bindings.clear();
+        } else if ((name.equals("executeQuery") || name.equals("execute") || name.equals("executeUpdate"))
+            && (args == null || args.length == 0)) {
+          if (slot[0] == null) {
+            slot[0] = new Captured(sql, List.copyOf(bindings));
+          }
+          throw new CapturedException();
+        }
+      }
+      return invoke(target, method, args);
+    });
+  }
+
+  private interface Handler<T> {
+    Object handle(T target, Method method, Object[] args) throws Throwable;
+  }
+
+  private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+    InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, invocationHandler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package com.band.db.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Fills a scratch database with a few years of synthetic band data, sized so
+ * that a bad plan shows: at scale 1, 20k users and events, 50k instruments,
+ * 200k maintenance records and signatures and a million assignments. Value
+ * distributions follow the real ones roughly (most assignments returned, a
+ * few percent checked out, most equipment available), since they decide the
+ * plans. Rows are recognisable by the {@code @synthetic.band.app} user emails
+ * and {@code SYN-} QR codes; loading is skipped if they are already there.
+ */
+@Slf4j
+class SyntheticDataset {
+
+  static final String USER_DOMAIN = "@synthetic.band.app";
+
+  private final JdbcTemplate jdbc;
+  private final int scale;
+
+  SyntheticDataset(JdbcTemplate jdbc, int scale) {
+    if (scale < 1) {
+      throw new IllegalArgumentException("app.plan-check.scale must be at least 1");
+    }
+    this.jdbc = jdbc;
+    this.scale = scale;
+  }
+
+  boolean isLoaded() {
+    Integer users = jdbc.queryForObject("SELECT count(*) FROM users WHERE email LIKE ?", Integer.class, "%" + USER_DOMAIN);
+    return users != null && users > 0;
+  }
+
+  void load() {
+    int users = 20_000 * scale;
+    int events = 20_000 * scale;
+    int equipment = 50_000 * scale;
+    int assignments = 1_000_000 * scale;
+    int maintenance = 200_000 * scale;
+    int signatures = 200_000 * scale;
+    long start = System.nanoTime();
+
+    // Temp tables are per connection, so everything runs on one
+    List<String> statements = List.of(
+        "DROP TABLE IF EXISTS syn_users, syn_events, syn_equipment",
+        "SELECT ensure_assignment_partition(y) FROM generate_series(extract(YEAR FROM now())::INT - 7, "
+            + "extract(YEAR FROM now())::INT + 1) y",
+
+        "INSERT INTO users (email, password, name, role, grade_level, band_section, primary_instrument, "
+            + "academic_standing, active, created_at) "
+            + "SELECT 'user' || g || '" + USER_DOMAIN + "', '-', 'Synthetic User ' || g, "
+            + "CASE WHEN g % 50 = 0 THEN 'Band Director' WHEN g % 25 = 0 THEN 'Equipment Manager' ELSE 'Student' END, "
+            + "9 + g % 4, (ARRAY['brass', 'woodwind', 'percussion', 'string'])[1 + g % 4], "
+            + "(ARRAY['Trumpet', 'Trombone', 'Tuba', 'French Horn', 'Clarinet', 'Flute', 'Oboe', 'Bassoon', 'Alto Saxophone', "
+            + "'Tenor Saxophone', 'Snare Drum', 'Timpani', 'Violin', 'Cello', 'Double Bass'])[1 + g % 15], "
+            + "CASE WHEN g % 20 = 0 THEN 'probation' ELSE 'good_standing' END, g % 30 <> 0, "
+            + "now() - (g % 2000) * INTERVAL '1 day' "
+            + "FROM generate_series(1, " + users + ") g",
+        "CREATE TEMP TABLE syn_users AS SELECT row_number() OVER (ORDER BY email) AS n, id FROM users WHERE email LIKE '%" + USER_DOMAIN + "'",
+        "CREATE UNIQUE INDEX ON syn_users (n)",
+
+        "INSERT INTO band_events (name, description, event_date, event_type, venue, venue_address, director_id, status, "
+            + "special_requirements, active) "
+            + "SELECT 'Synthetic ' || t.type || ' ' || g, 'Programme notes for event ' || g, t.date, t.type, "
+            + "'Hall ' || g % 200, g % 200 || ' Music Avenue', u.id, "
+            + "CASE WHEN t.date > now() THEN (ARRAY['PLANNED', 'APPROVED', 'CONFIRMED'])[1 + g % 3] "
+            + "WHEN g % 30 = 0 THEN 'CANCELLED' ELSE 'COMPLETED' END, "
+            + "CASE WHEN g % 25 = 0 THEN 'Wheelchair ramp for the percussion section' END, g % 40 <> 0 "
+            + "FROM generate_series(1, " + events + ") g "
+            + "CROSS JOIN LATERAL (SELECT (ARRAY['CONCERT', 'COMPETITION', 'PARADE', 'FESTIVAL', 'PRACTICE', 'REHEARSAL', "
+            + "'MASTERCLASS', 'RECORDING', 'COMMUNITY_EVENT', 'FUNDRAISER'])[1 + g % 10] AS type, "
+            + "now() + INTERVAL '1 year' - ((g::BIGINT * 7) % 2555) * INTERVAL '1 day' AS date) t "
+            + "JOIN syn_users u ON u.n = 1 + (g::BIGINT * 50) % " + users,
+        "CREATE TEMP TABLE syn_events AS SELECT row_number() OVER (ORDER BY name) AS n, id FROM band_events WHERE name LIKE 'Synthetic %'",
+        "CREATE UNIQUE INDEX ON syn_events (n)",
+
+        "INSERT INTO equipment (qr_code, serial_number, make, model, category, condition, location, description, "
+            + "purchase_date, purchase_price, warranty_expiration, last_maintenance_date, next_maintenance_date, status, "
+            + "assigned_to_id, assignment_date, expected_return_date, notes, active) "
+            + "SELECT 'SYN-' || lpad(g::TEXT, 8, '0'), 'SN' || lpad((g::BIGINT * 7919 % 100000000)::TEXT, 8, '0'), "
+            + "(ARRAY['Yamaha', 'Bach', 'Selmer', 'Pearl', 'Ludwig', 'Conn', 'Jupiter', 'Buffet'])[1 + g % 8], "
+            + "(ARRAY['Trumpet', 'Trombone', 'Clarinet', 'Flute', 'Saxophone', 'Snare Drum', 'Violin', 'Tuba', "
+            + "'French Horn', 'Cello'])[1 + g % 10] || ' ' || (100 + g % 900), "
+            + "(ARRAY['BRASS', 'WOODWIND', 'PERCUSSION', 'STRING', 'ELECTRONIC', 'ACCESSORY'])[1 + g % 6], "
+            + "(ARRAY['EXCELLENT', 'GOOD', 'GOOD', 'GOOD', 'FAIR', 'FAIR', 'POOR', 'REPAIR_NEEDED', 'GOOD', 'EXCELLENT'])[1 + g % 10], "
+            + "'Room ' || (100 + g % 400), 'Synthetic instrument ' || g, "
+            + "current_date - (g % 3650), 200 + (g % 5000), current_date - (g % 3650) + 730, "
+            + "current_date - (g % 400), current_date - (g % 400) + 180, s.status, "
+            + "CASE WHEN s.status = 'CHECKED_OUT' THEN u.id END, "
+            + "CASE WHEN s.status = 'CHECKED_OUT' THEN now() - (g % 14) * INTERVAL '1 day' END, "
+            + "CASE WHEN s.status = 'CHECKED_OUT' THEN now() + (7 - g % 14) * INTERVAL '1 day' END, "
+            + "CASE WHEN g % 10 = 0 THEN 'Spare mouthpiece in case' END, g % 100 <> 3 "
+            + "FROM generate_series(1, " + equipment + ") g "
+            + "CROSS JOIN LATERAL (SELECT CASE WHEN g % 20 = 0 THEN 'CHECKED_OUT' WHEN g % 50 = 1 THEN 'IN_MAINTENANCE' "
+            + "WHEN g % 200 = 2 THEN 'MISSING' WHEN g % 100 = 3 THEN 'RETIRED' ELSE 'AVAILABLE' END AS status) s "
+            + "JOIN syn_users u ON u.n = 1 + (g::BIGINT * 13) % " + users,
+        "CREATE TEMP TABLE syn_equipment AS SELECT row_number() OVER (ORDER BY qr_code) AS n, id FROM equipment WHERE qr_code LIKE 'SYN-%'",
+        "CREATE UNIQUE INDEX ON syn_equipment (n)",
+
+        // Six years of history; open assignments only in the last month
+        "INSERT INTO equipment_assignments (student_id, equipment_id, checkout_date, expected_return_date, "
+            + "actual_return_date, status, checked_out_by, peer_reviewer_id, supervisor_approved_by, checkout_condition, "
+            + "return_condition, assignment_purpose, checkout_notes, damage_notes, event_id, created_at) "
+            + "SELECT u.id, e.id, t.checkout, t.checkout + INTERVAL '14 days', "
+            + "CASE WHEN t.status IN ('RETURNED', 'DAMAGED') THEN t.checkout + (g % 20) * INTERVAL '1 day' END, "
+            + "t.status, m.id, CASE WHEN g % 10 = 0 THEN m.id END, CASE WHEN g % 20 = 0 THEN m.id END, "
+            + "CASE WHEN g % 3 = 0 THEN 'EXCELLENT' ELSE 'GOOD' END, "
+            + "CASE WHEN t.status NOT IN ('RETURNED', 'DAMAGED') THEN NULL WHEN g % 20 = 0 THEN 'FAIR' "
+            + "WHEN g % 3 = 0 THEN 'EXCELLENT' ELSE 'GOOD' END, "
+            + "(ARRAY['PRACTICE', 'PERFORMANCE', 'LESSON', 'COMPETITION', 'REPAIR_LOAN'])[1 + g % 5], "
+            + "'Synthetic checkout ' || g, CASE WHEN t.status = 'DAMAGED' OR g % 40 = 0 THEN 'Dent on the bell' END, "
+            + "CASE WHEN g % 4 = 0 THEN ev.id END, t.checkout "
+            + "FROM generate_series(1, " + assignments + ") g "
+            + "CROSS JOIN LATERAL (SELECT c.checkout, CASE "
+            + "WHEN c.checkout > now() - INTERVAL '30 days' AND g % 3 = 0 THEN 'CHECKED_OUT' "
+            + "WHEN g % 500 = 0 THEN 'LOST' WHEN g % 200 = 0 THEN 'DAMAGED' "
+            + "WHEN c.checkout > now() - INTERVAL '30 days' AND g % 7 = 1 THEN 'PENDING_RETURN' "
+            + "WHEN c.checkout > now() - INTERVAL '30 days' AND g % 11 = 2 THEN 'PENDING_CHECKOUT' "
+            + "ELSE 'RETURNED' END AS status "
+            + "FROM (SELECT now() - ((g::BIGINT * 7) % 52560) * INTERVAL '1 hour' AS checkout) c) t "
+            + "JOIN syn_users u ON u.n = 1 + (g::BIGINT * 31) % " + users + " "
+            + "JOIN syn_users m ON m.n = 1 + (g::BIGINT * 17) % " + users + " "
+            + "JOIN syn_equipment e ON e.n = 1 + (g::BIGINT * 7919) % " + equipment + " "
+            + "JOIN syn_events ev ON ev.n = 1 + g % " + events,
+
+        "INSERT INTO equipment_maintenance (equipment_id, maintenance_type, scheduled_date, completed_date, status, "
+            + "priority, technician_name, estimated_cost, actual_cost, notes, created_by) "
+            + "SELECT e.id, (ARRAY['PREVENTIVE', 'REPAIR', 'CLEANING', 'CALIBRATION', 'INSPECTION', 'UPGRADE', "
+            + "'REPLACEMENT'])[1 + g % 7], t.scheduled, "
+            + "CASE WHEN t.status = 'COMPLETED' THEN t.scheduled + g % 5 END, t.status, "
+            + "(ARRAY['LOW', 'MEDIUM', 'HIGH', 'URGENT'])[1 + g % 4], 'Technician ' || g % 300, 50 + g % 400, "
+            + "CASE WHEN t.status = 'COMPLETED' THEN 40 + g % 450 END, "
+            + "(ARRAY['Routine service', 'Replaced valve springs', 'Re-padded keys', 'New drum head', "
+            + "'Cleaned and oiled'])[1 + g % 5] || ' on instrument ' || g, u.id "
+            + "FROM generate_series(1, " + maintenance + ") g "
+            + "CROSS JOIN LATERAL (SELECT s.scheduled, CASE WHEN s.scheduled > current_date THEN 'SCHEDULED' "
+            + "WHEN g % 50 = 0 THEN 'CANCELLED' WHEN g % 100 = 1 THEN 'IN_PROGRESS' ELSE 'COMPLETED' END AS status "
+            + "FROM (SELECT current_date + 30 - ((g::BIGINT * 7) % 2190)::INT AS scheduled) s) t "
+            + "JOIN syn_equipment e ON e.n = 1 + (g::BIGINT * 104729) % " + equipment + " "
+            + "JOIN syn_users u ON u.n = 1 + (g::BIGINT * 25) % " + users,
+
+        "INSERT INTO digital_signatures (user_id, signature_type, signature_name, signature_hash, "
+            + "ip_address, user_agent, created_at, active) "
+            + "SELECT u.id, "
+            + "(ARRAY['GENERAL', 'EQUIPMENT_CHECKOUT', 'EQUIPMENT_RETURN', 'PERFORMANCE_CONSENT', 'MEDICAL_WAIVER', "
+            + "'PHOTO_RELEASE'])[1 + g % 6], 'Signature ' || g, md5(g::TEXT) || md5((g + 1)::TEXT), "
+            + "('10.' || g % 250 || '.' || (g / 250) % 250 || '.' || g % 200)::INET, "
+            + "(ARRAY['Mozilla/5.0 (iPad)', 'Mozilla/5.0 (Windows NT 10.0)', 'Mozilla/5.0 (Macintosh)', "
+            + "'Mozilla/5.0 (Linux; Android 14)'])[1 + g % 4], "
+            + "now() - ((g::BIGINT * 7) % 52560) * INTERVAL '1 hour', g % 50 <> 0 "
+            + "FROM generate_series(1, " + signatures + ") g "
+            + "JOIN syn_users u ON u.n = 1 + (g::BIGINT * 37) % " + users,
+
+        "ANALYZE");
+
+    log.info("Loading synthetic dataset at scale {}", scale);
+    // One transaction, so a failed load leaves nothing for isLoaded() to mistake for a dataset
+    jdbc.execute((ConnectionCallback<Void>) connection -> {
+      connection.setAutoCommit(false);
+      try (Statement statement = connection.createStatement()) {
+        for (String sql : statements) {
+          statement.execute(sql);
+        }
+        statement.execute("DROP TABLE syn_users, syn_events, syn_equipment");
+        connection.commit();
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+      return null;
+    });
+    log.info("Synthetic dataset loaded in {}s", (System.nanoTime() - start) / 1_000_000_000);
+  }
+}
@@ -0,0 +1,51 @@
+package com.band.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7Test {
+
+  @Test
+  void idsFromOneJvmStrictlyIncrease() {
+    long before = System.currentTimeMillis();
+    UUID previous = UuidV7.next();
+    // Far more ids than one millisecond's counter holds
+    for (int i = 0; i < 100_000; i++) {
+      UUID id = UuidV7.next();
+      assertThat(id).isGreaterThan(previous);
+      assertThat(id.version()).isEqualTo(7);
+      assertThat(id.variant()).isEqualTo(2);
+      previous = id;
+    }
+    assertThat(UuidV7.timestamp(previous)).isGreaterThanOrEqualTo(before);
+  }
+
+  @Test
+  void exhaustedCounterMovesToTheNextMillisecond() throws Exception {
+    // The last id took the final counter value of a millisecond slightly ahead of the clock
+    long millis = System.currentTimeMillis() + 5;
+    last().set((millis << 12) | 0xFFF);
+
+    UUID id = UuidV7.next();
+
+    assertThat(UuidV7.timestamp(id)).isEqualTo(millis + 1);
+    assertThat(id.getMostSignificantBits() & 0xFFF).isZero();
+  }
+
+  @Test
+  void onlyVersion7IdsHaveATimestamp() {
+    assertThatThrownBy(() -> UuidV7.timestamp(UUID.randomUUID())).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static AtomicLong last() throws Exception {
+    Field field = UuidV7.class.getDeclaredField("LAST");
+    field.setAccessible(true);
+    return (AtomicLong) field.get(null);
+  }
+}
@@ -0,0 +1,31 @@
+package com.band.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointGroupTest {
+
+  @Test
+  void checkoutsAndReturnsShareABudget() {
+    assertThat(EndpointGroup.classify("POST", "/api/assignments/checkout")).isEqualTo(EndpointGroup.CHECKOUT);
+    assertThat(EndpointGroup.classify("POST", "/api/assignments/3f2c/return")).isEqualTo(EndpointGroup.CHECKOUT);
+    assertThat(EndpointGroup.classify("POST", "/api/assignments/3f2c/return/notes")).isEqualTo(EndpointGroup.WRITE);
+    assertThat(EndpointGroup.classify("GET", "/api/assignments/3f2c")).isEqualTo(EndpointGroup.READ);
+  }
+
+  @Test
+  void searchesWhateverTheMethod() {
+    assertThat(EndpointGroup.classify("GET", "/api/equipment/search")).isEqualTo(EndpointGroup.SEARCH);
+    assertThat(EndpointGroup.classify("POST", "/api/equipment/query")).isEqualTo(EndpointGroup.SEARCH);
+  }
+
+  @Test
+  void everythingElseIsReadOrWriteByMethod() {
+    assertThat(EndpointGroup.classify("GET", "/api/equipment")).isEqualTo(EndpointGroup.READ);
+    assertThat(EndpointGroup.classify("HEAD", "/api/equipment")).isEqualTo(EndpointGroup.READ);
+    assertThat(EndpointGroup.classify("PUT", "/api/equipment/3f2c")).isEqualTo(EndpointGroup.WRITE);
+    assertThat(EndpointGroup.classify("DELETE", "/api/equipment/3f2c")).isEqualTo(EndpointGroup.WRITE);
+    assertThat(EndpointGroup.STOMP.key()).isEqualTo("stomp");
+  }
+}
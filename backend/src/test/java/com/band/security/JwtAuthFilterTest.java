@@ -0,0 +1,68 @@
+package com.band.security;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthFilterTest {
+
+  private final JwtService jwtService = mock(JwtService.class);
+  private final JwtAuthFilter filter = new JwtAuthFilter(jwtService,
+      new VerifiedTokenCache(new SimpleMeterRegistry(), 10), mock(TokenRevocationList.class));
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void everyRequestGetsItsOwnAuthentication() throws Exception {
+    when(jwtService.validate("token")).thenReturn(Optional.of(new JWTClaimsSet.Builder()
+        .subject("student@band.app")
+        .claim("role", "Student")
+        .jwtID("jti-1")
+        .claim(JwtService.FAMILY_CLAIM, "family-1")
+        .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+        .build()));
+
+    List<Authentication> seen = new ArrayList<>();
+    List<Boolean> authenticated = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/equipment");
+      request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+      filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        seen.add(authentication);
+        authenticated.add(authentication.isAuthenticated());
+        // What the rest of a request may do to its authentication
+        authentication.setAuthenticated(false);
+      });
+      SecurityContextHolder.clearContext();
+    }
+
+    // Verified once, then served from the cache without sharing the first request's token
+    verify(jwtService, times(1)).validate("token");
+    assertThat(seen.get(1)).isNotSameAs(seen.get(0));
+    assertThat(authenticated).containsExactly(true, true);
+    assertThat(seen.get(1).getName()).isEqualTo("student@band.app");
+    assertThat(seen.get(1).getAuthorities().iterator().next().getAuthority()).isEqualTo("ROLE_STUDENT");
+  }
+}
@@ -0,0 +1,75 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitPolicyTest {
+
+  // Records the budget each check was charged against
+  private final List<String> charged = new ArrayList<>();
+  private final RateLimiter limiter = (key, budget) -> {
+    charged.add(key + "=" + budget.capacity() + "/" + budget.period());
+    return key.startsWith("limited") ? Duration.ofSeconds(3) : Duration.ZERO;
+  };
+
+  @Test
+  void roleBudgetFallsBackToDefaultPerGroup() {
+    RateLimitPolicy policy = policy(new MockEnvironment()
+        .withProperty("app.rate-limit.budgets.default", "read=600/1m,search=60/1m")
+        .withProperty("app.rate-limit.budgets.student", "search=10/1m"));
+
+    policy.check("alice", List.of(new SimpleGrantedAuthority("ROLE_STUDENT")), EndpointGroup.SEARCH);
+    policy.check("alice", List.of(new SimpleGrantedAuthority("ROLE_STUDENT")), EndpointGroup.READ);
+    policy.check("dana", List.of(new SimpleGrantedAuthority("ROLE_BAND_DIRECTOR")), EndpointGroup.SEARCH);
+    // No budget anywhere: not limited
+    policy.check("alice", List.of(new SimpleGrantedAuthority("ROLE_STUDENT")), EndpointGroup.WRITE);
+
+    assertThat(charged).containsExactly("alice|search=10/PT1M", "alice|read=600/PT1M", "dana|search=60/PT1M");
+  }
+
+  @Test
+  void anonymousCallersAreOnlyLimitedByTheirOwnLine() {
+    RateLimitPolicy policy = policy(new MockEnvironment()
+        .withProperty("app.rate-limit.budgets.default", "read=600/1m,write=60/1m")
+        .withProperty("app.rate-limit.budgets.anonymous", "write=5/10s"));
+
+    policy.check("10.0.0.7", List.of(), EndpointGroup.READ);
+    policy.check("10.0.0.7", null, EndpointGroup.WRITE);
+
+    assertThat(charged).containsExactly("10.0.0.7|write=5/PT10S");
+  }
+
+  @Test
+  void waitIsReturnedAndDisabledPolicyChargesNothing() {
+    MockEnvironment environment = new MockEnvironment().withProperty("app.rate-limit.budgets.default", "stomp=1/1m");
+
+    assertThat(policy(environment).check("limited", List.of(new SimpleGrantedAuthority("ROLE_STUDENT")),
+        EndpointGroup.STOMP)).isEqualTo(Duration.ofSeconds(3));
+    charged.clear();
+    assertThat(new RateLimitPolicy(limiter, environment, new SimpleMeterRegistry(), false)
+        .check("limited", List.of(new SimpleGrantedAuthority("ROLE_STUDENT")), EndpointGroup.STOMP)).isZero();
+    assertThat(charged).isEmpty();
+  }
+
+  @Test
+  void malformedBudgetsAreRejected() {
+    for (String spec : new String[] {"search=10", "search=0/1m", "search=10/0s", "uploads=10/1m"}) {
+      assertThatThrownBy(() -> policy(new MockEnvironment().withProperty("app.rate-limit.budgets.student", spec)))
+          .as(spec)
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  private RateLimitPolicy policy(MockEnvironment environment) {
+    return new RateLimitPolicy(limiter, environment, new SimpleMeterRegistry(), true);
+  }
+}
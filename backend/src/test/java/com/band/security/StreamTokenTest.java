@@ -0,0 +1,74 @@
+package com.band.security;
+
+import com.band.support.DatabaseTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class StreamTokenTest extends DatabaseTest {
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void streamTokenOpensDashboardStream() throws Exception {
+    String stream = streamToken(accessToken());
+
+    mvc.perform(get("/api/stream/dashboard/director").param("access_token", stream))
+        .andExpect(request().asyncStarted());
+  }
+
+  @Test
+  void accessTokenIsNotAcceptedInQueryString() throws Exception {
+    mvc.perform(get("/api/stream/dashboard/director").param("access_token", accessToken()))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void streamTokenIsAcceptedNowhereElse() throws Exception {
+    String stream = streamToken(accessToken());
+
+    mvc.perform(get("/api/v1/tasks").header(HttpHeaders.AUTHORIZATION, "Bearer " + stream))
+        .andExpect(status().isUnauthorized());
+    mvc.perform(get("/api/v1/tasks").param("access_token", stream))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void logoutEndsStreamTokens() throws Exception {
+    String access = accessToken();
+    String stream = streamToken(access);
+
+    mvc.perform(post("/api/v1/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + access))
+        .andExpect(status().isNoContent());
+
+    mvc.perform(get("/api/stream/dashboard/director").param("access_token", stream))
+        .andExpect(status().isUnauthorized());
+  }
+
+  private String accessToken() {
+    return jwtService.issue("director@band.app", "BAND_DIRECTOR").accessToken();
+  }
+
+  private String streamToken(String access) throws Exception {
+    String body = mvc.perform(post("/api/v1/auth/stream-token").header(HttpHeaders.AUTHORIZATION, "Bearer " + access))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(body).get("token").asText();
+  }
+}
@@ -0,0 +1,54 @@
+package com.band.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedTokenBucketsTest {
+
+  private static final RateLimiter.Budget TWO_PER_200MS = new RateLimiter.Budget(2, Duration.ofMillis(200));
+  private static final RateLimiter.Budget ONE_PER_200MS = new RateLimiter.Budget(1, Duration.ofMillis(200));
+
+  @Test
+  void emptyBucketReportsWhenTheNextTokenArrives() throws Exception {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(4, 100);
+
+    assertThat(buckets.tryAcquire("student|checkout", TWO_PER_200MS)).isZero();
+    assertThat(buckets.tryAcquire("student|checkout", TWO_PER_200MS)).isZero();
+    Duration retryAfter = buckets.tryAcquire("student|checkout", TWO_PER_200MS);
+    // One token every 100ms
+    assertThat(retryAfter).isPositive().isLessThanOrEqualTo(Duration.ofMillis(100));
+    // Other keys have their own buckets
+    assertThat(buckets.tryAcquire("director|checkout", TWO_PER_200MS)).isZero();
+
+    Thread.sleep(retryAfter.toMillis() + 5);
+    assertThat(buckets.tryAcquire("student|checkout", TWO_PER_200MS)).isZero();
+    assertThat(buckets.tryAcquire("student|checkout", TWO_PER_200MS)).isPositive();
+  }
+
+  @Test
+  void fullStripeDropsRefilledBucketsFirst() throws Exception {
+    // One-character keys with odd codes share a stripe
+    StripedTokenBuckets buckets = new StripedTokenBuckets(2, 2);
+    buckets.tryAcquire("a", ONE_PER_200MS);
+    Thread.sleep(250);
+    buckets.tryAcquire("e", ONE_PER_200MS);
+
+    // a has refilled and makes room; e is still empty and stays
+    assertThat(buckets.tryAcquire("c", ONE_PER_200MS)).isZero();
+    assertThat(buckets.tryAcquire("e", ONE_PER_200MS)).isPositive();
+  }
+
+  @Test
+  void stripeOfEmptyBucketsStartsOver() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(2, 2);
+    buckets.tryAcquire("a", ONE_PER_200MS);
+    buckets.tryAcquire("e", ONE_PER_200MS);
+
+    assertThat(buckets.tryAcquire("c", ONE_PER_200MS)).isZero();
+    // Forgotten, so a starts full again
+    assertThat(buckets.tryAcquire("a", ONE_PER_200MS)).isZero();
+  }
+}
@@ -0,0 +1,73 @@
+package com.band.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void expiredTokensAreMissesAndDropped() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 10);
+    cache.put("live", entry("live", Instant.now().plus(Duration.ofMinutes(5))));
+    cache.put("expired", entry("expired", Instant.now().minusSeconds(1)));
+
+    assertThat(cache.get("live").jti()).isEqualTo("live");
+    assertThat(cache.get("expired")).isNull();
+    assertThat(cache.get("unknown")).isNull();
+    assertThat(size()).isEqualTo(1);
+    assertThat(meterRegistry.get("band.jwt.cache").tag("result", "miss").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void fullCachePurgesExpiredTokensBeforeLiveOnes() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 10);
+    for (int i = 0; i < 5; i++) {
+      cache.put("expired-" + i, entry("expired-" + i, Instant.now().minusSeconds(1)));
+      cache.put("live-" + i, entry("live-" + i, Instant.now().plus(Duration.ofMinutes(5))));
+    }
+
+    cache.put("new", entry("new", Instant.now().plus(Duration.ofMinutes(5))));
+
+    assertThat(size()).isEqualTo(6);
+    for (int i = 0; i < 5; i++) {
+      assertThat(cache.get("live-" + i)).isNotNull();
+    }
+  }
+
+  @Test
+  void cacheFullOfLiveTokensShedsATenth() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 10);
+    for (int i = 0; i < 10; i++) {
+      cache.put("live-" + i, entry("live-" + i, Instant.now().plus(Duration.ofMinutes(5))));
+    }
+
+    cache.put("new", entry("new", Instant.now().plus(Duration.ofMinutes(5))));
+
+    assertThat(size()).isEqualTo(10);
+    assertThat(cache.get("new")).isNotNull();
+  }
+
+  @Test
+  void zeroEntriesDisablesTheCache() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 0);
+    cache.put("live", entry("live", Instant.now().plus(Duration.ofMinutes(5))));
+
+    assertThat(cache.get("live")).isNull();
+  }
+
+  private double size() {
+    return meterRegistry.get("band.jwt.cache.size").gauge().value();
+  }
+
+  private static VerifiedTokenCache.Entry entry(String jti, Instant expiresAt) {
+    return new VerifiedTokenCache.Entry("student@band.app", "Student", jti, "family-" + jti, expiresAt);
+  }
+}
@@ -0,0 +1,114 @@
+package com.band.service;
+
+import com.band.domain.Equipment;
+import com.band.domain.Equipment.EquipmentCategory;
+import com.band.domain.Equipment.EquipmentStatus;
+import com.band.domain.Location.LocationType;
+import com.band.support.DatabaseTest;
+import com.band.web.dto.LocationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationServiceTest extends DatabaseTest {
+
+  @Autowired
+  private LocationService locationService;
+
+  @Autowired
+  private EquipmentService equipmentService;
+
+  private LocationDto.Node building;
+  private LocationDto.Node roomA;
+  private LocationDto.Node shelfA;
+  private LocationDto.Node roomB;
+
+  @BeforeEach
+  void tree() {
+    building = locationService.createLocation(null, "Building " + UUID.randomUUID(), LocationType.BUILDING);
+    roomA = locationService.createLocation(building.getId(), "Room A", LocationType.ROOM);
+    shelfA = locationService.createLocation(roomA.getId(), "Shelf 1", LocationType.SHELF);
+    roomB = locationService.createLocation(building.getId(), "Room B", LocationType.ROOM);
+  }
+
+  @Test
+  void subtreeCountsSumTheLocationsBelow() {
+    Equipment trumpet = place(shelfA);
+    place(shelfA);
+    place(roomB);
+    equipmentService.updateEquipmentStatus(trumpet.getId(), EquipmentStatus.CHECKED_OUT);
+
+    assertThat(locationService.getSubtreeStatusCounts(building.getId()))
+        .isEqualTo(Map.of(EquipmentStatus.AVAILABLE, 2L, EquipmentStatus.CHECKED_OUT, 1L));
+    assertThat(locationService.getSubtreeStatusCounts(roomA.getId()))
+        .isEqualTo(Map.of(EquipmentStatus.AVAILABLE, 1L, EquipmentStatus.CHECKED_OUT, 1L));
+    assertThat(locationService.getSubtreeStatusCounts(roomB.getId()))
+        .isEqualTo(Map.of(EquipmentStatus.AVAILABLE, 1L));
+  }
+
+  @Test
+  void movedSubtreeTakesItsEquipmentAlong() {
+    place(shelfA);
+
+    locationService.moveLocation(shelfA.getId(), roomB.getId());
+
+    assertThat(locationService.getSubtreeStatusCounts(roomA.getId())).isEmpty();
+    assertThat(locationService.getSubtreeStatusCounts(roomB.getId())).isEqualTo(Map.of(EquipmentStatus.AVAILABLE, 1L));
+    assertThat(locationService.getSubtreeStatusCounts(building.getId())).isEqualTo(Map.of(EquipmentStatus.AVAILABLE, 1L));
+  }
+
+  @Test
+  void locationTextIsThePathOfThePlacement() {
+    Equipment equipment = place(shelfA);
+    assertThat(equipment.getLocation()).isEqualTo(building.getName() + " > Room A > Shelf 1");
+
+    // A client that only knows the free-text field keeps the placement
+    equipment.setLocationId(null);
+    equipment.setNotes("Valve oil");
+    Equipment saved = equipmentService.saveEquipment(equipment);
+    assertThat(saved.getLocationId()).isEqualTo(shelfA.getId());
+    assertThat(saved.getLocation()).isEqualTo(shelfA.getPath());
+
+    // Text that is not a location path is ignored rather than rejected
+    saved.setLocationId(null);
+    saved.setLocation("Band Room");
+    saved = equipmentService.saveEquipment(saved);
+    assertThat(saved.getLocationId()).isEqualTo(shelfA.getId());
+    assertThat(saved.getLocation()).isEqualTo(shelfA.getPath());
+
+    // Text naming another location's path moves the equipment there
+    saved.setLocationId(null);
+    saved.setLocation(roomB.getPath());
+    saved = equipmentService.saveEquipment(saved);
+    assertThat(saved.getLocationId()).isEqualTo(roomB.getId());
+    assertThat(locationService.getSubtreeStatusCounts(roomB.getId())).isEqualTo(Map.of(EquipmentStatus.AVAILABLE, 1L));
+  }
+
+  @Test
+  void sameNamedShelvesKeepDistinctText() {
+    LocationDto.Node shelfB = locationService.createLocation(roomB.getId(), "Shelf 1", LocationType.SHELF);
+
+    assertThat(place(shelfA).getLocation()).isNotEqualTo(place(shelfB).getLocation());
+  }
+
+  @Test
+  void movingALocationRewritesTheTextBelowIt() {
+    Equipment equipment = place(shelfA);
+
+    locationService.moveLocation(shelfA.getId(), roomB.getId());
+
+    assertThat(equipmentService.findById(equipment.getId()).orElseThrow().getLocation())
+        .isEqualTo(building.getName() + " > Room B > Shelf 1");
+  }
+
+  private Equipment place(LocationDto.Node location) {
+    Equipment equipment = equipmentService.saveEquipment(
+        new Equipment("LOC-" + UUID.randomUUID(), "Bach", "Stradivarius", EquipmentCategory.BRASS));
+    return locationService.placeEquipment(equipment.getId(), location.getId());
+  }
+}
@@ -0,0 +1,127 @@
+package com.band.service;
+
+import com.band.domain.Equipment.EquipmentCondition;
+import com.band.domain.EquipmentAssignment;
+import com.band.domain.EquipmentAssignment.AssignmentStatus;
+import com.band.support.DatabaseTest;
+import com.band.support.StatementBudget;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the fetch plans of the paths that read an association on every row.
+ * Each budget is the statement count of the current plan over more rows than
+ * that, so any lazy load, batched or not, fails the test.
+ */
+@Import(StatementBudget.class)
+class StatementBudgetTest extends DatabaseTest {
+
+  private static final int ROWS = 12;
+
+  @Autowired
+  private StatementBudget budget;
+
+  @Autowired
+  private EquipmentAssignmentService assignmentService;
+
+  @Autowired
+  private DashboardService dashboardService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  private UUID studentId;
+  private List<UUID> assignmentIds;
+
+  @BeforeEach
+  void assignmentsWithDistinctEquipment() {
+    studentId = user("Student");
+    assignmentIds = new ArrayList<>();
+    Instant now = Instant.now();
+    for (int i = 0; i < ROWS; i++) {
+      UUID equipmentId = UUID.randomUUID();
+      jdbc.update("INSERT INTO equipment (id, qr_code, make, model, category, condition, status, assigned_to_id) "
+              + "VALUES (?, ?, 'Yamaha', 'YTR-2330', 'BRASS', 'GOOD', 'CHECKED_OUT', ?)",
+          equipmentId, "BUDGET-" + UUID.randomUUID(), studentId);
+      UUID assignmentId = UUID.randomUUID();
+      // Half are overdue, half due within the week
+      Instant due = now.plus(i % 2 == 0 ? -2 : 5, ChronoUnit.DAYS);
+      jdbc.update("INSERT INTO equipment_assignments (id, student_id, equipment_id, checkout_date, expected_return_date, "
+              + "status, checkout_condition) VALUES (?, ?, ?, ?, ?, 'CHECKED_OUT', 'GOOD')",
+          assignmentId, studentId, equipmentId, Timestamp.from(now.minus(7, ChronoUnit.DAYS)), Timestamp.from(due));
+      assignmentIds.add(assignmentId);
+    }
+    // Cached entities would hide lazy loads from the inspector
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void overdueNotificationsLoadStudentsAndEquipmentWithTheAssignments() {
+    try (StatementBudget.Scope scope = budget.open("sendOverdueNotifications", 1)) {
+      assignmentService.sendOverdueNotifications();
+    }
+  }
+
+  @Test
+  void studentDashboardDoesNotLoadEquipmentPerAssignment() {
+    try (StatementBudget.Scope scope = budget.open("getStudentDashboard", 8)) {
+      assertThat(dashboardService.getStudentDashboard(studentId).getMyEquipment()).hasSize(ROWS);
+    }
+  }
+
+  @Test
+  void staffDashboardsStayWithinBudget() {
+    try (StatementBudget.Scope scope = budget.open("getDirectorDashboard", 5)) {
+      dashboardService.getDirectorDashboard();
+    }
+    try (StatementBudget.Scope scope = budget.open("getEquipmentManagerDashboard", 2)) {
+      dashboardService.getEquipmentManagerDashboard();
+    }
+    try (StatementBudget.Scope scope = budget.open("getSupervisorDashboard", 2)) {
+      dashboardService.getSupervisorDashboard();
+    }
+  }
+
+  @Test
+  void returnAndApprovalLoadTheAssignmentOnce() {
+    UUID assignmentId = assignmentIds.get(0);
+    UUID approverId = user("Band Director");
+    entityManagerFactory.getCache().evictAll();
+
+    EquipmentAssignment returned;
+    try (StatementBudget.Scope scope = budget.open("returnEquipment", 3)) {
+      returned = assignmentService.returnEquipment(assignmentId, EquipmentCondition.FAIR, "Dent on the bell", approverId);
+    }
+    assertThat(returned.getStatus()).isEqualTo(AssignmentStatus.PENDING_RETURN);
+    // Broadcast after the transaction, so both must already be loaded
+    assertThat(returned.getStudent().getEmail()).isNotNull();
+    assertThat(returned.getEquipment().getQrCode()).startsWith("BUDGET-");
+
+    try (StatementBudget.Scope scope = budget.open("approveReturn", 4)) {
+      assignmentService.approveReturn(assignmentId, approverId, "Repaired");
+    }
+  }
+
+  private UUID user(String role) {
+    UUID id = UUID.randomUUID();
+    jdbc.update("INSERT INTO users (id, email, password, name, role) VALUES (?, ?, '-', 'Budget User', ?)",
+        id, "budget-" + id + "@example.test", role);
+    return id;
+  }
+}
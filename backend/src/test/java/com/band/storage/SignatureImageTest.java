@@ -0,0 +1,67 @@
+package com.band.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SignatureImageTest {
+
+  private static final byte[] PNG_BYTES = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0};
+  private static final String SVG_MARKUP = "<svg xmlns=\"http://www.w3.org/2000/svg\"><path d=\"M0 0L10 10\"/></svg>";
+
+  @Test
+  void dataUrlsKeepPngAndSvgTypes() {
+    SignatureImage png = SignatureImage.decode("data:image/png;base64," + base64(PNG_BYTES), "SVG");
+    assertThat(png.bytes()).isEqualTo(PNG_BYTES);
+    assertThat(png.contentType()).isEqualTo("image/png");
+
+    SignatureImage svg = SignatureImage.decode("data:IMAGE/SVG+XML;charset=utf-8," + SVG_MARKUP, null);
+    assertThat(svg.bytes()).isEqualTo(SVG_MARKUP.getBytes(StandardCharsets.UTF_8));
+    assertThat(svg.contentType()).isEqualTo("image/svg+xml");
+  }
+
+  @Test
+  void anyOtherClaimedTypeIsOctetStream() {
+    String script = "<script>alert(document.cookie)</script>";
+    assertThat(SignatureImage.decode("data:text/html;base64," + base64(script.getBytes(StandardCharsets.UTF_8)), "PNG")
+        .contentType()).isEqualTo("application/octet-stream");
+    assertThat(SignatureImage.decode("data:text/html," + script, null).contentType()).isEqualTo("application/octet-stream");
+    assertThat(SignatureImage.decode("data:application/xhtml+xml," + script, null).contentType())
+        .isEqualTo("application/octet-stream");
+    assertThat(SignatureImage.decode(base64("{\"paths\":[]}".getBytes(StandardCharsets.UTF_8)), "JSON").contentType())
+        .isEqualTo("application/octet-stream");
+    assertThat(new SignatureImage(PNG_BYTES, "text/html; charset=utf-8").contentType()).isEqualTo("application/octet-stream");
+  }
+
+  @Test
+  void inlineMarkupAndBareBase64() {
+    assertThat(SignatureImage.decode("  " + SVG_MARKUP + "\n", null).contentType()).isEqualTo("image/svg+xml");
+    assertThat(SignatureImage.decode(base64(PNG_BYTES), "PNG").contentType()).isEqualTo("image/png");
+    // Sniffed when there is no format
+    assertThat(SignatureImage.decode(base64(PNG_BYTES), null).contentType()).isEqualTo("image/png");
+    assertThat(SignatureImage.decode(base64(new byte[] {1, 2, 3}), null).contentType()).isEqualTo("application/octet-stream");
+  }
+
+  @Test
+  void malformedDataUrlIsRejected() {
+    assertThatThrownBy(() -> SignatureImage.decode("data:image/png;base64", null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void keyIsTheSha256OfTheBytesWhateverTheEncoding() throws Exception {
+    String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PNG_BYTES));
+
+    assertThat(SignatureImage.decode("data:image/png;base64," + base64(PNG_BYTES), null).key()).isEqualTo(expected);
+    assertThat(SignatureImage.decode(base64(PNG_BYTES), "PNG").key()).isEqualTo(expected).matches("[0-9a-f]{64}");
+  }
+
+  private static String base64(byte[] bytes) {
+    return Base64.getEncoder().encodeToString(bytes);
+  }
+}
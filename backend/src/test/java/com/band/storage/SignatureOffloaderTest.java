@@ -0,0 +1,98 @@
+package com.band.storage;
+
+import com.band.security.JwtService;
+import com.band.support.DatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "app.signatures.store=filesystem",
+    "app.signatures.filesystem.root=target/test-signatures",
+    "app.signatures.offload.enabled=false"})
+class SignatureOffloaderTest extends DatabaseTest {
+
+  @Autowired
+  private SignatureOffloader offloader;
+
+  @Autowired
+  private SignatureStore store;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Test
+  void inlineImageIsStoredUnderItsKeyAndClearedFromTheRow() throws Exception {
+    // Unique bytes, so the store really writes them
+    byte[] png = ("\u0089PNG\r\n\u001a\n" + UUID.randomUUID()).getBytes(StandardCharsets.ISO_8859_1);
+    UUID id = signature("data:image/png;base64," + Base64.getEncoder().encodeToString(png), "PNG");
+
+    String key = offloader.offloadSignature(id);
+
+    assertThat(key).isEqualTo(new SignatureImage(png, "image/png").key());
+    SignatureStore.StoredImage stored = store.open(key);
+    try (InputStream in = stored.content()) {
+      assertThat(in.readAllBytes()).isEqualTo(png);
+    }
+    assertThat(stored.contentType()).isEqualTo("image/png");
+    assertThat(stored.length()).isEqualTo(png.length);
+    assertThat(jdbc.queryForMap("SELECT signature_data, signature_hash FROM digital_signatures WHERE id = ?", id))
+        .containsEntry("signature_data", null)
+        .containsEntry("signature_hash", key);
+    // Nothing left inline: the stored key is returned
+    assertThat(offloader.offloadSignature(id)).isEqualTo(key);
+  }
+
+  @Test
+  void submittedMarkupIsServedAsSandboxedBytes() throws Exception {
+    String html = "<script>alert(document.cookie)</script><!-- " + UUID.randomUUID() + " -->";
+    UUID id = signature("data:text/html," + html, "SVG");
+    String access = jwtService.issue("director@band.app", "BAND_DIRECTOR").accessToken();
+
+    // Offloaded on first read
+    MvcResult started = mvc.perform(get("/api/signatures/" + id + "/image").header(HttpHeaders.AUTHORIZATION, "Bearer " + access))
+        .andReturn();
+    MvcResult result = mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    String key = jdbc.queryForObject("SELECT signature_hash FROM digital_signatures WHERE id = ?", String.class, id);
+    assertThat(result.getResponse().getContentType()).isEqualTo("application/octet-stream");
+    assertThat(result.getResponse().getHeader("Content-Security-Policy")).isEqualTo("sandbox");
+    assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION))
+        .isEqualTo("inline; filename=\"" + key + ".bin\"");
+    assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).isEqualTo(html);
+  }
+
+  private UUID signature(String data, String format) {
+    UUID userId = UUID.randomUUID();
+    jdbc.update("INSERT INTO users (id, email, password, name, role) VALUES (?, ?, '-', 'Signature User', 'Student')",
+        userId, "signature-" + userId + "@example.test");
+    UUID id = UUID.randomUUID();
+    jdbc.update("INSERT INTO digital_signatures (id, user_id, signature_data, signature_format) VALUES (?, ?, ?, ?)",
+        id, userId, data, format);
+    return id;
+  }
+}
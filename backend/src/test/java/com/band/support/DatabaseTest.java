@@ -0,0 +1,19 @@
+package com.band.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/** Base for tests that boot the application against {@link TestDatabase}. */
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(TestDatabase.Condition.class)
+public abstract class DatabaseTest {
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) {
+    TestDatabase.register(registry);
+  }
+}
@@ -0,0 +1,86 @@
+package com.band.support;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * N+1 detector for integration tests: counts the SQL statements Hibernate
+ * prepares inside a scope, and fails the one that goes over the scope's
+ * budget with the statement repeated most. A lazy association walked row by
+ * row shows up as one statement repeated once per row.
+ *
+ * <p>Import it into a {@link DatabaseTest}; it registers itself as
+ * Hibernate's statement inspector, which also sees lazy loads.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementBudget implements StatementInspector {
+
+  private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+  @Bean
+  HibernatePropertiesCustomizer statementBudgetInspector() {
+    return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+  }
+
+  /** Starts counting on this thread; closing the scope stops. */
+  public Scope open(String name, int maxStatements) {
+    if (CURRENT.get() != null) {
+      throw new IllegalStateException("A statement budget is already open: " + CURRENT.get().name);
+    }
+    Scope scope = new Scope(name, maxStatements);
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  @Override
+  public String inspect(String sql) {
+    Scope scope = CURRENT.get();
+    if (scope != null) {
+      scope.count(sql);
+    }
+    return sql;
+  }
+
+  public static final class Scope implements AutoCloseable {
+    private final String name;
+    private final int maxStatements;
+    private final Map<String, Integer> repeats = new HashMap<>();
+    private int count;
+
+    private Scope(String name, int maxStatements) {
+      this.name = name;
+      this.maxStatements = maxStatements;
+    }
+
+    public int count() {
+      return count;
+    }
+
+    private void count(String sql) {
+      count++;
+      repeats.merge(sql, 1, Integer::sum);
+      if (count > maxStatements) {
+        throw new IllegalStateException(report());
+      }
+    }
+
+    private String report() {
+      Map.Entry<String, Integer> top = repeats.entrySet().stream()
+          .max(Map.Entry.comparingByValue())
+          .orElseThrow();
+      return String.format("%s issued %d statements (budget %d); repeated %d times: %s",
+          name, count, maxStatements, top.getValue(), top.getKey());
+    }
+
+    @Override
+    public void close() {
+      CURRENT.remove();
+    }
+  }
+}
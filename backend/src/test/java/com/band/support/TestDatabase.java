@@ -0,0 +1,57 @@
+package com.band.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The PostgreSQL database integration tests run against: a Testcontainers
+ * container shared by every test class, or, where Docker is not available,
+ * the scratch database named by {@code TEST_DATABASE_URL} (with
+ * {@code TEST_DATABASE_USERNAME} and {@code TEST_DATABASE_PASSWORD}).
+ * Tests are skipped when there is neither.
+ */
+public final class TestDatabase {
+
+  private static final String URL = System.getenv("TEST_DATABASE_URL");
+
+  private static PostgreSQLContainer<?> container;
+
+  private TestDatabase() {
+  }
+
+  /** Skips the test class when there is no database to run it against. */
+  public static final class Condition implements ExecutionCondition {
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+      return URL != null || DockerClientFactory.instance().isDockerAvailable()
+          ? ConditionEvaluationResult.enabled("Database available")
+          : ConditionEvaluationResult.disabled("Neither Docker nor TEST_DATABASE_URL is available");
+    }
+  }
+
+  public static void register(DynamicPropertyRegistry registry) {
+    if (URL != null) {
+      registry.add("spring.datasource.url", () -> URL);
+      registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("TEST_DATABASE_USERNAME", "band"));
+      registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("TEST_DATABASE_PASSWORD", "bandpass"));
+      return;
+    }
+    PostgreSQLContainer<?> postgres = container();
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  // Started once and left to Testcontainers' reaper, so cached contexts keep their database
+  private static synchronized PostgreSQLContainer<?> container() {
+    if (container == null) {
+      container = new PostgreSQLContainer<>("postgres:15-alpine");
+      container.start();
+    }
+    return container;
+  }
+}
@@ -0,0 +1,47 @@
+package com.band.web;
+
+import com.band.security.JwtService;
+import com.band.support.DatabaseTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class EquipmentIndexRebuildTest extends DatabaseTest {
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Test
+  void rebuildIsAPostForDirectorsOnly() throws Exception {
+    mvc.perform(post("/api/equipment/index/rebuild").header(HttpHeaders.AUTHORIZATION, bearer("BAND_DIRECTOR")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.consistent").value(true));
+
+    mvc.perform(post("/api/equipment/index/rebuild").header(HttpHeaders.AUTHORIZATION, bearer("EQUIPMENT_MANAGER")))
+        .andExpect(status().isForbidden());
+    mvc.perform(get("/api/equipment/index/rebuild").header(HttpHeaders.AUTHORIZATION, bearer("BAND_DIRECTOR")))
+        .andExpect(status().is4xxClientError());
+  }
+
+  @Test
+  void verifyOnlyReads() throws Exception {
+    mvc.perform(get("/api/equipment/index/verify").header(HttpHeaders.AUTHORIZATION, bearer("EQUIPMENT_MANAGER")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.indexedRows").isNumber());
+  }
+
+  private String bearer(String role) {
+    return "Bearer " + jwtService.issue(role.toLowerCase() + "@band.app", role).accessToken();
+  }
+}
@@ -0,0 +1,139 @@
+package com.band.web;
+
+import com.band.security.JwtService;
+import com.band.support.DatabaseTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class RefreshCookieTest extends DatabaseTest {
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Test
+  void loginKeepsTheRefreshTokenOutOfTheBody() throws Exception {
+    MvcResult result = login(user(), false);
+
+    assertThat(result.getResponse().getCookie(Controllers.REFRESH_COOKIE)).isNotNull();
+    assertThat(objectMapper.readTree(result.getResponse().getContentAsString()).has("refreshToken")).isFalse();
+  }
+
+  @Test
+  void clientsWithoutCookiesOptInToTheBody() throws Exception {
+    MvcResult result = login(user(), true);
+
+    assertThat(result.getResponse().getCookie(Controllers.REFRESH_COOKIE)).isNull();
+    String refresh = objectMapper.readTree(result.getResponse().getContentAsString()).get("refreshToken").asText();
+
+    MvcResult refreshed = mvc.perform(post("/api/v1/auth/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"refreshToken\":\"" + refresh + "\"}"))
+        .andExpect(status().isOk())
+        .andReturn();
+    assertThat(refreshed.getResponse().getCookie(Controllers.REFRESH_COOKIE)).isNull();
+    assertThat(objectMapper.readTree(refreshed.getResponse().getContentAsString()).get("refreshToken").asText())
+        .isNotEmpty().isNotEqualTo(refresh);
+  }
+
+  @Test
+  void onlyConfiguredOriginsGetCredentialedCors() throws Exception {
+    mvc.perform(options("/api/v1/auth/refresh")
+            .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+            .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST"))
+        .andExpect(status().isOk())
+        .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN))
+            .isEqualTo("http://localhost:3000"));
+
+    mvc.perform(options("/api/v1/auth/refresh")
+            .header(HttpHeaders.ORIGIN, "http://localhost:8081")
+            .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void refreshWithCookieRotatesTheCookie() throws Exception {
+    String refresh = jwtService.issue("director@band.app", "BAND_DIRECTOR").refreshToken();
+
+    MvcResult result = mvc.perform(post("/api/v1/auth/refresh").cookie(new Cookie(Controllers.REFRESH_COOKIE, refresh)))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    Cookie rotated = result.getResponse().getCookie(Controllers.REFRESH_COOKIE);
+    assertThat(rotated).isNotNull();
+    assertThat(rotated.isHttpOnly()).isTrue();
+    assertThat(rotated.getValue()).isNotEmpty().isNotEqualTo(refresh);
+    assertThat(rotated.getPath()).isEqualTo("/api/v1/auth");
+
+    String access = objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    mvc.perform(get("/api/v1/tasks").header(HttpHeaders.AUTHORIZATION, "Bearer " + access))
+        .andExpect(status().isOk());
+
+    // Single use: the old cookie no longer works, and is cleared
+    MvcResult reused = mvc.perform(post("/api/v1/auth/refresh").cookie(new Cookie(Controllers.REFRESH_COOKIE, refresh)))
+        .andExpect(status().isUnauthorized())
+        .andReturn();
+    assertThat(reused.getResponse().getCookie(Controllers.REFRESH_COOKIE).getMaxAge()).isZero();
+  }
+
+  @Test
+  void logoutClearsTheCookie() throws Exception {
+    String access = jwtService.issue("director@band.app", "BAND_DIRECTOR").accessToken();
+
+    MvcResult result = mvc.perform(post("/api/v1/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + access))
+        .andExpect(status().isNoContent())
+        .andReturn();
+
+    assertThat(result.getResponse().getCookie(Controllers.REFRESH_COOKIE).getMaxAge()).isZero();
+  }
+
+  @Test
+  void missingTokenIsUnauthorized() throws Exception {
+    mvc.perform(get("/api/v1/tasks")).andExpect(status().isUnauthorized());
+  }
+
+  private String user() {
+    String email = "cookie-" + UUID.randomUUID() + "@example.test";
+    jdbc.update("INSERT INTO users (id, email, password, name, role) VALUES (?, ?, ?, 'Cookie User', 'Student')",
+        UUID.randomUUID(), email, passwordEncoder.encode("secret"));
+    return email;
+  }
+
+  private MvcResult login(String email, boolean refreshTokenInBody) throws Exception {
+    MvcResult started = mvc.perform(post("/api/v1/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"" + email + "\",\"password\":\"secret\",\"refreshTokenInBody\":" + refreshTokenInBody + "}"))
+        .andReturn();
+    return mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+  }
+}
@@ -0,0 +1,55 @@
+package com.band.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ChannelExecutionTest {
+
+    private final ChannelExecution execution = new ChannelExecution(new SimpleMeterRegistry(),
+        mock(SimpMessagingTemplate.class), true, 1, Duration.ofMillis(10));
+    private final ExecutorChannelInterceptor permits = execution.databasePermitInterceptor();
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final SimpAnnotationMethodMessageHandler handler = new SimpAnnotationMethodMessageHandler(
+        mock(SubscribableChannel.class), channel, mock(SimpMessagingTemplate.class));
+
+    @Test
+    void onlyApplicationDestinationsTakeAPermit() {
+        handler.setDestinationPrefixes(List.of("/app"));
+
+        // Broker subscriptions and sends to broker destinations pass without the only permit
+        for (int i = 0; i < 3; i++) {
+            assertThat(permits.beforeHandle(frame(SimpMessageType.SUBSCRIBE, "/topic/equipment"), channel, handler)).isNotNull();
+            assertThat(permits.beforeHandle(frame(SimpMessageType.MESSAGE, "/topic/equipment"), channel, handler)).isNotNull();
+        }
+
+        Message<?> send = frame(SimpMessageType.MESSAGE, "/app/equipment/checkout");
+        assertThat(permits.beforeHandle(send, channel, handler)).isNotNull();
+        // The permit is taken: a @SubscribeMapping subscription has to wait, and times out
+        assertThat(permits.beforeHandle(frame(SimpMessageType.SUBSCRIBE, "/app/equipment"), channel, handler)).isNull();
+
+        permits.afterMessageHandled(send, channel, handler, null);
+        assertThat(permits.beforeHandle(frame(SimpMessageType.SUBSCRIBE, "/app/equipment"), channel, handler)).isNotNull();
+    }
+
+    private static Message<?> frame(SimpMessageType type, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId("s1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
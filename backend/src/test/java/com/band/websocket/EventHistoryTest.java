@@ -0,0 +1,68 @@
+package com.band.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventHistoryTest {
+
+    private static final String TOPIC = "/topic/equipment/updates";
+
+    @Test
+    void replaysEventsAfterLastSeq() {
+        LocalBroadcastRelay relay = new LocalBroadcastRelay();
+        EventHistory history = new EventHistory(relay, 16);
+        long first = broadcast(relay, history);
+        long second = broadcast(relay, history);
+
+        EventHistory.Replay replay = history.replaySince(TOPIC, first);
+
+        assertThat(replay.resyncRequired()).isFalse();
+        assertThat(replay.events()).extracting(StompBroadcaster.EncodedPayload::getSeq).containsExactly(second);
+    }
+
+    @Test
+    void sequenceFromBeforeRestartRequiresResync() throws InterruptedException {
+        LocalBroadcastRelay before = new LocalBroadcastRelay();
+        long lastSeen = 0;
+        for (int i = 0; i < 5; i++) {
+            lastSeen = before.nextSequence();
+        }
+
+        // A restart takes far longer than the clock needs to pass the old numbering
+        while (BroadcastRelay.clockFloor() <= lastSeen) {
+            Thread.sleep(1);
+        }
+        LocalBroadcastRelay after = new LocalBroadcastRelay();
+        EventHistory history = new EventHistory(after, 16);
+        for (int i = 0; i < 10; i++) {
+            assertThat(broadcast(after, history)).isGreaterThan(lastSeen);
+        }
+
+        assertThat(history.replaySince(TOPIC, lastSeen).resyncRequired()).isTrue();
+        assertThat(history.replaySinceUnder("/topic/", lastSeen).resyncRequired()).isTrue();
+    }
+
+    @Test
+    void sequenceKeepsIncreasingWithinOneClockTick() {
+        LocalBroadcastRelay relay = new LocalBroadcastRelay();
+        long previous = relay.nextSequence();
+        for (int i = 0; i < 10_000; i++) {
+            long next = relay.nextSequence();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    private static long broadcast(BroadcastRelay relay, EventHistory history) {
+        long seq = relay.nextSequence();
+        StompBroadcaster.EncodedPayload payload = mock(StompBroadcaster.EncodedPayload.class);
+        when(payload.getSeq()).thenReturn(seq);
+        history.onBroadcast(payload, List.of(TOPIC));
+        return seq;
+    }
+}
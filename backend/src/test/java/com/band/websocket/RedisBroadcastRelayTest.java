@@ -0,0 +1,95 @@
+package com.band.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisBroadcastRelayTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hashes = mock(HashOperations.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final StompBroadcaster.EncodedPayload payload = mock(StompBroadcaster.EncodedPayload.class);
+
+    private RedisBroadcastRelay relay;
+
+    @BeforeEach
+    void relay() {
+        when(redis.<Object, Object>opsForHash()).thenReturn(hashes);
+        when(redis.opsForValue()).thenReturn(values);
+        when(payload.bytes(WireFormat.FULL)).thenReturn("{}".getBytes(StandardCharsets.UTF_8));
+        relay = new RedisBroadcastRelay(redis, mock(RedisMessageListenerContainer.class), new ObjectMapper(),
+            new SimpleMeterRegistry(), "node-a", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void stop() {
+        relay.removePresence();
+    }
+
+    @Test
+    void userMessageSurvivesRedisOutage() {
+        when(hashes.keys("band:ws:user-nodes:student@band.app"))
+            .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        assertThatCode(() -> relay.publishToUser(payload, "student@band.app", "/queue/updates"))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    void crashedNodePresenceIsSkippedAndRemoved() {
+        when(hashes.keys("band:ws:user-nodes:student@band.app")).thenReturn(Set.of("node-a", "node-b", "node-c"));
+        when(redis.hasKey("band:ws:node-alive:node-b")).thenReturn(true);
+        when(redis.hasKey("band:ws:node-alive:node-c")).thenReturn(false);
+
+        relay.publishToUser(payload, "student@band.app", "/queue/updates");
+
+        verify(redis).convertAndSend(eq("band:ws:node:node-b"), anyString());
+        verify(redis, never()).convertAndSend(eq("band:ws:node:node-c"), anyString());
+        verify(hashes).delete("band:ws:user-nodes:student@band.app", "node-c");
+    }
+
+    @Test
+    void sequenceStartsAtClockFloorWithoutSharedKey() {
+        long floor = BroadcastRelay.clockFloor();
+        when(values.get("band:ws:seq")).thenReturn(null);
+
+        assertThat(relay.currentSequence()).isGreaterThanOrEqualTo(floor);
+    }
+
+    @Test
+    void sequenceFallsBackToClockFloorDuringOutage() {
+        long floor = BroadcastRelay.clockFloor();
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        long first = relay.nextSequence();
+        assertThat(first).isGreaterThanOrEqualTo(floor);
+        assertThat(relay.nextSequence()).isGreaterThan(first);
+    }
+}
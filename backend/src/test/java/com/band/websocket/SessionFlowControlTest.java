@@ -0,0 +1,92 @@
+package com.band.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionFlowControlTest {
+
+    private final SessionFlowControl flowControl = new SessionFlowControl(new SimpleMeterRegistry(), 2, 1);
+    private final ChannelInterceptor outbound = flowControl.outboundInterceptor();
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private StompBroadcaster broadcaster;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void connect() throws Exception {
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        when(messagingTemplate.getMessageConverter()).thenReturn(new MappingJackson2MessageConverter());
+        broadcaster = new StompBroadcaster(messagingTemplate, mock(BroadcastRelay.class), List.of());
+
+        WebSocketSession raw = mock(WebSocketSession.class);
+        when(raw.getId()).thenReturn("s1");
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        flowControl.decorate(handler).afterConnectionEstablished(raw);
+        ArgumentCaptor<WebSocketSession> counting = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(counting.capture());
+        session = counting.getValue();
+    }
+
+    @Test
+    void abandonedSendsDoNotCountAsBacklog() {
+        for (int i = 0; i < 2; i++) {
+            Message<?> message = event();
+            assertThat(outbound.preSend(message, channel)).isNotNull();
+            // Dropped further down the chain: it never reaches the socket
+            outbound.afterSendCompletion(message, channel, false, null);
+        }
+
+        assertThat(outbound.preSend(event(), channel)).isNotNull();
+    }
+
+    @Test
+    void onlyMessageFramesCountAsWritten() throws Exception {
+        outbound.preSend(event(), channel);
+        outbound.preSend(event(), channel);
+        Message<?> held = event();
+        assertThat(outbound.preSend(held, channel)).isNull();
+
+        // A heartbeat or receipt frame was never counted, so it frees nothing
+        session.sendMessage(new TextMessage("\n"));
+        session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:1\n\n\u0000"));
+        assertThat(outbound.preSend(event(), channel)).isNull();
+
+        session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/equipment\n\n{}\u0000"));
+        ArgumentCaptor<Message<?>> released = ArgumentCaptor.forClass(Message.class);
+        verify(channel, times(2)).send(released.capture());
+        assertThat(released.getAllValues()).allSatisfy(message ->
+            assertThat(message.getHeaders().get("band.conflationReleased")).isEqualTo(Boolean.TRUE));
+    }
+
+    private Message<?> event() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("s1");
+        accessor.setDestination("/topic/equipment");
+        accessor.setHeader(StompBroadcaster.PAYLOAD_HEADER, broadcaster.encode(Map.of("status", "CHECKED_OUT"),
+            EventEnvelope.of("EQUIPMENT_UPDATED", "equipment", UUID.randomUUID(), Map.of())));
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
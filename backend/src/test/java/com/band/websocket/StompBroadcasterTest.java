@@ -0,0 +1,73 @@
+package com.band.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StompBroadcasterTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final BroadcastRelay relay = mock(BroadcastRelay.class);
+
+    private StompBroadcaster broadcaster;
+
+    @BeforeEach
+    void broadcaster() {
+        when(messagingTemplate.getMessageConverter()).thenReturn(new MappingJackson2MessageConverter());
+        when(relay.nextSequence()).thenReturn(7L);
+        broadcaster = new StompBroadcaster(messagingTemplate, relay, List.of());
+    }
+
+    @Test
+    void fullMessageIsSerializedWhenEncoded() {
+        Note note = new Note("checked out");
+        Map<String, Object> changes = new HashMap<>(Map.of("status", "CHECKED_OUT"));
+        StompBroadcaster.EncodedPayload payload = broadcaster.encode(note,
+            EventEnvelope.of("EQUIPMENT_CHECKED_OUT", "equipment", UUID.randomUUID(), changes));
+
+        // Later changes to the message or the change map do not reach subscribers or the history
+        note.text = "changed";
+        changes.put("status", "AVAILABLE");
+
+        assertThat(new String(payload.bytes(WireFormat.FULL), StandardCharsets.UTF_8)).isEqualTo("{\"text\":\"checked out\"}");
+        assertThat(payload.getEnvelope().changes()).containsEntry("status", "CHECKED_OUT");
+        assertThat(payload.getEnvelope().seq()).isEqualTo(7L);
+    }
+
+    @Test
+    void serializationFailsOnTheCallersThread() {
+        assertThatThrownBy(() -> broadcaster.encode(new Unserializable()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Unserializable");
+        verify(relay, never()).publish(any(), any());
+    }
+
+    static class Note {
+        public String text;
+
+        Note(String text) {
+            this.text = text;
+        }
+    }
+
+    static class Unserializable {
+        public String getLazy() {
+            throw new IllegalStateException("could not initialize proxy - no Session");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.band.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latency samples from many receiving threads and summarizes them as
+ * percentiles. Samples are kept exactly; a run at a few thousand events per
+ * second for a few minutes fits comfortably in memory.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1 << 16];
+    private int count;
+    private volatile boolean recording;
+
+    void start() {
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    void record(long nanos) {
+        if (!recording || nanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            samples[count++] = nanos;
+        }
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(count,
+            millis(percentile(sorted, 50)),
+            millis(percentile(sorted, 90)),
+            millis(percentile(sorted, 95)),
+            millis(percentile(sorted, 99)),
+            millis(count > 0 ? sorted[count - 1] : 0));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** Latencies in milliseconds. */
+    record Summary(long samples, double p50, double p90, double p95, double p99, double max) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.band.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Command-line options, given as {@code --name=value}.
+ */
+public record LoadTestOptions(
+        URI baseUrl,
+        String email,
+        String password,
+        UUID studentId,
+        int sessions,
+        double checkoutsPerSecond,
+        Duration warmup,
+        Duration duration,
+        List<String> topics,
+        Path output,
+        Path baseline,
+        boolean saveBaseline,
+        double tolerancePercent) {
+
+    private static final List<String> DEFAULT_TOPICS = List.of(
+        "/topic/equipment/updates",
+        "/topic/director/assignments",
+        "/topic/equipment-manager/assignments");
+
+    static final String USAGE = """
+        Usage: java -jar band-loadtest.jar --student-id=<uuid> [options]
+
+          --base-url=http://localhost:8080   backend to load (STOMP endpoint is <base-url>/ws)
+          --email=director@band.app          user the sessions authenticate as
+          --password=password
+          --student-id=<uuid>                student the simulated checkouts are made for (required)
+          --sessions=100                     concurrent STOMP sessions
+          --rate=5                           checkouts per second
+          --warmup=10s                       excluded from the results
+          --duration=60s                     measured period
+          --topics=a,b,c                     topics every session subscribes to
+          --out=loadtest-results/latest.json
+          --baseline=loadtest-results/baseline.json
+          --save-baseline                    store this run as the new baseline
+          --tolerance=10                     allowed regression against the baseline, in percent
+        """;
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        String studentId = values.get("student-id");
+        if (studentId == null) {
+            throw new IllegalArgumentException("--student-id is required");
+        }
+        LoadTestOptions options = new LoadTestOptions(
+            URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+            values.getOrDefault("email", "director@band.app"),
+            values.getOrDefault("password", "password"),
+            UUID.fromString(studentId),
+            Integer.parseInt(values.getOrDefault("sessions", "100")),
+            Double.parseDouble(values.getOrDefault("rate", "5")),
+            duration(values.getOrDefault("warmup", "10s")),
+            duration(values.getOrDefault("duration", "60s")),
+            values.containsKey("topics") ? List.of(values.get("topics").split(",")) : DEFAULT_TOPICS,
+            Path.of(values.getOrDefault("out", "loadtest-results/latest.json")),
+            Path.of(values.getOrDefault("baseline", "loadtest-results/baseline.json")),
+            Boolean.parseBoolean(values.getOrDefault("save-baseline", "false")),
+            Double.parseDouble(values.getOrDefault("tolerance", "10")));
+        if (options.sessions() < 1 || options.checkoutsPerSecond() <= 0) {
+            throw new IllegalArgumentException("--sessions and --rate must be positive");
+        }
+        return options;
+    }
+
+    // Accepts 90s, 5m or plain seconds
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    public URI stompUrl() {
+        return baseUrl.resolve("/ws");
+    }
+}
@@ -0,0 +1,105 @@
+package com.band.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of one run, stored as JSON so later runs can be compared against it.
+ *
+ * <p>{@code endToEnd} is from sending a checkout to each subscriber receiving
+ * the broadcast, measured on the load tool's clock. {@code publishToReceive} is
+ * from the server stamping the event to each subscriber receiving it, so it
+ * excludes the checkout transaction but is only meaningful when the tool and
+ * the server share a clock.
+ */
+public record LoadTestReport(
+        Instant startedAt,
+        String target,
+        int sessions,
+        double checkoutsPerSecond,
+        long durationSeconds,
+        long checkoutsSent,
+        long checkoutsSkipped,
+        long errors,
+        long deliveries,
+        long expectedDeliveries,
+        LatencyRecorder.Summary endToEnd,
+        LatencyRecorder.Summary publishToReceive,
+        ServerMetricsSampler.Summary server) {
+
+    static LoadTestReport read(Path path, ObjectMapper mapper) throws IOException {
+        return mapper.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    void write(Path path, ObjectMapper mapper) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+
+    double deliveryRatio() {
+        return expectedDeliveries == 0 ? 1 : deliveries / (double) expectedDeliveries;
+    }
+
+    /**
+     * Regressions against a baseline run, as readable lines; empty if every
+     * compared figure is within {@code tolerancePercent} of the baseline.
+     */
+    List<String> regressionsAgainst(LoadTestReport baseline, double tolerancePercent) {
+        List<String> regressions = new ArrayList<>();
+        double limit = 1 + tolerancePercent / 100;
+        higherIsWorse(regressions, "end-to-end p95 ms", endToEnd.p95(), baseline.endToEnd.p95(), limit);
+        higherIsWorse(regressions, "end-to-end p99 ms", endToEnd.p99(), baseline.endToEnd.p99(), limit);
+        higherIsWorse(regressions, "publish-to-receive p95 ms", publishToReceive.p95(), baseline.publishToReceive.p95(), limit);
+        higherIsWorse(regressions, "publish-to-receive p99 ms", publishToReceive.p99(), baseline.publishToReceive.p99(), limit);
+        if (server.cpuAvgPercent() != null && baseline.server.cpuAvgPercent() != null) {
+            higherIsWorse(regressions, "server CPU avg %", server.cpuAvgPercent(), baseline.server.cpuAvgPercent(), limit);
+            higherIsWorse(regressions, "server heap max MiB", server.heapMaxMb(), baseline.server.heapMaxMb(), limit);
+        }
+        if (deliveryRatio() < baseline.deliveryRatio() / limit) {
+            regressions.add(String.format(Locale.ROOT, "delivery ratio %.3f vs baseline %.3f",
+                deliveryRatio(), baseline.deliveryRatio()));
+        }
+        return regressions;
+    }
+
+    private static void higherIsWorse(List<String> regressions, String name, double current, double baseline, double limit) {
+        if (baseline > 0 && current > baseline * limit) {
+            regressions.add(String.format(Locale.ROOT, "%s %.2f vs baseline %.2f (+%.0f%%)",
+                name, current, baseline, (current / baseline - 1) * 100));
+        }
+    }
+
+    String describe() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%d sessions, %.1f checkouts/s for %ds against %s%n",
+            sessions, checkoutsPerSecond, durationSeconds, target));
+        out.append(String.format(Locale.ROOT, "checkouts sent %d, skipped (no free equipment) %d, errors %d%n",
+            checkoutsSent, checkoutsSkipped, errors));
+        out.append(String.format(Locale.ROOT, "deliveries %d of %d expected (%.1f%%)%n",
+            deliveries, expectedDeliveries, deliveryRatio() * 100));
+        out.append(line("end-to-end", endToEnd));
+        out.append(line("publish-to-receive", publishToReceive));
+        if (server.samples() > 0) {
+            out.append(String.format(Locale.ROOT, "server CPU avg %.1f%% max %.1f%%, heap avg %.0f MiB max %.0f MiB%n",
+                server.cpuAvgPercent(), server.cpuMaxPercent(), server.heapAvgMb(), server.heapMaxMb()));
+        } else {
+            out.append("server CPU/heap not sampled\n");
+        }
+        return out.toString();
+    }
+
+    private static String line(String name, LatencyRecorder.Summary summary) {
+        return String.format(Locale.ROOT, "%-19s n=%d p50 %.1f  p90 %.1f  p95 %.1f  p99 %.1f  max %.1f ms%n",
+            name, summary.samples(), summary.p50(), summary.p90(), summary.p95(), summary.p99(), summary.max());
+    }
+}
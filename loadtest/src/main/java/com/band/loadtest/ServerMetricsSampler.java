@@ -0,0 +1,98 @@
+package com.band.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the backend's actuator for process CPU and heap use while the load runs.
+ * The target must expose the {@code metrics} endpoint, e.g. by running it with
+ * the {@code loadtest} profile.
+ */
+final class ServerMetricsSampler {
+
+    private static final String CPU = "/actuator/metrics/process.cpu.usage";
+    private static final String HEAP = "/actuator/metrics/jvm.memory.used?tag=area:heap";
+
+    private final URI baseUrl;
+    private final String token;
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("metrics-sampler").daemon().factory());
+
+    private double cpuSum;
+    private double cpuMax;
+    private double heapSum;
+    private double heapMax;
+    private int samples;
+    private volatile boolean unavailable;
+
+    ServerMetricsSampler(URI baseUrl, String token, HttpClient http, ObjectMapper mapper) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.http = http;
+        this.mapper = mapper;
+    }
+
+    void start(Duration interval) {
+        scheduler.scheduleAtFixedRate(this::sample, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    Summary stop() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            if (samples == 0) {
+                return new Summary(0, null, null, null, null);
+            }
+            return new Summary(samples, cpuSum / samples * 100, cpuMax * 100,
+                heapSum / samples / (1 << 20), heapMax / (1 << 20));
+        }
+    }
+
+    private void sample() {
+        if (unavailable) {
+            return;
+        }
+        try {
+            double cpu = read(CPU);
+            double heap = read(HEAP);
+            synchronized (this) {
+                cpuSum += cpu;
+                cpuMax = Math.max(cpuMax, cpu);
+                heapSum += heap;
+                heapMax = Math.max(heapMax, heap);
+                samples++;
+            }
+        } catch (Exception e) {
+            unavailable = true;
+            System.err.println("Server metrics unavailable (" + e.getMessage() + "); is the metrics endpoint exposed?");
+        }
+    }
+
+    private double read(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+            .header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofSeconds(5))
+            .GET()
+            .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + " from " + path);
+        }
+        JsonNode measurements = mapper.readTree(response.body()).path("measurements");
+        return measurements.isEmpty() ? 0 : measurements.get(0).path("value").asDouble();
+    }
+
+    /** CPU in percent of the whole machine, heap in MiB; null when not sampled. */
+    record Summary(int samples, Double cpuAvgPercent, Double cpuMaxPercent, Double heapAvgMb, Double heapMaxMb) {
+    }
+}
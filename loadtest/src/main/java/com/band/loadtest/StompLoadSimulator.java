@@ -0,0 +1,316 @@
+package com.band.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens many STOMP sessions against a running backend, subscribes them to role
+ * topics and drives checkouts through one of them at a fixed rate, measuring
+ * how long each broadcast takes to reach every subscriber.
+ *
+ * <p>Each checked-out item is returned in its checkout condition as soon as the
+ * checkout is confirmed, which needs no approval and puts it back in the pool,
+ * so a run only needs a modest number of available items. Results are written
+ * as JSON and compared with a stored baseline; the exit code is 2 if any figure
+ * regressed beyond the tolerance.
+ */
+public final class StompLoadSimulator {
+
+    private static final String CHECKED_OUT = "EQUIPMENT_CHECKED_OUT";
+    private static final String RETURNED = "EQUIPMENT_RETURNED";
+
+    private final LoadTestOptions options;
+    private final ObjectMapper mapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    private final BlockingQueue<String> freeEquipment = new LinkedBlockingQueue<>();
+    private final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+    private final LatencyRecorder endToEnd = new LatencyRecorder();
+    private final LatencyRecorder publishToReceive = new LatencyRecorder();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private volatile boolean measuring;
+    // The first session opened; it sends every checkout and return
+    private StompSession driver;
+
+    private StompLoadSimulator(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+        System.exit(new StompLoadSimulator(options).run());
+    }
+
+    private int run() throws Exception {
+        String token = login();
+        loadAvailableEquipment(token);
+        System.out.printf("%d available items in the checkout pool%n", freeEquipment.size());
+
+        WebSocketStompClient client = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new ByteArrayMessageConverter());
+        client.setInboundMessageSizeLimit(1 << 20);
+
+        WebSocketHttpHeaders handshake = new WebSocketHttpHeaders();
+        handshake.setBearerAuth(token);
+
+        List<StompSession> sessions = new ArrayList<>(options.sessions());
+        for (int i = 0; i < options.sessions(); i++) {
+            StompSession session = client.connectAsync(options.stompUrl().toString(), handshake,
+                    new StompSessionHandlerAdapter() {
+                        @Override
+                        public void handleTransportError(StompSession s, Throwable exception) {
+                            errors.incrementAndGet();
+                        }
+                    })
+                .get(30, TimeUnit.SECONDS);
+            for (String topic : options.topics()) {
+                session.subscribe(topic, new BroadcastHandler(i == 0));
+            }
+            sessions.add(session);
+        }
+        driver = sessions.get(0);
+        driver.subscribe("/user/queue/errors", new ErrorHandler());
+        System.out.printf("%d sessions connected to %s%n", sessions.size(), options.stompUrl());
+
+        ServerMetricsSampler sampler = new ServerMetricsSampler(options.baseUrl(), token, http, mapper);
+        ScheduledExecutorService checkouts = Executors.newSingleThreadScheduledExecutor();
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.checkoutsPerSecond());
+        checkouts.scheduleAtFixedRate(this::checkout, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        Instant startedAt = Instant.now();
+        Thread.sleep(options.warmup().toMillis());
+        long sentBefore = sent.get();
+        measuring = true;
+        endToEnd.start();
+        publishToReceive.start();
+        sampler.start(Duration.ofSeconds(1));
+
+        Thread.sleep(options.duration().toMillis());
+
+        checkouts.shutdownNow();
+        long measuredSends = sent.get() - sentBefore;
+        // Let in-flight broadcasts arrive before closing the window
+        Thread.sleep(2000);
+        measuring = false;
+        endToEnd.stop();
+        publishToReceive.stop();
+        ServerMetricsSampler.Summary server = sampler.stop();
+        sessions.forEach(StompSession::disconnect);
+        client.stop();
+
+        LoadTestReport report = new LoadTestReport(
+            startedAt, options.baseUrl().toString(), options.sessions(), options.checkoutsPerSecond(),
+            options.duration().toSeconds(), measuredSends, skipped.get(), errors.get(), deliveries.get(),
+            measuredSends * options.sessions() * options.topics().size(),
+            endToEnd.summarize(), publishToReceive.summarize(), server);
+        System.out.print(report.describe());
+        report.write(options.output(), mapper);
+        System.out.println("Results written to " + options.output());
+
+        if (options.saveBaseline()) {
+            Files.createDirectories(options.baseline().toAbsolutePath().getParent());
+            Files.copy(options.output(), options.baseline(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Saved as baseline " + options.baseline());
+            return 0;
+        }
+        if (!Files.exists(options.baseline())) {
+            System.out.println("No baseline at " + options.baseline() + "; run with --save-baseline to create one");
+            return 0;
+        }
+        List<String> regressions = report.regressionsAgainst(LoadTestReport.read(options.baseline(), mapper),
+            options.tolerancePercent());
+        if (regressions.isEmpty()) {
+            System.out.printf("Within %.0f%% of baseline %s%n", options.tolerancePercent(), options.baseline());
+            return 0;
+        }
+        System.out.println("Regressions against " + options.baseline() + ":");
+        regressions.forEach(line -> System.out.println("  " + line));
+        return 2;
+    }
+
+    private String login() throws Exception {
+        String body = mapper.writeValueAsString(Map.of("email", options.email(), "password", options.password()));
+        HttpRequest request = HttpRequest.newBuilder(options.baseUrl().resolve("/api/v1/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with HTTP " + response.statusCode());
+        }
+        return mapper.readTree(response.body()).path("token").asText();
+    }
+
+    private void loadAvailableEquipment(String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(options.baseUrl().resolve("/api/equipment/available"))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Listing available equipment failed with HTTP " + response.statusCode());
+        }
+        for (JsonNode equipment : mapper.readTree(response.body())) {
+            freeEquipment.add(equipment.path("qrCode").asText());
+        }
+        if (freeEquipment.isEmpty()) {
+            throw new IllegalStateException("No available equipment to check out");
+        }
+    }
+
+    private void checkout() {
+        String qrCode = freeEquipment.poll();
+        if (qrCode == null) {
+            if (measuring) {
+                skipped.incrementAndGet();
+            }
+            return;
+        }
+        sentAt.put(qrCode, System.nanoTime());
+        driver.send("/app/assignment/checkout", json(Map.of(
+            "qrCode", qrCode,
+            "studentId", options.studentId(),
+            "expectedReturnDate", Instant.now().plus(1, ChronoUnit.DAYS),
+            "purpose", "load test")));
+        sent.incrementAndGet();
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class BroadcastHandler implements StompFrameHandler {
+        private final boolean driving;
+
+        BroadcastHandler(boolean driving) {
+            this.driving = driving;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            long receivedAt = System.nanoTime();
+            long receivedAtMillis = System.currentTimeMillis();
+            JsonNode message;
+            try {
+                message = mapper.readTree((byte[]) payload);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                return;
+            }
+            String type = message.path("type").asText();
+            JsonNode assignment = message.path("assignment");
+            String qrCode = assignment.path("equipment").path("qrCode").asText(null);
+            if (CHECKED_OUT.equals(type) && qrCode != null) {
+                if (measuring) {
+                    deliveries.incrementAndGet();
+                }
+                Long start = sentAt.get(qrCode);
+                if (start != null) {
+                    endToEnd.record(receivedAt - start);
+                }
+                Instant published = parseInstant(message.path("timestamp"));
+                if (published != null) {
+                    publishToReceive.record(TimeUnit.MILLISECONDS.toNanos(receivedAtMillis - published.toEpochMilli()));
+                }
+                // One subscription of the driving session returns the item straight away
+                if (driving && headers.getDestination() != null
+                        && headers.getDestination().equals(options.topics().get(0))) {
+                    returnItem(assignment);
+                }
+            } else if (RETURNED.equals(type) && qrCode != null && driving
+                    && headers.getDestination() != null && headers.getDestination().equals(options.topics().get(0))
+                    && "AVAILABLE".equals(assignment.path("equipment").path("status").asText())) {
+                freeEquipment.offer(qrCode);
+            }
+        }
+
+        private void returnItem(JsonNode assignment) {
+            driver.send("/app/assignment/return", json(Map.of(
+                "assignmentId", assignment.path("id").asText(),
+                "returnCondition", assignment.path("checkoutCondition").asText("GOOD"),
+                "returnedById", options.studentId())));
+        }
+
+        private Instant parseInstant(JsonNode node) {
+            if (node.isNumber()) {
+                // Jackson writes Instants as fractional epoch seconds by default
+                return Instant.ofEpochMilli((long) (node.asDouble() * 1000));
+            }
+            if (node.isTextual()) {
+                return Instant.parse(node.asText());
+            }
+            return null;
+        }
+    }
+
+    private final class ErrorHandler implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            errors.incrementAndGet();
+            if (errors.get() <= 10) {
+                System.err.println("Server error: " + new String((byte[]) payload, StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.band.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares random (v4) and time-ordered (v7) UUID primary keys: inserts the
+ * same number of rows into two otherwise identical tables and reports insert
+ * throughput, table and primary-key index size, and the WAL written.
+ *
+ * <p>Keys are generated by the database ({@code gen_random_uuid()} and the
+ * {@code uuid_generate_v7()} function from migration V6), so both runs pay the
+ * same generation cost and the difference is where each key lands in the
+ * index. Run it against a database the backend has migrated.
+ */
+public final class UuidKeyBenchmark {
+
+    static final String USAGE = """
+        Usage: java -Dloader.main=com.band.loadtest.UuidKeyBenchmark -jar band-loadtest.jar [options]
+
+          --jdbc-url=jdbc:postgresql://localhost:5432/banddb
+          --user=band
+          --password=bandpass
+          --rows=1000000                     rows inserted per key version
+          --batch=1000                       rows per JDBC batch and commit
+          --keep                             leave the benchmark tables in place
+        """;
+
+    private record Result(String version, long rows, long nanos, long tableBytes, long indexBytes, long walBytes) {
+        double rowsPerSecond() {
+            return rows * 1e9 / nanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        String url = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/banddb");
+        long rows = Long.parseLong(options.getOrDefault("rows", "1000000"));
+        int batch = Integer.parseInt(options.getOrDefault("batch", "1000"));
+        boolean keep = options.containsKey("keep");
+        if (rows < 1 || batch < 1) {
+            System.err.println("--rows and --batch must be positive");
+            System.exit(1);
+        }
+
+        // Rewriting batches into multi-row inserts keeps round trips out of the figures
+        String jdbcUrl = url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+        try (Connection connection = DriverManager.getConnection(jdbcUrl,
+                options.getOrDefault("user", "band"), options.getOrDefault("password", "bandpass"))) {
+            requireV7Function(connection);
+            Result v4 = run(connection, "v4", "gen_random_uuid()", rows, batch, keep);
+            Result v7 = run(connection, "v7", "uuid_generate_v7()", rows, batch, keep);
+            print(v4, v7);
+        }
+    }
+
+    private static Result run(Connection connection, String version, String keyExpression,
+                              long rows, int batch, boolean keep) throws SQLException {
+        String table = "uuid_bench_" + version;
+        connection.setAutoCommit(true);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            ddl.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, created_at TIMESTAMP NOT NULL, payload VARCHAR(100))");
+        }
+        System.out.printf("Inserting %,d rows with %s keys...%n", rows, version);
+
+        long walBefore = walPosition(connection);
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, created_at, payload) VALUES (" + keyExpression + ", ?, ?)")) {
+            for (long i = 1; i <= rows; i++) {
+                insert.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+                insert.setString(2, "row " + i);
+                insert.addBatch();
+                if (i % batch == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        connection.setAutoCommit(true);
+        long walBytes = walPosition(connection) - walBefore;
+
+        Result result;
+        try (Statement stats = connection.createStatement()) {
+            stats.execute("VACUUM ANALYZE " + table);
+            try (ResultSet rs = stats.executeQuery("SELECT pg_relation_size('" + table + "'), pg_relation_size('" + table + "_pkey')")) {
+                rs.next();
+                result = new Result(version, rows, nanos, rs.getLong(1), rs.getLong(2), walBytes);
+            }
+            if (!keep) {
+                stats.execute("DROP TABLE " + table);
+            }
+        }
+        return result;
+    }
+
+    private static long walPosition(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn() - '0/0'::pg_lsn")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void requireV7Function(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT to_regproc('uuid_generate_v7') IS NOT NULL")) {
+            rs.next();
+            if (!rs.getBoolean(1)) {
+                throw new IllegalStateException("uuid_generate_v7() not found; start the backend once so migration V6 runs");
+            }
+        }
+    }
+
+    private static void print(Result v4, Result v7) {
+        System.out.println();
+        System.out.printf("%-8s %14s %14s %14s %14s%n", "keys", "rows/s", "table MB", "pkey MB", "WAL MB");
+        for (Result r : new Result[] {v4, v7}) {
+            System.out.printf("%-8s %,14.0f %14.1f %14.1f %14.1f%n", r.version(), r.rowsPerSecond(),
+                mb(r.tableBytes()), mb(r.indexBytes()), mb(r.walBytes()));
+        }
+        System.out.printf("%nv7 vs v4: throughput %+.1f%%, pkey size %+.1f%%, WAL %+.1f%%%n",
+            change(v4.rowsPerSecond(), v7.rowsPerSecond()),
+            change(v4.indexBytes(), v7.indexBytes()),
+            change(v4.walBytes(), v7.walBytes()));
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return values;
+    }
+}
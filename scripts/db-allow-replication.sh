@@ -0,0 +1,5 @@
+#!/bin/sh
+# Runs once when the primary's data directory is initialised (docker-entrypoint-initdb.d):
+# lets the replica in docker-compose.replica.yml stream WAL from it.
+set -e
+echo "host replication ${POSTGRES_USER} all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -32,6 +32,8 @@ export default function LoginPage() {
       const res = await fetch(`${process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080/api/v1"}/auth/login`, {
         method: "POST",
         headers: { "Content-Type": "application/json" },
+        // Lets the browser store the HttpOnly refresh cookie
+        credentials: "include",
         body: JSON.stringify({ email: data.email, password: data.password })
       });
       if (!res.ok) throw new Error("Login failed");
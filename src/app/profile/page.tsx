@@ -4,6 +4,7 @@ import { AppShell } from "@/components/shell/AppShell";
 import { useTheme } from "next-themes";
 import { useAppDispatch, useAppSelector } from "@/store";
 import { logout } from "@/store/slices/auth";
+import { logout as endSession } from "@/lib/api/auth";
 import { Icon } from "@iconify/react";
 import { useState, useRef } from "react";
 import { MOCK_STUDENTS } from "@/lib/mockBandData";
@@ -164,8 +165,10 @@ export default function ProfilePage() {
     // In real app, would save to backend
   };
 
-  const handleLogout = () => {
+  const handleLogout = async () => {
     if (confirm('Are you sure you want to sign out?')) {
+      // Revokes the session server-side and clears the refresh cookie
+      await endSession();
       dispatch(logout());
     }
   };
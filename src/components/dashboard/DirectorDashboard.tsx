@@ -4,6 +4,7 @@ import { useEffect, useState } from "react";
 import { useAppSelector } from "@/store";
 import { Icon } from "@iconify/react";
 import { apiGet } from "@/lib/api";
+import { openDashboardStream } from "@/lib/api/stream";
 import { DashboardWidget, MetricWidget, StatusBadge, ProgressBar } from "./DashboardWidget";
 import { BarChart, DonutChart, LineChart, StatCard } from "./SimpleChart";
 
@@ -95,12 +96,11 @@ export function DirectorDashboard() {
   useEffect(() => {
     if (!token) return;
 
-    const fetchDashboardData = async () => {
+    const fetchDashboardData = async (showLoading = true) => {
       try {
-        setLoading(true);
+        if (showLoading) setLoading(true);
         const response = await apiGet<DirectorDashboardData>(
-          "/dashboard/director",
-          token
+          "/dashboard/director"
         );
         setData(response);
         setError(null);
@@ -113,6 +113,20 @@ export function DirectorDashboard() {
     };
 
     fetchDashboardData();
+
+    // Bursts of assignment and maintenance events are folded into one reload
+    let reload: ReturnType<typeof setTimeout> | null = null;
+    const closeStream = openDashboardStream("director", () => {
+      if (reload) return;
+      reload = setTimeout(() => {
+        reload = null;
+        fetchDashboardData(false);
+      }, 1000);
+    });
+    return () => {
+      closeStream();
+      if (reload) clearTimeout(reload);
+    };
   }, [token]);
 
   if (loading) {
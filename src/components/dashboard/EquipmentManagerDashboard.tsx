@@ -109,8 +109,7 @@ export function EquipmentManagerDashboard() {
       try {
         setLoading(true);
         const response = await apiGet<EquipmentManagerDashboardData>(
-          "/dashboard/equipment-manager",
-          token
+          "/dashboard/equipment-manager"
         );
         setData(response);
         setError(null);
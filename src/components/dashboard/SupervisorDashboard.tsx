@@ -105,8 +105,7 @@ export function SupervisorDashboard() {
       try {
         setLoading(true);
         const response = await apiGet<SupervisorDashboardData>(
-          "/dashboard/supervisor",
-          token
+          "/dashboard/supervisor"
         );
         setData(response);
         setError(null);
@@ -1,24 +1,17 @@
+import { fetchWithAuth } from "@/lib/api/auth";
+
 export const API_URL = process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080/api/v1";
 
-export async function apiGet<T>(path: string, token?: string): Promise<T> {
-  const res = await fetch(`${API_URL}${path}`, {
-    headers: {
-      "Content-Type": "application/json",
-      ...(token ? { Authorization: `Bearer ${token}` } : {}),
-    },
-    cache: "no-store",
-  });
+// Both send the current access token and refresh it once on 401
+export async function apiGet<T>(path: string): Promise<T> {
+  const res = await fetchWithAuth(path, { cache: "no-store" });
   if (!res.ok) throw new Error(`GET ${path} failed: ${res.status}`);
   return res.json();
 }
 
-export async function apiPost<T>(path: string, body: any, token?: string): Promise<T> {
-  const res = await fetch(`${API_URL}${path}`, {
+export async function apiPost<T>(path: string, body: any): Promise<T> {
+  const res = await fetchWithAuth(path, {
     method: "POST",
-    headers: {
-      "Content-Type": "application/json",
-      ...(token ? { Authorization: `Bearer ${token}` } : {}),
-    },
     body: JSON.stringify(body),
   });
   if (!res.ok) throw new Error(`POST ${path} failed: ${res.status}`);
@@ -1,7 +1,17 @@
 import { API_URL } from "@/lib/api";
 
+// The refresh token never reaches page scripts: the backend keeps it in an HttpOnly
+// cookie scoped to /api/v1/auth, so requests there are sent with credentials.
+
 let inMemoryToken: string | null = null;
-let refreshing = false;
+let refreshing: Promise<string | null> | null = null;
+const listeners = new Set<(token: string | null) => void>();
+
+function readTokenCookie() {
+  if (typeof document === "undefined") return null;
+  const match = document.cookie.match(/(?:^|; )token=([^;]+)/);
+  return match ? match[1] : null;
+}
 
 export function setToken(token: string | null) {
   inMemoryToken = token;
@@ -9,35 +19,67 @@ export function setToken(token: string | null) {
   else document.cookie = "token=; Max-Age=0; path=/";
 }
 
+// Survives a reload through the token cookie
 export function getToken() {
+  if (!inMemoryToken) inMemoryToken = readTokenCookie();
   return inMemoryToken;
 }
 
+/** Called with the new access token after a refresh, or null once the session has ended. */
+export function onTokenChange(listener: (token: string | null) => void) {
+  listeners.add(listener);
+  return () => listeners.delete(listener);
+}
+
+function changed(token: string | null) {
+  setToken(token);
+  listeners.forEach((listener) => listener(token));
+}
+
+// Refresh tokens are single use, so concurrent 401s share one refresh call
 export async function refreshToken(): Promise<string | null> {
-  if (refreshing) return inMemoryToken;
-  refreshing = true;
-  try {
-    // Stub: call backend refresh when implemented
-    return inMemoryToken;
-  } finally {
-    refreshing = false;
-  }
+  if (refreshing) return refreshing;
+  refreshing = (async () => {
+    try {
+      const res = await fetch(`${API_URL}/auth/refresh`, {
+        method: "POST",
+        credentials: "include",
+      });
+      if (!res.ok) {
+        changed(null);
+        return null;
+      }
+      const json = await res.json();
+      changed(json.token);
+      return json.token as string;
+    } catch {
+      return null;
+    } finally {
+      refreshing = null;
+    }
+  })();
+  return refreshing;
 }
 
-export async function createFetchClient() {
-  return async function fetchWithAuth(input: string, init: RequestInit = {}) {
-    const token = getToken();
+/** Fetches from the API with the access token, refreshing it once and retrying on 401. */
+export async function fetchWithAuth(input: string, init: RequestInit = {}) {
+  const send = (token: string | null) => {
     const headers = new Headers(init.headers || {});
     if (token) headers.set("Authorization", `Bearer ${token}`);
-    headers.set("Content-Type", "application/json");
-    const res = await fetch(`${API_URL}${input}`, { ...init, headers });
-    if (res.status === 401) {
-      const newToken = await refreshToken();
-      if (newToken) {
-        headers.set("Authorization", `Bearer ${newToken}`);
-        return fetch(`${API_URL}${input}`, { ...init, headers });
-      }
-    }
-    return res;
+    if (init.body !== undefined && !headers.has("Content-Type")) headers.set("Content-Type", "application/json");
+    const credentials = input.startsWith("/auth/") ? "include" : init.credentials;
+    return fetch(`${API_URL}${input}`, { ...init, headers, credentials });
   };
+  const res = await send(getToken());
+  if (res.status !== 401) return res;
+  const newToken = await refreshToken();
+  return newToken ? send(newToken) : res;
+}
+
+/** Ends the session on the server too: the token family is revoked and the refresh cookie cleared. */
+export async function logout() {
+  if (getToken()) {
+    await fetchWithAuth("/auth/logout", { method: "POST" }).catch(() => undefined);
+  }
+  setToken(null);
 }
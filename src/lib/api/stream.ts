@@ -0,0 +1,99 @@
+import { API_URL } from "@/lib/api";
+import { fetchWithAuth } from "@/lib/api/auth";
+
+// Streams live beside the versioned API: /api/v1 -> /api/stream
+const STREAM_URL = `${API_URL.replace(/\/v1\/?$/, "")}/stream`;
+const REOPEN_DELAY_MS = 5000;
+
+// Named after the broadcast's envelope type; broadcasts without one arrive as "message"
+const EVENT_TYPES = [
+  "message",
+  "resync",
+  "STATUS_UPDATED",
+  "EQUIPMENT_CHECKED_OUT",
+  "EQUIPMENT_RETURNED",
+  "APPROVAL_NEEDED",
+  "MAINTENANCE_SCHEDULED",
+];
+
+export type DashboardStreamRole = "director" | "equipment-manager" | "supervisor" | "equipment";
+
+export type DashboardStreamHandler = (type: string, data: any) => void;
+
+async function fetchStreamToken(): Promise<string> {
+  const res = await fetchWithAuth("/auth/stream-token", { method: "POST" });
+  if (!res.ok) throw new Error(`POST /auth/stream-token failed: ${res.status}`);
+  const json = await res.json();
+  return json.token as string;
+}
+
+/**
+ * Opens a role's dashboard event stream and returns a function that closes it.
+ *
+ * EventSource cannot send an Authorization header, so every open trades the
+ * current access token for a short-lived stream token passed in the URL. The
+ * browser's own reconnect reuses that URL; once the token has expired it fails,
+ * and the stream is reopened here with a new token, resuming after the last
+ * event seen.
+ * A "resync" event means the missed events are gone: reload, then carry on.
+ */
+export function openDashboardStream(
+  role: DashboardStreamRole,
+  onEvent: DashboardStreamHandler
+): () => void {
+  let source: EventSource | null = null;
+  let lastEventId: string | null = null;
+  let reopenTimer: ReturnType<typeof setTimeout> | null = null;
+  let closed = false;
+
+  const scheduleReopen = () => {
+    if (closed || reopenTimer) return;
+    reopenTimer = setTimeout(() => {
+      reopenTimer = null;
+      open();
+    }, REOPEN_DELAY_MS);
+  };
+
+  const handle = (event: MessageEvent) => {
+    if (event.lastEventId) lastEventId = event.lastEventId;
+    let data: any = null;
+    try {
+      data = JSON.parse(event.data);
+    } catch {
+      data = event.data;
+    }
+    if (event.type === "resync" && data?.latestSeq) lastEventId = String(data.latestSeq);
+    onEvent(event.type, data);
+  };
+
+  const open = async () => {
+    let token: string;
+    try {
+      token = await fetchStreamToken();
+    } catch {
+      scheduleReopen();
+      return;
+    }
+    if (closed) return;
+    const params = new URLSearchParams({ access_token: token });
+    if (lastEventId) params.set("lastEventId", lastEventId);
+    const next = new EventSource(`${STREAM_URL}/dashboard/${role}?${params}`);
+    EVENT_TYPES.forEach((type) => next.addEventListener(type, handle as EventListener));
+    next.onerror = () => {
+      // CONNECTING means the browser is retrying on its own; CLOSED means it gave up
+      if (next.readyState === EventSource.CLOSED) {
+        next.close();
+        scheduleReopen();
+      }
+    };
+    source = next;
+  };
+
+  open();
+
+  return () => {
+    closed = true;
+    if (reopenTimer) clearTimeout(reopenTimer);
+    source?.close();
+  };
+}
@@ -183,6 +183,19 @@ class WebSocketService {
     await this.send('/app/equipment/subscribe', { action: 'subscribe' });
   }
 
+  // Category or band-section shard of the equipment topic, optionally narrowed
+  // server-side with a filter such as "status=AVAILABLE"
+  async subscribeToEquipmentShard(
+    shard: { category: string } | { section: string },
+    handler: MessageHandler<EquipmentUpdateMessage>,
+    filter?: string
+  ): Promise<void> {
+    const destination = 'category' in shard
+      ? `/topic/equipment/category/${shard.category.toUpperCase()}`
+      : `/topic/equipment/section/${shard.section.trim().toLowerCase().replace(/[^a-z0-9]+/g, '-')}`;
+    await this.subscribe(destination, handler, filter ? { filter } : undefined);
+  }
+
   async updateEquipmentStatus(equipmentId: string, newStatus: string): Promise<void> {
     await this.send(`/app/equipment/${equipmentId}/status`, {
       equipmentId,
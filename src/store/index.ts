@@ -1,5 +1,6 @@
 import { configureStore } from "@reduxjs/toolkit";
-import authReducer from "@/store/slices/auth";
+import authReducer, { logout, tokenRefreshed } from "@/store/slices/auth";
+import { onTokenChange } from "@/lib/api/auth";
 import tasksReducer from "@/store/slices/tasks";
 import queuesReducer from "@/store/slices/queues";
 import notificationsReducer from "@/store/slices/notifications";
@@ -14,6 +15,9 @@ export const store = configureStore({
   },
 });
 
+// Keeps the stored token in step with refreshes made by the API client
+onTokenChange((token) => store.dispatch(token ? tokenRefreshed(token) : logout()));
+
 export type RootState = ReturnType<typeof store.getState>;
 export type AppDispatch = typeof store.dispatch;
 export const useAppDispatch: () => AppDispatch = useDispatch;
@@ -2,9 +2,9 @@ import { createSlice, PayloadAction } from "@reduxjs/toolkit";
 
 export type UserRole = "Admin" | "Supervisor" | "Operator" | "Student" | "Band Director" | "Equipment Manager";
 
+// The refresh token is an HttpOnly cookie the backend manages; only the access token lives here
 interface AuthState {
   token: string | null;
-  refreshToken: string | null;
   user: {
     id: string;
     name: string;
@@ -36,7 +36,6 @@ const getInitialUser = () => {
 
 const initialState: AuthState = {
   token: getInitialToken(),
-  refreshToken: null,
   user: getInitialUser(),
 };
 
@@ -46,10 +45,9 @@ const authSlice = createSlice({
   reducers: {
     loginSuccess: (
       state,
-      action: PayloadAction<{ token: string; refreshToken?: string; user: NonNullable<AuthState["user"]> }>
+      action: PayloadAction<{ token: string; user: NonNullable<AuthState["user"]> }>
     ) => {
       state.token = action.payload.token;
-      state.refreshToken = action.payload.refreshToken ?? null;
       state.user = action.payload.user;
       
       // Persist user data to localStorage
@@ -57,9 +55,11 @@ const authSlice = createSlice({
         localStorage.setItem('user', JSON.stringify(action.payload.user));
       }
     },
+    tokenRefreshed: (state, action: PayloadAction<string>) => {
+      state.token = action.payload;
+    },
     logout: (state) => {
       state.token = null;
-      state.refreshToken = null;
       state.user = null;
       
       // Clear persisted data
@@ -71,5 +71,5 @@ const authSlice = createSlice({
   },
 });
 
-export const { loginSuccess, logout } = authSlice.actions;
+export const { loginSuccess, tokenRefreshed, logout } = authSlice.actions;
 export default authSlice.reducer;